@@ -0,0 +1,78 @@
+package com.glovo.delivery.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Runs {@link HotPathAllocationBenchmark} with the GC profiler and exits non-zero when a
+ * benchmark allocates more bytes per operation than its budget. Bound to {@code verify}
+ * in the benchmark profile:
+ * <pre>
+ * ./mvnw -Pbenchmark -DskipTests verify
+ * </pre>
+ */
+public final class AllocationGate {
+
+    private static final String NORM = "gc.alloc.rate.norm";
+
+    /**
+     * Bytes per operation. The scan and match is allocation-free; dispatch plus completion
+     * publishes three immutable {@code DispatchEvent}s (assigned, completed, courier freed)
+     * of 48 bytes each, which stream and audit readers keep references to.
+     */
+    private static final Map<String, Double> BUDGETS = new LinkedHashMap<>();
+
+    static {
+        BUDGETS.put("scanAndSelect", 1.0);
+        BUDGETS.put("dispatchAndComplete", 160.0);
+    }
+
+    private AllocationGate() {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(HotPathAllocationBenchmark.class.getName())
+                .addProfiler(GCProfiler.class)
+                .forks(1)
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(3)
+                .measurementTime(TimeValue.seconds(1))
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        int failures = 0;
+        for (RunResult run : results) {
+            String benchmark = run.getParams().getBenchmark();
+            String method = benchmark.substring(benchmark.lastIndexOf('.') + 1);
+            Double budget = BUDGETS.get(method);
+            Result<?> norm = run.getSecondaryResults().get(NORM);
+            if (budget == null || norm == null) {
+                System.err.println("No allocation budget or " + NORM + " result for " + benchmark);
+                failures++;
+                continue;
+            }
+            double bytes = norm.getScore();
+            boolean over = bytes > budget;
+            System.out.printf("%-22s %10.2f B/op (budget %.0f) %s%n", method, bytes, budget, over ? "FAIL" : "ok");
+            if (over) {
+                failures++;
+            }
+        }
+        if (failures > 0) {
+            System.err.println(failures + " benchmark(s) over the allocation budget");
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.glovo.delivery.benchmark;
+
+import ch.qos.logback.classic.Level;
+import com.glovo.delivery.model.Courier;
+import com.glovo.delivery.model.Order;
+import com.glovo.delivery.model.Point;
+import com.glovo.delivery.model.enums.CourierType;
+import com.glovo.delivery.repository.CourierRepository;
+import com.glovo.delivery.repository.OrderRepository;
+import com.glovo.delivery.service.DispatchService;
+import com.glovo.delivery.service.LocationCoalescer;
+import com.glovo.delivery.service.event.DispatchEventBuffer;
+import com.glovo.delivery.service.jfr.DispatchFlightRecorder;
+import com.glovo.delivery.service.metrics.DispatchMetrics;
+import com.glovo.delivery.service.routing.DistanceProvider;
+import com.glovo.delivery.service.shadow.ShadowEvaluator;
+import com.glovo.delivery.service.snapshot.FleetSnapshotHolder;
+import com.glovo.delivery.service.strategy.ScoreBasedMatchingStrategy;
+import com.glovo.delivery.service.supply.NearestSupplyCache;
+import com.glovo.delivery.service.trace.DecisionTraceRecorder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.SplittableRandom;
+
+/**
+ * Shared setup for the JMH benchmarks: seeded fleets and orders, and a dispatch service
+ * wired the way Spring wires it, without the container.
+ */
+final class BenchmarkFixtures {
+
+    static final long SEED = 42;
+
+    private static final CourierType[] TYPES = CourierType.values();
+
+    private BenchmarkFixtures() {
+    }
+
+    static List<Courier> fleet(int size, SplittableRandom random) {
+        List<Courier> couriers = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            couriers.add(new Courier(point(random), TYPES[i % TYPES.length]));
+        }
+        return couriers;
+    }
+
+    /**
+     * Order light enough for every courier type, so fleet size equals the eligible count.
+     */
+    static Order order(SplittableRandom random) {
+        return new Order(point(random), point(random), random.nextInt(1, 11), random.nextDouble(0.5, 5.0));
+    }
+
+    static Order[] orders(int count, SplittableRandom random) {
+        Order[] orders = new Order[count];
+        for (int i = 0; i < count; i++) {
+            orders[i] = order(random);
+        }
+        return orders;
+    }
+
+    static Point point(SplittableRandom random) {
+        return new Point(random.nextDouble(0, 100), random.nextDouble(0, 100));
+    }
+
+    static ScoreBasedMatchingStrategy strategy() {
+        return strategy(DistanceProvider.EUCLIDEAN);
+    }
+
+    static ScoreBasedMatchingStrategy strategy(DistanceProvider distanceProvider) {
+        return new ScoreBasedMatchingStrategy(DispatchFlightRecorder.disabled(), DecisionTraceRecorder.disabled(),
+                distanceProvider);
+    }
+
+    /**
+     * Dispatch service with the production defaults for metrics and decision tracing and
+     * location coalescing off (positions do not change during the benchmark).
+     */
+    static DispatchService dispatchService(OrderRepository orderRepository, CourierRepository courierRepository) {
+        FleetSnapshotHolder snapshotHolder = new FleetSnapshotHolder();
+        return new DispatchService(orderRepository, courierRepository, strategy(), new DispatchEventBuffer(4096),
+                new LocationCoalescer(courierRepository, snapshotHolder, false, 0, 0), snapshotHolder,
+                new DispatchMetrics(new SimpleMeterRegistry()), DispatchFlightRecorder.disabled(),
+                new DecisionTraceRecorder(true, 4096, 0.01, 5, 3), NearestSupplyCache.disabled(),
+                ShadowEvaluator.disabled());
+    }
+
+    /**
+     * Console output would dominate the numbers; benchmarks that compare algorithms run
+     * without it.
+     */
+    static void quietLogging() {
+        appLogger().setLevel(Level.WARN);
+    }
+
+    /**
+     * The application log level from the shipped {@code application.properties}, for
+     * benchmarks that describe the hot path as deployed.
+     */
+    static void shippedLogging() {
+        Properties properties = new Properties();
+        try (InputStream in = BenchmarkFixtures.class.getResourceAsStream("/application.properties")) {
+            properties.load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        appLogger().setLevel(Level.toLevel(properties.getProperty("logging.level.com.glovo.delivery"), Level.INFO));
+    }
+
+    private static ch.qos.logback.classic.Logger appLogger() {
+        return (ch.qos.logback.classic.Logger) LoggerFactory.getLogger("com.glovo.delivery");
+    }
+}
@@ -0,0 +1,61 @@
+package com.glovo.delivery.benchmark;
+
+import com.glovo.delivery.model.Courier;
+import com.glovo.delivery.model.enums.CourierStatus;
+import com.glovo.delivery.repository.CourierRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Status scans of {@link CourierRepository} at different map sizes, with half of the
+ * fleet busy.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class CourierRepositoryBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    int size;
+
+    private CourierRepository repository;
+
+    @Setup
+    public void setUp() {
+        repository = new CourierRepository();
+        List<Courier> fleet = BenchmarkFixtures.fleet(size, new SplittableRandom(BenchmarkFixtures.SEED));
+        for (int i = 0; i < fleet.size(); i++) {
+            Courier courier = fleet.get(i);
+            if (i % 2 == 1) {
+                courier.setStatus(CourierStatus.BUSY);
+            }
+            repository.save(courier);
+        }
+    }
+
+    @Benchmark
+    public List<Courier> findFree() {
+        return repository.findFree();
+    }
+
+    @Benchmark
+    public long countByStatus() {
+        return repository.countByStatus(CourierStatus.FREE);
+    }
+}
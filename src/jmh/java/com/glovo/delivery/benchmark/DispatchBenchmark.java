@@ -0,0 +1,103 @@
+package com.glovo.delivery.benchmark;
+
+import com.glovo.delivery.model.Order;
+import com.glovo.delivery.model.enums.OrderStatus;
+import com.glovo.delivery.repository.CourierRepository;
+import com.glovo.delivery.repository.OrderRepository;
+import com.glovo.delivery.service.DispatchService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DispatchService} end to end: save, lock, free-courier scan, match, assign.
+ *
+ * Every benchmark completes the orders it dispatched and drops them from the repository,
+ * so the fleet stays fully free and the order map does not grow between invocations;
+ * completion is part of each measured operation. The single and batch variants dispatch
+ * the same number of orders per invocation and report time per order.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class DispatchBenchmark {
+
+    private static final int BATCH_SIZE = 16;
+
+    @Param({"100", "10000"})
+    int fleetSize;
+
+    private SplittableRandom random;
+    private OrderRepository orderRepository;
+    private DispatchService dispatchService;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.quietLogging();
+        random = new SplittableRandom(BenchmarkFixtures.SEED);
+        orderRepository = new OrderRepository();
+        CourierRepository courierRepository = new CourierRepository();
+        BenchmarkFixtures.fleet(fleetSize, random).forEach(courierRepository::save);
+        dispatchService = BenchmarkFixtures.dispatchService(orderRepository, courierRepository);
+    }
+
+    @Benchmark
+    public Order dispatch() {
+        Order order = BenchmarkFixtures.order(random);
+        dispatchService.dispatch(order);
+        complete(order);
+        return order;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<Order> dispatchSingly() {
+        List<Order> orders = newOrders();
+        for (Order order : orders) {
+            dispatchService.dispatch(order);
+        }
+        orders.forEach(this::complete);
+        return orders;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<Order> dispatchBatch() {
+        List<Order> orders = newOrders();
+        dispatchService.dispatchBatch(orders);
+        orders.forEach(this::complete);
+        return orders;
+    }
+
+    private List<Order> newOrders() {
+        List<Order> orders = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            orders.add(BenchmarkFixtures.order(random));
+        }
+        return orders;
+    }
+
+    private void complete(Order order) {
+        if (order.getStatus() == OrderStatus.ASSIGNED) {
+            dispatchService.completeOrder(order);
+        }
+        orderRepository.deleteById(order.getId());
+    }
+}
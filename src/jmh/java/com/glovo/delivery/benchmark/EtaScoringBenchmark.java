@@ -0,0 +1,77 @@
+package com.glovo.delivery.benchmark;
+
+import com.glovo.delivery.model.Courier;
+import com.glovo.delivery.model.Order;
+import com.glovo.delivery.model.ZoneGrid;
+import com.glovo.delivery.service.eta.SpeedTableHolder;
+import com.glovo.delivery.service.jfr.DispatchFlightRecorder;
+import com.glovo.delivery.service.routing.DistanceProvider;
+import com.glovo.delivery.service.strategy.EtaMatchingStrategy;
+import com.glovo.delivery.service.strategy.ScoreBasedMatchingStrategy;
+import com.glovo.delivery.service.trace.DecisionTraceRecorder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of scoring by ETA against the distance-times-weight formula over the same fleets
+ * and orders. The speed table has congestion in every zone, so no pace is a constant.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class EtaScoringBenchmark {
+
+    private static final int ORDER_COUNT = 1024;
+
+    @Param({"100", "1000", "10000"})
+    int fleetSize;
+
+    private ScoreBasedMatchingStrategy scoreBased;
+    private EtaMatchingStrategy eta;
+    private List<Courier> couriers;
+    private Order[] orders;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.quietLogging();
+        SplittableRandom random = new SplittableRandom(BenchmarkFixtures.SEED);
+        SpeedTableHolder speedTables = new SpeedTableHolder();
+        for (int zone = 0; zone < ZoneGrid.ZONE_COUNT; zone++) {
+            double factor = random.nextDouble(1.0, 3.0);
+            int z = zone;
+            speedTables.update(table -> table.withCongestion(z, factor));
+        }
+        scoreBased = BenchmarkFixtures.strategy();
+        eta = new EtaMatchingStrategy(speedTables, DistanceProvider.EUCLIDEAN,
+                DispatchFlightRecorder.disabled(), DecisionTraceRecorder.disabled());
+        couriers = BenchmarkFixtures.fleet(fleetSize, random);
+        orders = BenchmarkFixtures.orders(ORDER_COUNT, random);
+    }
+
+    @Benchmark
+    public int scoreBased() {
+        return scoreBased.selectBestCourier(orders[next++ & (ORDER_COUNT - 1)], couriers);
+    }
+
+    @Benchmark
+    public int eta() {
+        return eta.selectBestCourier(orders[next++ & (ORDER_COUNT - 1)], couriers);
+    }
+}
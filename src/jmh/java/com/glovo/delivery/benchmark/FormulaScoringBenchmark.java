@@ -0,0 +1,117 @@
+package com.glovo.delivery.benchmark;
+
+import com.glovo.delivery.model.Courier;
+import com.glovo.delivery.model.Order;
+import com.glovo.delivery.service.eta.SpeedTableHolder;
+import com.glovo.delivery.service.jfr.DispatchFlightRecorder;
+import com.glovo.delivery.service.routing.DistanceProvider;
+import com.glovo.delivery.service.strategy.FormulaMatchingStrategy;
+import com.glovo.delivery.service.strategy.ScoreBasedMatchingStrategy;
+import com.glovo.delivery.service.strategy.formula.ScoringFormula;
+import com.glovo.delivery.service.strategy.formula.ScoringFunction;
+import com.glovo.delivery.service.strategy.formula.ScoringProfile;
+import com.glovo.delivery.service.trace.DecisionTraceRecorder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configurable scoring against the hard-coded formula. Matching: the score-based strategy
+ * against the formula strategy with the same formula. Scoring alone: 1024 candidates
+ * scored by hand-written arithmetic, by the compiled formula and by walking the parsed
+ * tree.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class FormulaScoringBenchmark {
+
+    private static final int ORDER_COUNT = 1024;
+    private static final int CANDIDATES = 1024;
+
+    @Param({"1000", "10000"})
+    int fleetSize;
+
+    private ScoreBasedMatchingStrategy scoreBased;
+    private FormulaMatchingStrategy formula;
+    private List<Courier> couriers;
+    private Order[] orders;
+    private int next;
+
+    private ScoringFormula compiled;
+    private final double[] distances = new double[CANDIDATES];
+    private final double[] weights = new double[CANDIDATES];
+    private final double[] priorities = new double[CANDIDATES];
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.quietLogging();
+        SplittableRandom random = new SplittableRandom(BenchmarkFixtures.SEED);
+        scoreBased = BenchmarkFixtures.strategy();
+        formula = new FormulaMatchingStrategy(ScoringProfile.DEFAULT_FORMULA,
+                ScoringProfile.DEFAULT_TIEBREAK_THRESHOLD, "", new SpeedTableHolder(),
+                DistanceProvider.EUCLIDEAN, DispatchFlightRecorder.disabled(), DecisionTraceRecorder.disabled());
+        couriers = BenchmarkFixtures.fleet(fleetSize, random);
+        orders = BenchmarkFixtures.orders(ORDER_COUNT, random);
+
+        compiled = ScoringFormula.compile(ScoringProfile.DEFAULT_FORMULA);
+        for (int i = 0; i < CANDIDATES; i++) {
+            distances[i] = random.nextDouble(0, 140);
+            weights[i] = random.nextDouble(0.7, 1.5);
+            priorities[i] = random.nextInt(1, 11);
+        }
+    }
+
+    @Benchmark
+    public int matchHardCoded() {
+        return scoreBased.selectBestCourier(orders[next++ & (ORDER_COUNT - 1)], couriers);
+    }
+
+    @Benchmark
+    public int matchFormula() {
+        return formula.selectBestCourier(orders[next++ & (ORDER_COUNT - 1)], couriers);
+    }
+
+    @Benchmark
+    public double scoreHandWritten() {
+        double sum = 0;
+        for (int i = 0; i < CANDIDATES; i++) {
+            sum += distances[i] * weights[i] - priorities[i] * 0.5;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double scoreCompiled() {
+        ScoringFunction function = compiled.function();
+        double sum = 0;
+        for (int i = 0; i < CANDIDATES; i++) {
+            sum += function.score(distances[i], weights[i], priorities[i], 0, 0);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double scoreInterpreted() {
+        double sum = 0;
+        for (int i = 0; i < CANDIDATES; i++) {
+            sum += compiled.interpret(distances[i], weights[i], priorities[i], 0, 0);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,89 @@
+package com.glovo.delivery.benchmark;
+
+import com.glovo.delivery.model.Courier;
+import com.glovo.delivery.model.Order;
+import com.glovo.delivery.model.enums.OrderStatus;
+import com.glovo.delivery.repository.CourierRepository;
+import com.glovo.delivery.repository.OrderRepository;
+import com.glovo.delivery.service.DispatchService;
+import com.glovo.delivery.service.strategy.ScoreBasedMatchingStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Steady-state allocation of the dispatch hot path, read from {@code gc.alloc.rate.norm}
+ * and enforced by {@link AllocationGate}.
+ *
+ * Orders come from a fixed pool that is already stored and are reset after completion, so
+ * repository writes replace existing entries and order creation is not part of the
+ * measurement. {@code scanAndSelect} is the free-courier scan plus scoring with a reused
+ * candidate list; {@code dispatchAndComplete} is the full service path, lock, metrics,
+ * decision tracing and event publication included. Logging runs at the level the shipped
+ * {@code application.properties} sets, so the budgets hold for the deployed configuration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class HotPathAllocationBenchmark {
+
+    private static final int ORDER_COUNT = 1024;
+
+    @Param({"1000"})
+    int fleetSize;
+
+    private CourierRepository courierRepository;
+    private ScoreBasedMatchingStrategy strategy;
+    private DispatchService dispatchService;
+    private Order[] orders;
+    private final ArrayList<Courier> candidates = new ArrayList<>();
+    private int next;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.shippedLogging();
+        SplittableRandom random = new SplittableRandom(BenchmarkFixtures.SEED);
+        courierRepository = new CourierRepository();
+        BenchmarkFixtures.fleet(fleetSize, random).forEach(courierRepository::save);
+        OrderRepository orderRepository = new OrderRepository();
+        orders = BenchmarkFixtures.orders(ORDER_COUNT, random);
+        for (Order order : orders) {
+            orderRepository.save(order);
+        }
+        strategy = BenchmarkFixtures.strategy();
+        dispatchService = BenchmarkFixtures.dispatchService(orderRepository, courierRepository);
+    }
+
+    @Benchmark
+    public int scanAndSelect() {
+        Order order = orders[next++ & (ORDER_COUNT - 1)];
+        return strategy.selectBestCourier(order, courierRepository.findFree(candidates));
+    }
+
+    @Benchmark
+    public Order dispatchAndComplete() {
+        Order order = orders[next++ & (ORDER_COUNT - 1)];
+        dispatchService.dispatch(order);
+        if (order.getStatus() == OrderStatus.ASSIGNED) {
+            dispatchService.completeOrder(order);
+        }
+        order.setStatus(OrderStatus.CREATED);
+        order.setAssignedCourierId(null);
+        return order;
+    }
+}
@@ -0,0 +1,59 @@
+package com.glovo.delivery.benchmark;
+
+import com.glovo.delivery.model.Courier;
+import com.glovo.delivery.model.Order;
+import com.glovo.delivery.service.strategy.ScoreBasedMatchingStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ScoreBasedMatchingStrategy#findBestCourier} over free fleets of growing size.
+ * Orders cycle through a fixed set with random pickups, so branch patterns vary.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class MatchingStrategyBenchmark {
+
+    private static final int ORDER_COUNT = 1024;
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    int fleetSize;
+
+    private ScoreBasedMatchingStrategy strategy;
+    private List<Courier> couriers;
+    private Order[] orders;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.quietLogging();
+        SplittableRandom random = new SplittableRandom(BenchmarkFixtures.SEED);
+        strategy = BenchmarkFixtures.strategy();
+        couriers = BenchmarkFixtures.fleet(fleetSize, random);
+        orders = BenchmarkFixtures.orders(ORDER_COUNT, random);
+    }
+
+    @Benchmark
+    public Optional<Courier> findBestCourier() {
+        Order order = orders[next++ & (ORDER_COUNT - 1)];
+        return strategy.findBestCourier(order, couriers);
+    }
+}
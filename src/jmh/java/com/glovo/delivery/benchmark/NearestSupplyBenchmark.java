@@ -0,0 +1,83 @@
+package com.glovo.delivery.benchmark;
+
+import com.glovo.delivery.model.Courier;
+import com.glovo.delivery.model.Order;
+import com.glovo.delivery.model.Point;
+import com.glovo.delivery.repository.CourierRepository;
+import com.glovo.delivery.service.routing.DistanceProvider;
+import com.glovo.delivery.service.strategy.ScoreBasedMatchingStrategy;
+import com.glovo.delivery.service.supply.NearestSupplyCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matching for orders from a few hundred recurring pickups: a full free-courier scan
+ * against {@link NearestSupplyCache} candidates. The fleet does not move, so after the
+ * first lookup per pickup every cached lookup is a hit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class NearestSupplyBenchmark {
+
+    private static final int PICKUP_COUNT = 256;
+    private static final int ORDER_COUNT = 1024;
+
+    @Param({"1000", "10000", "100000"})
+    int fleetSize;
+
+    private CourierRepository courierRepository;
+    private ScoreBasedMatchingStrategy strategy;
+    private NearestSupplyCache cache;
+    private Order[] orders;
+    private final ArrayList<Courier> candidates = new ArrayList<>();
+    private int next;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.quietLogging();
+        SplittableRandom random = new SplittableRandom(BenchmarkFixtures.SEED);
+        courierRepository = new CourierRepository();
+        BenchmarkFixtures.fleet(fleetSize, random).forEach(courierRepository::save);
+        Point[] pickups = new Point[PICKUP_COUNT];
+        for (int i = 0; i < PICKUP_COUNT; i++) {
+            pickups[i] = BenchmarkFixtures.point(random);
+        }
+        orders = new Order[ORDER_COUNT];
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            orders[i] = new Order(pickups[random.nextInt(PICKUP_COUNT)], BenchmarkFixtures.point(random),
+                    random.nextInt(1, 11), random.nextDouble(0.5, 5.0));
+        }
+        strategy = BenchmarkFixtures.strategy();
+        cache = new NearestSupplyCache(courierRepository, DistanceProvider.EUCLIDEAN, true, 1024, 1.0, 16);
+    }
+
+    @Benchmark
+    public int fullScan() {
+        Order order = orders[next++ & (ORDER_COUNT - 1)];
+        return strategy.selectBestCourier(order, courierRepository.findFree(candidates));
+    }
+
+    @Benchmark
+    public int cached() {
+        Order order = orders[next++ & (ORDER_COUNT - 1)];
+        cache.nearestFree(order.getPickupLocation(), candidates);
+        return strategy.selectBestCourier(order, candidates);
+    }
+}
@@ -0,0 +1,48 @@
+package com.glovo.delivery.benchmark;
+
+import com.glovo.delivery.model.Point;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Point#distanceTo}, the inner operation of every scoring loop.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class PointBenchmark {
+
+    private static final int POINT_COUNT = 1024;
+
+    private Point[] points;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(BenchmarkFixtures.SEED);
+        points = new Point[POINT_COUNT];
+        for (int i = 0; i < POINT_COUNT; i++) {
+            points[i] = BenchmarkFixtures.point(random);
+        }
+    }
+
+    @Benchmark
+    public double distanceTo() {
+        int index = next++;
+        return points[index & (POINT_COUNT - 1)].distanceTo(points[(index + 1) & (POINT_COUNT - 1)]);
+    }
+}
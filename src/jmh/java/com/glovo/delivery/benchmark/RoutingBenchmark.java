@@ -0,0 +1,107 @@
+package com.glovo.delivery.benchmark;
+
+import com.glovo.delivery.model.Courier;
+import com.glovo.delivery.model.Order;
+import com.glovo.delivery.model.Point;
+import com.glovo.delivery.service.routing.GridRoutingEngine;
+import com.glovo.delivery.service.routing.RoadGrid;
+import com.glovo.delivery.service.strategy.ScoreBasedMatchingStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Road distances on a 100 x 100 grid with walls and slow districts: a one-off ALT search
+ * between random points, a query answered from a cached distance field, and matching
+ * 1000 couriers against recurring pickups by straight-line and by road distance.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class RoutingBenchmark {
+
+    private static final int QUERY_COUNT = 4096;
+    private static final int PICKUP_COUNT = 128;
+    private static final int ORDER_COUNT = 1024;
+    private static final int FLEET_SIZE = 1000;
+
+    private GridRoutingEngine searchEngine;
+    private GridRoutingEngine cachedEngine;
+    private double[] queries;
+    private Point[] pickups;
+    private Order[] orders;
+    private List<Courier> couriers;
+    private ScoreBasedMatchingStrategy euclideanStrategy;
+    private ScoreBasedMatchingStrategy roadStrategy;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.quietLogging();
+        SplittableRandom random = new SplittableRandom(BenchmarkFixtures.SEED);
+        RoadGrid grid = RoadGrid.parse(100,
+                "30,0,31,70;60,30,61,100;0,85,40,86",
+                "40,40,55,55,3;70,0,100,20,2");
+        searchEngine = new GridRoutingEngine(grid, 8, 0);
+        cachedEngine = new GridRoutingEngine(grid, 8, 256);
+
+        queries = new double[QUERY_COUNT * 4];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = random.nextDouble(0, 100);
+        }
+        pickups = new Point[PICKUP_COUNT];
+        for (int i = 0; i < PICKUP_COUNT; i++) {
+            pickups[i] = BenchmarkFixtures.point(random);
+        }
+        orders = new Order[ORDER_COUNT];
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            orders[i] = new Order(pickups[random.nextInt(PICKUP_COUNT)], BenchmarkFixtures.point(random),
+                    random.nextInt(1, 11), random.nextDouble(0.5, 5.0));
+        }
+        couriers = BenchmarkFixtures.fleet(FLEET_SIZE, random);
+        euclideanStrategy = BenchmarkFixtures.strategy();
+        roadStrategy = BenchmarkFixtures.strategy(cachedEngine);
+        for (Point pickup : pickups) {
+            for (int i = 0; i < 2; i++) {
+                cachedEngine.distance(0, 0, pickup.getX(), pickup.getY());
+            }
+        }
+    }
+
+    @Benchmark
+    public double oneOffSearch() {
+        int i = (next++ & (QUERY_COUNT - 1)) * 4;
+        return searchEngine.distance(queries[i], queries[i + 1], queries[i + 2], queries[i + 3]);
+    }
+
+    @Benchmark
+    public double cachedField() {
+        int i = (next++ & (QUERY_COUNT - 1)) * 4;
+        Point pickup = pickups[i & (PICKUP_COUNT - 1)];
+        return cachedEngine.distance(queries[i], queries[i + 1], pickup.getX(), pickup.getY());
+    }
+
+    @Benchmark
+    public int matchEuclidean() {
+        return euclideanStrategy.selectBestCourier(orders[next++ & (ORDER_COUNT - 1)], couriers);
+    }
+
+    @Benchmark
+    public int matchRoad() {
+        return roadStrategy.selectBestCourier(orders[next++ & (ORDER_COUNT - 1)], couriers);
+    }
+}
@@ -0,0 +1,112 @@
+package com.glovo.delivery.benchmark;
+
+import com.glovo.delivery.model.Courier;
+import com.glovo.delivery.model.Order;
+import com.glovo.delivery.service.shadow.ShadowEvaluator;
+import com.glovo.delivery.service.strategy.CourierMatchingStrategy;
+import com.glovo.delivery.service.strategy.ScoreBasedMatchingStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What a shadow strategy costs the dispatch thread: the live match alone, then followed by
+ * an offer to a disabled evaluator, to one whose queue is full (snapshot dropped) and to
+ * one that keeps up (order and candidates copied and handed over).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class ShadowEvaluationBenchmark {
+
+    private static final int ORDER_COUNT = 1024;
+
+    @Param({"100", "1000"})
+    int fleetSize;
+
+    private ScoreBasedMatchingStrategy live;
+    private ShadowEvaluator disabled;
+    private ShadowEvaluator saturated;
+    private ShadowEvaluator accepting;
+    private final CountDownLatch release = new CountDownLatch(1);
+    private List<Courier> couriers;
+    private Order[] orders;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.quietLogging();
+        SplittableRandom random = new SplittableRandom(BenchmarkFixtures.SEED);
+        live = BenchmarkFixtures.strategy();
+        couriers = BenchmarkFixtures.fleet(fleetSize, random);
+        orders = BenchmarkFixtures.orders(ORDER_COUNT, random);
+
+        disabled = ShadowEvaluator.disabled();
+        CourierMatchingStrategy blocked = (order, candidates) -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Optional.empty();
+        };
+        saturated = new ShadowEvaluator(live, "score-based", blocked, "blocked", 1, 1, 16);
+        // First offer occupies the shadow thread, second fills the queue
+        saturated.offer(orders[0], couriers, 0);
+        saturated.offer(orders[0], couriers, 0);
+        CourierMatchingStrategy instant = (order, candidates) -> Optional.empty();
+        accepting = new ShadowEvaluator(live, "score-based", instant, "instant", 1, 4096, 16);
+    }
+
+    @TearDown
+    public void tearDown() {
+        release.countDown();
+        saturated.stop();
+        accepting.stop();
+    }
+
+    @Benchmark
+    public int liveOnly() {
+        return live.selectBestCourier(orders[next++ & (ORDER_COUNT - 1)], couriers);
+    }
+
+    @Benchmark
+    public int shadowDisabled() {
+        return matchAndOffer(disabled);
+    }
+
+    @Benchmark
+    public int shadowSaturated() {
+        return matchAndOffer(saturated);
+    }
+
+    @Benchmark
+    public int shadowAccepted() {
+        return matchAndOffer(accepting);
+    }
+
+    private int matchAndOffer(ShadowEvaluator shadow) {
+        Order order = orders[next++ & (ORDER_COUNT - 1)];
+        int best = live.selectBestCourier(order, couriers);
+        shadow.offer(order, couriers, best);
+        return best;
+    }
+}
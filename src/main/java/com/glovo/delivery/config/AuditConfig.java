@@ -0,0 +1,33 @@
+package com.glovo.delivery.config;
+
+import com.glovo.delivery.service.audit.AuditSegmentWriter;
+import com.glovo.delivery.service.audit.DispatchAuditLog;
+import com.glovo.delivery.service.event.DispatchEventBuffer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Optional binary audit log of dispatch events. Disabled unless {@code dispatch.audit.enabled=true}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "dispatch.audit.enabled", havingValue = "true")
+public class AuditConfig {
+
+    @Bean
+    public DispatchAuditLog dispatchAuditLog(
+            DispatchEventBuffer eventBuffer,
+            @Value("${dispatch.audit.directory:audit}") String directory,
+            @Value("${dispatch.audit.segment-size-mb:64}") int segmentSizeMb,
+            @Value("${dispatch.audit.force-interval-ms:1000}") long forceIntervalMs) {
+        if (segmentSizeMb < 1 || segmentSizeMb > 1024) {
+            throw new IllegalArgumentException("Audit segment size must be in range [1, 1024] MB. Got: "
+                    + segmentSizeMb);
+        }
+        return new DispatchAuditLog(eventBuffer,
+                new AuditSegmentWriter(Path.of(directory), segmentSizeMb << 20), forceIntervalMs);
+    }
+}
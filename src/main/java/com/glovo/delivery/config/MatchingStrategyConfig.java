@@ -0,0 +1,59 @@
+package com.glovo.delivery.config;
+
+import com.glovo.delivery.service.shadow.ShadowEvaluator;
+import com.glovo.delivery.service.strategy.CourierMatchingStrategy;
+import com.glovo.delivery.service.strategy.EtaMatchingStrategy;
+import com.glovo.delivery.service.strategy.FormulaMatchingStrategy;
+import com.glovo.delivery.service.strategy.ScoreBasedMatchingStrategy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Strategy used by dispatch, chosen by {@code dispatch.strategy}: {@code score-based}
+ * (distance times transport weight, the default), {@code eta} (minutes to pickup) or
+ * {@code formula} (formula from {@code dispatch.scoring.*}, changeable at runtime).
+ *
+ * {@code dispatch.shadow.strategy} names a second strategy, from the same set, that is
+ * evaluated off the dispatch path on every live match for comparison; empty disables it.
+ */
+@Configuration
+public class MatchingStrategyConfig {
+
+    @Bean
+    @Primary
+    public CourierMatchingStrategy matchingStrategy(@Value("${dispatch.strategy:score-based}") String name,
+                                                    ScoreBasedMatchingStrategy scoreBased,
+                                                    EtaMatchingStrategy eta,
+                                                    FormulaMatchingStrategy formula) {
+        return byName(name, scoreBased, eta, formula);
+    }
+
+    @Bean
+    public ShadowEvaluator shadowEvaluator(@Value("${dispatch.strategy:score-based}") String liveName,
+                                           @Value("${dispatch.shadow.strategy:}") String shadowName,
+                                           @Value("${dispatch.shadow.threads:1}") int threads,
+                                           @Value("${dispatch.shadow.queue-capacity:64}") int queueCapacity,
+                                           @Value("${dispatch.shadow.history:1000}") int history,
+                                           ScoreBasedMatchingStrategy scoreBased,
+                                           EtaMatchingStrategy eta,
+                                           FormulaMatchingStrategy formula) {
+        if (shadowName.isBlank()) {
+            return ShadowEvaluator.disabled();
+        }
+        return new ShadowEvaluator(byName(liveName, scoreBased, eta, formula), liveName,
+                byName(shadowName, scoreBased, eta, formula), shadowName, threads, queueCapacity, history);
+    }
+
+    private static CourierMatchingStrategy byName(String name, ScoreBasedMatchingStrategy scoreBased,
+                                                  EtaMatchingStrategy eta, FormulaMatchingStrategy formula) {
+        return switch (name) {
+            case "score-based" -> scoreBased;
+            case "eta" -> eta;
+            case "formula" -> formula;
+            default -> throw new IllegalArgumentException(
+                    "Unknown dispatch strategy '" + name + "'. Expected score-based, eta or formula");
+        };
+    }
+}
@@ -0,0 +1,30 @@
+package com.glovo.delivery.config;
+
+import com.glovo.delivery.service.routing.DistanceProvider;
+import com.glovo.delivery.service.routing.GridRoutingEngine;
+import com.glovo.delivery.service.routing.RoadGrid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Distance used for matching: straight line unless {@code routing.grid.enabled=true},
+ * then shortest paths over a road grid with blocked and slow areas.
+ */
+@Configuration
+public class RoutingConfig {
+
+    @Bean
+    public DistanceProvider distanceProvider(
+            @Value("${routing.grid.enabled:false}") boolean enabled,
+            @Value("${routing.grid.cells:100}") int cells,
+            @Value("${routing.grid.landmarks:8}") int landmarks,
+            @Value("${routing.grid.field-cache-size:256}") int fieldCacheSize,
+            @Value("${routing.grid.blocked:}") String blocked,
+            @Value("${routing.grid.slow:}") String slow) {
+        if (!enabled) {
+            return DistanceProvider.EUCLIDEAN;
+        }
+        return new GridRoutingEngine(RoadGrid.parse(cells, blocked, slow), landmarks, fieldCacheSize);
+    }
+}
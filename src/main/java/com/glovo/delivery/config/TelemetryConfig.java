@@ -0,0 +1,42 @@
+package com.glovo.delivery.config;
+
+import com.glovo.delivery.repository.CourierRepository;
+import com.glovo.delivery.service.LocationCoalescer;
+import com.glovo.delivery.service.telemetry.CourierTelemetryPipeline;
+import com.glovo.delivery.service.telemetry.UdpTelemetryListener;
+import com.glovo.delivery.service.telemetry.UdpTelemetryMeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Optional UDP telemetry ingest for courier location pings. Disabled unless
+ * {@code telemetry.udp.enabled=true}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "telemetry.udp.enabled", havingValue = "true")
+public class TelemetryConfig {
+
+    @Bean
+    public CourierTelemetryPipeline courierTelemetryPipeline(CourierRepository courierRepository,
+                                                             LocationCoalescer locationCoalescer) {
+        return new CourierTelemetryPipeline(courierRepository, locationCoalescer);
+    }
+
+    @Bean
+    public UdpTelemetryListener udpTelemetryListener(
+            CourierTelemetryPipeline pipeline,
+            @Value("${telemetry.udp.host:0.0.0.0}") String host,
+            @Value("${telemetry.udp.port:9090}") int port,
+            @Value("${telemetry.udp.receive-buffer-bytes:4194304}") int receiveBufferBytes) {
+        return new UdpTelemetryListener(new InetSocketAddress(host, port), receiveBufferBytes, pipeline);
+    }
+
+    @Bean
+    public UdpTelemetryMeterBinder udpTelemetryMeterBinder(UdpTelemetryListener udpTelemetryListener) {
+        return new UdpTelemetryMeterBinder(udpTelemetryListener);
+    }
+}
@@ -0,0 +1,129 @@
+package com.glovo.delivery.controller;
+
+import com.glovo.delivery.dto.DecisionTraceResponse;
+import com.glovo.delivery.dto.ScoringProfileResponse;
+import com.glovo.delivery.dto.ScoringProfileUpdateRequest;
+import com.glovo.delivery.dto.ShadowComparisonResponse;
+import com.glovo.delivery.dto.SpeedTableResponse;
+import com.glovo.delivery.dto.SpeedTableUpdateRequest;
+import com.glovo.delivery.model.ZoneGrid;
+import com.glovo.delivery.model.enums.CourierType;
+import com.glovo.delivery.service.eta.SpeedTable;
+import com.glovo.delivery.service.eta.SpeedTableHolder;
+import com.glovo.delivery.service.shadow.ShadowEvaluator;
+import com.glovo.delivery.service.strategy.FormulaMatchingStrategy;
+import com.glovo.delivery.service.strategy.formula.ScoringProfile;
+import com.glovo.delivery.service.trace.DecisionTraceRecorder;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin")
+@Tag(name = "Admin", description = "Operational diagnostics endpoints")
+public class AdminController {
+
+    private final DecisionTraceRecorder traceRecorder;
+    private final SpeedTableHolder speedTables;
+    private final FormulaMatchingStrategy formulaStrategy;
+    private final ShadowEvaluator shadowEvaluator;
+
+    public AdminController(DecisionTraceRecorder traceRecorder, SpeedTableHolder speedTables,
+                           FormulaMatchingStrategy formulaStrategy, ShadowEvaluator shadowEvaluator) {
+        this.traceRecorder = traceRecorder;
+        this.speedTables = speedTables;
+        this.formulaStrategy = formulaStrategy;
+        this.shadowEvaluator = shadowEvaluator;
+    }
+
+    @GetMapping("/decision-traces")
+    @Operation(summary = "Dump the most recent sampled or slow matching decisions, newest first")
+    public ResponseEntity<List<DecisionTraceResponse>> getDecisionTraces(
+            @RequestParam(defaultValue = "100") int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive. Got: " + limit);
+        }
+        return ResponseEntity.ok(traceRecorder.snapshot(limit));
+    }
+
+    @GetMapping("/speed-table")
+    @Operation(summary = "Current courier speeds and zone congestion used by ETA scoring")
+    public ResponseEntity<SpeedTableResponse> getSpeedTable() {
+        return ResponseEntity.ok(toResponse(speedTables.current()));
+    }
+
+    @PutMapping("/speed-table")
+    @Operation(summary = "Change courier speeds and zone congestion; applies from the next match on")
+    public ResponseEntity<SpeedTableResponse> updateSpeedTable(@RequestBody SpeedTableUpdateRequest request) {
+        SpeedTable updated = speedTables.update(table -> {
+            for (Map.Entry<CourierType, Double> speed : request.getSpeeds().entrySet()) {
+                table = table.withSpeed(speed.getKey(), speed.getValue());
+            }
+            for (Map.Entry<Integer, Double> congestion : request.getCongestion().entrySet()) {
+                table = table.withCongestion(congestion.getKey(), congestion.getValue());
+            }
+            return table;
+        });
+        return ResponseEntity.ok(toResponse(updated));
+    }
+
+    @GetMapping("/scoring")
+    @Operation(summary = "Current formula, tiebreak threshold and transport weights of the formula strategy")
+    public ResponseEntity<ScoringProfileResponse> getScoringProfile() {
+        return ResponseEntity.ok(toResponse(formulaStrategy.currentProfile()));
+    }
+
+    @PutMapping("/scoring")
+    @Operation(summary = "Compile and swap in a new scoring formula or settings; applies from the next match on")
+    public ResponseEntity<ScoringProfileResponse> updateScoringProfile(
+            @RequestBody ScoringProfileUpdateRequest request) {
+        ScoringProfile updated = formulaStrategy.updateProfile(profile -> profile.with(
+                request.getFormula(), request.getTiebreakThreshold(), request.getTransportWeights()));
+        return ResponseEntity.ok(toResponse(updated));
+    }
+
+    @GetMapping("/shadow")
+    @Operation(summary = "Agreement rate and score deltas of the shadow strategy against the live one, "
+            + "with the most recent decisions newest first")
+    public ResponseEntity<ShadowComparisonResponse> getShadowComparison(
+            @RequestParam(defaultValue = "20") int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit must not be negative. Got: " + limit);
+        }
+        return ResponseEntity.ok(shadowEvaluator.comparison(limit));
+    }
+
+    private static ScoringProfileResponse toResponse(ScoringProfile profile) {
+        ScoringProfileResponse response = new ScoringProfileResponse();
+        response.setVersion(profile.getVersion());
+        response.setFormula(profile.getFormula().getSource());
+        response.setTiebreakThreshold(profile.getTiebreakThreshold());
+        for (CourierType type : CourierType.values()) {
+            response.getTransportWeights().put(type, profile.transportWeight(type));
+        }
+        return response;
+    }
+
+    private static SpeedTableResponse toResponse(SpeedTable table) {
+        SpeedTableResponse response = new SpeedTableResponse();
+        response.setVersion(table.getVersion());
+        for (CourierType type : CourierType.values()) {
+            response.getSpeeds().put(type, table.speed(type));
+        }
+        double[] congestion = new double[ZoneGrid.ZONE_COUNT];
+        for (int zone = 0; zone < congestion.length; zone++) {
+            congestion[zone] = table.congestion(zone);
+        }
+        response.setCongestion(congestion);
+        return response;
+    }
+}
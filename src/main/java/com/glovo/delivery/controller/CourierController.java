@@ -1,14 +1,28 @@
 package com.glovo.delivery.controller;
 
+import com.glovo.delivery.dto.BulkLocationUpdateResponse;
+import com.glovo.delivery.dto.LocationCoalescingStats;
+import com.glovo.delivery.dto.RegisterCourierRequest;
 import com.glovo.delivery.dto.UpdateLocationRequest;
 import com.glovo.delivery.model.Courier;
+import com.glovo.delivery.model.enums.CourierStatus;
+import com.glovo.delivery.serialization.CourierJsonWriter;
+import com.glovo.delivery.serialization.FieldProjection;
+import com.glovo.delivery.serialization.JsonStreamingWriter;
+import com.glovo.delivery.service.CourierLocationIngestService;
 import com.glovo.delivery.service.CourierService;
+import com.glovo.delivery.service.snapshot.FleetSnapshot;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.UUID;
 
@@ -17,17 +31,61 @@ import java.util.UUID;
 @Tag(name = "Couriers", description = "Courier management endpoints")
 public class CourierController {
 
+    static final String SNAPSHOT_EPOCH_HEADER = "X-Snapshot-Epoch";
+
     private final CourierService courierService;
+    private final CourierLocationIngestService locationIngestService;
+    private final JsonStreamingWriter jsonWriter;
 
-    public CourierController(CourierService courierService) {
+    public CourierController(CourierService courierService, CourierLocationIngestService locationIngestService,
+                             JsonStreamingWriter jsonWriter) {
         this.courierService = courierService;
+        this.locationIngestService = locationIngestService;
+        this.jsonWriter = jsonWriter;
+    }
+
+    @PostMapping
+    @Operation(summary = "Register a new FREE courier at the given location")
+    public ResponseEntity<Courier> registerCourier(@Valid @RequestBody RegisterCourierRequest request) {
+        Courier courier = courierService.registerCourier(new Courier(request.getLocation(), request.getType()));
+        return ResponseEntity.status(HttpStatus.CREATED).body(courier);
+    }
+
+    @GetMapping
+    @Operation(summary = "List couriers in id order, one page per call (pass nextCursor as 'after'), streamed as JSON")
+    public ResponseEntity<StreamingResponseBody> listCouriers(
+            @RequestParam(required = false) CourierStatus status,
+            @RequestParam(required = false) UUID after,
+            @RequestParam(defaultValue = "" + JsonStreamingWriter.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(required = false) String fields) {
+        int pageSize = JsonStreamingWriter.checkPageSize(limit);
+        FieldProjection projection = FieldProjection.parse(fields, CourierJsonWriter.FIELDS);
+        FleetSnapshot snapshot = courierService.getFleetSnapshot();
+        List<Courier> couriers = status == CourierStatus.FREE
+                ? snapshot.getFreeCouriersAfter(after)
+                : snapshot.getCouriersAfter(after);
+
+        StreamingResponseBody body = out -> jsonWriter.writePage(out, couriers,
+                courier -> status == null || courier.getStatus() == status,
+                pageSize, CourierJsonWriter.INSTANCE, projection);
+        return ResponseEntity.ok()
+                .header(SNAPSHOT_EPOCH_HEADER, Long.toString(snapshot.getEpoch()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
     }
 
     @GetMapping("/free")
-    @Operation(summary = "Get list of all free couriers")
-    public ResponseEntity<List<Courier>> getFreeCouriers() {
-        List<Courier> freeCouriers = courierService.getFreeCouriers();
-        return ResponseEntity.ok(freeCouriers);
+    @Operation(summary = "Get list of all free couriers (from the latest published fleet snapshot), streamed as JSON")
+    public ResponseEntity<StreamingResponseBody> getFreeCouriers(@RequestParam(required = false) String fields) {
+        FieldProjection projection = FieldProjection.parse(fields, CourierJsonWriter.FIELDS);
+        FleetSnapshot snapshot = courierService.getFleetSnapshot();
+        List<Courier> free = snapshot.getFreeCouriers();
+
+        StreamingResponseBody body = out -> jsonWriter.writeArray(out, free, CourierJsonWriter.INSTANCE, projection);
+        return ResponseEntity.ok()
+                .header(SNAPSHOT_EPOCH_HEADER, Long.toString(snapshot.getEpoch()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
     }
 
     @PatchMapping("/{id}/location")
@@ -38,4 +96,17 @@ public class CourierController {
         Courier courier = courierService.updateLocation(id, request);
         return ResponseEntity.ok(courier);
     }
+
+    @PostMapping(value = "/locations", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Bulk update courier locations from an NDJSON stream of {courierId, x, y} lines")
+    public ResponseEntity<BulkLocationUpdateResponse> ingestLocations(InputStream body) throws IOException {
+        BulkLocationUpdateResponse response = locationIngestService.ingest(body);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/locations/stats")
+    @Operation(summary = "Location update coalescing statistics (submitted vs applied writes)")
+    public ResponseEntity<LocationCoalescingStats> getLocationCoalescingStats() {
+        return ResponseEntity.ok(courierService.getLocationCoalescingStats());
+    }
 }
@@ -1,13 +1,21 @@
 package com.glovo.delivery.controller;
 
 import com.glovo.delivery.dto.DispatchStatsResponse;
+import com.glovo.delivery.model.ZoneGrid;
 import com.glovo.delivery.service.DispatchService;
+import com.glovo.delivery.service.event.DispatchEventFilter;
+import com.glovo.delivery.service.event.DispatchEventStreamService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/dispatch")
@@ -15,15 +23,30 @@ import org.springframework.web.bind.annotation.RestController;
 public class DispatchController {
 
     private final DispatchService dispatchService;
+    private final DispatchEventStreamService eventStreamService;
 
-    public DispatchController(DispatchService dispatchService) {
+    public DispatchController(DispatchService dispatchService, DispatchEventStreamService eventStreamService) {
         this.dispatchService = dispatchService;
+        this.eventStreamService = eventStreamService;
     }
 
     @GetMapping("/stats")
-    @Operation(summary = "Get overall system dispatch statistics")
+    @Operation(summary = "Get overall system dispatch statistics (from the latest published fleet snapshot)")
     public ResponseEntity<DispatchStatsResponse> getStats() {
-        DispatchStatsResponse stats = dispatchService.getStats();
+        DispatchStatsResponse stats = dispatchService.getPublishedSnapshot().getStats();
         return ResponseEntity.ok(stats);
     }
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream dispatch events (Server-Sent Events), optionally filtered by order, courier or zone")
+    public SseEmitter streamEvents(
+            @RequestParam(required = false) UUID orderId,
+            @RequestParam(required = false) UUID courierId,
+            @RequestParam(required = false) Integer zone) {
+        if (zone != null && !ZoneGrid.isValidZone(zone)) {
+            throw new IllegalArgumentException(
+                    "Zone must be in range [0, " + (ZoneGrid.ZONE_COUNT - 1) + "]. Got: " + zone);
+        }
+        return eventStreamService.subscribe(new DispatchEventFilter(orderId, courierId, zone));
+    }
 }
@@ -1,15 +1,24 @@
 package com.glovo.delivery.controller;
 
+import com.glovo.delivery.dto.BatchCreateOrdersRequest;
+import com.glovo.delivery.dto.BatchCreateOrdersResponse;
 import com.glovo.delivery.dto.CreateOrderRequest;
 import com.glovo.delivery.model.Order;
+import com.glovo.delivery.model.enums.OrderStatus;
+import com.glovo.delivery.serialization.FieldProjection;
+import com.glovo.delivery.serialization.JsonStreamingWriter;
+import com.glovo.delivery.serialization.OrderJsonWriter;
 import com.glovo.delivery.service.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.Collection;
 import java.util.UUID;
 
 @RestController
@@ -18,9 +27,28 @@ import java.util.UUID;
 public class OrderController {
 
     private final OrderService orderService;
+    private final JsonStreamingWriter jsonWriter;
 
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, JsonStreamingWriter jsonWriter) {
         this.orderService = orderService;
+        this.jsonWriter = jsonWriter;
+    }
+
+    @GetMapping
+    @Operation(summary = "List orders in id order, one page per call (pass nextCursor as 'after'), streamed as JSON")
+    public ResponseEntity<StreamingResponseBody> listOrders(
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) UUID after,
+            @RequestParam(defaultValue = "" + JsonStreamingWriter.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(required = false) String fields) {
+        int pageSize = JsonStreamingWriter.checkPageSize(limit);
+        FieldProjection projection = FieldProjection.parse(fields, OrderJsonWriter.FIELDS);
+        Collection<Order> orders = orderService.getOrdersAfter(after);
+
+        StreamingResponseBody body = out -> jsonWriter.writePage(out, orders,
+                order -> status == null || order.getStatus() == status,
+                pageSize, OrderJsonWriter.INSTANCE, projection);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
     @PostMapping
@@ -30,6 +58,13 @@ public class OrderController {
         return ResponseEntity.status(HttpStatus.CREATED).body(order);
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Create many orders and dispatch them in a single matching pass")
+    public ResponseEntity<BatchCreateOrdersResponse> createOrders(@Valid @RequestBody BatchCreateOrdersRequest request) {
+        BatchCreateOrdersResponse response = orderService.createOrders(request.getOrders());
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get order information by ID")
     public ResponseEntity<Order> getOrder(@PathVariable UUID id) {
@@ -0,0 +1,34 @@
+package com.glovo.delivery.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Batch of orders to create in one call. Items are validated one by one, so an invalid
+ * item is reported in the response instead of failing the whole batch.
+ */
+public class BatchCreateOrdersRequest {
+
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    @NotEmpty(message = "Orders list must not be empty")
+    @Size(max = MAX_BATCH_SIZE, message = "At most " + MAX_BATCH_SIZE + " orders per batch")
+    private List<CreateOrderRequest> orders;
+
+    public BatchCreateOrdersRequest() {
+    }
+
+    public BatchCreateOrdersRequest(List<CreateOrderRequest> orders) {
+        this.orders = orders;
+    }
+
+    public List<CreateOrderRequest> getOrders() {
+        return orders;
+    }
+
+    public void setOrders(List<CreateOrderRequest> orders) {
+        this.orders = orders;
+    }
+}
@@ -0,0 +1,72 @@
+package com.glovo.delivery.dto;
+
+import java.util.List;
+
+public class BatchCreateOrdersResponse {
+
+    private int created;
+    private int rejected;
+    private int assigned;
+    private int queued;
+    private List<BatchOrderResult> results;
+
+    public BatchCreateOrdersResponse() {
+    }
+
+    public BatchCreateOrdersResponse(List<BatchOrderResult> results) {
+        this.results = results;
+        for (BatchOrderResult result : results) {
+            if (result.getError() != null) {
+                rejected++;
+                continue;
+            }
+            created++;
+            switch (result.getStatus()) {
+                case ASSIGNED -> assigned++;
+                case QUEUED -> queued++;
+                default -> {
+                }
+            }
+        }
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+
+    public int getAssigned() {
+        return assigned;
+    }
+
+    public void setAssigned(int assigned) {
+        this.assigned = assigned;
+    }
+
+    public int getQueued() {
+        return queued;
+    }
+
+    public void setQueued(int queued) {
+        this.queued = queued;
+    }
+
+    public List<BatchOrderResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<BatchOrderResult> results) {
+        this.results = results;
+    }
+}
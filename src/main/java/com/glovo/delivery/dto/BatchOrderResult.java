@@ -0,0 +1,78 @@
+package com.glovo.delivery.dto;
+
+import com.glovo.delivery.model.Order;
+import com.glovo.delivery.model.enums.OrderStatus;
+
+import java.util.UUID;
+
+/**
+ * Outcome of a single item of a batch order request. {@code index} points back
+ * to the position of the item in the request.
+ */
+public class BatchOrderResult {
+
+    private int index;
+    private UUID orderId;
+    private OrderStatus status;
+    private UUID assignedCourierId;
+    private String error;
+
+    public BatchOrderResult() {
+    }
+
+    public static BatchOrderResult created(int index, Order order) {
+        BatchOrderResult result = new BatchOrderResult();
+        result.index = index;
+        result.orderId = order.getId();
+        result.status = order.getStatus();
+        result.assignedCourierId = order.getAssignedCourierId();
+        return result;
+    }
+
+    public static BatchOrderResult rejected(int index, String error) {
+        BatchOrderResult result = new BatchOrderResult();
+        result.index = index;
+        result.error = error;
+        return result;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public UUID getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(UUID orderId) {
+        this.orderId = orderId;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(OrderStatus status) {
+        this.status = status;
+    }
+
+    public UUID getAssignedCourierId() {
+        return assignedCourierId;
+    }
+
+    public void setAssignedCourierId(UUID assignedCourierId) {
+        this.assignedCourierId = assignedCourierId;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,57 @@
+package com.glovo.delivery.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BulkLocationUpdateResponse {
+
+    /** Only the first few rejection reasons are reported to keep the response small. */
+    public static final int MAX_REPORTED_ERRORS = 20;
+
+    private long received;
+    private long applied;
+    private long rejected;
+    private List<String> errors = new ArrayList<>();
+
+    public BulkLocationUpdateResponse() {
+    }
+
+    public void addRejection(long lineNumber, String reason) {
+        rejected++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add("line " + lineNumber + ": " + reason);
+        }
+    }
+
+    public long getReceived() {
+        return received;
+    }
+
+    public void setReceived(long received) {
+        this.received = received;
+    }
+
+    public long getApplied() {
+        return applied;
+    }
+
+    public void setApplied(long applied) {
+        this.applied = applied;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+}
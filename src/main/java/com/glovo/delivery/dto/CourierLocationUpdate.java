@@ -0,0 +1,46 @@
+package com.glovo.delivery.dto;
+
+import java.util.UUID;
+
+/**
+ * One line of the bulk NDJSON location feed: {@code {"courierId": "...", "x": 12.5, "y": 40.0}}.
+ */
+public class CourierLocationUpdate {
+
+    private UUID courierId;
+    private Double x;
+    private Double y;
+
+    public CourierLocationUpdate() {
+    }
+
+    public CourierLocationUpdate(UUID courierId, Double x, Double y) {
+        this.courierId = courierId;
+        this.x = x;
+        this.y = y;
+    }
+
+    public UUID getCourierId() {
+        return courierId;
+    }
+
+    public void setCourierId(UUID courierId) {
+        this.courierId = courierId;
+    }
+
+    public Double getX() {
+        return x;
+    }
+
+    public void setX(Double x) {
+        this.x = x;
+    }
+
+    public Double getY() {
+        return y;
+    }
+
+    public void setY(Double y) {
+        this.y = y;
+    }
+}
@@ -0,0 +1,43 @@
+package com.glovo.delivery.dto;
+
+import java.util.UUID;
+
+public class DecisionTraceCandidate {
+
+    private UUID courierId;
+    private double score;
+    private double distance;
+
+    public DecisionTraceCandidate() {
+    }
+
+    public DecisionTraceCandidate(UUID courierId, double score, double distance) {
+        this.courierId = courierId;
+        this.score = score;
+        this.distance = distance;
+    }
+
+    public UUID getCourierId() {
+        return courierId;
+    }
+
+    public void setCourierId(UUID courierId) {
+        this.courierId = courierId;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+
+    public double getDistance() {
+        return distance;
+    }
+
+    public void setDistance(double distance) {
+        this.distance = distance;
+    }
+}
@@ -0,0 +1,112 @@
+package com.glovo.delivery.dto;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public class DecisionTraceResponse {
+
+    private long sequence;
+    private Instant timestamp;
+    private long durationNanos;
+    private UUID orderId;
+    private UUID chosenCourierId;
+    private int candidateCount;
+    private int eligibleCount;
+    private boolean tiebreakApplied;
+    private boolean slow;
+    private boolean sampled;
+    private List<DecisionTraceCandidate> topCandidates = new ArrayList<>();
+
+    public DecisionTraceResponse() {
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Instant timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public void setDurationNanos(long durationNanos) {
+        this.durationNanos = durationNanos;
+    }
+
+    public UUID getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(UUID orderId) {
+        this.orderId = orderId;
+    }
+
+    public UUID getChosenCourierId() {
+        return chosenCourierId;
+    }
+
+    public void setChosenCourierId(UUID chosenCourierId) {
+        this.chosenCourierId = chosenCourierId;
+    }
+
+    public int getCandidateCount() {
+        return candidateCount;
+    }
+
+    public void setCandidateCount(int candidateCount) {
+        this.candidateCount = candidateCount;
+    }
+
+    public int getEligibleCount() {
+        return eligibleCount;
+    }
+
+    public void setEligibleCount(int eligibleCount) {
+        this.eligibleCount = eligibleCount;
+    }
+
+    public boolean isTiebreakApplied() {
+        return tiebreakApplied;
+    }
+
+    public void setTiebreakApplied(boolean tiebreakApplied) {
+        this.tiebreakApplied = tiebreakApplied;
+    }
+
+    public boolean isSlow() {
+        return slow;
+    }
+
+    public void setSlow(boolean slow) {
+        this.slow = slow;
+    }
+
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    public void setSampled(boolean sampled) {
+        this.sampled = sampled;
+    }
+
+    public List<DecisionTraceCandidate> getTopCandidates() {
+        return topCandidates;
+    }
+
+    public void setTopCandidates(List<DecisionTraceCandidate> topCandidates) {
+        this.topCandidates = topCandidates;
+    }
+}
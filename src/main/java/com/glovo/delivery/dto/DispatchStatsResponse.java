@@ -10,6 +10,7 @@ public class DispatchStatsResponse {
     private Map<String, Long> couriersByStatus;
     private long totalAssignments;
     private int queuedOrders;
+    private long snapshotEpoch;
 
     public DispatchStatsResponse() {
     }
@@ -61,4 +62,12 @@ public class DispatchStatsResponse {
     public void setQueuedOrders(int queuedOrders) {
         this.queuedOrders = queuedOrders;
     }
+
+    public long getSnapshotEpoch() {
+        return snapshotEpoch;
+    }
+
+    public void setSnapshotEpoch(long snapshotEpoch) {
+        this.snapshotEpoch = snapshotEpoch;
+    }
 }
@@ -0,0 +1,65 @@
+package com.glovo.delivery.dto;
+
+public class LocationCoalescingStats {
+
+    private boolean enabled;
+    private long submitted;
+    private long applied;
+    private int pending;
+    private long flushes;
+    private double coalescingRatio;
+
+    public LocationCoalescingStats() {
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getSubmitted() {
+        return submitted;
+    }
+
+    public void setSubmitted(long submitted) {
+        this.submitted = submitted;
+    }
+
+    public long getApplied() {
+        return applied;
+    }
+
+    public void setApplied(long applied) {
+        this.applied = applied;
+    }
+
+    public int getPending() {
+        return pending;
+    }
+
+    public void setPending(int pending) {
+        this.pending = pending;
+    }
+
+    public long getFlushes() {
+        return flushes;
+    }
+
+    public void setFlushes(long flushes) {
+        this.flushes = flushes;
+    }
+
+    /**
+     * Submitted updates per applied update; 10.0 means nine out of ten writes were absorbed.
+     */
+    public double getCoalescingRatio() {
+        return coalescingRatio;
+    }
+
+    public void setCoalescingRatio(double coalescingRatio) {
+        this.coalescingRatio = coalescingRatio;
+    }
+}
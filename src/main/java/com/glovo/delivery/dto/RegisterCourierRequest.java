@@ -0,0 +1,40 @@
+package com.glovo.delivery.dto;
+
+import com.glovo.delivery.model.Point;
+import com.glovo.delivery.model.enums.CourierType;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+public class RegisterCourierRequest {
+
+    @NotNull(message = "Location is required")
+    @Valid
+    private Point location;
+
+    @NotNull(message = "Courier type is required")
+    private CourierType type;
+
+    public RegisterCourierRequest() {
+    }
+
+    public RegisterCourierRequest(Point location, CourierType type) {
+        this.location = location;
+        this.type = type;
+    }
+
+    public Point getLocation() {
+        return location;
+    }
+
+    public void setLocation(Point location) {
+        this.location = location;
+    }
+
+    public CourierType getType() {
+        return type;
+    }
+
+    public void setType(CourierType type) {
+        this.type = type;
+    }
+}
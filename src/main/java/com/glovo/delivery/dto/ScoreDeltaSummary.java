@@ -0,0 +1,44 @@
+package com.glovo.delivery.dto;
+
+public class ScoreDeltaSummary {
+
+    private long count;
+    private Double mean;
+    private Double min;
+    private Double max;
+
+    public ScoreDeltaSummary() {
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public Double getMean() {
+        return mean;
+    }
+
+    public void setMean(Double mean) {
+        this.mean = mean;
+    }
+
+    public Double getMin() {
+        return min;
+    }
+
+    public void setMin(Double min) {
+        this.min = min;
+    }
+
+    public Double getMax() {
+        return max;
+    }
+
+    public void setMax(Double max) {
+        this.max = max;
+    }
+}
@@ -0,0 +1,49 @@
+package com.glovo.delivery.dto;
+
+import com.glovo.delivery.model.enums.CourierType;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+public class ScoringProfileResponse {
+
+    private long version;
+    private String formula;
+    private double tiebreakThreshold;
+    private Map<CourierType, Double> transportWeights = new EnumMap<>(CourierType.class);
+
+    public ScoringProfileResponse() {
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public String getFormula() {
+        return formula;
+    }
+
+    public void setFormula(String formula) {
+        this.formula = formula;
+    }
+
+    public double getTiebreakThreshold() {
+        return tiebreakThreshold;
+    }
+
+    public void setTiebreakThreshold(double tiebreakThreshold) {
+        this.tiebreakThreshold = tiebreakThreshold;
+    }
+
+    public Map<CourierType, Double> getTransportWeights() {
+        return transportWeights;
+    }
+
+    public void setTransportWeights(Map<CourierType, Double> transportWeights) {
+        this.transportWeights = transportWeights;
+    }
+}
@@ -0,0 +1,43 @@
+package com.glovo.delivery.dto;
+
+import com.glovo.delivery.model.enums.CourierType;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Partial scoring profile update: omitted fields keep their current values.
+ */
+public class ScoringProfileUpdateRequest {
+
+    private String formula;
+    private Double tiebreakThreshold;
+    private Map<CourierType, Double> transportWeights = new EnumMap<>(CourierType.class);
+
+    public ScoringProfileUpdateRequest() {
+    }
+
+    public String getFormula() {
+        return formula;
+    }
+
+    public void setFormula(String formula) {
+        this.formula = formula;
+    }
+
+    public Double getTiebreakThreshold() {
+        return tiebreakThreshold;
+    }
+
+    public void setTiebreakThreshold(Double tiebreakThreshold) {
+        this.tiebreakThreshold = tiebreakThreshold;
+    }
+
+    public Map<CourierType, Double> getTransportWeights() {
+        return transportWeights;
+    }
+
+    public void setTransportWeights(Map<CourierType, Double> transportWeights) {
+        this.transportWeights = transportWeights;
+    }
+}
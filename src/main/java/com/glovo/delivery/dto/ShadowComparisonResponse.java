@@ -0,0 +1,128 @@
+package com.glovo.delivery.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ShadowComparisonResponse {
+
+    private boolean enabled;
+    private String liveStrategy;
+    private String shadowStrategy;
+    private long submitted;
+    private long dropped;
+    private long failed;
+    private int queued;
+    private long compared;
+    private long agreed;
+    private double agreementRate;
+    private ScoreDeltaSummary liveScoreDelta;
+    private ScoreDeltaSummary shadowScoreDelta;
+    private List<ShadowDecisionResponse> recentDecisions = new ArrayList<>();
+
+    public ShadowComparisonResponse() {
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getLiveStrategy() {
+        return liveStrategy;
+    }
+
+    public void setLiveStrategy(String liveStrategy) {
+        this.liveStrategy = liveStrategy;
+    }
+
+    public String getShadowStrategy() {
+        return shadowStrategy;
+    }
+
+    public void setShadowStrategy(String shadowStrategy) {
+        this.shadowStrategy = shadowStrategy;
+    }
+
+    public long getSubmitted() {
+        return submitted;
+    }
+
+    public void setSubmitted(long submitted) {
+        this.submitted = submitted;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    public void setDropped(long dropped) {
+        this.dropped = dropped;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public int getQueued() {
+        return queued;
+    }
+
+    public void setQueued(int queued) {
+        this.queued = queued;
+    }
+
+    public long getCompared() {
+        return compared;
+    }
+
+    public void setCompared(long compared) {
+        this.compared = compared;
+    }
+
+    public long getAgreed() {
+        return agreed;
+    }
+
+    public void setAgreed(long agreed) {
+        this.agreed = agreed;
+    }
+
+    public double getAgreementRate() {
+        return agreementRate;
+    }
+
+    public void setAgreementRate(double agreementRate) {
+        this.agreementRate = agreementRate;
+    }
+
+    public ScoreDeltaSummary getLiveScoreDelta() {
+        return liveScoreDelta;
+    }
+
+    public void setLiveScoreDelta(ScoreDeltaSummary liveScoreDelta) {
+        this.liveScoreDelta = liveScoreDelta;
+    }
+
+    public ScoreDeltaSummary getShadowScoreDelta() {
+        return shadowScoreDelta;
+    }
+
+    public void setShadowScoreDelta(ScoreDeltaSummary shadowScoreDelta) {
+        this.shadowScoreDelta = shadowScoreDelta;
+    }
+
+    public List<ShadowDecisionResponse> getRecentDecisions() {
+        return recentDecisions;
+    }
+
+    public void setRecentDecisions(List<ShadowDecisionResponse> recentDecisions) {
+        this.recentDecisions = recentDecisions;
+    }
+}
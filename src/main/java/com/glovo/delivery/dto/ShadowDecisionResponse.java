@@ -0,0 +1,74 @@
+package com.glovo.delivery.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public class ShadowDecisionResponse {
+
+    private Instant timestamp;
+    private UUID orderId;
+    private UUID liveCourierId;
+    private UUID shadowCourierId;
+    private boolean agreed;
+    private Double liveScoreDelta;
+    private Double shadowScoreDelta;
+
+    public ShadowDecisionResponse() {
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Instant timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public UUID getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(UUID orderId) {
+        this.orderId = orderId;
+    }
+
+    public UUID getLiveCourierId() {
+        return liveCourierId;
+    }
+
+    public void setLiveCourierId(UUID liveCourierId) {
+        this.liveCourierId = liveCourierId;
+    }
+
+    public UUID getShadowCourierId() {
+        return shadowCourierId;
+    }
+
+    public void setShadowCourierId(UUID shadowCourierId) {
+        this.shadowCourierId = shadowCourierId;
+    }
+
+    public boolean isAgreed() {
+        return agreed;
+    }
+
+    public void setAgreed(boolean agreed) {
+        this.agreed = agreed;
+    }
+
+    public Double getLiveScoreDelta() {
+        return liveScoreDelta;
+    }
+
+    public void setLiveScoreDelta(Double liveScoreDelta) {
+        this.liveScoreDelta = liveScoreDelta;
+    }
+
+    public Double getShadowScoreDelta() {
+        return shadowScoreDelta;
+    }
+
+    public void setShadowScoreDelta(Double shadowScoreDelta) {
+        this.shadowScoreDelta = shadowScoreDelta;
+    }
+}
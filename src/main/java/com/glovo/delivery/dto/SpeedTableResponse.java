@@ -0,0 +1,42 @@
+package com.glovo.delivery.dto;
+
+import com.glovo.delivery.model.enums.CourierType;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+public class SpeedTableResponse {
+
+    private long version;
+    private Map<CourierType, Double> speeds = new EnumMap<>(CourierType.class);
+    private double[] congestion;
+
+    public SpeedTableResponse() {
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    /** Base speed per courier type, distance units per minute. */
+    public Map<CourierType, Double> getSpeeds() {
+        return speeds;
+    }
+
+    public void setSpeeds(Map<CourierType, Double> speeds) {
+        this.speeds = speeds;
+    }
+
+    /** Travel time multiplier per zone, indexed by zone id. */
+    public double[] getCongestion() {
+        return congestion;
+    }
+
+    public void setCongestion(double[] congestion) {
+        this.congestion = congestion;
+    }
+}
@@ -0,0 +1,42 @@
+package com.glovo.delivery.dto;
+
+import com.glovo.delivery.model.enums.CourierType;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Partial speed table update: only the listed types and zones change.
+ */
+public class SpeedTableUpdateRequest {
+
+    private Map<CourierType, Double> speeds = new EnumMap<>(CourierType.class);
+    private Map<Integer, Double> congestion = new HashMap<>();
+
+    public SpeedTableUpdateRequest() {
+    }
+
+    public SpeedTableUpdateRequest(Map<CourierType, Double> speeds, Map<Integer, Double> congestion) {
+        this.speeds = speeds;
+        this.congestion = congestion;
+    }
+
+    /** New base speed per courier type, distance units per minute. */
+    public Map<CourierType, Double> getSpeeds() {
+        return speeds;
+    }
+
+    public void setSpeeds(Map<CourierType, Double> speeds) {
+        this.speeds = speeds;
+    }
+
+    /** New congestion factor (>= 1) per zone id. */
+    public Map<Integer, Double> getCongestion() {
+        return congestion;
+    }
+
+    public void setCongestion(Map<Integer, Double> congestion) {
+        this.congestion = congestion;
+    }
+}
@@ -1,45 +1,152 @@
 package com.glovo.delivery.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.glovo.delivery.model.enums.CourierStatus;
 import com.glovo.delivery.model.enums.CourierType;
 
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 
-public class Courier {
+public class Courier implements JsonCacheable {
+
+    private static final AtomicLongFieldUpdater<Courier> VERSION =
+            AtomicLongFieldUpdater.newUpdater(Courier.class, "version");
 
     private UUID id;
-    private Point currentLocation;
+    private double locationX = Double.NaN;
+    private double locationY = Double.NaN;
     private CourierType type;
     private CourierStatus status;
     private int completedOrdersToday;
 
+    private volatile long version;
+    private volatile SerializedForm serializedForm;
+
     public Courier() {
         this.id = UUID.randomUUID();
         this.status = CourierStatus.FREE;
         this.completedOrdersToday = 0;
     }
 
+    /**
+     * For subclasses that keep their state outside the object, such as repository views:
+     * nothing is generated and no other field is set.
+     */
+    protected Courier(UUID id) {
+        this.id = id;
+    }
+
     public Courier(Point currentLocation, CourierType type) {
         this();
-        this.currentLocation = currentLocation;
+        if (currentLocation != null) {
+            this.locationX = currentLocation.getX();
+            this.locationY = currentLocation.getY();
+        }
         this.type = type;
     }
 
+    private Courier(UUID id, double locationX, double locationY, CourierType type, CourierStatus status,
+                    int completedOrdersToday, long version) {
+        this.id = id;
+        this.locationX = locationX;
+        this.locationY = locationY;
+        this.type = type;
+        this.status = status;
+        this.completedOrdersToday = completedOrdersToday;
+        this.version = version;
+    }
+
+    /**
+     * Detached copy with the same identity and state, for publishing read-only views.
+     * The copy keeps the version and therefore any still-valid serialized form.
+     */
+    public Courier copy() {
+        long sourceVersion = version;
+        SerializedForm form = serializedForm;
+        Courier copy = new Courier(id, locationX, locationY, type, status, completedOrdersToday, sourceVersion);
+        if (form != null && form.getVersion() == sourceVersion) {
+            copy.serializedForm = form;
+        }
+        return copy;
+    }
+
+    /**
+     * Detached courier built from state kept elsewhere, for subclasses implementing
+     * {@link #copy()}. Nothing is generated and no version is bumped.
+     */
+    protected static Courier detached(UUID id, double locationX, double locationY, CourierType type,
+                                      CourierStatus status, int completedOrdersToday, long version) {
+        return new Courier(id, locationX, locationY, type, status, completedOrdersToday, version);
+    }
+
     public UUID getId() {
         return id;
     }
 
     public void setId(UUID id) {
         this.id = id;
+        touch();
     }
 
+    /**
+     * Current position as a new {@link Point}, or null when unknown. For API boundaries;
+     * hot paths read {@link #getLocationX()} and {@link #getLocationY()} instead.
+     */
     public Point getCurrentLocation() {
-        return currentLocation;
+        return hasLocation() ? new Point(getLocationX(), getLocationY()) : null;
     }
 
     public void setCurrentLocation(Point currentLocation) {
-        this.currentLocation = currentLocation;
+        if (currentLocation == null) {
+            writeLocation(Double.NaN, Double.NaN);
+        } else {
+            writeLocation(currentLocation.getX(), currentLocation.getY());
+        }
+    }
+
+    /**
+     * Move the courier in place without allocating. A stored courier should be moved
+     * through {@code CourierRepository.updateLocation}, which also notifies position listeners.
+     */
+    public void moveTo(double x, double y) {
+        Point.validateCoordinate(x, "X");
+        Point.validateCoordinate(y, "Y");
+        writeLocation(x, y);
+    }
+
+    @JsonIgnore
+    public boolean hasLocation() {
+        return !Double.isNaN(getLocationX());
+    }
+
+    /**
+     * X coordinate, NaN when the location is unknown.
+     */
+    @JsonIgnore
+    public double getLocationX() {
+        return locationX;
+    }
+
+    /**
+     * Y coordinate, NaN when the location is unknown.
+     */
+    @JsonIgnore
+    public double getLocationY() {
+        return locationY;
+    }
+
+    public double distanceTo(Point point) {
+        return Point.distance(getLocationX(), getLocationY(), point.getX(), point.getY());
+    }
+
+    /**
+     * The single place where the position fields change; NaN clears the location.
+     */
+    protected void writeLocation(double x, double y) {
+        this.locationX = x;
+        this.locationY = y;
+        touch();
     }
 
     public CourierType getType() {
@@ -48,6 +155,7 @@ public class Courier {
 
     public void setType(CourierType type) {
         this.type = type;
+        touch();
     }
 
     public CourierStatus getStatus() {
@@ -56,6 +164,7 @@ public class Courier {
 
     public void setStatus(CourierStatus status) {
         this.status = status;
+        touch();
     }
 
     public int getCompletedOrdersToday() {
@@ -64,32 +173,59 @@ public class Courier {
 
     public void setCompletedOrdersToday(int completedOrdersToday) {
         this.completedOrdersToday = completedOrdersToday;
+        touch();
     }
 
     public void incrementCompletedOrdersToday() {
         this.completedOrdersToday++;
+        touch();
     }
 
     public void resetCompletedOrdersToday() {
         this.completedOrdersToday = 0;
+        touch();
+    }
+
+    @Override
+    @JsonIgnore
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    @JsonIgnore
+    public SerializedForm getSerializedForm() {
+        return serializedForm;
+    }
+
+    @Override
+    public void setSerializedForm(SerializedForm serializedForm) {
+        this.serializedForm = serializedForm;
+    }
+
+    /**
+     * Publish a change: bump the version after the field write so a serializer that read
+     * the old version never caches bytes as current for the new state.
+     */
+    private void touch() {
+        VERSION.incrementAndGet(this);
     }
 
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        Courier courier = (Courier) o;
-        return Objects.equals(id, courier.id);
+        if (!(o instanceof Courier courier)) return false;
+        return Objects.equals(getId(), courier.getId());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id);
+        return Objects.hash(getId());
     }
 
     @Override
     public String toString() {
-        return "Courier{id=" + id + ", type=" + type + ", status=" + status +
-                ", location=" + currentLocation + ", completedToday=" + completedOrdersToday + "}";
+        return "Courier{id=" + getId() + ", type=" + getType() + ", status=" + getStatus() +
+                ", location=" + getCurrentLocation() + ", completedToday=" + getCompletedOrdersToday() + "}";
     }
 }
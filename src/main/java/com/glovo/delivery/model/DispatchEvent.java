@@ -0,0 +1,59 @@
+package com.glovo.delivery.model;
+
+import com.glovo.delivery.model.enums.DispatchEventType;
+
+import java.util.UUID;
+
+/**
+ * Immutable record of a state change produced by the dispatch engine.
+ * The sequence number is assigned by the event buffer and is strictly increasing.
+ */
+public final class DispatchEvent {
+
+    private final long sequence;
+    private final DispatchEventType type;
+    private final long timestamp;
+    private final UUID orderId;
+    private final UUID courierId;
+    private final int zone;
+
+    public DispatchEvent(long sequence, DispatchEventType type, long timestamp,
+                         UUID orderId, UUID courierId, int zone) {
+        this.sequence = sequence;
+        this.type = type;
+        this.timestamp = timestamp;
+        this.orderId = orderId;
+        this.courierId = courierId;
+        this.zone = zone;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public DispatchEventType getType() {
+        return type;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public UUID getOrderId() {
+        return orderId;
+    }
+
+    public UUID getCourierId() {
+        return courierId;
+    }
+
+    public int getZone() {
+        return zone;
+    }
+
+    @Override
+    public String toString() {
+        return "DispatchEvent{seq=" + sequence + ", type=" + type + ", orderId=" + orderId +
+                ", courierId=" + courierId + ", zone=" + zone + "}";
+    }
+}
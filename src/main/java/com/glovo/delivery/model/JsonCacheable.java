@@ -0,0 +1,17 @@
+package com.glovo.delivery.model;
+
+/**
+ * Entity that keeps its own serialized JSON and a version that every mutation bumps,
+ * so a cached form is valid exactly while its version matches the entity's.
+ */
+public interface JsonCacheable {
+
+    /**
+     * Incremented after every field change.
+     */
+    long getVersion();
+
+    SerializedForm getSerializedForm();
+
+    void setSerializedForm(SerializedForm serializedForm);
+}
@@ -1,11 +1,16 @@
 package com.glovo.delivery.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.glovo.delivery.model.enums.OrderStatus;
 
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 
-public class Order {
+public class Order implements JsonCacheable {
+
+    private static final AtomicLongFieldUpdater<Order> VERSION =
+            AtomicLongFieldUpdater.newUpdater(Order.class, "version");
 
     private UUID id;
     private Point pickupLocation;
@@ -16,12 +21,23 @@ public class Order {
     private long createdAt;
     private UUID assignedCourierId;
 
+    private volatile long version;
+    private volatile SerializedForm serializedForm;
+
     public Order() {
         this.id = UUID.randomUUID();
         this.status = OrderStatus.CREATED;
         this.createdAt = System.currentTimeMillis();
     }
 
+    /**
+     * For subclasses that keep their state outside the object, such as repository views:
+     * nothing is generated and no other field is set.
+     */
+    protected Order(UUID id) {
+        this.id = id;
+    }
+
     public Order(Point pickupLocation, Point deliveryLocation, int priority, double weightKg) {
         this();
         validatePriority(priority);
@@ -38,6 +54,7 @@ public class Order {
 
     public void setId(UUID id) {
         this.id = id;
+        touch();
     }
 
     public Point getPickupLocation() {
@@ -46,6 +63,7 @@ public class Order {
 
     public void setPickupLocation(Point pickupLocation) {
         this.pickupLocation = pickupLocation;
+        touch();
     }
 
     public Point getDeliveryLocation() {
@@ -54,6 +72,7 @@ public class Order {
 
     public void setDeliveryLocation(Point deliveryLocation) {
         this.deliveryLocation = deliveryLocation;
+        touch();
     }
 
     public OrderStatus getStatus() {
@@ -62,6 +81,7 @@ public class Order {
 
     public void setStatus(OrderStatus status) {
         this.status = status;
+        touch();
     }
 
     public int getPriority() {
@@ -71,6 +91,7 @@ public class Order {
     public void setPriority(int priority) {
         validatePriority(priority);
         this.priority = priority;
+        touch();
     }
 
     public double getWeightKg() {
@@ -80,6 +101,7 @@ public class Order {
     public void setWeightKg(double weightKg) {
         validateWeight(weightKg);
         this.weightKg = weightKg;
+        touch();
     }
 
     public long getCreatedAt() {
@@ -88,6 +110,7 @@ public class Order {
 
     public void setCreatedAt(long createdAt) {
         this.createdAt = createdAt;
+        touch();
     }
 
     public UUID getAssignedCourierId() {
@@ -96,36 +119,61 @@ public class Order {
 
     public void setAssignedCourierId(UUID assignedCourierId) {
         this.assignedCourierId = assignedCourierId;
+        touch();
     }
 
-    private static void validatePriority(int priority) {
+    protected static void validatePriority(int priority) {
         if (priority < 1 || priority > 10) {
             throw new IllegalArgumentException("Priority must be between 1 and 10. Got: " + priority);
         }
     }
 
-    private static void validateWeight(double weightKg) {
+    protected static void validateWeight(double weightKg) {
         if (weightKg <= 0) {
             throw new IllegalArgumentException("Weight must be greater than 0. Got: " + weightKg);
         }
     }
 
+    @Override
+    @JsonIgnore
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    @JsonIgnore
+    public SerializedForm getSerializedForm() {
+        return serializedForm;
+    }
+
+    @Override
+    public void setSerializedForm(SerializedForm serializedForm) {
+        this.serializedForm = serializedForm;
+    }
+
+    /**
+     * Publish a change: bump the version after the field write so a serializer that read
+     * the old version never caches bytes as current for the new state.
+     */
+    private void touch() {
+        VERSION.incrementAndGet(this);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        Order order = (Order) o;
-        return Objects.equals(id, order.id);
+        if (!(o instanceof Order order)) return false;
+        return Objects.equals(getId(), order.getId());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id);
+        return Objects.hash(getId());
     }
 
     @Override
     public String toString() {
-        return "Order{id=" + id + ", status=" + status + ", priority=" + priority +
-                ", weightKg=" + weightKg + "}";
+        return "Order{id=" + getId() + ", status=" + getStatus() + ", priority=" + getPriority() +
+                ", weightKg=" + getWeightKg() + "}";
     }
 }
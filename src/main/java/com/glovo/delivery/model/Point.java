@@ -1,24 +1,29 @@
 package com.glovo.delivery.model;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.DecimalMin;
 
 import java.util.Objects;
 
-public class Point {
+/**
+ * Immutable position on the [0, 100] x [0, 100] plane. Used at API boundaries and for
+ * order locations; couriers keep their position as primitive fields
+ * (see {@link Courier#moveTo(double, double)}) so a Point is never shared with mutable state.
+ */
+public final class Point {
 
     @DecimalMin(value = "0", message = "X coordinate must be >= 0")
     @DecimalMax(value = "100", message = "X coordinate must be <= 100")
-    private double x;
+    private final double x;
 
     @DecimalMin(value = "0", message = "Y coordinate must be >= 0")
     @DecimalMax(value = "100", message = "Y coordinate must be <= 100")
-    private double y;
+    private final double y;
 
-    public Point() {
-    }
-
-    public Point(double x, double y) {
+    @JsonCreator
+    public Point(@JsonProperty("x") double x, @JsonProperty("y") double y) {
         validateCoordinate(x, "X");
         validateCoordinate(y, "Y");
         this.x = x;
@@ -26,31 +31,25 @@ public class Point {
     }
 
     public double distanceTo(Point other) {
-        double dx = this.x - other.x;
-        double dy = this.y - other.y;
-        return Math.sqrt(dx * dx + dy * dy);
+        return distance(x, y, other.x, other.y);
     }
 
     public double getX() {
         return x;
     }
 
-    public void setX(double x) {
-        validateCoordinate(x, "X");
-        this.x = x;
-    }
-
     public double getY() {
         return y;
     }
 
-    public void setY(double y) {
-        validateCoordinate(y, "Y");
-        this.y = y;
+    static double distance(double x1, double y1, double x2, double y2) {
+        double dx = x1 - x2;
+        double dy = y1 - y2;
+        return Math.sqrt(dx * dx + dy * dy);
     }
 
-    private static void validateCoordinate(double value, String name) {
-        if (value < 0 || value > 100) {
+    static void validateCoordinate(double value, String name) {
+        if (!(value >= 0 && value <= 100)) {
             throw new IllegalArgumentException(
                     name + " coordinate must be in range [0, 100]. Got: " + value);
         }
@@ -59,8 +58,7 @@ public class Point {
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        Point point = (Point) o;
+        if (!(o instanceof Point point)) return false;
         return Double.compare(point.x, x) == 0 && Double.compare(point.y, y) == 0;
     }
 
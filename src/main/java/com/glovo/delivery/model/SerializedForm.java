@@ -0,0 +1,27 @@
+package com.glovo.delivery.model;
+
+/**
+ * JSON bytes of an entity together with the entity version they were produced from.
+ * Immutable, so it can be shared between an entity and its snapshot copies.
+ */
+public final class SerializedForm {
+
+    private final long version;
+    private final byte[] json;
+
+    public SerializedForm(long version, byte[] json) {
+        this.version = version;
+        this.json = json;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * The cached bytes. Callers must not modify the array.
+     */
+    public byte[] getJson() {
+        return json;
+    }
+}
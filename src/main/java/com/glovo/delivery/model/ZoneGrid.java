@@ -0,0 +1,38 @@
+package com.glovo.delivery.model;
+
+/**
+ * Divides the [0, 100] x [0, 100] plane into a fixed grid of square zones.
+ * Zone ids are dense ints in row-major order: {@code row * ZONES_PER_AXIS + column}.
+ */
+public final class ZoneGrid {
+
+    public static final int ZONES_PER_AXIS = 10;
+    public static final int ZONE_COUNT = ZONES_PER_AXIS * ZONES_PER_AXIS;
+    public static final double ZONE_SIZE = 100.0 / ZONES_PER_AXIS;
+
+    /** Reciprocal of {@link #ZONE_SIZE}: zone lookups sit in per-candidate loops, so multiply instead of divide. */
+    private static final double ZONES_PER_UNIT = ZONES_PER_AXIS / 100.0;
+
+    private ZoneGrid() {
+    }
+
+    public static int zoneOf(double x, double y) {
+        return rowOf(y) * ZONES_PER_AXIS + columnOf(x);
+    }
+
+    public static int zoneOf(Point point) {
+        return zoneOf(point.getX(), point.getY());
+    }
+
+    public static boolean isValidZone(int zone) {
+        return zone >= 0 && zone < ZONE_COUNT;
+    }
+
+    private static int columnOf(double x) {
+        return Math.min((int) (x * ZONES_PER_UNIT), ZONES_PER_AXIS - 1);
+    }
+
+    private static int rowOf(double y) {
+        return Math.min((int) (y * ZONES_PER_UNIT), ZONES_PER_AXIS - 1);
+    }
+}
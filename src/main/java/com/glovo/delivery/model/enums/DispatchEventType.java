@@ -0,0 +1,8 @@
+package com.glovo.delivery.model.enums;
+
+public enum DispatchEventType {
+    ORDER_QUEUED,
+    ORDER_ASSIGNED,
+    ORDER_COMPLETED,
+    COURIER_FREED
+}
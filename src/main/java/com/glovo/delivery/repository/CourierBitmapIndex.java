@@ -0,0 +1,308 @@
+package com.glovo.delivery.repository;
+
+import com.glovo.delivery.model.ZoneGrid;
+import com.glovo.delivery.model.enums.CourierStatus;
+import com.glovo.delivery.model.enums.CourierType;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.IntConsumer;
+
+/**
+ * Bitmaps over dense courier slots: one for live slots and one per {@link CourierStatus},
+ * {@link CourierType} and {@link ZoneGrid} zone. A {@link CourierQuery} is answered 64
+ * slots at a time by OR-ing the allowed bitmaps of each dimension and AND-ing the
+ * dimensions, and callers visit only the set bits of the result.
+ *
+ * The repository owns slot numbering and calls {@link #put}, {@link #move} and
+ * {@link #remove} as couriers change. Updates take a short write lock; queries compute
+ * their result words under a read lock and visit them after releasing it, so results
+ * are weakly consistent with concurrent updates.
+ *
+ * Each zone also has a supply version ({@link #supplyVersion}) for caches of nearby free
+ * couriers: it changes whenever free supply may have been added to the zone, and not when
+ * a free courier only becomes busy.
+ */
+public final class CourierBitmapIndex {
+
+    /** Zone of a courier without a location. */
+    public static final int NO_ZONE = -1;
+
+    private static final int STATUS_COUNT = CourierStatus.values().length;
+    private static final int TYPE_COUNT = CourierType.values().length;
+    private static final byte NONE = -1;
+    private static final byte FREE = (byte) CourierStatus.FREE.ordinal();
+    private static final int INITIAL_WORDS = 16;
+
+    private final StampedLock lock = new StampedLock();
+
+    /** Result words of the last {@link #select} on each thread. */
+    private final ThreadLocal<long[]> scratch = ThreadLocal.withInitial(() -> new long[INITIAL_WORDS]);
+
+    private long[] live = new long[INITIAL_WORDS];
+    private final long[][] byStatus = new long[STATUS_COUNT][INITIAL_WORDS];
+    private final long[][] byType = new long[TYPE_COUNT][INITIAL_WORDS];
+    private final long[][] byZone = new long[ZoneGrid.ZONE_COUNT][INITIAL_WORDS];
+
+    /** Bumped under the write lock, or without it for a move within a zone; read without it. */
+    private final AtomicLongArray supplyVersions = new AtomicLongArray(ZoneGrid.ZONE_COUNT);
+
+    /** Current status, type and zone of each slot, to clear the old bits on change. */
+    private byte[] statusOf = grow(new byte[0], INITIAL_WORDS << 6);
+    private byte[] typeOf = grow(new byte[0], INITIAL_WORDS << 6);
+    private byte[] zoneOf = grow(new byte[0], INITIAL_WORDS << 6);
+
+    /**
+     * Index a courier at a slot, replacing whatever was indexed there.
+     */
+    public void put(int slot, CourierStatus status, CourierType type, double x, double y) {
+        long stamp = lock.writeLock();
+        try {
+            ensureCapacity(slot);
+            set(live, slot, true);
+            statusOf[slot] = reindex(byStatus, slot, statusOf[slot], status == null ? NONE : (byte) status.ordinal());
+            typeOf[slot] = reindex(byType, slot, typeOf[slot], type == null ? NONE : (byte) type.ordinal());
+            zoneOf[slot] = reindex(byZone, slot, zoneOf[slot], (byte) zoneOf(x, y));
+            if (statusOf[slot] == FREE) {
+                bumpSupply(zoneOf[slot]);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Re-index the zone of a live slot after a location change. Does not allocate, and
+     * takes the write lock only when the courier crosses into another zone.
+     */
+    public void move(int slot, double x, double y) {
+        byte zone = (byte) zoneOf(x, y);
+        long optimistic = lock.tryOptimisticRead();
+        byte[] zones = zoneOf;
+        byte[] statuses = statusOf;
+        if (slot < zones.length && slot < statuses.length) {
+            byte current = zones[slot];
+            boolean free = statuses[slot] == FREE;
+            if (current == zone && lock.validate(optimistic)) {
+                // Bits stay as they are; nearest free supply in the zone may still have changed
+                if (free) {
+                    bumpSupply(zone);
+                }
+                return;
+            }
+        }
+        long stamp = lock.writeLock();
+        try {
+            if (slot < statusOf.length && get(live, slot)) {
+                if (zoneOf[slot] != zone) {
+                    zoneOf[slot] = reindex(byZone, slot, zoneOf[slot], zone);
+                }
+                if (statusOf[slot] == FREE) {
+                    bumpSupply(zone);
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void remove(int slot) {
+        long stamp = lock.writeLock();
+        try {
+            if (slot >= statusOf.length || !get(live, slot)) {
+                return;
+            }
+            set(live, slot, false);
+            // A cache may still hold the courier wherever it has moved since, and the slot
+            // may be reused: removals are rare, so every zone changes
+            bumpAllSupply();
+            statusOf[slot] = reindex(byStatus, slot, statusOf[slot], NONE);
+            typeOf[slot] = reindex(byType, slot, typeOf[slot], NONE);
+            zoneOf[slot] = reindex(byZone, slot, zoneOf[slot], NONE);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            Arrays.fill(live, 0);
+            for (long[][] bitmaps : new long[][][]{byStatus, byType, byZone}) {
+                for (long[] bitmap : bitmaps) {
+                    Arrays.fill(bitmap, 0);
+                }
+            }
+            Arrays.fill(statusOf, NONE);
+            Arrays.fill(typeOf, NONE);
+            Arrays.fill(zoneOf, NONE);
+            bumpAllSupply();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Visit the matching slots in ascending order.
+     */
+    public void forEach(CourierQuery query, IntConsumer action) {
+        long[] result = select(query);
+        for (int w = 0; w < result.length; w++) {
+            for (long bits = result[w]; bits != 0; bits &= bits - 1) {
+                action.accept((w << 6) + Long.numberOfTrailingZeros(bits));
+            }
+        }
+    }
+
+    /**
+     * Result bitmap of the query: bit {@code s} of word {@code s >>> 6} is set for every
+     * matching slot. The array is a per-thread scratch buffer that stays valid until the
+     * same thread selects again, so callers must not keep it. Allocates only when the
+     * index has grown since the thread's previous call.
+     */
+    public long[] select(CourierQuery query) {
+        long stamp = lock.readLock();
+        try {
+            long[] result = scratch.get();
+            if (result.length != live.length) {
+                result = new long[live.length];
+                scratch.set(result);
+            }
+            for (int w = 0; w < result.length; w++) {
+                result[w] = word(query, w);
+            }
+            return result;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int count(CourierQuery query) {
+        long stamp = lock.readLock();
+        try {
+            int count = 0;
+            for (int w = 0; w < live.length; w++) {
+                count += Long.bitCount(word(query, w));
+            }
+            return count;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Counter that changes every time a free courier is indexed in or moved within the zone,
+     * and for every zone when any courier is removed. A cache of nearby free couriers built
+     * over some zones stays complete as long as the sum of their versions is unchanged;
+     * couriers that turned busy in the meantime are for the reader to skip.
+     */
+    public long supplyVersion(int zone) {
+        return supplyVersions.get(zone);
+    }
+
+    /**
+     * Zone of a position, or {@link #NO_ZONE} when the location is unknown (NaN).
+     */
+    public static int zoneOf(double x, double y) {
+        return Double.isNaN(x) ? NO_ZONE : ZoneGrid.zoneOf(x, y);
+    }
+
+    private long word(CourierQuery query, int w) {
+        long bits = live[w];
+        if (bits == 0) {
+            return 0;
+        }
+        if (!query.anyStatus()) {
+            bits &= union(byStatus, query.statusMask(), w);
+        }
+        if (!query.anyType()) {
+            bits &= union(byType, query.typeMask(), w);
+        }
+        if (!query.anyZone() && bits != 0) {
+            long zones = 0;
+            for (int zone : query.zoneIds()) {
+                zones |= byZone[zone][w];
+            }
+            bits &= zones;
+        }
+        return bits;
+    }
+
+    private void bumpSupply(int zone) {
+        if (zone != NONE) {
+            supplyVersions.incrementAndGet(zone);
+        }
+    }
+
+    private void bumpAllSupply() {
+        for (int zone = 0; zone < ZoneGrid.ZONE_COUNT; zone++) {
+            supplyVersions.incrementAndGet(zone);
+        }
+    }
+
+    private static long union(long[][] bitmaps, long mask, int w) {
+        long bits = 0;
+        for (long m = mask; m != 0; m &= m - 1) {
+            int value = Long.numberOfTrailingZeros(m);
+            if (value < bitmaps.length) {
+                bits |= bitmaps[value][w];
+            }
+        }
+        return bits;
+    }
+
+    private static byte reindex(long[][] bitmaps, int slot, byte from, byte to) {
+        if (from != to) {
+            if (from != NONE) {
+                set(bitmaps[from], slot, false);
+            }
+            if (to != NONE) {
+                set(bitmaps[to], slot, true);
+            }
+        }
+        return to;
+    }
+
+    private void ensureCapacity(int slot) {
+        if (slot < statusOf.length) {
+            return;
+        }
+        int words = live.length;
+        while ((words << 6) <= slot) {
+            words <<= 1;
+        }
+        live = Arrays.copyOf(live, words);
+        grow(byStatus, words);
+        grow(byType, words);
+        grow(byZone, words);
+        statusOf = grow(statusOf, words << 6);
+        typeOf = grow(typeOf, words << 6);
+        zoneOf = grow(zoneOf, words << 6);
+    }
+
+    private static void grow(long[][] bitmaps, int words) {
+        for (int i = 0; i < bitmaps.length; i++) {
+            bitmaps[i] = Arrays.copyOf(bitmaps[i], words);
+        }
+    }
+
+    private static byte[] grow(byte[] codes, int length) {
+        int from = codes.length;
+        byte[] grown = Arrays.copyOf(codes, length);
+        Arrays.fill(grown, from, length, NONE);
+        return grown;
+    }
+
+    private static boolean get(long[] bitmap, int slot) {
+        return (bitmap[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    private static void set(long[] bitmap, int slot, boolean value) {
+        if (value) {
+            bitmap[slot >>> 6] |= 1L << slot;
+        } else {
+            bitmap[slot >>> 6] &= ~(1L << slot);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.glovo.delivery.repository;
+
+import com.glovo.delivery.model.Courier;
+
+/**
+ * Callback for spatial indexes that must follow courier positions. The repository calls it
+ * after a courier is stored, moved with {@link CourierRepository#updateLocation} or removed;
+ * a coordinate pair is NaN when the courier had (or has) no position in the repository.
+ *
+ * Listeners run on the thread that made the change, outside any repository lock, and
+ * must not block.
+ */
+@FunctionalInterface
+public interface CourierPositionListener {
+
+    void positionChanged(Courier courier, double fromX, double fromY, double toX, double toY);
+}
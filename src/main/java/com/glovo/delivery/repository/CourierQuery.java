@@ -0,0 +1,155 @@
+package com.glovo.delivery.repository;
+
+import com.glovo.delivery.model.Courier;
+import com.glovo.delivery.model.ZoneGrid;
+import com.glovo.delivery.model.enums.CourierStatus;
+import com.glovo.delivery.model.enums.CourierType;
+
+import java.util.Arrays;
+
+/**
+ * Conjunction of courier filters answered by {@link CourierBitmapIndex}: status in a set,
+ * type in a set and zone in a set. Each dimension is either unrestricted or a set of
+ * allowed values; narrowing the same dimension twice intersects the sets. Immutable.
+ *
+ * <pre>{@code
+ * CourierQuery.status(FREE).types(BICYCLE, CAR).zones(12, 13, 22)
+ * }</pre>
+ */
+public final class CourierQuery {
+
+    private static final long ANY = -1L;
+
+    public static final CourierQuery ALL = new CourierQuery(ANY, ANY, null);
+
+    private final long statusMask;
+    private final long typeMask;
+    /** Allowed zones as a bitmap over zone ids, or null for any zone. */
+    private final long[] zoneMask;
+    /** The same zones as a list, for OR-ing their bitmaps. */
+    private final int[] zoneIds;
+
+    private CourierQuery(long statusMask, long typeMask, long[] zoneMask) {
+        this.statusMask = statusMask;
+        this.typeMask = typeMask;
+        this.zoneMask = zoneMask;
+        this.zoneIds = zoneMask == null ? null : toIds(zoneMask);
+    }
+
+    public static CourierQuery status(CourierStatus... statuses) {
+        return ALL.statuses(statuses);
+    }
+
+    public CourierQuery statuses(CourierStatus... statuses) {
+        long mask = 0;
+        for (CourierStatus status : statuses) {
+            mask |= 1L << status.ordinal();
+        }
+        return new CourierQuery(statusMask & mask, typeMask, zoneMask);
+    }
+
+    public CourierQuery types(CourierType... types) {
+        long mask = 0;
+        for (CourierType type : types) {
+            mask |= 1L << type.ordinal();
+        }
+        return new CourierQuery(statusMask, typeMask & mask, zoneMask);
+    }
+
+    /**
+     * Only types whose capacity covers the weight.
+     */
+    public CourierQuery carrying(double weightKg) {
+        long mask = 0;
+        for (CourierType type : CourierType.values()) {
+            if (type.canCarry(weightKg)) {
+                mask |= 1L << type.ordinal();
+            }
+        }
+        return new CourierQuery(statusMask, typeMask & mask, zoneMask);
+    }
+
+    /**
+     * Only couriers located in one of the zones (see {@link ZoneGrid}). Couriers without a
+     * location are in no zone.
+     */
+    public CourierQuery zones(int... zones) {
+        long[] mask = new long[words(ZoneGrid.ZONE_COUNT)];
+        for (int zone : zones) {
+            if (!ZoneGrid.isValidZone(zone)) {
+                throw new IllegalArgumentException("Zone must be in [0, " + ZoneGrid.ZONE_COUNT + "). Got: " + zone);
+            }
+            mask[zone >>> 6] |= 1L << zone;
+        }
+        if (zoneMask != null) {
+            for (int i = 0; i < mask.length; i++) {
+                mask[i] &= zoneMask[i];
+            }
+        }
+        return new CourierQuery(statusMask, typeMask, mask);
+    }
+
+    public boolean matches(Courier courier) {
+        return matches(courier.getStatus(), courier.getType(),
+                CourierBitmapIndex.zoneOf(courier.getLocationX(), courier.getLocationY()));
+    }
+
+    boolean matches(CourierStatus status, CourierType type, int zone) {
+        return allows(statusMask, status) && allows(typeMask, type)
+                && (zoneMask == null || zone >= 0 && (zoneMask[zone >>> 6] & (1L << zone)) != 0);
+    }
+
+    boolean anyStatus() {
+        return statusMask == ANY;
+    }
+
+    boolean anyType() {
+        return typeMask == ANY;
+    }
+
+    boolean anyZone() {
+        return zoneMask == null;
+    }
+
+    long statusMask() {
+        return statusMask;
+    }
+
+    long typeMask() {
+        return typeMask;
+    }
+
+    int[] zoneIds() {
+        return zoneIds;
+    }
+
+    private static boolean allows(long mask, Enum<?> value) {
+        return mask == ANY || value != null && (mask & (1L << value.ordinal())) != 0;
+    }
+
+    static int words(int bits) {
+        return (bits + 63) >>> 6;
+    }
+
+    private static int[] toIds(long[] mask) {
+        int count = 0;
+        for (long word : mask) {
+            count += Long.bitCount(word);
+        }
+        int[] ids = new int[count];
+        int next = 0;
+        for (int i = 0; i < mask.length; i++) {
+            for (long word = mask[i]; word != 0; word &= word - 1) {
+                ids[next++] = (i << 6) + Long.numberOfTrailingZeros(word);
+            }
+        }
+        return ids;
+    }
+
+    @Override
+    public String toString() {
+        return "CourierQuery{statusMask=" + (statusMask == ANY ? "any" : Long.toBinaryString(statusMask))
+                + ", typeMask=" + (typeMask == ANY ? "any" : Long.toBinaryString(typeMask))
+                + ", zones=" + (zoneIds == null ? "any" : Arrays.toString(zoneIds)) + "}";
+    }
+}
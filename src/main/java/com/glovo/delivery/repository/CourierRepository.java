@@ -2,44 +2,255 @@ package com.glovo.delivery.repository;
 
 import com.glovo.delivery.model.Courier;
 import com.glovo.delivery.model.enums.CourierStatus;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Repository;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentSkipListMap;
 
+/**
+ * Default in-memory backend, one object per entity. {@code repository.storage=compact}
+ * replaces it with the column-based backend in {@code repository.compact}.
+ *
+ * Every stored courier also gets a dense slot in a {@link CourierBitmapIndex}, which answers
+ * status, type and zone queries ({@link #find(CourierQuery)}). The index follows
+ * {@link #save}, {@link #updateLocation} and deletes, so a stored courier whose status is
+ * changed in place must be saved again before queries see the change.
+ */
 @Repository
+@ConditionalOnProperty(name = "repository.storage", havingValue = "map", matchIfMissing = true)
 public class CourierRepository {
 
+    private static final CourierQuery[] BY_STATUS = new CourierQuery[CourierStatus.values().length];
+
+    static {
+        for (CourierStatus status : CourierStatus.values()) {
+            BY_STATUS[status.ordinal()] = CourierQuery.status(status);
+        }
+    }
+
     private final ConcurrentHashMap<UUID, Courier> couriers = new ConcurrentHashMap<>();
 
+    /**
+     * Same entries ordered by id, for cursor pagination. Lookups stay on the hash map.
+     */
+    private final ConcurrentSkipListMap<UUID, Courier> byId = new ConcurrentSkipListMap<>();
+
+    private volatile CourierPositionListener[] positionListeners = new CourierPositionListener[0];
+
+    private final CourierBitmapIndex index = new CourierBitmapIndex();
+
+    /** Slot of every stored courier and the courier in every used slot. Written under {@code slotLock}. */
+    private final ConcurrentHashMap<UUID, Integer> slotById = new ConcurrentHashMap<>();
+    private volatile Courier[] bySlot = new Courier[64];
+    private final Object slotLock = new Object();
+    private int[] freeSlots = new int[16];
+    private int freeSlotCount;
+    private int nextSlot;
+
+    /**
+     * Saving the instance that is already stored does not notify position listeners: a
+     * stored courier has to be moved with {@link #updateLocation} for listeners to see it.
+     */
     public Courier save(Courier courier) {
-        couriers.put(courier.getId(), courier);
+        Courier previous = store(courier);
+        if (previous != courier) {
+            firePositionChanged(courier,
+                    previous == null ? Double.NaN : previous.getLocationX(),
+                    previous == null ? Double.NaN : previous.getLocationY(),
+                    courier.getLocationX(), courier.getLocationY());
+        }
         return courier;
     }
 
+    /**
+     * Move a courier and notify position listeners. This is the path every location source
+     * goes through; it does not allocate. A courier that is no longer stored is saved again.
+     */
+    public void updateLocation(Courier courier, double x, double y) {
+        Courier previous = couriers.get(courier.getId());
+        double fromX = previous == null ? Double.NaN : previous.getLocationX();
+        double fromY = previous == null ? Double.NaN : previous.getLocationY();
+        courier.moveTo(x, y);
+        if (previous != courier) {
+            store(courier);
+        } else {
+            Integer slot = slotById.get(courier.getId());
+            if (slot != null) {
+                index.move(slot, x, y);
+            }
+        }
+        firePositionChanged(courier, fromX, fromY, x, y);
+    }
+
+    /**
+     * Dense slot of a stored courier, or -1 when it is not stored. Slots are small integers
+     * reused after deletes, for per-courier state kept in arrays instead of maps.
+     */
+    public int slotOf(Courier courier) {
+        Integer slot = slotById.get(courier.getId());
+        return slot == null ? -1 : slot;
+    }
+
+    private Courier store(Courier courier) {
+        synchronized (slotLock) {
+            Courier previous = couriers.put(courier.getId(), courier);
+            byId.put(courier.getId(), courier);
+            Integer slot = slotById.get(courier.getId());
+            if (slot == null) {
+                slot = allocateSlot();
+                slotById.put(courier.getId(), slot);
+            }
+            bySlot[slot] = courier;
+            index.put(slot, courier.getStatus(), courier.getType(), courier.getLocationX(), courier.getLocationY());
+            return previous;
+        }
+    }
+
+    private int allocateSlot() {
+        if (freeSlotCount > 0) {
+            return freeSlots[--freeSlotCount];
+        }
+        int slot = nextSlot++;
+        if (slot == bySlot.length) {
+            bySlot = Arrays.copyOf(bySlot, slot * 2);
+        }
+        return slot;
+    }
+
+    private void releaseSlot(UUID id) {
+        Integer slot = slotById.remove(id);
+        if (slot == null) {
+            return;
+        }
+        bySlot[slot] = null;
+        index.remove(slot);
+        if (freeSlotCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlotCount * 2);
+        }
+        freeSlots[freeSlotCount++] = slot;
+    }
+
+    public synchronized void addPositionListener(CourierPositionListener listener) {
+        CourierPositionListener[] current = positionListeners;
+        CourierPositionListener[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = listener;
+        positionListeners = updated;
+    }
+
+    protected boolean hasPositionListeners() {
+        return positionListeners.length > 0;
+    }
+
+    protected void firePositionChanged(Courier courier, double fromX, double fromY, double toX, double toY) {
+        if (Double.compare(fromX, toX) == 0 && Double.compare(fromY, toY) == 0) {
+            return;
+        }
+        for (CourierPositionListener listener : positionListeners) {
+            listener.positionChanged(courier, fromX, fromY, toX, toY);
+        }
+    }
+
     public Optional<Courier> findById(UUID id) {
         return Optional.ofNullable(couriers.get(id));
     }
 
+    /**
+     * Couriers of a batch of ids into a caller-owned list, position for position: the
+     * courier, or null when the id is unknown. One call per batch instead of one
+     * {@link #findById} and one {@code Optional} per id.
+     *
+     * @return {@code into}
+     */
+    public List<Courier> findAllById(List<UUID> ids, List<Courier> into) {
+        into.clear();
+        for (int i = 0; i < ids.size(); i++) {
+            into.add(couriers.get(ids.get(i)));
+        }
+        return into;
+    }
+
+    /**
+     * Copy of all couriers in id order.
+     */
     public List<Courier> findAll() {
-        return new ArrayList<>(couriers.values());
+        return new ArrayList<>(byId.values());
+    }
+
+    /**
+     * Live view of the couriers whose id is greater than {@code afterId} (all couriers when null),
+     * in id order. Nothing is copied; iteration is weakly consistent with concurrent saves.
+     */
+    public Collection<Courier> findAllAfter(UUID afterId) {
+        return afterId == null ? byId.values() : byId.tailMap(afterId, false).values();
+    }
+
+    /**
+     * Couriers matching the query, in slot order. Only the set bits of the bitmap result are
+     * visited; each hit is checked against the query again, so a courier changed after its
+     * last save is never returned for a status, type or zone it no longer has.
+     */
+    public List<Courier> find(CourierQuery query) {
+        return find(query, new ArrayList<>());
+    }
+
+    /**
+     * Same as {@link #find(CourierQuery)}, but clears and fills a caller-owned list. With a
+     * reused list whose capacity suffices, this backend does not allocate.
+     *
+     * @return {@code into}
+     */
+    public List<Courier> find(CourierQuery query, List<Courier> into) {
+        into.clear();
+        long[] words = index.select(query);
+        Courier[] table = bySlot;
+        for (int w = 0; w < words.length; w++) {
+            for (long bits = words[w]; bits != 0; bits &= bits - 1) {
+                int slot = (w << 6) + Long.numberOfTrailingZeros(bits);
+                Courier courier = slot < table.length ? table[slot] : null;
+                if (courier != null && query.matches(courier)) {
+                    into.add(courier);
+                }
+            }
+        }
+        return into;
+    }
+
+    /**
+     * Number of couriers matching the query, counted on the bitmaps alone.
+     */
+    public long count(CourierQuery query) {
+        return index.count(query);
     }
 
     public List<Courier> findByStatus(CourierStatus status) {
-        return couriers.values().stream()
-                .filter(courier -> courier.getStatus() == status)
-                .collect(Collectors.toList());
+        return find(BY_STATUS[status.ordinal()]);
     }
 
     public List<Courier> findFree() {
         return findByStatus(CourierStatus.FREE);
     }
 
+    /**
+     * Free couriers into a caller-owned list, for the dispatch hot path.
+     *
+     * @return {@code into}
+     */
+    public List<Courier> findFree(List<Courier> into) {
+        return find(BY_STATUS[CourierStatus.FREE.ordinal()], into);
+    }
+
+    /**
+     * Supply version of a {@link com.glovo.delivery.model.ZoneGrid} zone, see
+     * {@link CourierBitmapIndex#supplyVersion}.
+     */
+    public long supplyVersion(int zone) {
+        return index.supplyVersion(zone);
+    }
+
     public long countByStatus(CourierStatus status) {
-        return couriers.values().stream()
-                .filter(courier -> courier.getStatus() == status)
-                .count();
+        return count(BY_STATUS[status.ordinal()]);
     }
 
     public long count() {
@@ -47,10 +258,31 @@ public class CourierRepository {
     }
 
     public void deleteById(UUID id) {
-        couriers.remove(id);
+        Courier removed;
+        synchronized (slotLock) {
+            removed = couriers.remove(id);
+            byId.remove(id);
+            releaseSlot(id);
+        }
+        if (removed != null) {
+            firePositionChanged(removed, removed.getLocationX(), removed.getLocationY(), Double.NaN, Double.NaN);
+        }
     }
 
     public void clear() {
-        couriers.clear();
+        List<Courier> removed;
+        synchronized (slotLock) {
+            removed = hasPositionListeners() ? new ArrayList<>(couriers.values()) : List.of();
+            couriers.clear();
+            byId.clear();
+            slotById.clear();
+            Arrays.fill(bySlot, null);
+            freeSlotCount = 0;
+            nextSlot = 0;
+            index.clear();
+        }
+        for (Courier courier : removed) {
+            firePositionChanged(courier, courier.getLocationX(), courier.getLocationY(), Double.NaN, Double.NaN);
+        }
     }
 }
@@ -2,19 +2,48 @@ package com.glovo.delivery.repository;
 
 import com.glovo.delivery.model.Order;
 import com.glovo.delivery.model.enums.OrderStatus;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Repository;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.stream.Collectors;
 
+/**
+ * Default in-memory backend, one object per entity. {@code repository.storage=compact}
+ * replaces it with the column-based backend in {@code repository.compact}.
+ */
 @Repository
+@ConditionalOnProperty(name = "repository.storage", havingValue = "map", matchIfMissing = true)
 public class OrderRepository {
 
     private final ConcurrentHashMap<UUID, Order> orders = new ConcurrentHashMap<>();
 
+    /**
+     * Same entries ordered by id, for cursor pagination. Lookups stay on the hash map.
+     */
+    private final ConcurrentSkipListMap<UUID, Order> byId = new ConcurrentSkipListMap<>();
+
+    /**
+     * Status of each order as of its last save, and the resulting count per status. Orders
+     * are mutated in place before they are saved, so the old status cannot be read back.
+     */
+    private final ConcurrentHashMap<UUID, OrderStatus> savedStatus = new ConcurrentHashMap<>();
+    private final AtomicLongArray statusCounts = new AtomicLongArray(OrderStatus.values().length);
+
     public Order save(Order order) {
         orders.put(order.getId(), order);
+        byId.put(order.getId(), order);
+        OrderStatus status = order.getStatus();
+        OrderStatus previous = status == null
+                ? savedStatus.remove(order.getId())
+                : savedStatus.put(order.getId(), status);
+        if (previous != status) {
+            adjustStatusCount(previous, -1);
+            adjustStatusCount(status, 1);
+        }
         return order;
     }
 
@@ -22,8 +51,19 @@ public class OrderRepository {
         return Optional.ofNullable(orders.get(id));
     }
 
+    /**
+     * Copy of all orders in id order.
+     */
     public List<Order> findAll() {
-        return new ArrayList<>(orders.values());
+        return new ArrayList<>(byId.values());
+    }
+
+    /**
+     * Live view of the orders whose id is greater than {@code afterId} (all orders when null),
+     * in id order. Nothing is copied; iteration is weakly consistent with concurrent saves.
+     */
+    public Collection<Order> findAllAfter(UUID afterId) {
+        return afterId == null ? byId.values() : byId.tailMap(afterId, false).values();
     }
 
     public List<Order> findByStatus(OrderStatus status) {
@@ -32,10 +72,12 @@ public class OrderRepository {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Kept up to date by {@link #save} and {@link #deleteById}, so constant time; a status
+     * changed on an order that was not saved since is not counted yet.
+     */
     public long countByStatus(OrderStatus status) {
-        return orders.values().stream()
-                .filter(order -> order.getStatus() == status)
-                .count();
+        return statusCounts.get(status.ordinal());
     }
 
     public long count() {
@@ -44,9 +86,22 @@ public class OrderRepository {
 
     public void deleteById(UUID id) {
         orders.remove(id);
+        byId.remove(id);
+        adjustStatusCount(savedStatus.remove(id), -1);
     }
 
     public void clear() {
         orders.clear();
+        byId.clear();
+        savedStatus.clear();
+        for (int i = 0; i < statusCounts.length(); i++) {
+            statusCounts.set(i, 0);
+        }
+    }
+
+    private void adjustStatusCount(OrderStatus status, int delta) {
+        if (status != null) {
+            statusCounts.addAndGet(status.ordinal(), delta);
+        }
     }
 }
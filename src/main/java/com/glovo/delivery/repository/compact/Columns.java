@@ -0,0 +1,125 @@
+package com.glovo.delivery.repository.compact;
+
+import java.util.Arrays;
+
+/**
+ * Primitive columns split into fixed-size pages. Growing a column only adds pages and
+ * replaces the page directory; existing pages are never copied, so a write through a
+ * view can never land in an array that has just been replaced.
+ *
+ * Like the fields of a plain entity, individual cells are read and written without
+ * synchronization. Growth must be serialized by the owning repository.
+ */
+final class Columns {
+
+    static final int PAGE_SHIFT = 10;
+    static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private Columns() {
+    }
+
+    static int pagesFor(int capacity) {
+        return (capacity + PAGE_SIZE - 1) >>> PAGE_SHIFT;
+    }
+
+    static final class LongColumn {
+
+        private volatile long[][] pages = new long[0][];
+
+        long get(int slot) {
+            return pages[slot >>> PAGE_SHIFT][slot & PAGE_MASK];
+        }
+
+        void set(int slot, long value) {
+            pages[slot >>> PAGE_SHIFT][slot & PAGE_MASK] = value;
+        }
+
+        void ensureCapacity(int capacity) {
+            long[][] current = pages;
+            int needed = pagesFor(capacity);
+            if (needed > current.length) {
+                long[][] grown = Arrays.copyOf(current, needed);
+                for (int i = current.length; i < needed; i++) {
+                    grown[i] = new long[PAGE_SIZE];
+                }
+                pages = grown;
+            }
+        }
+    }
+
+    static final class DoubleColumn {
+
+        private volatile double[][] pages = new double[0][];
+
+        double get(int slot) {
+            return pages[slot >>> PAGE_SHIFT][slot & PAGE_MASK];
+        }
+
+        void set(int slot, double value) {
+            pages[slot >>> PAGE_SHIFT][slot & PAGE_MASK] = value;
+        }
+
+        void ensureCapacity(int capacity) {
+            double[][] current = pages;
+            int needed = pagesFor(capacity);
+            if (needed > current.length) {
+                double[][] grown = Arrays.copyOf(current, needed);
+                for (int i = current.length; i < needed; i++) {
+                    grown[i] = new double[PAGE_SIZE];
+                }
+                pages = grown;
+            }
+        }
+    }
+
+    static final class IntColumn {
+
+        private volatile int[][] pages = new int[0][];
+
+        int get(int slot) {
+            return pages[slot >>> PAGE_SHIFT][slot & PAGE_MASK];
+        }
+
+        void set(int slot, int value) {
+            pages[slot >>> PAGE_SHIFT][slot & PAGE_MASK] = value;
+        }
+
+        void ensureCapacity(int capacity) {
+            int[][] current = pages;
+            int needed = pagesFor(capacity);
+            if (needed > current.length) {
+                int[][] grown = Arrays.copyOf(current, needed);
+                for (int i = current.length; i < needed; i++) {
+                    grown[i] = new int[PAGE_SIZE];
+                }
+                pages = grown;
+            }
+        }
+    }
+
+    static final class ByteColumn {
+
+        private volatile byte[][] pages = new byte[0][];
+
+        byte get(int slot) {
+            return pages[slot >>> PAGE_SHIFT][slot & PAGE_MASK];
+        }
+
+        void set(int slot, byte value) {
+            pages[slot >>> PAGE_SHIFT][slot & PAGE_MASK] = value;
+        }
+
+        void ensureCapacity(int capacity) {
+            byte[][] current = pages;
+            int needed = pagesFor(capacity);
+            if (needed > current.length) {
+                byte[][] grown = Arrays.copyOf(current, needed);
+                for (int i = current.length; i < needed; i++) {
+                    grown[i] = new byte[PAGE_SIZE];
+                }
+                pages = grown;
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.glovo.delivery.repository.compact;
+
+import com.glovo.delivery.model.Courier;
+import com.glovo.delivery.model.SerializedForm;
+import com.glovo.delivery.model.enums.CourierStatus;
+import com.glovo.delivery.model.enums.CourierType;
+
+import java.util.UUID;
+
+/**
+ * Flyweight {@link Courier} over one slot of a {@link CompactCourierRepository}: it holds
+ * only the repository and the slot, and every getter and setter goes to the columns, so
+ * changes are visible to the repository without a save. Views are created on each read
+ * and are not meant to be kept; a view of a deleted courier must not be used.
+ *
+ * Views do not cache their JSON: they are too short-lived for the cache to pay off.
+ */
+final class CompactCourier extends Courier {
+
+    private final CompactCourierRepository repository;
+    private final int slot;
+
+    CompactCourier(CompactCourierRepository repository, int slot) {
+        super((UUID) null);
+        this.repository = repository;
+        this.slot = slot;
+    }
+
+    boolean belongsTo(CompactCourierRepository owner) {
+        return repository == owner;
+    }
+
+    int slot() {
+        return slot;
+    }
+
+    @Override
+    public Courier copy() {
+        long version = getVersion();
+        return detached(getId(), getLocationX(), getLocationY(), getType(), getStatus(),
+                getCompletedOrdersToday(), version);
+    }
+
+    @Override
+    public UUID getId() {
+        return repository.store.idAt(slot);
+    }
+
+    @Override
+    public void setId(UUID id) {
+        throw new UnsupportedOperationException("The id of a stored courier cannot change");
+    }
+
+    @Override
+    public double getLocationX() {
+        return repository.x.get(slot);
+    }
+
+    @Override
+    public double getLocationY() {
+        return repository.y.get(slot);
+    }
+
+    @Override
+    protected void writeLocation(double x, double y) {
+        repository.writeLocation(slot, x, y);
+    }
+
+    @Override
+    public CourierType getType() {
+        return CompactCourierRepository.typeOf(repository.type.get(slot));
+    }
+
+    @Override
+    public void setType(CourierType type) {
+        repository.type.set(slot, CompactCourierRepository.code(type));
+        repository.reindex(slot);
+    }
+
+    @Override
+    public CourierStatus getStatus() {
+        return CompactCourierRepository.statusOf(repository.status.get(slot));
+    }
+
+    @Override
+    public void setStatus(CourierStatus status) {
+        repository.status.set(slot, CompactCourierRepository.code(status));
+        repository.reindex(slot);
+    }
+
+    @Override
+    public int getCompletedOrdersToday() {
+        return repository.completed.get(slot);
+    }
+
+    @Override
+    public void setCompletedOrdersToday(int completedOrdersToday) {
+        repository.writeCompleted(slot, completedOrdersToday);
+    }
+
+    @Override
+    public void incrementCompletedOrdersToday() {
+        repository.writeCompleted(slot, repository.completed.get(slot) + 1);
+    }
+
+    @Override
+    public void resetCompletedOrdersToday() {
+        repository.writeCompleted(slot, 0);
+    }
+
+    @Override
+    public long getVersion() {
+        return repository.version.get(slot);
+    }
+
+    @Override
+    public SerializedForm getSerializedForm() {
+        return null;
+    }
+
+    @Override
+    public void setSerializedForm(SerializedForm serializedForm) {
+        // not cached, see class comment
+    }
+}
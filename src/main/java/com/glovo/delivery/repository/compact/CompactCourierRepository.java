@@ -0,0 +1,291 @@
+package com.glovo.delivery.repository.compact;
+
+import com.glovo.delivery.model.Courier;
+import com.glovo.delivery.model.enums.CourierStatus;
+import com.glovo.delivery.model.enums.CourierType;
+import com.glovo.delivery.repository.CourierBitmapIndex;
+import com.glovo.delivery.repository.CourierQuery;
+import com.glovo.delivery.repository.CourierRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link CourierRepository} backend that keeps couriers in primitive columns instead of
+ * one object graph per courier: the id as two longs, the location as two doubles, type
+ * and status as bytes and the daily counter as an int. Lookups go through an
+ * open-addressing index keyed by the two id longs. Reads return {@link CompactCourier}
+ * flyweights over a slot.
+ *
+ * Store slots double as {@link CourierBitmapIndex} slots. Views re-index on every status,
+ * type and location write, so queries are exact even for unsaved view changes.
+ *
+ * Every write also stamps the slot with a fresh value of a repository-wide sequence, which
+ * views report as their {@link Courier#getVersion() version}: a copy taken at version v is
+ * current for as long as the slot still reads v.
+ *
+ * Enabled with {@code repository.storage=compact}.
+ */
+@Repository
+@ConditionalOnProperty(name = "repository.storage", havingValue = "compact")
+public class CompactCourierRepository extends CourierRepository {
+
+    private static final CourierType[] TYPES = CourierType.values();
+    private static final CourierStatus[] STATUSES = CourierStatus.values();
+
+    final Columns.DoubleColumn x = new Columns.DoubleColumn();
+    final Columns.DoubleColumn y = new Columns.DoubleColumn();
+    final Columns.ByteColumn type = new Columns.ByteColumn();
+    final Columns.ByteColumn status = new Columns.ByteColumn();
+    final Columns.IntColumn completed = new Columns.IntColumn();
+    final Columns.LongColumn version = new Columns.LongColumn();
+
+    private final AtomicLong versionSequence = new AtomicLong();
+    private final CourierBitmapIndex index = new CourierBitmapIndex();
+
+    final SlotStore store = new SlotStore(capacity -> {
+        x.ensureCapacity(capacity);
+        y.ensureCapacity(capacity);
+        type.ensureCapacity(capacity);
+        status.ensureCapacity(capacity);
+        completed.ensureCapacity(capacity);
+        version.ensureCapacity(capacity);
+    });
+
+    /**
+     * Views of this repository are already stored and are returned as they are. Any other
+     * courier is copied into the columns (inserted or overwriting the same id) and a view
+     * of the stored copy is returned.
+     */
+    @Override
+    public Courier save(Courier courier) {
+        if (courier instanceof CompactCourier view && view.belongsTo(this)) {
+            return courier;
+        }
+        int slot;
+        double fromX = Double.NaN;
+        double fromY = Double.NaN;
+        long stamp = store.lockWrite();
+        try {
+            slot = store.findLocked(courier.getId());
+            boolean inserted = slot < 0;
+            if (inserted) {
+                slot = store.allocate(courier.getId());
+            } else {
+                fromX = x.get(slot);
+                fromY = y.get(slot);
+            }
+            writeLocation(slot, courier.getLocationX(), courier.getLocationY());
+            type.set(slot, code(courier.getType()));
+            status.set(slot, code(courier.getStatus()));
+            completed.set(slot, courier.getCompletedOrdersToday());
+            // Stamps the slot last, after every column
+            reindex(slot);
+            if (inserted) {
+                store.publish(slot);
+            }
+        } finally {
+            store.unlockWrite(stamp);
+        }
+        CompactCourier view = new CompactCourier(this, slot);
+        firePositionChanged(view, fromX, fromY, courier.getLocationX(), courier.getLocationY());
+        return view;
+    }
+
+    /**
+     * For a view of this repository the columns are written directly and nothing is
+     * allocated; any other courier is moved and saved.
+     */
+    @Override
+    public void updateLocation(Courier courier, double x, double y) {
+        if (!(courier instanceof CompactCourier view && view.belongsTo(this))) {
+            courier.moveTo(x, y);
+            save(courier);
+            return;
+        }
+        int slot = view.slot();
+        double fromX = this.x.get(slot);
+        double fromY = this.y.get(slot);
+        view.moveTo(x, y);
+        firePositionChanged(view, fromX, fromY, x, y);
+    }
+
+    @Override
+    public int slotOf(Courier courier) {
+        if (courier instanceof CompactCourier view && view.belongsTo(this)) {
+            return view.slot();
+        }
+        return store.find(courier.getId());
+    }
+
+    @Override
+    public Optional<Courier> findById(UUID id) {
+        int slot = store.find(id);
+        return slot < 0 ? Optional.empty() : Optional.of(new CompactCourier(this, slot));
+    }
+
+    @Override
+    public List<Courier> findAllById(List<UUID> ids, List<Courier> into) {
+        into.clear();
+        for (int i = 0; i < ids.size(); i++) {
+            int slot = store.find(ids.get(i));
+            into.add(slot < 0 ? null : new CompactCourier(this, slot));
+        }
+        return into;
+    }
+
+    @Override
+    public List<Courier> findAll() {
+        int[] slots = store.sortedSlots();
+        List<Courier> couriers = new ArrayList<>(slots.length);
+        for (int slot : slots) {
+            couriers.add(new CompactCourier(this, slot));
+        }
+        return couriers;
+    }
+
+    /**
+     * Lazy view over the id-ordered slots; flyweights are created as the caller iterates.
+     */
+    @Override
+    public Collection<Courier> findAllAfter(UUID afterId) {
+        int[] slots = store.sortedSlots();
+        int from = afterId == null ? 0 : store.firstAfter(slots, afterId);
+        return new AbstractList<>() {
+            @Override
+            public Courier get(int index) {
+                return new CompactCourier(CompactCourierRepository.this, slots[from + index]);
+            }
+
+            @Override
+            public int size() {
+                return slots.length - from;
+            }
+        };
+    }
+
+    /**
+     * Views over the matching slots, in slot order. Each hit is a new flyweight, so unlike
+     * the map backend this allocates one small view per courier found.
+     */
+    @Override
+    public List<Courier> find(CourierQuery query, List<Courier> into) {
+        into.clear();
+        long[] words = index.select(query);
+        for (int w = 0; w < words.length; w++) {
+            for (long bits = words[w]; bits != 0; bits &= bits - 1) {
+                int slot = (w << 6) + Long.numberOfTrailingZeros(bits);
+                if (store.isLive(slot)) {
+                    into.add(new CompactCourier(this, slot));
+                }
+            }
+        }
+        return into;
+    }
+
+    @Override
+    public long count(CourierQuery query) {
+        return index.count(query);
+    }
+
+    @Override
+    public long supplyVersion(int zone) {
+        return index.supplyVersion(zone);
+    }
+
+    @Override
+    public long count() {
+        return store.size();
+    }
+
+    @Override
+    public void deleteById(UUID id) {
+        Courier removed = null;
+        long stamp = store.lockWrite();
+        try {
+            int slot = store.findLocked(id);
+            if (slot >= 0 && hasPositionListeners()) {
+                removed = new CompactCourier(this, slot).copy();
+            }
+            int released = store.release(id);
+            if (released >= 0) {
+                index.remove(released);
+            }
+        } finally {
+            store.unlockWrite(stamp);
+        }
+        if (removed != null) {
+            firePositionChanged(removed, removed.getLocationX(), removed.getLocationY(), Double.NaN, Double.NaN);
+        }
+    }
+
+    @Override
+    public void clear() {
+        List<Courier> removed = new ArrayList<>();
+        long stamp = store.lockWrite();
+        try {
+            if (hasPositionListeners()) {
+                store.forEachLive(slot -> removed.add(new CompactCourier(this, slot).copy()));
+            }
+            store.clear();
+            index.clear();
+        } finally {
+            store.unlockWrite(stamp);
+        }
+        for (Courier courier : removed) {
+            firePositionChanged(courier, courier.getLocationX(), courier.getLocationY(), Double.NaN, Double.NaN);
+        }
+    }
+
+    /**
+     * A missing location is stored as NaN.
+     */
+    void writeLocation(int slot, double locationX, double locationY) {
+        x.set(slot, locationX);
+        y.set(slot, locationY);
+        index.move(slot, locationX, locationY);
+        touch(slot);
+    }
+
+    void writeCompleted(int slot, int completedOrdersToday) {
+        completed.set(slot, completedOrdersToday);
+        touch(slot);
+    }
+
+    /**
+     * Bring the bitmap index in line with the status, type and location columns of a slot.
+     */
+    void reindex(int slot) {
+        index.put(slot, statusOf(status.get(slot)), typeOf(type.get(slot)), x.get(slot), y.get(slot));
+        touch(slot);
+    }
+
+    /**
+     * Stamp a slot after its columns were written.
+     */
+    private void touch(int slot) {
+        version.set(slot, versionSequence.incrementAndGet());
+    }
+
+    /**
+     * Enums are stored as ordinal + 1 so that 0 can stand for null.
+     */
+    static byte code(Enum<?> value) {
+        return value == null ? 0 : (byte) (value.ordinal() + 1);
+    }
+
+    static CourierType typeOf(byte code) {
+        return code == 0 ? null : TYPES[code - 1];
+    }
+
+    static CourierStatus statusOf(byte code) {
+        return code == 0 ? null : STATUSES[code - 1];
+    }
+}
@@ -0,0 +1,127 @@
+package com.glovo.delivery.repository.compact;
+
+import com.glovo.delivery.model.Order;
+import com.glovo.delivery.model.Point;
+import com.glovo.delivery.model.SerializedForm;
+import com.glovo.delivery.model.enums.OrderStatus;
+
+import java.util.UUID;
+
+/**
+ * Flyweight {@link Order} over one slot of a {@link CompactOrderRepository}; see
+ * {@link CompactCourier} for the contract.
+ */
+final class CompactOrder extends Order {
+
+    private final CompactOrderRepository repository;
+    private final int slot;
+
+    CompactOrder(CompactOrderRepository repository, int slot) {
+        super((UUID) null);
+        this.repository = repository;
+        this.slot = slot;
+    }
+
+    boolean belongsTo(CompactOrderRepository owner) {
+        return repository == owner;
+    }
+
+    @Override
+    public UUID getId() {
+        return repository.store.idAt(slot);
+    }
+
+    @Override
+    public void setId(UUID id) {
+        throw new UnsupportedOperationException("The id of a stored order cannot change");
+    }
+
+    @Override
+    public Point getPickupLocation() {
+        return CompactOrderRepository.point(repository.pickupX.get(slot), repository.pickupY.get(slot));
+    }
+
+    @Override
+    public void setPickupLocation(Point pickupLocation) {
+        repository.writePickup(slot, pickupLocation);
+    }
+
+    @Override
+    public Point getDeliveryLocation() {
+        return CompactOrderRepository.point(repository.deliveryX.get(slot), repository.deliveryY.get(slot));
+    }
+
+    @Override
+    public void setDeliveryLocation(Point deliveryLocation) {
+        repository.writeDelivery(slot, deliveryLocation);
+    }
+
+    @Override
+    public OrderStatus getStatus() {
+        return CompactOrderRepository.statusOf(repository.status.get(slot));
+    }
+
+    @Override
+    public void setStatus(OrderStatus status) {
+        repository.writeStatus(slot, status);
+    }
+
+    @Override
+    public int getPriority() {
+        return repository.priority.get(slot);
+    }
+
+    @Override
+    public void setPriority(int priority) {
+        validatePriority(priority);
+        repository.priority.set(slot, (byte) priority);
+    }
+
+    @Override
+    public double getWeightKg() {
+        return repository.weightKg.get(slot);
+    }
+
+    @Override
+    public void setWeightKg(double weightKg) {
+        validateWeight(weightKg);
+        repository.weightKg.set(slot, weightKg);
+    }
+
+    @Override
+    public long getCreatedAt() {
+        return repository.createdAt.get(slot);
+    }
+
+    @Override
+    public void setCreatedAt(long createdAt) {
+        repository.createdAt.set(slot, createdAt);
+    }
+
+    @Override
+    public UUID getAssignedCourierId() {
+        long msb = repository.courierMsb.get(slot);
+        long lsb = repository.courierLsb.get(slot);
+        return msb == 0 && lsb == 0 ? null : new UUID(msb, lsb);
+    }
+
+    @Override
+    public void setAssignedCourierId(UUID assignedCourierId) {
+        repository.writeAssignedCourier(slot, assignedCourierId);
+    }
+
+    @Override
+    public long getVersion() {
+        return 0;
+    }
+
+    @Override
+    public SerializedForm getSerializedForm() {
+        return null;
+    }
+
+    @Override
+    public void setSerializedForm(SerializedForm serializedForm) {
+        // not cached, see CompactCourier
+    }
+}
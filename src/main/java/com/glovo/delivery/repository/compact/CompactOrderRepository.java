@@ -0,0 +1,214 @@
+package com.glovo.delivery.repository.compact;
+
+import com.glovo.delivery.model.Order;
+import com.glovo.delivery.model.Point;
+import com.glovo.delivery.model.enums.OrderStatus;
+import com.glovo.delivery.repository.OrderRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * {@link OrderRepository} backend over primitive columns, the order counterpart of
+ * {@link CompactCourierRepository}: ids as long pairs (the assigned courier id too, with
+ * 0/0 for none), both points as doubles, status and priority as bytes. Reads return
+ * {@link CompactOrder} flyweights.
+ *
+ * Enabled with {@code repository.storage=compact}.
+ */
+@Repository
+@ConditionalOnProperty(name = "repository.storage", havingValue = "compact")
+public class CompactOrderRepository extends OrderRepository {
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    final Columns.DoubleColumn pickupX = new Columns.DoubleColumn();
+    final Columns.DoubleColumn pickupY = new Columns.DoubleColumn();
+    final Columns.DoubleColumn deliveryX = new Columns.DoubleColumn();
+    final Columns.DoubleColumn deliveryY = new Columns.DoubleColumn();
+    final Columns.ByteColumn status = new Columns.ByteColumn();
+    final Columns.ByteColumn priority = new Columns.ByteColumn();
+    final Columns.DoubleColumn weightKg = new Columns.DoubleColumn();
+    final Columns.LongColumn createdAt = new Columns.LongColumn();
+    final Columns.LongColumn courierMsb = new Columns.LongColumn();
+    final Columns.LongColumn courierLsb = new Columns.LongColumn();
+
+    final SlotStore store = new SlotStore(capacity -> {
+        pickupX.ensureCapacity(capacity);
+        pickupY.ensureCapacity(capacity);
+        deliveryX.ensureCapacity(capacity);
+        deliveryY.ensureCapacity(capacity);
+        status.ensureCapacity(capacity);
+        priority.ensureCapacity(capacity);
+        weightKg.ensureCapacity(capacity);
+        createdAt.ensureCapacity(capacity);
+        courierMsb.ensureCapacity(capacity);
+        courierLsb.ensureCapacity(capacity);
+    });
+
+    /** Live orders per status code; changed with the status column under the write lock. */
+    private final AtomicLongArray statusCounts = new AtomicLongArray(STATUSES.length + 1);
+
+    /**
+     * Same contract as {@link CompactCourierRepository#save}.
+     */
+    @Override
+    public Order save(Order order) {
+        if (order instanceof CompactOrder view && view.belongsTo(this)) {
+            return order;
+        }
+        int slot;
+        long stamp = store.lockWrite();
+        try {
+            slot = store.findLocked(order.getId());
+            boolean inserted = slot < 0;
+            if (inserted) {
+                slot = store.allocate(order.getId());
+            }
+            writePickup(slot, order.getPickupLocation());
+            writeDelivery(slot, order.getDeliveryLocation());
+            writeStatusLocked(slot, inserted, CompactCourierRepository.code(order.getStatus()));
+            priority.set(slot, (byte) order.getPriority());
+            weightKg.set(slot, order.getWeightKg());
+            createdAt.set(slot, order.getCreatedAt());
+            writeAssignedCourier(slot, order.getAssignedCourierId());
+            if (inserted) {
+                store.publish(slot);
+            }
+        } finally {
+            store.unlockWrite(stamp);
+        }
+        return new CompactOrder(this, slot);
+    }
+
+    @Override
+    public Optional<Order> findById(UUID id) {
+        int slot = store.find(id);
+        return slot < 0 ? Optional.empty() : Optional.of(new CompactOrder(this, slot));
+    }
+
+    @Override
+    public List<Order> findAll() {
+        int[] slots = store.sortedSlots();
+        List<Order> orders = new ArrayList<>(slots.length);
+        for (int slot : slots) {
+            orders.add(new CompactOrder(this, slot));
+        }
+        return orders;
+    }
+
+    @Override
+    public Collection<Order> findAllAfter(UUID afterId) {
+        int[] slots = store.sortedSlots();
+        int from = afterId == null ? 0 : store.firstAfter(slots, afterId);
+        return new AbstractList<>() {
+            @Override
+            public Order get(int index) {
+                return new CompactOrder(CompactOrderRepository.this, slots[from + index]);
+            }
+
+            @Override
+            public int size() {
+                return slots.length - from;
+            }
+        };
+    }
+
+    @Override
+    public List<Order> findByStatus(OrderStatus orderStatus) {
+        byte code = CompactCourierRepository.code(orderStatus);
+        List<Order> orders = new ArrayList<>();
+        store.forEachLive(slot -> {
+            if (status.get(slot) == code) {
+                orders.add(new CompactOrder(this, slot));
+            }
+        });
+        return orders;
+    }
+
+    @Override
+    public long countByStatus(OrderStatus orderStatus) {
+        return statusCounts.get(CompactCourierRepository.code(orderStatus));
+    }
+
+    @Override
+    public long count() {
+        return store.size();
+    }
+
+    @Override
+    public void deleteById(UUID id) {
+        long stamp = store.lockWrite();
+        try {
+            int slot = store.release(id);
+            if (slot >= 0) {
+                statusCounts.decrementAndGet(status.get(slot));
+            }
+        } finally {
+            store.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void clear() {
+        long stamp = store.lockWrite();
+        try {
+            store.clear();
+            for (int code = 0; code < statusCounts.length(); code++) {
+                statusCounts.set(code, 0);
+            }
+        } finally {
+            store.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Status write of a view: the column and the counts change together.
+     */
+    void writeStatus(int slot, OrderStatus orderStatus) {
+        long stamp = store.lockWrite();
+        try {
+            writeStatusLocked(slot, false, CompactCourierRepository.code(orderStatus));
+        } finally {
+            store.unlockWrite(stamp);
+        }
+    }
+
+    private void writeStatusLocked(int slot, boolean inserted, byte code) {
+        if (!inserted) {
+            statusCounts.decrementAndGet(status.get(slot));
+        }
+        status.set(slot, code);
+        statusCounts.incrementAndGet(code);
+    }
+
+    void writePickup(int slot, Point location) {
+        pickupX.set(slot, location == null ? Double.NaN : location.getX());
+        pickupY.set(slot, location == null ? Double.NaN : location.getY());
+    }
+
+    void writeDelivery(int slot, Point location) {
+        deliveryX.set(slot, location == null ? Double.NaN : location.getX());
+        deliveryY.set(slot, location == null ? Double.NaN : location.getY());
+    }
+
+    void writeAssignedCourier(int slot, UUID courierId) {
+        courierMsb.set(slot, courierId == null ? 0 : courierId.getMostSignificantBits());
+        courierLsb.set(slot, courierId == null ? 0 : courierId.getLeastSignificantBits());
+    }
+
+    static Point point(double x, double y) {
+        return Double.isNaN(x) ? null : new Point(x, y);
+    }
+
+    static OrderStatus statusOf(byte code) {
+        return code == 0 ? null : STATUSES[code - 1];
+    }
+}
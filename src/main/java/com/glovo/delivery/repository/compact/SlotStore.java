@@ -0,0 +1,219 @@
+package com.glovo.delivery.repository.compact;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.IntConsumer;
+
+/**
+ * Slot bookkeeping shared by the compact repositories: the id columns, the id index,
+ * a bitmap of live slots, and reuse of freed slots.
+ *
+ * Membership changes (allocate, release, clear) and whole-entity writes run under the
+ * write lock. Id lookups are optimistic and only fall back to the read lock when they
+ * raced with a writer. A slot becomes visible to scans only after {@link #publish}, i.e.
+ * after the owning repository has written all of its columns.
+ */
+final class SlotStore {
+
+    final Columns.LongColumn idMsb = new Columns.LongColumn();
+    final Columns.LongColumn idLsb = new Columns.LongColumn();
+
+    private final Columns.LongColumn liveBits = new Columns.LongColumn();
+    private final UuidSlotIndex index = new UuidSlotIndex(idMsb, idLsb);
+    private final StampedLock lock = new StampedLock();
+    private final IntConsumer growColumns;
+
+    private int capacity;
+    private volatile int highWater;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+
+    /** Bumped on every membership change; invalidates {@link #sortedSlots}. */
+    private volatile long modCount;
+    private volatile SortedSlots sorted = new SortedSlots(-1, new int[0]);
+
+    SlotStore(IntConsumer growColumns) {
+        this.growColumns = growColumns;
+    }
+
+    long lockWrite() {
+        return lock.writeLock();
+    }
+
+    void unlockWrite(long stamp) {
+        lock.unlockWrite(stamp);
+    }
+
+    /**
+     * @return the slot of the id, or -1
+     */
+    int find(UUID id) {
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        long stamp = lock.tryOptimisticRead();
+        int slot = index.get(msb, lsb);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                slot = index.get(msb, lsb);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return slot;
+    }
+
+    /**
+     * Slot of an indexed id. Caller holds the write lock.
+     */
+    int findLocked(UUID id) {
+        return index.get(id.getMostSignificantBits(), id.getLeastSignificantBits());
+    }
+
+    /**
+     * Reserve a slot for a new id. Caller holds the write lock, writes the entity columns,
+     * then calls {@link #publish}.
+     */
+    int allocate(UUID id) {
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            slot = highWater;
+            if (slot == capacity) {
+                capacity += Columns.PAGE_SIZE;
+                idMsb.ensureCapacity(capacity);
+                idLsb.ensureCapacity(capacity);
+                liveBits.ensureCapacity((capacity + 63) >>> 6);
+                growColumns.accept(capacity);
+            }
+            highWater = slot + 1;
+        }
+        idMsb.set(slot, id.getMostSignificantBits());
+        idLsb.set(slot, id.getLeastSignificantBits());
+        index.put(slot);
+        return slot;
+    }
+
+    void publish(int slot) {
+        liveBits.set(slot >>> 6, liveBits.get(slot >>> 6) | (1L << slot));
+        modCount++;
+    }
+
+    /**
+     * Drop an id. Caller holds the write lock.
+     *
+     * @return the freed slot, or -1 when the id was not stored
+     */
+    int release(UUID id) {
+        int slot = index.remove(id.getMostSignificantBits(), id.getLeastSignificantBits());
+        if (slot < 0) {
+            return -1;
+        }
+        liveBits.set(slot >>> 6, liveBits.get(slot >>> 6) & ~(1L << slot));
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+        modCount++;
+        return slot;
+    }
+
+    /**
+     * Forget every id. Caller holds the write lock. Columns are kept for reuse.
+     */
+    void clear() {
+        for (int word = 0; word < (highWater + 63) >>> 6; word++) {
+            liveBits.set(word, 0);
+        }
+        index.clear();
+        highWater = 0;
+        freeCount = 0;
+        modCount++;
+    }
+
+    boolean isLive(int slot) {
+        return slot < highWater && (liveBits.get(slot >>> 6) & (1L << slot)) != 0;
+    }
+
+    /**
+     * Visit every live slot in slot order. Weakly consistent with concurrent writers.
+     */
+    void forEachLive(IntConsumer action) {
+        int limit = highWater;
+        for (int word = 0; word << 6 < limit; word++) {
+            long bits = liveBits.get(word);
+            while (bits != 0) {
+                action.accept((word << 6) + Long.numberOfTrailingZeros(bits));
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    int size() {
+        long stamp = lock.readLock();
+        try {
+            return index.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    UUID idAt(int slot) {
+        return new UUID(idMsb.get(slot), idLsb.get(slot));
+    }
+
+    /**
+     * Live slots ordered by id ({@link UUID#compareTo} order). Rebuilt only after
+     * membership changed; id and field updates of existing entities keep it valid.
+     */
+    int[] sortedSlots() {
+        SortedSlots current = sorted;
+        long version = modCount;
+        if (current.modCount == version) {
+            return current.slots;
+        }
+        int[] slots = new int[highWater];
+        int[] count = {0};
+        forEachLive(slot -> slots[count[0]++] = slot);
+        int[] ordered = Arrays.stream(slots, 0, count[0]).boxed()
+                .sorted((a, b) -> compareIds(a, b))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        sorted = new SortedSlots(version, ordered);
+        return ordered;
+    }
+
+    /**
+     * Index of the first entry in {@code sortedSlots} whose id is greater than the given one.
+     */
+    int firstAfter(int[] sortedSlots, UUID id) {
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        int low = 0;
+        int high = sortedSlots.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int slot = sortedSlots[mid];
+            int cmp = Long.compare(idMsb.get(slot), msb);
+            if (cmp == 0) {
+                cmp = Long.compare(idLsb.get(slot), lsb);
+            }
+            if (cmp <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int compareIds(int a, int b) {
+        int cmp = Long.compare(idMsb.get(a), idMsb.get(b));
+        return cmp != 0 ? cmp : Long.compare(idLsb.get(a), idLsb.get(b));
+    }
+
+    private record SortedSlots(long modCount, int[] slots) {
+    }
+}
@@ -0,0 +1,135 @@
+package com.glovo.delivery.repository.compact;
+
+/**
+ * Open-addressing hash index from a UUID, given as two longs, to a storage slot.
+ * Buckets hold only the slot; the key is compared against the id columns of that slot,
+ * so the index costs 4 bytes per bucket. Linear probing with backward-shift deletion,
+ * so there are no tombstones and the table is kept at most half full.
+ *
+ * Writers must be serialized by the caller. {@link #get} may run concurrently with a
+ * writer as long as the caller validates the read afterwards (see {@link SlotStore}):
+ * the bucket array is replaced as a whole, and a probe never runs longer than the table.
+ */
+final class UuidSlotIndex {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private final Columns.LongColumn idMsb;
+    private final Columns.LongColumn idLsb;
+
+    /** Slot + 1 per bucket; 0 marks an empty bucket. */
+    private volatile int[] buckets = new int[MIN_CAPACITY];
+    private int size;
+
+    UuidSlotIndex(Columns.LongColumn idMsb, Columns.LongColumn idLsb) {
+        this.idMsb = idMsb;
+        this.idLsb = idLsb;
+    }
+
+    /**
+     * @return the slot, or -1 when the id is not indexed
+     */
+    int get(long msb, long lsb) {
+        int[] table = buckets;
+        int mask = table.length - 1;
+        int bucket = hash(msb, lsb) & mask;
+        for (int probes = 0; probes <= mask; probes++) {
+            int slot = table[bucket] - 1;
+            if (slot < 0) {
+                return -1;
+            }
+            if (idLsb.get(slot) == lsb && idMsb.get(slot) == msb) {
+                return slot;
+            }
+            bucket = (bucket + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Index a slot whose id columns are already written. The id must not be indexed yet.
+     */
+    void put(int slot) {
+        if ((size + 1) * 2 > buckets.length) {
+            resize(buckets.length * 2);
+        }
+        insert(buckets, slot);
+        size++;
+    }
+
+    /**
+     * @return the slot the id was mapped to, or -1 when it was not indexed
+     */
+    int remove(long msb, long lsb) {
+        int[] table = buckets;
+        int mask = table.length - 1;
+        int bucket = hash(msb, lsb) & mask;
+        while (table[bucket] != 0) {
+            int slot = table[bucket] - 1;
+            if (idLsb.get(slot) == lsb && idMsb.get(slot) == msb) {
+                shiftBack(table, bucket);
+                size--;
+                return slot;
+            }
+            bucket = (bucket + 1) & mask;
+        }
+        return -1;
+    }
+
+    void clear() {
+        buckets = new int[MIN_CAPACITY];
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Close the gap left at {@code hole} by moving back later entries of the same probe run.
+     */
+    private void shiftBack(int[] table, int hole) {
+        int mask = table.length - 1;
+        int next = (hole + 1) & mask;
+        while (table[next] != 0) {
+            int home = homeOf(table[next] - 1) & mask;
+            // Move the entry if its home bucket is not in the cyclic range (hole, next]
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                table[hole] = table[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        table[hole] = 0;
+    }
+
+    private void insert(int[] table, int slot) {
+        int mask = table.length - 1;
+        int bucket = homeOf(slot) & mask;
+        while (table[bucket] != 0) {
+            bucket = (bucket + 1) & mask;
+        }
+        table[bucket] = slot + 1;
+    }
+
+    private void resize(int capacity) {
+        int[] old = buckets;
+        int[] grown = new int[capacity];
+        for (int entry : old) {
+            if (entry != 0) {
+                insert(grown, entry - 1);
+            }
+        }
+        buckets = grown;
+    }
+
+    private int homeOf(int slot) {
+        return hash(idMsb.get(slot), idLsb.get(slot));
+    }
+
+    private static int hash(long msb, long lsb) {
+        // Random UUIDs are already well mixed; the multiply spreads sequential test ids
+        long h = (msb ^ lsb) * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
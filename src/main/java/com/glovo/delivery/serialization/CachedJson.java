@@ -0,0 +1,52 @@
+package com.glovo.delivery.serialization;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.glovo.delivery.model.JsonCacheable;
+import com.glovo.delivery.model.SerializedForm;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Access to the JSON bytes an entity caches for itself.
+ *
+ * The entity version is read before serializing, so if the entity changes while its
+ * bytes are being produced the stored form is already stale and the next call
+ * serializes again.
+ */
+public final class CachedJson {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private CachedJson() {
+    }
+
+    /**
+     * Full JSON of the entity, served from its cached form when the version still matches.
+     * The returned array is shared and must not be modified.
+     */
+    public static <T extends JsonCacheable> byte[] bytes(T entity, EntityJsonWriter<T> writer) {
+        long version = entity.getVersion();
+        SerializedForm form = entity.getSerializedForm();
+        if (form != null && form.getVersion() == version) {
+            return form.getJson();
+        }
+        byte[] json = serialize(entity, writer);
+        entity.setSerializedForm(new SerializedForm(version, json));
+        return json;
+    }
+
+    private static <T extends JsonCacheable> byte[] serialize(T entity, EntityJsonWriter<T> writer) {
+        ByteArrayBuilder buffer = new ByteArrayBuilder(256);
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(buffer)) {
+            writer.write(generator, entity, FieldProjection.all());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] json = buffer.toByteArray();
+        buffer.release();
+        return json;
+    }
+}
@@ -0,0 +1,57 @@
+package com.glovo.delivery.serialization;
+
+import com.glovo.delivery.model.Courier;
+import com.glovo.delivery.model.Order;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Writes {@link Courier} and {@link Order} response bodies from their cached JSON bytes
+ * instead of going through Jackson databind. Registered ahead of the default Jackson
+ * converter; write-only.
+ */
+@Component
+public class CachedJsonHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    public CachedJsonHttpMessageConverter() {
+        super(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == Courier.class || clazz == Order.class;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Cached JSON converter is write-only", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(Object entity, MediaType contentType) {
+        return (long) bytesOf(entity).length;
+    }
+
+    @Override
+    protected void writeInternal(Object entity, HttpOutputMessage outputMessage) throws IOException {
+        outputMessage.getBody().write(bytesOf(entity));
+    }
+
+    private static byte[] bytesOf(Object entity) {
+        if (entity instanceof Courier courier) {
+            return CachedJson.bytes(courier, CourierJsonWriter.INSTANCE);
+        }
+        return CachedJson.bytes((Order) entity, OrderJsonWriter.INSTANCE);
+    }
+}
@@ -0,0 +1,79 @@
+package com.glovo.delivery.serialization;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.glovo.delivery.model.Courier;
+import com.glovo.delivery.model.Point;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Streams {@link Courier} with the same field names Jackson uses for the entity.
+ */
+public final class CourierJsonWriter implements EntityJsonWriter<Courier> {
+
+    public static final CourierJsonWriter INSTANCE = new CourierJsonWriter();
+
+    public static final Set<String> FIELDS = Set.of(
+            "id", "currentLocation", "type", "status", "completedOrdersToday");
+
+    private CourierJsonWriter() {
+    }
+
+    @Override
+    public void write(JsonGenerator generator, Courier courier, FieldProjection projection) throws IOException {
+        generator.writeStartObject();
+        if (projection.includes("id")) {
+            generator.writeStringField("id", courier.getId().toString());
+        }
+        if (projection.includes("currentLocation")) {
+            writePoint(generator, "currentLocation", courier.getLocationX(), courier.getLocationY());
+        }
+        if (projection.includes("type")) {
+            writeEnum(generator, "type", courier.getType());
+        }
+        if (projection.includes("status")) {
+            writeEnum(generator, "status", courier.getStatus());
+        }
+        if (projection.includes("completedOrdersToday")) {
+            generator.writeNumberField("completedOrdersToday", courier.getCompletedOrdersToday());
+        }
+        generator.writeEndObject();
+    }
+
+    @Override
+    public UUID idOf(Courier courier) {
+        return courier.getId();
+    }
+
+    static void writePoint(JsonGenerator generator, String name, Point point) throws IOException {
+        if (point == null) {
+            generator.writeNullField(name);
+        } else {
+            writePoint(generator, name, point.getX(), point.getY());
+        }
+    }
+
+    /**
+     * Same shape as a {@link Point}; NaN coordinates are written as null.
+     */
+    static void writePoint(JsonGenerator generator, String name, double x, double y) throws IOException {
+        if (Double.isNaN(x)) {
+            generator.writeNullField(name);
+            return;
+        }
+        generator.writeObjectFieldStart(name);
+        generator.writeNumberField("x", x);
+        generator.writeNumberField("y", y);
+        generator.writeEndObject();
+    }
+
+    static void writeEnum(JsonGenerator generator, String name, Enum<?> value) throws IOException {
+        if (value == null) {
+            generator.writeNullField(name);
+        } else {
+            generator.writeStringField(name, value.name());
+        }
+    }
+}
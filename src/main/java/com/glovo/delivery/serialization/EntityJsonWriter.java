@@ -0,0 +1,21 @@
+package com.glovo.delivery.serialization;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.glovo.delivery.model.JsonCacheable;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Writes one entity as a JSON object straight to a generator, field by field,
+ * so listings never go through reflection or an intermediate tree.
+ */
+public interface EntityJsonWriter<T extends JsonCacheable> {
+
+    void write(JsonGenerator generator, T entity, FieldProjection projection) throws IOException;
+
+    /**
+     * Id used as the pagination cursor.
+     */
+    UUID idOf(T entity);
+}
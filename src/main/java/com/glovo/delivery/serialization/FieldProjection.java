@@ -0,0 +1,55 @@
+package com.glovo.delivery.serialization;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Set of top-level fields a client asked for via {@code ?fields=a,b,c}.
+ * An absent or blank parameter selects every field.
+ */
+public final class FieldProjection {
+
+    private static final FieldProjection ALL = new FieldProjection(null);
+
+    /** Requested field names, or null for all fields. */
+    private final Set<String> fields;
+
+    private FieldProjection(Set<String> fields) {
+        this.fields = fields;
+    }
+
+    public static FieldProjection all() {
+        return ALL;
+    }
+
+    /**
+     * Parse a comma-separated field list.
+     *
+     * @throws IllegalArgumentException if a name is not one of {@code allowed}
+     */
+    public static FieldProjection parse(String fields, Set<String> allowed) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<String> selected = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!allowed.contains(name)) {
+                throw new IllegalArgumentException("Unknown field '" + name + "'. Allowed: " + allowed);
+            }
+            selected.add(name);
+        }
+        return selected.isEmpty() ? ALL : new FieldProjection(selected);
+    }
+
+    public boolean includes(String field) {
+        return fields == null || fields.contains(field);
+    }
+
+    public boolean isAll() {
+        return fields == null;
+    }
+}
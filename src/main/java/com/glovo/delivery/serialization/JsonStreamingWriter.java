@@ -0,0 +1,168 @@
+package com.glovo.delivery.serialization;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.glovo.delivery.model.JsonCacheable;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.function.Predicate;
+
+/**
+ * Writes entity listings incrementally to a response stream.
+ *
+ * Entities are pulled from the source one at a time and written through a single
+ * generator, so the response is never held in memory as a list or a tree; the only
+ * buffering is the generator's own output buffer.
+ *
+ * Without a field projection the entities' cached JSON ({@link CachedJson}) is copied
+ * to the stream as-is, so unchanged entities are not serialized again.
+ */
+@Component
+public class JsonStreamingWriter {
+
+    public static final int DEFAULT_PAGE_SIZE = 500;
+    public static final int MAX_PAGE_SIZE = 10_000;
+
+    private static final int OUTPUT_BUFFER_BYTES = 8192;
+    private static final byte[] PAGE_START = "{\"items\":[".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] PAGE_CURSOR = "],\"nextCursor\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+
+    private final JsonFactory jsonFactory;
+
+    public JsonStreamingWriter(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * Validate a requested page size.
+     *
+     * @throws IllegalArgumentException if outside [1, {@link #MAX_PAGE_SIZE}]
+     */
+    public static int checkPageSize(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be in range [1, " + MAX_PAGE_SIZE + "]. Got: " + limit);
+        }
+        return limit;
+    }
+
+    /**
+     * Write every entity of the source as a plain JSON array.
+     */
+    public <T extends JsonCacheable> void writeArray(OutputStream out, Iterable<T> source,
+                                                     EntityJsonWriter<T> writer,
+                                                     FieldProjection projection) throws IOException {
+        if (projection.isAll()) {
+            BufferedOutputStream buffered = new BufferedOutputStream(out, OUTPUT_BUFFER_BYTES);
+            buffered.write('[');
+            writeCached(buffered, source.iterator(), entity -> true, Integer.MAX_VALUE, writer);
+            buffered.write(']');
+            buffered.flush();
+            return;
+        }
+        try (JsonGenerator generator = open(out)) {
+            generator.writeStartArray();
+            for (T entity : source) {
+                writer.write(generator, entity, projection);
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    /**
+     * Write one page as {@code {"items":[...],"nextCursor":"<id>"|null}}.
+     *
+     * The source must be in cursor (id) order. {@code nextCursor} is the id of the last
+     * item written when more matching entities follow, and null on the last page.
+     */
+    public <T extends JsonCacheable> void writePage(OutputStream out, Iterable<T> source,
+                                                    Predicate<? super T> filter, int limit,
+                                                    EntityJsonWriter<T> writer,
+                                                    FieldProjection projection) throws IOException {
+        if (projection.isAll()) {
+            BufferedOutputStream buffered = new BufferedOutputStream(out, OUTPUT_BUFFER_BYTES);
+            buffered.write(PAGE_START);
+            T last = writeCached(buffered, source.iterator(), filter, limit, writer);
+            buffered.write(PAGE_CURSOR);
+            if (last != null) {
+                buffered.write('"');
+                buffered.write(writer.idOf(last).toString().getBytes(StandardCharsets.US_ASCII));
+                buffered.write('"');
+            } else {
+                buffered.write(NULL);
+            }
+            buffered.write('}');
+            buffered.flush();
+            return;
+        }
+        try (JsonGenerator generator = open(out)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("items");
+
+            Iterator<T> iterator = source.iterator();
+            T last = null;
+            int written = 0;
+            boolean more = false;
+            while (iterator.hasNext()) {
+                T entity = iterator.next();
+                if (!filter.test(entity)) {
+                    continue;
+                }
+                if (written == limit) {
+                    more = true;
+                    break;
+                }
+                writer.write(generator, entity, projection);
+                last = entity;
+                written++;
+            }
+            generator.writeEndArray();
+
+            if (more) {
+                generator.writeStringField("nextCursor", writer.idOf(last).toString());
+            } else {
+                generator.writeNullField("nextCursor");
+            }
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Copy cached fragments of up to {@code limit} matching entities, comma separated.
+     *
+     * @return the last entity written if more matching entities follow, otherwise null
+     */
+    private static <T extends JsonCacheable> T writeCached(OutputStream out, Iterator<T> iterator,
+                                                           Predicate<? super T> filter, int limit,
+                                                           EntityJsonWriter<T> writer) throws IOException {
+        T last = null;
+        int written = 0;
+        while (iterator.hasNext()) {
+            T entity = iterator.next();
+            if (!filter.test(entity)) {
+                continue;
+            }
+            if (written == limit) {
+                return last;
+            }
+            if (written > 0) {
+                out.write(',');
+            }
+            out.write(CachedJson.bytes(entity, writer));
+            last = entity;
+            written++;
+        }
+        return null;
+    }
+
+    private JsonGenerator open(OutputStream out) throws IOException {
+        // The servlet container owns the response stream; only flush it
+        return jsonFactory.createGenerator(out).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+}
@@ -0,0 +1,66 @@
+package com.glovo.delivery.serialization;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.glovo.delivery.model.Order;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.glovo.delivery.serialization.CourierJsonWriter.writeEnum;
+import static com.glovo.delivery.serialization.CourierJsonWriter.writePoint;
+
+/**
+ * Streams {@link Order} with the same field names Jackson uses for the entity.
+ */
+public final class OrderJsonWriter implements EntityJsonWriter<Order> {
+
+    public static final OrderJsonWriter INSTANCE = new OrderJsonWriter();
+
+    public static final Set<String> FIELDS = Set.of(
+            "id", "pickupLocation", "deliveryLocation", "status", "priority", "weightKg",
+            "createdAt", "assignedCourierId");
+
+    private OrderJsonWriter() {
+    }
+
+    @Override
+    public void write(JsonGenerator generator, Order order, FieldProjection projection) throws IOException {
+        generator.writeStartObject();
+        if (projection.includes("id")) {
+            generator.writeStringField("id", order.getId().toString());
+        }
+        if (projection.includes("pickupLocation")) {
+            writePoint(generator, "pickupLocation", order.getPickupLocation());
+        }
+        if (projection.includes("deliveryLocation")) {
+            writePoint(generator, "deliveryLocation", order.getDeliveryLocation());
+        }
+        if (projection.includes("status")) {
+            writeEnum(generator, "status", order.getStatus());
+        }
+        if (projection.includes("priority")) {
+            generator.writeNumberField("priority", order.getPriority());
+        }
+        if (projection.includes("weightKg")) {
+            generator.writeNumberField("weightKg", order.getWeightKg());
+        }
+        if (projection.includes("createdAt")) {
+            generator.writeNumberField("createdAt", order.getCreatedAt());
+        }
+        if (projection.includes("assignedCourierId")) {
+            UUID courierId = order.getAssignedCourierId();
+            if (courierId == null) {
+                generator.writeNullField("assignedCourierId");
+            } else {
+                generator.writeStringField("assignedCourierId", courierId.toString());
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    @Override
+    public UUID idOf(Order order) {
+        return order.getId();
+    }
+}
@@ -0,0 +1,153 @@
+package com.glovo.delivery.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.glovo.delivery.dto.BulkLocationUpdateResponse;
+import com.glovo.delivery.dto.CourierLocationUpdate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulk ingest of courier locations from an NDJSON stream (one JSON object per line).
+ *
+ * The body is read line by line and applied in fixed-size batches, so memory use is
+ * bounded by the batch size and the maximum line length regardless of how large the
+ * upload is. A bad line, including one over the maximum length, is rejected on its own
+ * and never aborts the rest of the stream.
+ */
+@Service
+public class CourierLocationIngestService {
+
+    private static final Logger log = LoggerFactory.getLogger(CourierLocationIngestService.class);
+
+    private final CourierService courierService;
+    private final ObjectReader updateReader;
+    private final int batchSize;
+    private final int maxLineChars;
+
+    public CourierLocationIngestService(CourierService courierService,
+                                        ObjectMapper objectMapper,
+                                        @Value("${courier.location.ingest.batch-size:500}") int batchSize,
+                                        @Value("${courier.location.ingest.max-line-chars:1024}") int maxLineChars) {
+        if (batchSize < 1 || maxLineChars < 1) {
+            throw new IllegalArgumentException("Ingest batch size and max line length must be positive. Got: "
+                    + batchSize + " / " + maxLineChars);
+        }
+        this.courierService = courierService;
+        this.updateReader = objectMapper.readerFor(CourierLocationUpdate.class);
+        this.batchSize = batchSize;
+        this.maxLineChars = maxLineChars;
+    }
+
+    public BulkLocationUpdateResponse ingest(InputStream body) throws IOException {
+        BulkLocationUpdateResponse response = new BulkLocationUpdateResponse();
+        List<CourierLocationUpdate> batch = new ArrayList<>(batchSize);
+        long[] batchLineNumbers = new long[batchSize];
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            long lineNumber = 0;
+            StringBuilder buffer = new StringBuilder();
+            int length;
+            while ((length = readLine(reader, buffer)) >= 0) {
+                lineNumber++;
+                if (length > maxLineChars) {
+                    response.setReceived(response.getReceived() + 1);
+                    response.addRejection(lineNumber, "line longer than " + maxLineChars + " characters");
+                    continue;
+                }
+                String line = buffer.toString();
+                if (line.isBlank()) {
+                    continue;
+                }
+                response.setReceived(response.getReceived() + 1);
+
+                CourierLocationUpdate update;
+                try {
+                    update = updateReader.readValue(line);
+                } catch (JsonProcessingException e) {
+                    response.addRejection(lineNumber, "malformed JSON");
+                    continue;
+                }
+
+                String error = validate(update);
+                if (error != null) {
+                    response.addRejection(lineNumber, error);
+                    continue;
+                }
+
+                batchLineNumbers[batch.size()] = lineNumber;
+                batch.add(update);
+                if (batch.size() == batchSize) {
+                    flush(batch, batchLineNumbers, response);
+                }
+            }
+        }
+        flush(batch, batchLineNumbers, response);
+
+        log.info("Bulk location ingest: {} received, {} applied, {} rejected",
+                response.getReceived(), response.getApplied(), response.getRejected());
+        return response;
+    }
+
+    /**
+     * Read the next line into {@code line} without its terminator. Characters past the
+     * maximum line length are consumed but not kept, so an unterminated line cannot grow
+     * the heap.
+     *
+     * @return length of the whole line, which exceeds the maximum when it was cut, or -1 at
+     *         the end of the stream
+     */
+    private int readLine(BufferedReader reader, StringBuilder line) throws IOException {
+        line.setLength(0);
+        int length = 0;
+        int c;
+        while ((c = reader.read()) != -1 && c != '\n') {
+            if (c == '\r') {
+                continue;
+            }
+            if (length++ < maxLineChars) {
+                line.append((char) c);
+            }
+        }
+        return c == -1 && length == 0 ? -1 : length;
+    }
+
+    private void flush(List<CourierLocationUpdate> batch, long[] lineNumbers, BulkLocationUpdateResponse response) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        int applied = courierService.applyLocationUpdates(batch,
+                index -> response.addRejection(lineNumbers[index],
+                        "courier not found: " + batch.get(index).getCourierId()));
+        response.setApplied(response.getApplied() + applied);
+        batch.clear();
+    }
+
+    private static String validate(CourierLocationUpdate update) {
+        if (update == null || update.getCourierId() == null) {
+            return "courierId is required";
+        }
+        if (update.getX() == null || update.getY() == null) {
+            return "x and y are required";
+        }
+        if (!inRange(update.getX()) || !inRange(update.getY())) {
+            return "coordinates must be in range [0, 100]";
+        }
+        return null;
+    }
+
+    private static boolean inRange(double value) {
+        return value >= 0 && value <= 100;
+    }
+}
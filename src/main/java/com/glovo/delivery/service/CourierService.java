@@ -1,16 +1,22 @@
 package com.glovo.delivery.service;
 
+import com.glovo.delivery.dto.CourierLocationUpdate;
+import com.glovo.delivery.dto.LocationCoalescingStats;
 import com.glovo.delivery.dto.UpdateLocationRequest;
 import com.glovo.delivery.exception.CourierNotFoundException;
 import com.glovo.delivery.model.Courier;
 import com.glovo.delivery.model.enums.CourierStatus;
 import com.glovo.delivery.repository.CourierRepository;
+import com.glovo.delivery.service.snapshot.FleetSnapshot;
+import com.glovo.delivery.service.snapshot.FleetSnapshotHolder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.IntConsumer;
 
 @Service
 public class CourierService {
@@ -18,9 +24,14 @@ public class CourierService {
     private static final Logger log = LoggerFactory.getLogger(CourierService.class);
 
     private final CourierRepository courierRepository;
+    private final LocationCoalescer locationCoalescer;
+    private final FleetSnapshotHolder snapshotHolder;
 
-    public CourierService(CourierRepository courierRepository) {
+    public CourierService(CourierRepository courierRepository, LocationCoalescer locationCoalescer,
+                          FleetSnapshotHolder snapshotHolder) {
         this.courierRepository = courierRepository;
+        this.locationCoalescer = locationCoalescer;
+        this.snapshotHolder = snapshotHolder;
     }
 
     public Courier getCourier(UUID id) {
@@ -28,24 +39,73 @@ public class CourierService {
                 .orElseThrow(() -> new CourierNotFoundException("Courier not found: " + id));
     }
 
+    /**
+     * Latest published fleet snapshot; lock-free and copy-free.
+     */
+    public FleetSnapshot getFleetSnapshot() {
+        return snapshotHolder.current();
+    }
+
     public List<Courier> getFreeCouriers() {
-        return courierRepository.findFree();
+        return snapshotHolder.current().getFreeCouriers();
     }
 
     public List<Courier> getAllCouriers() {
-        return courierRepository.findAll();
+        return snapshotHolder.current().getCouriers();
     }
 
+    /**
+     * Submit a new courier location. The write goes through the {@link LocationCoalescer}
+     * and reaches the repository within the configured maximum staleness; the returned
+     * courier is a detached copy that already shows the submitted location.
+     */
     public Courier updateLocation(UUID id, UpdateLocationRequest request) {
         Courier courier = getCourier(id);
-        courier.setCurrentLocation(request.getLocation());
-        courierRepository.save(courier);
-        log.info("Courier {} location updated to {}", id, request.getLocation());
-        return courier;
+        double x = request.getLocation().getX();
+        double y = request.getLocation().getY();
+        locationCoalescer.submit(courier, x, y);
+        log.debug("Courier {} location update to {} submitted", id, request.getLocation());
+        Courier response = courier.copy();
+        response.moveTo(x, y);
+        return response;
+    }
+
+    /**
+     * Apply a batch of already range-checked location updates.
+     *
+     * @param updates        updates to apply, in arrival order (a later update for the same courier wins)
+     * @param unknownCourier called with the index of every update whose courier does not exist
+     * @return number of updates accepted
+     */
+    public int applyLocationUpdates(List<CourierLocationUpdate> updates, IntConsumer unknownCourier) {
+        List<UUID> ids = new ArrayList<>(updates.size());
+        for (CourierLocationUpdate update : updates) {
+            ids.add(update.getCourierId());
+        }
+        List<Courier> couriers = courierRepository.findAllById(ids, new ArrayList<>(updates.size()));
+
+        int applied = 0;
+        for (int i = 0; i < updates.size(); i++) {
+            CourierLocationUpdate update = updates.get(i);
+            Courier courier = couriers.get(i);
+            if (courier == null) {
+                unknownCourier.accept(i);
+                continue;
+            }
+            locationCoalescer.submit(courier, update.getX(), update.getY());
+            applied++;
+        }
+        log.debug("Submitted {} of {} courier location updates", applied, updates.size());
+        return applied;
+    }
+
+    public LocationCoalescingStats getLocationCoalescingStats() {
+        return locationCoalescer.getStats();
     }
 
     public Courier registerCourier(Courier courier) {
         courier = courierRepository.save(courier);
+        snapshotHolder.markDirty();
         log.info("Courier registered: {} [{}] at {}", courier.getId(), courier.getType(), courier.getCurrentLocation());
         return courier;
     }
@@ -3,19 +3,36 @@ package com.glovo.delivery.service;
 import com.glovo.delivery.dto.DispatchStatsResponse;
 import com.glovo.delivery.model.Courier;
 import com.glovo.delivery.model.Order;
+import com.glovo.delivery.model.ZoneGrid;
 import com.glovo.delivery.model.enums.CourierStatus;
+import com.glovo.delivery.model.enums.DispatchEventType;
 import com.glovo.delivery.model.enums.OrderStatus;
 import com.glovo.delivery.repository.CourierRepository;
 import com.glovo.delivery.repository.OrderRepository;
+import com.glovo.delivery.service.event.DispatchEventBuffer;
+import com.glovo.delivery.service.jfr.DispatchFlightRecorder;
+import com.glovo.delivery.service.jfr.DispatchJfrEvent;
+import com.glovo.delivery.service.jfr.LockWaitJfrEvent;
+import com.glovo.delivery.service.jfr.QueueDrainJfrEvent;
+import com.glovo.delivery.service.metrics.DispatchMetrics;
+import com.glovo.delivery.service.shadow.ShadowEvaluator;
+import com.glovo.delivery.service.snapshot.FleetSnapshot;
+import com.glovo.delivery.service.snapshot.FleetSnapshotHolder;
+import com.glovo.delivery.service.supply.NearestSupplyCache;
+import com.glovo.delivery.service.trace.DecisionTrace;
+import com.glovo.delivery.service.trace.DecisionTraceRecorder;
 import com.glovo.delivery.service.strategy.CourierMatchingStrategy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
@@ -25,29 +42,73 @@ public class DispatchService {
 
     private static final Logger log = LoggerFactory.getLogger(DispatchService.class);
 
+    private static final String LOCK_OP_DISPATCH = "dispatch";
+    private static final String LOCK_OP_BATCH = "dispatchBatch";
+    private static final String LOCK_OP_COMPLETE = "completeOrder";
+    private static final String LOCK_OP_QUEUE = "processQueue";
+    private static final String LOCK_OP_SNAPSHOT = "refreshSnapshot";
+
     private final OrderRepository orderRepository;
     private final CourierRepository courierRepository;
     private final CourierMatchingStrategy matchingStrategy;
+    private final DispatchEventBuffer eventBuffer;
+    private final LocationCoalescer locationCoalescer;
+    private final FleetSnapshotHolder snapshotHolder;
+    private final DispatchMetrics metrics;
+    private final DispatchFlightRecorder flightRecorder;
+    private final DecisionTraceRecorder traceRecorder;
+    private final NearestSupplyCache supplyCache;
+    private final ShadowEvaluator shadowEvaluator;
     private final AtomicLong totalAssignments = new AtomicLong(0);
 
     /**
      * Queue for orders that could not be assigned immediately.
      * FIFO — first order in the queue gets assigned first when a courier becomes free.
      */
-    private final ConcurrentLinkedQueue<Order> orderQueue = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<QueuedOrder> orderQueue = new ConcurrentLinkedQueue<>();
 
     /**
      * Lock to ensure dispatch is atomic: read free couriers + pick best + assign
-     * must not be interleaved between concurrent requests.
+     * must not be interleaved between concurrent requests. The location coalescer
+     * writes positions under it too.
      */
     private final ReentrantLock dispatchLock = new ReentrantLock();
 
+    /**
+     * Keeps {@link #refreshSnapshot} single-publisher once it releases the dispatch lock.
+     */
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+
+    /**
+     * Free-courier candidates, refilled for every match. Guarded by {@link #dispatchLock};
+     * reusing it keeps the matching path free of allocation.
+     */
+    private final ArrayList<Courier> candidates = new ArrayList<>();
+
     public DispatchService(OrderRepository orderRepository,
                            CourierRepository courierRepository,
-                           CourierMatchingStrategy matchingStrategy) {
+                           CourierMatchingStrategy matchingStrategy,
+                           DispatchEventBuffer eventBuffer,
+                           LocationCoalescer locationCoalescer,
+                           FleetSnapshotHolder snapshotHolder,
+                           DispatchMetrics metrics,
+                           DispatchFlightRecorder flightRecorder,
+                           DecisionTraceRecorder traceRecorder,
+                           NearestSupplyCache supplyCache,
+                           ShadowEvaluator shadowEvaluator) {
         this.orderRepository = orderRepository;
         this.courierRepository = courierRepository;
         this.matchingStrategy = matchingStrategy;
+        this.eventBuffer = eventBuffer;
+        this.locationCoalescer = locationCoalescer;
+        this.snapshotHolder = snapshotHolder;
+        this.metrics = metrics;
+        this.flightRecorder = flightRecorder;
+        this.traceRecorder = traceRecorder;
+        this.supplyCache = supplyCache;
+        this.shadowEvaluator = shadowEvaluator;
+        // Matching reads both coordinates of a courier; they must not change in between
+        locationCoalescer.guardWritesWith(dispatchLock);
     }
 
     /**
@@ -58,27 +119,117 @@ public class DispatchService {
      * to multiple orders concurrently (TOCTOU race condition).
      */
     public void dispatch(Order order) {
+        long start = System.nanoTime();
+        DispatchJfrEvent jfrEvent = flightRecorder.beginDispatch();
         order.setStatus(OrderStatus.SEARCHING);
         orderRepository.save(order);
-        log.info("Searching for courier for order {}", order.getId());
+        log.debug("Searching for courier for order {}", order.getId());
 
-        dispatchLock.lock();
+        Courier assigned = null;
+        int candidateCount = 0;
+        lockDispatch(LOCK_OP_DISPATCH);
         try {
-            List<Courier> freeCouriers = courierRepository.findFree();
+            locationCoalescer.flush();
+            int best = matchNearest(order, start);
+            candidateCount = candidates.size();
 
-            Optional<Courier> bestCourier = matchingStrategy.findBestCourier(order, freeCouriers);
-
-            if (bestCourier.isPresent()) {
-                Courier courier = bestCourier.get();
-                assignCourier(order, courier);
+            if (best >= 0) {
+                assigned = candidates.get(best);
+                assignCourier(order, assigned);
             } else {
                 enqueueOrder(order);
             }
+            snapshotHolder.markDirty();
+        } finally {
+            dispatchLock.unlock();
+            metrics.recordDispatch(System.nanoTime() - start);
+            flightRecorder.commitDispatch(jfrEvent, order, assigned, candidateCount);
+        }
+    }
+
+    /**
+     * Dispatch several orders in one matching pass: one lock acquisition and one
+     * free-courier scan for the whole batch. Orders are matched in the given order;
+     * a courier picked for one order is removed from the snapshot before the next.
+     * Orders that cannot be matched are queued exactly like in {@link #dispatch(Order)}.
+     */
+    public void dispatchBatch(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        for (Order order : orders) {
+            order.setStatus(OrderStatus.SEARCHING);
+            orderRepository.save(order);
+        }
+        log.info("Searching for couriers for a batch of {} orders", orders.size());
+
+        lockDispatch(LOCK_OP_BATCH);
+        try {
+            locationCoalescer.flush();
+            courierRepository.findFree(candidates);
+
+            for (Order order : orders) {
+                int best = candidates.isEmpty() ? -1 : match(order, candidates, System.nanoTime());
+                shadowEvaluator.offer(order, candidates, best);
+
+                if (best >= 0) {
+                    assignCourier(order, candidates.remove(best));
+                } else {
+                    enqueueOrder(order);
+                }
+            }
+            snapshotHolder.markDirty();
         } finally {
             dispatchLock.unlock();
         }
     }
 
+    /**
+     * Acquire the dispatch lock, recording how long the caller waited for it.
+     */
+    private void lockDispatch(String operation) {
+        LockWaitJfrEvent jfrEvent = flightRecorder.beginLockWait();
+        long start = System.nanoTime();
+        dispatchLock.lock();
+        metrics.recordLockWait(System.nanoTime() - start);
+        flightRecorder.commitLockWait(jfrEvent, operation);
+    }
+
+    /**
+     * Match one order into {@link #candidates}: over the cached nearest supply of its pickup
+     * when the supply cache has it, otherwise (or when none of those couriers fits) over
+     * all free couriers. Batches keep one full scan for all their orders. Only the final
+     * decision and its candidates are offered to the shadow strategy, if one is configured.
+     */
+    private int matchNearest(Order order, long tracedSince) {
+        if (supplyCache.nearestFree(order.getPickupLocation(), candidates)) {
+            int best = match(order, candidates, tracedSince);
+            if (best >= 0) {
+                shadowEvaluator.offer(order, candidates, best);
+                return best;
+            }
+        }
+        courierRepository.findFree(candidates);
+        int best = match(order, candidates, tracedSince);
+        shadowEvaluator.offer(order, candidates, best);
+        return best;
+    }
+
+    /**
+     * Run the matching strategy under a decision trace. {@code tracedSince} is the start of
+     * the span the slow-decision threshold applies to: the whole dispatch for a single
+     * order, the match itself for batch and queue processing.
+     */
+    private int match(Order order, List<Courier> freeCouriers, long tracedSince) {
+        DecisionTrace trace = traceRecorder.begin(order, freeCouriers.size());
+        long start = System.nanoTime();
+        int best = matchingStrategy.selectBestCourier(order, freeCouriers);
+        long end = System.nanoTime();
+        metrics.recordMatching(end - start);
+        traceRecorder.complete(trace, end - tracedSince);
+        return best;
+    }
+
     private void assignCourier(Order order, Courier courier) {
         order.setStatus(OrderStatus.ASSIGNED);
         order.setAssignedCourierId(courier.getId());
@@ -88,9 +239,12 @@ public class DispatchService {
         courierRepository.save(courier);
 
         totalAssignments.incrementAndGet();
+        publishOrderEvent(DispatchEventType.ORDER_ASSIGNED, order, courier.getId());
 
-        log.info("Order {} assigned to courier {} [{}]",
-                order.getId(), courier.getId(), courier.getType());
+        if (log.isDebugEnabled()) {
+            log.debug("Order {} assigned to courier {} [{}]",
+                    order.getId(), courier.getId(), courier.getType());
+        }
     }
 
     /**
@@ -99,9 +253,16 @@ public class DispatchService {
     private void enqueueOrder(Order order) {
         order.setStatus(OrderStatus.QUEUED);
         orderRepository.save(order);
-        orderQueue.add(order);
-        log.info("Order {} placed in queue (no suitable courier available). Queue size: {}",
-                order.getId(), orderQueue.size());
+        orderQueue.add(new QueuedOrder(order, System.nanoTime()));
+        publishOrderEvent(DispatchEventType.ORDER_QUEUED, order, null);
+        if (log.isDebugEnabled()) {
+            log.debug("Order {} placed in queue (no suitable courier available). Queue size: {}",
+                    order.getId(), orderQueue.size());
+        }
+    }
+
+    private void publishOrderEvent(DispatchEventType type, Order order, UUID courierId) {
+        eventBuffer.publish(type, order.getId(), courierId, ZoneGrid.zoneOf(order.getPickupLocation()));
     }
 
     /**
@@ -109,27 +270,41 @@ public class DispatchService {
      * After freeing the courier, automatically tries to assign queued orders.
      */
     public Order completeOrder(Order order) {
-        if (order.getStatus() != OrderStatus.ASSIGNED) {
-            throw new IllegalStateException(
-                    "Only ASSIGNED orders can be completed. Current status: " + order.getStatus());
-        }
+        // Order and courier change together under the dispatch lock so that snapshots
+        // never show a COMPLETED order whose courier is still BUSY
+        lockDispatch(LOCK_OP_COMPLETE);
+        try {
+            if (order.getStatus() != OrderStatus.ASSIGNED) {
+                throw new IllegalStateException(
+                        "Only ASSIGNED orders can be completed. Current status: " + order.getStatus());
+            }
 
-        order.setStatus(OrderStatus.COMPLETED);
-        orderRepository.save(order);
+            order.setStatus(OrderStatus.COMPLETED);
+            orderRepository.save(order);
+            publishOrderEvent(DispatchEventType.ORDER_COMPLETED, order, order.getAssignedCourierId());
 
-        // Free the courier and increment completedOrdersToday
-        if (order.getAssignedCourierId() != null) {
-            courierRepository.findById(order.getAssignedCourierId()).ifPresent(courier -> {
+            // Free the courier and increment completedOrdersToday
+            Courier courier = order.getAssignedCourierId() == null
+                    ? null
+                    : courierRepository.findById(order.getAssignedCourierId()).orElse(null);
+            if (courier != null) {
                 courier.setStatus(CourierStatus.FREE);
                 courier.incrementCompletedOrdersToday();
                 courierRepository.save(courier);
-                log.info("Courier {} [{}] is now FREE after completing order {} (completedToday={})",
-                        courier.getId(), courier.getType(), order.getId(),
-                        courier.getCompletedOrdersToday());
-            });
+                eventBuffer.publish(DispatchEventType.COURIER_FREED, order.getId(), courier.getId(),
+                        ZoneGrid.zoneOf(courier.getLocationX(), courier.getLocationY()));
+                if (log.isDebugEnabled()) {
+                    log.debug("Courier {} [{}] is now FREE after completing order {} (completedToday={})",
+                            courier.getId(), courier.getType(), order.getId(),
+                            courier.getCompletedOrdersToday());
+                }
+            }
+            snapshotHolder.markDirty();
+        } finally {
+            dispatchLock.unlock();
         }
 
-        log.info("Order {} completed", order.getId());
+        log.debug("Order {} completed", order.getId());
 
         // Try to assign queued orders now that a courier is free
         processQueue();
@@ -142,27 +317,42 @@ public class DispatchService {
      * Called automatically after a courier is freed.
      */
     private void processQueue() {
-        dispatchLock.lock();
+        lockDispatch(LOCK_OP_QUEUE);
+        long start = System.nanoTime();
+        boolean drained = !orderQueue.isEmpty();
+        QueueDrainJfrEvent jfrEvent = drained ? flightRecorder.beginQueueDrain() : null;
+        int queueDepth = drained ? orderQueue.size() : 0;
+        int assignedCount = 0;
+        int staleCount = 0;
         try {
+            if (drained) {
+                locationCoalescer.flush();
+            }
             while (!orderQueue.isEmpty()) {
-                Order queuedOrder = orderQueue.peek();
+                QueuedOrder queued = orderQueue.peek();
+                Order queuedOrder = queued.order();
 
                 // Verify order is still in QUEUED status (might have been cancelled/modified)
                 Optional<Order> freshOrder = orderRepository.findById(queuedOrder.getId());
                 if (freshOrder.isEmpty() || freshOrder.get().getStatus() != OrderStatus.QUEUED) {
                     orderQueue.poll(); // Remove stale entry
+                    staleCount++;
                     continue;
                 }
 
-                List<Courier> freeCouriers = courierRepository.findFree();
-                Optional<Courier> bestCourier = matchingStrategy.findBestCourier(freshOrder.get(), freeCouriers);
+                int best = matchNearest(freshOrder.get(), System.nanoTime());
 
-                if (bestCourier.isPresent()) {
+                if (best >= 0) {
                     orderQueue.poll(); // Remove from queue
                     Order orderToAssign = freshOrder.get();
-                    assignCourier(orderToAssign, bestCourier.get());
-                    log.info("Queued order {} assigned from queue. Remaining queue size: {}",
-                            orderToAssign.getId(), orderQueue.size());
+                    assignCourier(orderToAssign, candidates.get(best));
+                    metrics.recordQueueWait(System.nanoTime() - queued.enqueuedAt());
+                    assignedCount++;
+                    snapshotHolder.markDirty();
+                    if (log.isDebugEnabled()) {
+                        log.debug("Queued order {} assigned from queue. Remaining queue size: {}",
+                                orderToAssign.getId(), orderQueue.size());
+                    }
                 } else {
                     // No suitable courier for the first queued order — stop processing
                     log.debug("No suitable courier for queued order {}. Stopping queue processing.",
@@ -172,7 +362,68 @@ public class DispatchService {
             }
         } finally {
             dispatchLock.unlock();
+            if (drained) {
+                metrics.recordQueueDrain(System.nanoTime() - start);
+                flightRecorder.commitQueueDrain(jfrEvent, queueDepth, assignedCount, staleCount);
+            }
+        }
+    }
+
+    /**
+     * Publish a new fleet snapshot if anything changed since the last one. Couriers and
+     * stats are read under the dispatch lock, so the snapshot reflects a state between two
+     * dispatch steps; only couriers whose version moved since the last snapshot are copied
+     * there, and sorting and the free list are left until after the lock is released.
+     */
+    public FleetSnapshot refreshSnapshot() {
+        if (!snapshotHolder.claimDirty()) {
+            return snapshotHolder.current();
         }
+        snapshotLock.lock();
+        try {
+            List<Courier> previous = snapshotHolder.current().getCouriers();
+            List<Courier> copies = new ArrayList<>(previous.size());
+            DispatchStatsResponse stats;
+            lockDispatch(LOCK_OP_SNAPSHOT);
+            try {
+                copyChanged(courierRepository.findAllAfter(null), previous, copies);
+                stats = getStats();
+            } finally {
+                dispatchLock.unlock();
+            }
+            return snapshotHolder.publish(copies, stats);
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    /**
+     * Add a detached copy of every live courier to {@code into}, reusing the copy from the
+     * previous snapshot when the courier's version is unchanged. Both sides are in id order.
+     * The version is read before copying, so a write racing the copy is caught next time.
+     */
+    private static void copyChanged(Collection<Courier> live, List<Courier> previous, List<Courier> into) {
+        int p = 0;
+        for (Courier courier : live) {
+            UUID id = courier.getId();
+            long version = courier.getVersion();
+            while (p < previous.size() && previous.get(p).getId().compareTo(id) < 0) {
+                p++;
+            }
+            Courier last = p < previous.size() ? previous.get(p) : null;
+            if (last != null && last.getId().equals(id) && last.getVersion() == version) {
+                into.add(last);
+            } else {
+                into.add(courier.copy());
+            }
+        }
+    }
+
+    /**
+     * Latest published fleet snapshot. Lock-free; may lag the live state by one publish interval.
+     */
+    public FleetSnapshot getPublishedSnapshot() {
+        return snapshotHolder.current();
     }
 
     /**
@@ -183,7 +434,9 @@ public class DispatchService {
     }
 
     /**
-     * Get system dispatch statistics.
+     * Compute system dispatch statistics from live state. Read endpoints should use
+     * {@link #getPublishedSnapshot()} instead. Nothing is scanned entity by entity: status
+     * counts come from counters and bitmaps the repositories keep up to date.
      */
     public DispatchStatsResponse getStats() {
         DispatchStatsResponse stats = new DispatchStatsResponse();
@@ -209,4 +462,10 @@ public class DispatchService {
 
         return stats;
     }
+
+    /**
+     * Queue entry: the order and the {@link System#nanoTime()} it was queued at.
+     */
+    private record QueuedOrder(Order order, long enqueuedAt) {
+    }
 }
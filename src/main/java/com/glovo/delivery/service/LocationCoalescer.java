@@ -0,0 +1,263 @@
+package com.glovo.delivery.service;
+
+import com.glovo.delivery.dto.LocationCoalescingStats;
+import com.glovo.delivery.model.Courier;
+import com.glovo.delivery.repository.CourierRepository;
+import com.glovo.delivery.service.snapshot.FleetSnapshotHolder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Last-write-wins buffer between location ingest and the courier repository.
+ *
+ * Every location source (PATCH, bulk NDJSON, UDP telemetry) submits here. Only the
+ * newest position per courier is kept; pending positions are written to the repository
+ * on a short tick, when dispatch asks for fresh data via {@link #flush()}, or inline by
+ * the submitting thread once the oldest pending position exceeds the maximum staleness.
+ *
+ * Pending positions live in primitive arrays indexed by the courier's dense repository
+ * slot ({@link CourierRepository#slotOf}), with a bitset of the slots that have one, so a
+ * submit allocates nothing once the arrays have grown to the fleet size. A flush moves the
+ * pending slots into its own arrays under a short lock and applies them after releasing it.
+ *
+ * A position is two plain fields, so positions are only written while holding the lock
+ * dispatch matches under ({@link #guardWritesWith}); a match never sees a new x next to
+ * an old y.
+ */
+@Component
+public class LocationCoalescer {
+
+    private static final Logger log = LoggerFactory.getLogger(LocationCoalescer.class);
+
+    private static final int INITIAL_SLOTS = 1024;
+
+    private final CourierRepository courierRepository;
+    private final FleetSnapshotHolder snapshotHolder;
+    private final boolean enabled;
+    private final long flushIntervalMs;
+    private final long maxStalenessNanos;
+
+    /** Guards the pending arrays and bitset below; held only to copy positions in or out. */
+    private final Object pendingLock = new Object();
+    private Courier[] pendingCourier = new Courier[INITIAL_SLOTS];
+    private double[] pendingX = new double[INITIAL_SLOTS];
+    private double[] pendingY = new double[INITIAL_SLOTS];
+    private long[] dirty = new long[INITIAL_SLOTS >>> 6];
+    private volatile int pendingCount;
+
+    /** Positions taken by the running flush; guarded by {@code flushLock}. */
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private Courier[] flushCourier = new Courier[INITIAL_SLOTS];
+    private double[] flushX = new double[INITIAL_SLOTS];
+    private double[] flushY = new double[INITIAL_SLOTS];
+
+    /** Held around every position write; dispatch replaces it with its own lock. */
+    private volatile Lock writeGuard = new ReentrantLock();
+
+    /** {@link System#nanoTime()} of the oldest unflushed submit, or 0 when nothing is pending. */
+    private final AtomicLong oldestPendingAt = new AtomicLong(0);
+
+    private final LongAdder submitted = new LongAdder();
+    private final AtomicLong applied = new AtomicLong(0);
+    private final AtomicLong flushes = new AtomicLong(0);
+
+    private ScheduledExecutorService scheduler;
+
+    public LocationCoalescer(CourierRepository courierRepository,
+                             FleetSnapshotHolder snapshotHolder,
+                             @Value("${courier.location.coalescing.enabled:true}") boolean enabled,
+                             @Value("${courier.location.coalescing.flush-interval-ms:100}") long flushIntervalMs,
+                             @Value("${courier.location.coalescing.max-staleness-ms:500}") long maxStalenessMs) {
+        if (enabled && (flushIntervalMs <= 0 || maxStalenessMs < flushIntervalMs)) {
+            throw new IllegalArgumentException("Coalescing requires 0 < flush-interval-ms <= max-staleness-ms. Got: "
+                    + flushIntervalMs + " / " + maxStalenessMs);
+        }
+        this.courierRepository = courierRepository;
+        this.snapshotHolder = snapshotHolder;
+        this.enabled = enabled;
+        this.flushIntervalMs = flushIntervalMs;
+        this.maxStalenessNanos = TimeUnit.MILLISECONDS.toNanos(maxStalenessMs);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r ->
+                Thread.ofPlatform().name("location-coalescer").daemon().unstarted(r));
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            scheduler = null;
+        }
+        flush();
+    }
+
+    /**
+     * Write positions only while holding {@code lock}. Readers that need a consistent x and y
+     * read them under the same lock.
+     */
+    public void guardWritesWith(Lock lock) {
+        this.writeGuard = lock;
+    }
+
+    /**
+     * Record the newest known position of a courier. Coordinates must already be validated.
+     */
+    public void submit(Courier courier, double x, double y) {
+        submitted.increment();
+        int slot = enabled ? courierRepository.slotOf(courier) : -1;
+        if (slot < 0) {
+            // Write-through, or a courier that is not stored and has no slot to wait in
+            Lock guard = writeGuard;
+            guard.lock();
+            try {
+                apply(courier, x, y);
+            } finally {
+                guard.unlock();
+            }
+            applied.incrementAndGet();
+            snapshotHolder.markDirty();
+            return;
+        }
+
+        long now = System.nanoTime();
+        synchronized (pendingLock) {
+            if (slot >= pendingCourier.length) {
+                growPending(slot);
+            }
+            pendingCourier[slot] = courier;
+            pendingX[slot] = x;
+            pendingY[slot] = y;
+            long bit = 1L << slot;
+            if ((dirty[slot >>> 6] & bit) == 0) {
+                dirty[slot >>> 6] |= bit;
+                pendingCount++;
+            }
+        }
+        oldestPendingAt.compareAndSet(0, now);
+
+        long oldest = oldestPendingAt.get();
+        if (oldest != 0 && now - oldest > maxStalenessNanos) {
+            flush();
+        }
+    }
+
+    /**
+     * Write every pending position to the repository. Cheap when nothing is pending.
+     *
+     * @return number of positions applied
+     */
+    public int flush() {
+        if (pendingCount == 0) {
+            return 0;
+        }
+        Lock guard = writeGuard;
+        guard.lock();
+        flushLock.lock();
+        try {
+            oldestPendingAt.set(0);
+            int count = takePending();
+            for (int i = 0; i < count; i++) {
+                apply(flushCourier[i], flushX[i], flushY[i]);
+                flushCourier[i] = null;
+            }
+            // Positions submitted while applying wait for the next flush
+            if (pendingCount > 0) {
+                oldestPendingAt.compareAndSet(0, System.nanoTime());
+            }
+            applied.addAndGet(count);
+            flushes.incrementAndGet();
+            snapshotHolder.markDirty();
+            return count;
+        } finally {
+            flushLock.unlock();
+            guard.unlock();
+        }
+    }
+
+    public LocationCoalescingStats getStats() {
+        long submittedCount = submitted.sum();
+        long appliedCount = applied.get();
+        LocationCoalescingStats stats = new LocationCoalescingStats();
+        stats.setEnabled(enabled);
+        stats.setSubmitted(submittedCount);
+        stats.setApplied(appliedCount);
+        stats.setPending(pendingCount);
+        stats.setFlushes(flushes.get());
+        stats.setCoalescingRatio(appliedCount == 0 ? 0.0 : (double) submittedCount / appliedCount);
+        return stats;
+    }
+
+    private void apply(Courier courier, double x, double y) {
+        courierRepository.updateLocation(courier, x, y);
+    }
+
+    /**
+     * Move every pending position into the flush arrays and clear the bitset. Caller holds
+     * {@code flushLock}.
+     *
+     * @return number of positions taken
+     */
+    private int takePending() {
+        synchronized (pendingLock) {
+            if (flushCourier.length < pendingCount) {
+                int length = Math.max(pendingCount, flushCourier.length * 2);
+                flushCourier = new Courier[length];
+                flushX = new double[length];
+                flushY = new double[length];
+            }
+            int count = 0;
+            for (int w = 0; w < dirty.length; w++) {
+                for (long bits = dirty[w]; bits != 0; bits &= bits - 1) {
+                    int slot = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    flushCourier[count] = pendingCourier[slot];
+                    flushX[count] = pendingX[slot];
+                    flushY[count] = pendingY[slot];
+                    pendingCourier[slot] = null;
+                    count++;
+                }
+                dirty[w] = 0;
+            }
+            pendingCount = 0;
+            return count;
+        }
+    }
+
+    private void growPending(int slot) {
+        int length = pendingCourier.length;
+        while (length <= slot) {
+            length <<= 1;
+        }
+        pendingCourier = Arrays.copyOf(pendingCourier, length);
+        pendingX = Arrays.copyOf(pendingX, length);
+        pendingY = Arrays.copyOf(pendingY, length);
+        dirty = Arrays.copyOf(dirty, length >>> 6);
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Location flush failed", e);
+        }
+    }
+}
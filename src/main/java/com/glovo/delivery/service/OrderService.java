@@ -1,16 +1,25 @@
 package com.glovo.delivery.service;
 
+import com.glovo.delivery.dto.BatchCreateOrdersResponse;
+import com.glovo.delivery.dto.BatchOrderResult;
 import com.glovo.delivery.dto.CreateOrderRequest;
 import com.glovo.delivery.exception.OrderNotFoundException;
 import com.glovo.delivery.model.Order;
 import com.glovo.delivery.model.enums.OrderStatus;
 import com.glovo.delivery.repository.OrderRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 public class OrderService {
@@ -19,10 +28,12 @@ public class OrderService {
 
     private final OrderRepository orderRepository;
     private final DispatchService dispatchService;
+    private final Validator validator;
 
-    public OrderService(OrderRepository orderRepository, DispatchService dispatchService) {
+    public OrderService(OrderRepository orderRepository, DispatchService dispatchService, Validator validator) {
         this.orderRepository = orderRepository;
         this.dispatchService = dispatchService;
+        this.validator = validator;
     }
 
     public Order createOrder(CreateOrderRequest request) {
@@ -34,8 +45,10 @@ public class OrderService {
         );
 
         order = orderRepository.save(order);
-        log.info("Order created: {} with priority {}, weight {}kg",
-                order.getId(), order.getPriority(), order.getWeightKg());
+        if (log.isDebugEnabled()) {
+            log.debug("Order created: {} with priority {}, weight {}kg",
+                    order.getId(), order.getPriority(), order.getWeightKg());
+        }
 
         // Trigger dispatch (search for courier)
         dispatchService.dispatch(order);
@@ -43,6 +56,67 @@ public class OrderService {
         return order;
     }
 
+    /**
+     * Create many orders at once. Each item is validated on its own; valid items are
+     * stored and dispatched together in a single matching pass, invalid ones are
+     * reported with their error and do not affect the rest of the batch.
+     */
+    public BatchCreateOrdersResponse createOrders(List<CreateOrderRequest> requests) {
+        Order[] created = new Order[requests.size()];
+        String[] errors = new String[requests.size()];
+        List<Order> toDispatch = new ArrayList<>(requests.size());
+
+        for (int i = 0; i < requests.size(); i++) {
+            CreateOrderRequest request = requests.get(i);
+            String error = validate(request);
+            if (error != null) {
+                errors[i] = error;
+                continue;
+            }
+            try {
+                Order order = new Order(
+                        request.getPickupLocation(),
+                        request.getDeliveryLocation(),
+                        request.getPriority(),
+                        request.getWeightKg()
+                );
+                created[i] = orderRepository.save(order);
+                toDispatch.add(created[i]);
+            } catch (IllegalArgumentException e) {
+                errors[i] = e.getMessage();
+            }
+        }
+
+        dispatchService.dispatchBatch(toDispatch);
+
+        List<BatchOrderResult> results = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            results.add(created[i] != null
+                    ? BatchOrderResult.created(i, created[i])
+                    : BatchOrderResult.rejected(i, errors[i]));
+        }
+
+        BatchCreateOrdersResponse response = new BatchCreateOrdersResponse(results);
+        log.info("Batch of {} orders: {} created ({} assigned, {} queued), {} rejected",
+                requests.size(), response.getCreated(), response.getAssigned(),
+                response.getQueued(), response.getRejected());
+        return response;
+    }
+
+    private String validate(CreateOrderRequest request) {
+        if (request == null) {
+            return "Order request is required";
+        }
+        Set<ConstraintViolation<CreateOrderRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return "Validation failed: " + violations.stream()
+                .sorted(Comparator.comparing(v -> v.getPropertyPath().toString()))
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .collect(Collectors.joining(", "));
+    }
+
     public Order getOrder(UUID id) {
         return orderRepository.findById(id)
                 .orElseThrow(() -> new OrderNotFoundException("Order not found: " + id));
@@ -53,6 +127,13 @@ public class OrderService {
         return dispatchService.completeOrder(order);
     }
 
+    /**
+     * Orders after the given cursor id in id order, as a live view for streaming listings.
+     */
+    public Collection<Order> getOrdersAfter(UUID afterId) {
+        return orderRepository.findAllAfter(afterId);
+    }
+
     public List<Order> getAllOrders() {
         return orderRepository.findAll();
     }
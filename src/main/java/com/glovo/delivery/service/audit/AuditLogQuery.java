@@ -0,0 +1,157 @@
+package com.glovo.delivery.service.audit;
+
+import com.glovo.delivery.model.enums.DispatchEventType;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Command-line queries over the binary dispatch audit log.
+ *
+ * <pre>
+ * ./mvnw -q exec:java -Dexec.mainClass=com.glovo.delivery.service.audit.AuditLogQuery \
+ *     -Dexec.args="--dir=audit --courier=&lt;id&gt;"
+ * </pre>
+ * Options:
+ * <ul>
+ *   <li>{@code --courier=<id>} events of a courier (assignments only unless {@code --type} is given)</li>
+ *   <li>{@code --order=<id>} full history of an order</li>
+ *   <li>{@code --queued-longer-than=60s} orders that waited in the queue longer than the
+ *       threshold ({@code ms}, {@code s} or {@code m} suffix); not combinable with {@code --courier}</li>
+ *   <li>{@code --type=ORDER_ASSIGNED,...}, {@code --from=<instant>}, {@code --to=<instant>},
+ *       {@code --limit=<rows>} (default 1000)</li>
+ * </ul>
+ */
+public final class AuditLogQuery {
+
+    private AuditLogQuery() {
+    }
+
+    /**
+     * Time an order spent queued: from ORDER_QUEUED to ORDER_ASSIGNED, or to the end of the
+     * log when it was never assigned ({@code assignedAt} is then null).
+     */
+    public record QueueWait(UUID orderId, long queuedAt, Long assignedAt, long waitMillis) {
+    }
+
+    /**
+     * Orders whose queue wait exceeds the threshold, longest wait first.
+     *
+     * @param records ORDER_QUEUED and ORDER_ASSIGNED records ordered by timestamp
+     */
+    public static List<QueueWait> queuedLongerThan(List<AuditRecord> records, long thresholdMillis) {
+        Map<UUID, Long> queuedAt = new HashMap<>();
+        List<QueueWait> waits = new ArrayList<>();
+        long end = records.isEmpty() ? 0 : records.get(records.size() - 1).timestamp();
+        for (AuditRecord record : records) {
+            if (record.type() == DispatchEventType.ORDER_QUEUED) {
+                queuedAt.put(record.orderId(), record.timestamp());
+            } else if (record.type() == DispatchEventType.ORDER_ASSIGNED) {
+                Long queued = queuedAt.remove(record.orderId());
+                if (queued != null) {
+                    waits.add(new QueueWait(record.orderId(), queued, record.timestamp(),
+                            record.timestamp() - queued));
+                }
+            }
+        }
+        queuedAt.forEach((orderId, queued) -> waits.add(new QueueWait(orderId, queued, null, end - queued)));
+        return waits.stream()
+                .filter(wait -> wait.waitMillis() > thresholdMillis)
+                .sorted((a, b) -> Long.compare(b.waitMillis(), a.waitMillis()))
+                .toList();
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        Path directory = Path.of(options.getOrDefault("dir", "audit"));
+        Instant from = options.containsKey("from") ? Instant.parse(options.get("from")) : null;
+        Instant to = options.containsKey("to") ? Instant.parse(options.get("to")) : null;
+        int limit = Integer.parseInt(options.getOrDefault("limit", "1000"));
+
+        AuditRecordFilter filter = AuditRecordFilter.all();
+        if (from != null || to != null) {
+            filter = filter.and(AuditRecordFilter.between(
+                    from == null ? Long.MIN_VALUE : from.toEpochMilli(), to == null ? Long.MAX_VALUE : to.toEpochMilli()));
+        }
+        Set<DispatchEventType> types = options.containsKey("type")
+                ? Arrays.stream(options.get("type").split(",")).map(String::strip).map(DispatchEventType::valueOf)
+                        .collect(Collectors.toCollection(() -> EnumSet.noneOf(DispatchEventType.class)))
+                : null;
+        boolean queueQuery = options.containsKey("queued-longer-than");
+        if (queueQuery && options.containsKey("courier")) {
+            // Queue waits are computed per order from ORDER_QUEUED records, which carry no courier
+            throw new IllegalArgumentException("--courier cannot be combined with --queued-longer-than");
+        }
+        if (queueQuery) {
+            types = EnumSet.of(DispatchEventType.ORDER_QUEUED, DispatchEventType.ORDER_ASSIGNED);
+        } else if (options.containsKey("courier")) {
+            filter = filter.and(AuditRecordFilter.courier(UUID.fromString(options.get("courier"))));
+            if (types == null) {
+                types = EnumSet.of(DispatchEventType.ORDER_ASSIGNED);
+            }
+        }
+        if (options.containsKey("order")) {
+            filter = filter.and(AuditRecordFilter.order(UUID.fromString(options.get("order"))));
+        }
+        if (types != null) {
+            filter = filter.and(AuditRecordFilter.types(types));
+        }
+
+        List<Path> segments = AuditLogReader.segments(directory, day(from), day(to));
+        long start = System.nanoTime();
+        List<AuditRecord> records = AuditLogReader.scan(segments, filter);
+        long scanMillis = (System.nanoTime() - start) / 1_000_000;
+
+        if (queueQuery) {
+            List<QueueWait> waits = queuedLongerThan(records, parseDuration(options.get("queued-longer-than")));
+            waits.stream().limit(limit).forEach(wait -> System.out.printf("%s queued=%s assigned=%s wait=%s%n",
+                    wait.orderId(), Instant.ofEpochMilli(wait.queuedAt()),
+                    wait.assignedAt() == null ? "never" : Instant.ofEpochMilli(wait.assignedAt()),
+                    Duration.ofMillis(wait.waitMillis())));
+            System.out.printf("%d orders%n", waits.size());
+        } else {
+            records.stream().limit(limit).forEach(record -> System.out.printf("%s %-15s order=%s courier=%s zone=%d%n",
+                    Instant.ofEpochMilli(record.timestamp()), record.type(), record.orderId(),
+                    record.courierId() == null ? "-" : record.courierId(), record.zone()));
+            System.out.printf("%d records%n", records.size());
+        }
+        System.out.printf("scanned %d segments in %d ms%n", segments.size(), scanMillis);
+    }
+
+    static long parseDuration(String value) {
+        if (value.endsWith("ms")) {
+            return Long.parseLong(value.substring(0, value.length() - 2));
+        }
+        if (value.endsWith("s")) {
+            return Long.parseLong(value.substring(0, value.length() - 1)) * 1000;
+        }
+        if (value.endsWith("m")) {
+            return Long.parseLong(value.substring(0, value.length() - 1)) * 60_000;
+        }
+        return Long.parseLong(value);
+    }
+
+    private static LocalDate day(Instant instant) {
+        return instant == null ? null : LocalDate.ofInstant(instant, ZoneOffset.UTC);
+    }
+}
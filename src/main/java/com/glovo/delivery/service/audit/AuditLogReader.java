@@ -0,0 +1,103 @@
+package com.glovo.delivery.service.audit;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Scans audit segments with memory-mapped reads. Each segment is split into chunks of
+ * records that are filtered in parallel on the raw bytes; only matching records are decoded.
+ */
+public final class AuditLogReader {
+
+    static final int CHUNK_RECORDS = 1 << 18;
+
+    private static final Comparator<AuditRecord> BY_TIME =
+            Comparator.comparingLong(AuditRecord::timestamp).thenComparingLong(AuditRecord::sequence);
+
+    private AuditLogReader() {
+    }
+
+    /**
+     * Audit segments in the directory for days in {@code [fromDay, toDay]} (either may be null),
+     * oldest first.
+     */
+    public static List<Path> segments(Path directory, LocalDate fromDay, LocalDate toDay) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(file -> {
+                        LocalDate day = AuditSegmentWriter.segmentDay(file);
+                        return day != null && (fromDay == null || !day.isBefore(fromDay))
+                                && (toDay == null || !day.isAfter(toDay));
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /**
+     * All matching records from the given segments, ordered by timestamp.
+     */
+    public static List<AuditRecord> scan(List<Path> segments, AuditRecordFilter filter) {
+        List<Chunk> chunks = new ArrayList<>();
+        for (Path segment : segments) {
+            MappedByteBuffer mapped = map(segment);
+            int records = (mapped.capacity() - AuditSegmentWriter.HEADER_SIZE) / AuditRecord.SIZE;
+            for (int first = 0; first < records; first += CHUNK_RECORDS) {
+                chunks.add(new Chunk(mapped, first, Math.min(records, first + CHUNK_RECORDS)));
+            }
+        }
+        return chunks.parallelStream()
+                .flatMap(chunk -> chunk.scan(filter).stream())
+                .sorted(BY_TIME)
+                .toList();
+    }
+
+    private static MappedByteBuffer map(Path segment) {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            mapped.order(ByteOrder.BIG_ENDIAN);
+            if (mapped.capacity() < AuditSegmentWriter.HEADER_SIZE
+                    || mapped.getInt(0) != AuditSegmentWriter.MAGIC
+                    || mapped.getShort(4) != AuditSegmentWriter.VERSION
+                    || mapped.getShort(6) != AuditRecord.SIZE) {
+                throw new IllegalArgumentException("Not a dispatch audit segment: " + segment);
+            }
+            return mapped;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map audit segment " + segment, e);
+        }
+    }
+
+    /**
+     * Records {@code [from, to)} of one segment. Absolute gets only, so chunks of the same
+     * mapping can be read by several threads at once.
+     */
+    private record Chunk(MappedByteBuffer segment, int from, int to) {
+
+        List<AuditRecord> scan(AuditRecordFilter filter) {
+            List<AuditRecord> matches = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                int offset = AuditSegmentWriter.HEADER_SIZE + i * AuditRecord.SIZE;
+                if (!AuditRecord.isPresent(segment, offset)) {
+                    // Records are appended in order: the first empty slot ends the segment
+                    break;
+                }
+                if (filter.test(segment, offset)) {
+                    matches.add(AuditRecord.read(segment, offset));
+                }
+            }
+            return matches;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.glovo.delivery.service.audit;
+
+import com.glovo.delivery.model.DispatchEvent;
+import com.glovo.delivery.model.enums.DispatchEventType;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * One dispatch event as stored in the audit log. Fixed binary layout (big-endian, 56 bytes):
+ *
+ * <pre>
+ * offset  size  field
+ *      0     8  event sequence (restarts from 0 with the application)
+ *      8     8  timestamp, epoch milliseconds
+ *     16     8  order id, most significant bits
+ *     24     8  order id, least significant bits
+ *     32     8  courier id, most significant bits (0 when there is no courier)
+ *     40     8  courier id, least significant bits
+ *     48     4  zone
+ *     52     1  event type, ordinal + 1 (0 marks a slot that was never written)
+ *     53     3  reserved
+ * </pre>
+ *
+ * The type byte is written last, so a record is only visible to readers once complete.
+ */
+public record AuditRecord(long sequence, long timestamp, UUID orderId, UUID courierId, int zone,
+                          DispatchEventType type) {
+
+    public static final int SIZE = 56;
+
+    static final int SEQUENCE_OFFSET = 0;
+    static final int TIMESTAMP_OFFSET = 8;
+    static final int ORDER_ID_MSB_OFFSET = 16;
+    static final int ORDER_ID_LSB_OFFSET = 24;
+    static final int COURIER_ID_MSB_OFFSET = 32;
+    static final int COURIER_ID_LSB_OFFSET = 40;
+    static final int ZONE_OFFSET = 48;
+    static final int TYPE_OFFSET = 52;
+
+    private static final DispatchEventType[] TYPES = DispatchEventType.values();
+
+    /**
+     * Write an event at the given absolute offset without moving the buffer position.
+     */
+    static void write(ByteBuffer buffer, int offset, DispatchEvent event) {
+        buffer.putLong(offset + SEQUENCE_OFFSET, event.getSequence());
+        buffer.putLong(offset + TIMESTAMP_OFFSET, event.getTimestamp());
+        putUuid(buffer, offset + ORDER_ID_MSB_OFFSET, event.getOrderId());
+        putUuid(buffer, offset + COURIER_ID_MSB_OFFSET, event.getCourierId());
+        buffer.putInt(offset + ZONE_OFFSET, event.getZone());
+        buffer.put(offset + TYPE_OFFSET, (byte) (event.getType().ordinal() + 1));
+    }
+
+    /**
+     * True when a complete record is stored at the offset.
+     */
+    static boolean isPresent(ByteBuffer buffer, int offset) {
+        return buffer.get(offset + TYPE_OFFSET) != 0;
+    }
+
+    static DispatchEventType typeAt(ByteBuffer buffer, int offset) {
+        return TYPES[buffer.get(offset + TYPE_OFFSET) - 1];
+    }
+
+    static AuditRecord read(ByteBuffer buffer, int offset) {
+        long courierMsb = buffer.getLong(offset + COURIER_ID_MSB_OFFSET);
+        long courierLsb = buffer.getLong(offset + COURIER_ID_LSB_OFFSET);
+        return new AuditRecord(
+                buffer.getLong(offset + SEQUENCE_OFFSET),
+                buffer.getLong(offset + TIMESTAMP_OFFSET),
+                new UUID(buffer.getLong(offset + ORDER_ID_MSB_OFFSET), buffer.getLong(offset + ORDER_ID_LSB_OFFSET)),
+                courierMsb == 0 && courierLsb == 0 ? null : new UUID(courierMsb, courierLsb),
+                buffer.getInt(offset + ZONE_OFFSET),
+                typeAt(buffer, offset));
+    }
+
+    private static void putUuid(ByteBuffer buffer, int offset, UUID id) {
+        buffer.putLong(offset, id == null ? 0 : id.getMostSignificantBits());
+        buffer.putLong(offset + 8, id == null ? 0 : id.getLeastSignificantBits());
+    }
+}
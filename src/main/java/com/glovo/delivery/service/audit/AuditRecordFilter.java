@@ -0,0 +1,55 @@
+package com.glovo.delivery.service.audit;
+
+import com.glovo.delivery.model.enums.DispatchEventType;
+
+import java.nio.ByteBuffer;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Predicate over a stored record, evaluated on the raw segment bytes so that records
+ * which do not match are never decoded.
+ */
+@FunctionalInterface
+public interface AuditRecordFilter {
+
+    boolean test(ByteBuffer segment, int offset);
+
+    default AuditRecordFilter and(AuditRecordFilter other) {
+        return (segment, offset) -> test(segment, offset) && other.test(segment, offset);
+    }
+
+    static AuditRecordFilter all() {
+        return (segment, offset) -> true;
+    }
+
+    static AuditRecordFilter courier(UUID courierId) {
+        long msb = courierId.getMostSignificantBits();
+        long lsb = courierId.getLeastSignificantBits();
+        return (segment, offset) -> segment.getLong(offset + AuditRecord.COURIER_ID_LSB_OFFSET) == lsb
+                && segment.getLong(offset + AuditRecord.COURIER_ID_MSB_OFFSET) == msb;
+    }
+
+    static AuditRecordFilter order(UUID orderId) {
+        long msb = orderId.getMostSignificantBits();
+        long lsb = orderId.getLeastSignificantBits();
+        return (segment, offset) -> segment.getLong(offset + AuditRecord.ORDER_ID_LSB_OFFSET) == lsb
+                && segment.getLong(offset + AuditRecord.ORDER_ID_MSB_OFFSET) == msb;
+    }
+
+    static AuditRecordFilter types(Set<DispatchEventType> types) {
+        boolean[] accepted = new boolean[DispatchEventType.values().length];
+        types.forEach(type -> accepted[type.ordinal()] = true);
+        return (segment, offset) -> accepted[AuditRecord.typeAt(segment, offset).ordinal()];
+    }
+
+    /**
+     * Records with {@code from <= timestamp < to}, epoch milliseconds.
+     */
+    static AuditRecordFilter between(long from, long to) {
+        return (segment, offset) -> {
+            long timestamp = segment.getLong(offset + AuditRecord.TIMESTAMP_OFFSET);
+            return timestamp >= from && timestamp < to;
+        };
+    }
+}
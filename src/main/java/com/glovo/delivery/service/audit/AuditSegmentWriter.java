@@ -0,0 +1,154 @@
+package com.glovo.delivery.service.audit;
+
+import com.glovo.delivery.model.DispatchEvent;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Appends {@link AuditRecord}s to memory-mapped segment files named
+ * {@code dispatch-audit-<yyyy-MM-dd>-<nnn>.bin}.
+ *
+ * A segment is mapped at its full size up front and filled record by record; a new
+ * segment starts when the current one is full or the event belongs to another UTC day.
+ * Unused space at the end of a segment stays zero, which readers treat as the end.
+ * Not thread-safe: owned by a single writer thread.
+ */
+public class AuditSegmentWriter implements Closeable {
+
+    static final int MAGIC = 0x44415544; // "DAUD"
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 16;
+
+    private static final Pattern SEGMENT_NAME =
+            Pattern.compile("dispatch-audit-(\\d{4}-\\d{2}-\\d{2})-(\\d{3,})\\.bin");
+
+    private final Path directory;
+    private final int segmentBytes;
+
+    private LocalDate currentDay;
+    private int currentIndex;
+    private Path currentPath;
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private int position;
+    private long segmentsOpened;
+
+    public AuditSegmentWriter(Path directory, int segmentBytes) {
+        if (segmentBytes < HEADER_SIZE + AuditRecord.SIZE) {
+            throw new IllegalArgumentException("Audit segment must hold at least one record. Got: " + segmentBytes);
+        }
+        this.directory = directory;
+        // Whole records only, so a reader never sees a partial slot at the end
+        this.segmentBytes = HEADER_SIZE + (segmentBytes - HEADER_SIZE) / AuditRecord.SIZE * AuditRecord.SIZE;
+    }
+
+    public void append(DispatchEvent event) {
+        LocalDate day = LocalDate.ofInstant(Instant.ofEpochMilli(event.getTimestamp()), ZoneOffset.UTC);
+        if (segment == null || !day.equals(currentDay) || position + AuditRecord.SIZE > segmentBytes) {
+            roll(day);
+        }
+        AuditRecord.write(segment, position, event);
+        position += AuditRecord.SIZE;
+    }
+
+    /**
+     * Push written records of the current segment to the file.
+     */
+    public void force() {
+        if (segment != null) {
+            segment.force();
+        }
+    }
+
+    @Override
+    public void close() {
+        closeSegment();
+    }
+
+    public Path getCurrentSegment() {
+        return currentPath;
+    }
+
+    public long getSegmentsOpened() {
+        return segmentsOpened;
+    }
+
+    private void roll(LocalDate day) {
+        closeSegment();
+        try {
+            Files.createDirectories(directory);
+            currentIndex = day.equals(currentDay) ? currentIndex + 1 : nextIndex(day);
+            currentDay = day;
+            currentPath = directory.resolve(segmentName(day, currentIndex));
+            channel = FileChannel.open(currentPath, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open audit segment in " + directory, e);
+        }
+        segment.order(ByteOrder.BIG_ENDIAN);
+        segment.putInt(0, MAGIC);
+        segment.putShort(4, VERSION);
+        segment.putShort(6, (short) AuditRecord.SIZE);
+        segment.putLong(8, day.toEpochDay());
+        position = HEADER_SIZE;
+        segmentsOpened++;
+    }
+
+    private void closeSegment() {
+        if (channel == null) {
+            return;
+        }
+        segment.force();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close audit segment " + currentPath, e);
+        }
+        // The mapping stays valid until garbage collected; it is no longer written to
+        channel = null;
+        segment = null;
+    }
+
+    /**
+     * First segment index not used yet for the day, so a restart never overwrites a segment.
+     */
+    private int nextIndex(LocalDate day) throws IOException {
+        int next = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "dispatch-audit-*.bin")) {
+            for (Path file : files) {
+                Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches() && matcher.group(1).equals(day.toString())) {
+                    next = Math.max(next, Integer.parseInt(matcher.group(2)) + 1);
+                }
+            }
+        }
+        return next;
+    }
+
+    static String segmentName(LocalDate day, int index) {
+        return String.format("dispatch-audit-%s-%03d.bin", day, index);
+    }
+
+    /**
+     * Day encoded in a segment file name, or null for files that are not audit segments.
+     */
+    static LocalDate segmentDay(Path file) {
+        Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+        return matcher.matches() ? LocalDate.parse(matcher.group(1)) : null;
+    }
+}
@@ -0,0 +1,122 @@
+package com.glovo.delivery.service.audit;
+
+import com.glovo.delivery.model.DispatchEvent;
+import com.glovo.delivery.service.event.DispatchEventBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background writer that copies every dispatch event (assignments, queueing, completions,
+ * freed couriers) into the binary audit log.
+ *
+ * It reads the {@link DispatchEventBuffer} through its own cursor like any other
+ * subscriber, so dispatch never waits for the disk. If the writer falls more than a buffer
+ * capacity behind, the overwritten events are counted as lost.
+ */
+public class DispatchAuditLog implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(DispatchAuditLog.class);
+
+    private static final int DRAIN_BATCH = 1024;
+    private static final long AWAIT_MS = 100;
+
+    private final DispatchEventBuffer eventBuffer;
+    private final AuditSegmentWriter writer;
+    private final long forceIntervalNanos;
+    private final AtomicLong written = new AtomicLong();
+
+    private volatile DispatchEventBuffer.Cursor cursor;
+    private volatile Thread writerThread;
+    private volatile boolean running;
+
+    public DispatchAuditLog(DispatchEventBuffer eventBuffer, AuditSegmentWriter writer, long forceIntervalMs) {
+        this.eventBuffer = eventBuffer;
+        this.writer = writer;
+        this.forceIntervalNanos = TimeUnit.MILLISECONDS.toNanos(forceIntervalMs);
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        cursor = eventBuffer.tail();
+        running = true;
+        writerThread = Thread.ofPlatform().name("dispatch-audit").daemon().start(this::writeLoop);
+        log.info("Dispatch audit log started");
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        // No interrupt: it would close the file channel if it hit the writer mid-roll.
+        // The writer notices within one await timeout.
+        running = false;
+        try {
+            writerThread.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Dispatch audit log stopped: written={}, lost={}, segments={}",
+                written.get(), getLost(), writer.getSegmentsOpened());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void writeLoop() {
+        long lastForce = System.nanoTime();
+        try {
+            while (running) {
+                try {
+                    eventBuffer.awaitPublished(cursor, AWAIT_MS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    // Own thread, about to exit: drain what is left without the flag set
+                    break;
+                }
+                drain();
+                if (System.nanoTime() - lastForce >= forceIntervalNanos) {
+                    writer.force();
+                    lastForce = System.nanoTime();
+                }
+            }
+            drain();
+        } catch (RuntimeException e) {
+            log.error("Dispatch audit log writer failed; audit logging is stopped", e);
+            running = false;
+        } finally {
+            writer.close();
+        }
+    }
+
+    private void drain() {
+        while (eventBuffer.drain(cursor, DRAIN_BATCH, this::write) == DRAIN_BATCH) {
+            // keep going while full batches are available
+        }
+    }
+
+    private void write(DispatchEvent event) {
+        writer.append(event);
+        written.incrementAndGet();
+    }
+
+    public long getWritten() {
+        return written.get();
+    }
+
+    /**
+     * Events overwritten in the event buffer before the writer could copy them.
+     */
+    public long getLost() {
+        DispatchEventBuffer.Cursor current = cursor;
+        return current == null ? 0 : current.getLost();
+    }
+}
@@ -0,0 +1,109 @@
+package com.glovo.delivery.service.eta;
+
+import com.glovo.delivery.model.ZoneGrid;
+import com.glovo.delivery.model.enums.CourierType;
+
+import java.util.Arrays;
+
+/**
+ * Immutable travel pace per courier type and zone: base speed of the type (distance units
+ * per minute) slowed down by the congestion factor of the zone.
+ *
+ * Paces (minutes per distance unit) are precomputed into one flat array indexed by
+ * {@code type.ordinal() * ZONE_COUNT + zone}, so a lookup is a single array read with no
+ * division. Changes build a new table; swap it in with {@link SpeedTableHolder}.
+ */
+public final class SpeedTable {
+
+    private static final CourierType[] TYPES = CourierType.values();
+
+    private final long version;
+    private final double[] speeds;
+    private final double[] congestion;
+    private final double[] pace;
+
+    private SpeedTable(long version, double[] speeds, double[] congestion) {
+        this.version = version;
+        this.speeds = speeds;
+        this.congestion = congestion;
+        this.pace = new double[TYPES.length * ZoneGrid.ZONE_COUNT];
+        for (int type = 0; type < TYPES.length; type++) {
+            for (int zone = 0; zone < ZoneGrid.ZONE_COUNT; zone++) {
+                pace[type * ZoneGrid.ZONE_COUNT + zone] = congestion[zone] / speeds[type];
+            }
+        }
+    }
+
+    /**
+     * Free-flowing traffic at the speeds the replay travel model uses:
+     * 0.8, 2.5 and 4.0 units per minute on foot, by bicycle and by car.
+     */
+    public static SpeedTable defaults() {
+        double[] speeds = new double[TYPES.length];
+        speeds[CourierType.PEDESTRIAN.ordinal()] = 0.8;
+        speeds[CourierType.BICYCLE.ordinal()] = 2.5;
+        speeds[CourierType.CAR.ordinal()] = 4.0;
+        double[] congestion = new double[ZoneGrid.ZONE_COUNT];
+        Arrays.fill(congestion, 1.0);
+        return new SpeedTable(1, speeds, congestion);
+    }
+
+    /**
+     * Minutes per distance unit for a courier of {@code type} moving through {@code zone}.
+     */
+    public double pace(CourierType type, int zone) {
+        return pace[type.ordinal() * ZoneGrid.ZONE_COUNT + zone];
+    }
+
+    /**
+     * Minutes for a courier of {@code type} to cover {@code distance} from {@code fromZone}
+     * to {@code toZone}, at the mean pace of the two zones.
+     */
+    public double minutes(CourierType type, int fromZone, int toZone, double distance) {
+        int row = type.ordinal() * ZoneGrid.ZONE_COUNT;
+        return distance * (pace[row + fromZone] + pace[row + toZone]) * 0.5;
+    }
+
+    /**
+     * Base speed of the type in distance units per minute.
+     */
+    public double speed(CourierType type) {
+        return speeds[type.ordinal()];
+    }
+
+    /**
+     * Travel time multiplier of the zone; 1 is free-flowing.
+     */
+    public double congestion(int zone) {
+        return congestion[zone];
+    }
+
+    /**
+     * Increases with every change, so readers can tell which table they scored with.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public SpeedTable withSpeed(CourierType type, double speed) {
+        if (!(speed > 0) || Double.isInfinite(speed)) {
+            throw new IllegalArgumentException("Speed must be finite and > 0. Got: " + speed + " for " + type);
+        }
+        double[] next = speeds.clone();
+        next[type.ordinal()] = speed;
+        return new SpeedTable(version + 1, next, congestion);
+    }
+
+    public SpeedTable withCongestion(int zone, double factor) {
+        if (!ZoneGrid.isValidZone(zone)) {
+            throw new IllegalArgumentException("Zone must be in range [0, " + ZoneGrid.ZONE_COUNT + "). Got: " + zone);
+        }
+        if (!(factor >= 1) || Double.isInfinite(factor)) {
+            throw new IllegalArgumentException("Congestion factor must be finite and >= 1. Got: " + factor
+                    + " for zone " + zone);
+        }
+        double[] next = congestion.clone();
+        next[zone] = factor;
+        return new SpeedTable(version + 1, speeds, next);
+    }
+}
@@ -0,0 +1,41 @@
+package com.glovo.delivery.service.eta;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * Holds the current {@link SpeedTable}.
+ *
+ * Scoring reads the table once per match with a single volatile read and uses that table
+ * for every candidate; an update swaps in a whole new table, so a match never sees a
+ * half-applied change and dispatch never waits for an update.
+ */
+@Component
+public class SpeedTableHolder {
+
+    private final AtomicReference<SpeedTable> current;
+
+    public SpeedTableHolder() {
+        this(SpeedTable.defaults());
+    }
+
+    public SpeedTableHolder(SpeedTable initial) {
+        this.current = new AtomicReference<>(initial);
+    }
+
+    public SpeedTable current() {
+        return current.get();
+    }
+
+    /**
+     * Apply a change to the current table and swap the result in. The change may run more
+     * than once if another update wins the race, so it must not have side effects.
+     *
+     * @return the table now in effect
+     */
+    public SpeedTable update(UnaryOperator<SpeedTable> change) {
+        return current.updateAndGet(change);
+    }
+}
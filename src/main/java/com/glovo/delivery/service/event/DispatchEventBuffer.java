@@ -0,0 +1,171 @@
+package com.glovo.delivery.service.event;
+
+import com.glovo.delivery.model.DispatchEvent;
+import com.glovo.delivery.model.enums.DispatchEventType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Bounded, lossy broadcast ring buffer of dispatch events.
+ *
+ * Publishing never blocks and never waits for readers: the newest events simply
+ * overwrite the oldest slots. Every reader keeps its own {@link Cursor}, so a slow
+ * reader only loses events (and is told how many) instead of slowing down dispatch.
+ */
+@Component
+public class DispatchEventBuffer {
+
+    private final AtomicReferenceArray<DispatchEvent> slots;
+    private final int capacity;
+    private final int mask;
+    private final AtomicLong nextSequence = new AtomicLong(0);
+
+    /**
+     * Readers parked in {@link #awaitPublished}. A reader registers before re-checking the
+     * sequence and {@link #publish} reads the set after advancing it, so either the reader
+     * sees the new event or the publisher sees the reader and unparks it.
+     */
+    private final Set<Thread> waiters = ConcurrentHashMap.newKeySet();
+
+    public DispatchEventBuffer(@Value("${dispatch.events.buffer-capacity:4096}") int requestedCapacity) {
+        if (requestedCapacity < 1 || requestedCapacity > (1 << 30)) {
+            throw new IllegalArgumentException(
+                    "Event buffer capacity must be in range [1, 2^30]. Got: " + requestedCapacity);
+        }
+        // Round up to a power of two so the slot index is a mask instead of a modulo
+        int roundedCapacity = 1;
+        while (roundedCapacity < requestedCapacity) {
+            roundedCapacity <<= 1;
+        }
+        this.capacity = roundedCapacity;
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Append an event to the buffer. Safe to call from any thread; never blocks.
+     */
+    public DispatchEvent publish(DispatchEventType type, UUID orderId, UUID courierId, int zone) {
+        long sequence = nextSequence.getAndIncrement();
+        DispatchEvent event = new DispatchEvent(sequence, type, System.currentTimeMillis(),
+                orderId, courierId, zone);
+        slots.set((int) (sequence & mask), event);
+        if (!waiters.isEmpty()) {
+            for (Thread waiter : waiters) {
+                LockSupport.unpark(waiter);
+            }
+        }
+        return event;
+    }
+
+    /**
+     * Create a cursor positioned after the most recently published event.
+     */
+    public Cursor tail() {
+        return new Cursor(nextSequence.get());
+    }
+
+    /**
+     * Deliver up to {@code maxEvents} events after the cursor position to the sink and
+     * advance the cursor. Events overwritten before the reader got to them are counted
+     * in {@link Cursor#getLost()}.
+     *
+     * @return number of events delivered
+     */
+    public int drain(Cursor cursor, int maxEvents, Consumer<DispatchEvent> sink) {
+        long head = nextSequence.get();
+        if (head - cursor.next > capacity) {
+            long skipped = head - capacity - cursor.next;
+            cursor.lost += skipped;
+            cursor.next += skipped;
+        }
+
+        int delivered = 0;
+        while (cursor.next < head && delivered < maxEvents) {
+            DispatchEvent event = slots.get((int) (cursor.next & mask));
+            if (event == null || event.getSequence() < cursor.next) {
+                // Sequence claimed but the publisher has not stored the event yet
+                break;
+            }
+            if (event.getSequence() > cursor.next) {
+                // Slot already reused by a newer event: this one is gone
+                cursor.lost++;
+                cursor.next++;
+                continue;
+            }
+            sink.accept(event);
+            cursor.next++;
+            delivered++;
+        }
+        return delivered;
+    }
+
+    /**
+     * Block the calling reader until an event newer than the cursor is published
+     * or the timeout elapses.
+     */
+    public void awaitPublished(Cursor cursor, long timeout, TimeUnit unit) throws InterruptedException {
+        if (nextSequence.get() > cursor.next) {
+            return;
+        }
+        Thread self = Thread.currentThread();
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        waiters.add(self);
+        try {
+            while (nextSequence.get() <= cursor.next) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    // Nothing new within the timeout — the caller decides what to do
+                    return;
+                }
+                LockSupport.parkNanos(this, remaining);
+            }
+        } finally {
+            waiters.remove(self);
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Total number of events ever published.
+     */
+    public long getPublishedCount() {
+        return nextSequence.get();
+    }
+
+    /**
+     * Read position of a single consumer. Not thread-safe: each reader owns its cursor.
+     */
+    public static final class Cursor {
+
+        private long next;
+        private long lost;
+
+        private Cursor(long next) {
+            this.next = next;
+        }
+
+        public long getNext() {
+            return next;
+        }
+
+        public long getLost() {
+            return lost;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.glovo.delivery.service.event;
+
+import com.glovo.delivery.model.DispatchEvent;
+
+import java.util.UUID;
+
+/**
+ * Subscriber-side filter for the dispatch event stream. A {@code null} criterion matches everything.
+ */
+public final class DispatchEventFilter {
+
+    private final UUID orderId;
+    private final UUID courierId;
+    private final Integer zone;
+
+    public DispatchEventFilter(UUID orderId, UUID courierId, Integer zone) {
+        this.orderId = orderId;
+        this.courierId = courierId;
+        this.zone = zone;
+    }
+
+    public boolean matches(DispatchEvent event) {
+        if (orderId != null && !orderId.equals(event.getOrderId())) {
+            return false;
+        }
+        if (courierId != null && !courierId.equals(event.getCourierId())) {
+            return false;
+        }
+        return zone == null || zone == event.getZone();
+    }
+
+    public UUID getOrderId() {
+        return orderId;
+    }
+
+    public UUID getCourierId() {
+        return courierId;
+    }
+
+    public Integer getZone() {
+        return zone;
+    }
+}
@@ -0,0 +1,133 @@
+package com.glovo.delivery.service.event;
+
+import com.glovo.delivery.model.DispatchEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes dispatch events to Server-Sent Events subscribers.
+ *
+ * Each subscriber is served by its own virtual thread reading the shared
+ * {@link DispatchEventBuffer} through a private cursor. Network writes happen only on
+ * that thread, so a slow client can fall behind and lose events but never delays dispatch.
+ */
+@Service
+public class DispatchEventStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(DispatchEventStreamService.class);
+    private static final int DRAIN_BATCH_SIZE = 256;
+    private static final long HEARTBEAT_INTERVAL_MS = 15_000;
+
+    private final DispatchEventBuffer eventBuffer;
+    private final long emitterTimeoutMs;
+    private final int maxSubscribers;
+    private final AtomicInteger activeSubscribers = new AtomicInteger(0);
+
+    public DispatchEventStreamService(DispatchEventBuffer eventBuffer,
+                                      @Value("${dispatch.events.emitter-timeout-ms:1800000}") long emitterTimeoutMs,
+                                      @Value("${dispatch.events.max-subscribers:256}") int maxSubscribers) {
+        this.eventBuffer = eventBuffer;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.maxSubscribers = maxSubscribers;
+    }
+
+    /**
+     * Open a new event stream starting from the next published event.
+     */
+    public SseEmitter subscribe(DispatchEventFilter filter) {
+        if (activeSubscribers.incrementAndGet() > maxSubscribers) {
+            activeSubscribers.decrementAndGet();
+            throw new IllegalStateException("Too many event stream subscribers (max " + maxSubscribers + ")");
+        }
+
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscription subscription = new Subscription(emitter, filter, eventBuffer.tail());
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(e -> subscription.close());
+
+        Thread.ofVirtual().name("dispatch-events-sse").start(subscription);
+        log.debug("Event stream subscriber connected (active: {})", activeSubscribers.get());
+        return emitter;
+    }
+
+    public int getActiveSubscribers() {
+        return activeSubscribers.get();
+    }
+
+    private final class Subscription implements Runnable {
+
+        private final SseEmitter emitter;
+        private final DispatchEventFilter filter;
+        private final DispatchEventBuffer.Cursor cursor;
+        private final List<DispatchEvent> batch = new ArrayList<>(DRAIN_BATCH_SIZE);
+        private final AtomicBoolean open = new AtomicBoolean(true);
+        private long reportedLost;
+
+        private Subscription(SseEmitter emitter, DispatchEventFilter filter, DispatchEventBuffer.Cursor cursor) {
+            this.emitter = emitter;
+            this.filter = filter;
+            this.cursor = cursor;
+        }
+
+        @Override
+        public void run() {
+            long lastSendAt = System.currentTimeMillis();
+            try {
+                while (open.get()) {
+                    eventBuffer.awaitPublished(cursor, 1, TimeUnit.SECONDS);
+
+                    batch.clear();
+                    eventBuffer.drain(cursor, DRAIN_BATCH_SIZE, batch::add);
+
+                    if (cursor.getLost() > reportedLost) {
+                        long missed = cursor.getLost() - reportedLost;
+                        reportedLost = cursor.getLost();
+                        emitter.send(SseEmitter.event().name("EVENTS_LOST").data(Map.of("missed", missed)));
+                        lastSendAt = System.currentTimeMillis();
+                    }
+
+                    for (DispatchEvent event : batch) {
+                        if (filter.matches(event)) {
+                            emitter.send(SseEmitter.event()
+                                    .id(Long.toString(event.getSequence()))
+                                    .name(event.getType().name())
+                                    .data(event));
+                            lastSendAt = System.currentTimeMillis();
+                        }
+                    }
+
+                    if (System.currentTimeMillis() - lastSendAt >= HEARTBEAT_INTERVAL_MS) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                        lastSendAt = System.currentTimeMillis();
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Event stream subscriber disconnected: {}", e.getMessage());
+                emitter.completeWithError(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                emitter.complete();
+            } finally {
+                close();
+            }
+        }
+
+        private void close() {
+            if (open.compareAndSet(true, false)) {
+                activeSubscribers.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.glovo.delivery.service.jfr;
+
+import com.glovo.delivery.model.Courier;
+import com.glovo.delivery.model.Order;
+import jdk.jfr.EventType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Emits the dispatch JFR events.
+ *
+ * Each category can be switched off in configuration; it is also inactive while no JFR
+ * recording has enabled its event type. An inactive {@code begin*} call is one field
+ * read plus one flag check and returns null without allocating, and the matching
+ * {@code commit*} call returns immediately for a null event. Event fields (ids as
+ * strings) are only filled in once the event passed its recording threshold.
+ */
+@Component
+public class DispatchFlightRecorder {
+
+    private static final EventType DISPATCH = EventType.getEventType(DispatchJfrEvent.class);
+    private static final EventType MATCH = EventType.getEventType(MatchJfrEvent.class);
+    private static final EventType QUEUE_DRAIN = EventType.getEventType(QueueDrainJfrEvent.class);
+    private static final EventType LOCK_WAIT = EventType.getEventType(LockWaitJfrEvent.class);
+
+    private final boolean dispatchEnabled;
+    private final boolean matchEnabled;
+    private final boolean queueDrainEnabled;
+    private final boolean lockWaitEnabled;
+
+    public DispatchFlightRecorder(@Value("${dispatch.jfr.dispatch.enabled:true}") boolean dispatchEnabled,
+                                  @Value("${dispatch.jfr.match.enabled:true}") boolean matchEnabled,
+                                  @Value("${dispatch.jfr.queue-drain.enabled:true}") boolean queueDrainEnabled,
+                                  @Value("${dispatch.jfr.lock-wait.enabled:true}") boolean lockWaitEnabled) {
+        this.dispatchEnabled = dispatchEnabled;
+        this.matchEnabled = matchEnabled;
+        this.queueDrainEnabled = queueDrainEnabled;
+        this.lockWaitEnabled = lockWaitEnabled;
+    }
+
+    /**
+     * Recorder with every category switched off, for code constructed outside Spring.
+     */
+    public static DispatchFlightRecorder disabled() {
+        return new DispatchFlightRecorder(false, false, false, false);
+    }
+
+    public DispatchJfrEvent beginDispatch() {
+        if (!dispatchEnabled || !DISPATCH.isEnabled()) {
+            return null;
+        }
+        DispatchJfrEvent event = new DispatchJfrEvent();
+        event.begin();
+        return event;
+    }
+
+    public void commitDispatch(DispatchJfrEvent event, Order order, Courier courier, int candidateCount) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.orderId = order.getId().toString();
+            event.outcome = courier != null ? "ASSIGNED" : "QUEUED";
+            event.courierId = courier != null ? courier.getId().toString() : null;
+            event.candidateCount = candidateCount;
+            event.commit();
+        }
+    }
+
+    public MatchJfrEvent beginMatch() {
+        if (!matchEnabled || !MATCH.isEnabled()) {
+            return null;
+        }
+        MatchJfrEvent event = new MatchJfrEvent();
+        event.begin();
+        return event;
+    }
+
+    public void commitMatch(MatchJfrEvent event, Order order, int candidateCount, int eligibleCount,
+                            Courier chosen, double score) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.orderId = order.getId().toString();
+            event.candidateCount = candidateCount;
+            event.eligibleCount = eligibleCount;
+            event.courierId = chosen != null ? chosen.getId().toString() : null;
+            event.score = chosen != null ? score : Double.NaN;
+            event.commit();
+        }
+    }
+
+    public QueueDrainJfrEvent beginQueueDrain() {
+        if (!queueDrainEnabled || !QUEUE_DRAIN.isEnabled()) {
+            return null;
+        }
+        QueueDrainJfrEvent event = new QueueDrainJfrEvent();
+        event.begin();
+        return event;
+    }
+
+    public void commitQueueDrain(QueueDrainJfrEvent event, int queueDepth, int assigned, int staleRemoved) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.queueDepth = queueDepth;
+            event.assigned = assigned;
+            event.staleRemoved = staleRemoved;
+            event.commit();
+        }
+    }
+
+    public LockWaitJfrEvent beginLockWait() {
+        if (!lockWaitEnabled || !LOCK_WAIT.isEnabled()) {
+            return null;
+        }
+        LockWaitJfrEvent event = new LockWaitJfrEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * @param operation constant operation name; never built per call
+     */
+    public void commitLockWait(LockWaitJfrEvent event, String operation) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.commit();
+        }
+    }
+}
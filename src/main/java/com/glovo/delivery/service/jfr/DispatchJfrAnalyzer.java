@@ -0,0 +1,149 @@
+package com.glovo.delivery.service.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Command-line summary of the dispatch events in a JFR recording: latency percentiles
+ * per event type, lock wait per operation, match candidate counts, queue drain totals
+ * and the slowest dispatches.
+ *
+ * <pre>
+ * java -cp target/classes com.glovo.delivery.service.jfr.DispatchJfrAnalyzer recording.jfr [top]
+ * </pre>
+ */
+public final class DispatchJfrAnalyzer {
+
+    private static final int DEFAULT_TOP = 10;
+
+    private DispatchJfrAnalyzer() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: DispatchJfrAnalyzer <recording.jfr> [top]");
+            System.exit(2);
+        }
+        Path recording = Path.of(args[0]);
+        if (!Files.isReadable(recording)) {
+            System.err.println("Cannot read " + recording);
+            System.exit(2);
+        }
+        int top = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_TOP;
+        System.out.print(summarize(recording, top));
+    }
+
+    /**
+     * Read every dispatch event from the recording and format the summary.
+     */
+    public static String summarize(Path recording, int top) throws IOException {
+        Map<String, List<Long>> durationsByType = new TreeMap<>();
+        Map<String, List<Long>> lockWaitByOperation = new TreeMap<>();
+        Map<String, Integer> dispatchOutcomes = new TreeMap<>();
+        List<RecordedEvent> dispatches = new ArrayList<>();
+        long matchCount = 0;
+        long candidates = 0;
+        long eligible = 0;
+        long drainedAssigned = 0;
+        long drainedStale = 0;
+
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                String name = event.getEventType().getName();
+                long nanos = event.getDuration().toNanos();
+                switch (name) {
+                    case DispatchJfrEvent.NAME -> {
+                        dispatches.add(event);
+                        dispatchOutcomes.merge(String.valueOf(event.getString("outcome")), 1, Integer::sum);
+                    }
+                    case MatchJfrEvent.NAME -> {
+                        matchCount++;
+                        candidates += event.getInt("candidateCount");
+                        eligible += event.getInt("eligibleCount");
+                    }
+                    case QueueDrainJfrEvent.NAME -> {
+                        drainedAssigned += event.getInt("assigned");
+                        drainedStale += event.getInt("staleRemoved");
+                    }
+                    case LockWaitJfrEvent.NAME -> lockWaitByOperation
+                            .computeIfAbsent(String.valueOf(event.getString("operation")), k -> new ArrayList<>())
+                            .add(nanos);
+                    default -> {
+                        continue;
+                    }
+                }
+                durationsByType.computeIfAbsent(name, k -> new ArrayList<>()).add(nanos);
+            }
+        }
+
+        StringBuilder out = new StringBuilder();
+        out.append("Recording: ").append(recording).append('\n');
+        if (durationsByType.isEmpty()) {
+            out.append("No dispatch events found. Was the recording started with the dispatch .jfc settings?\n");
+            return out.toString();
+        }
+
+        out.append('\n').append(String.format("%-32s %8s %10s %10s %10s %10s%n",
+                "event", "count", "p50 us", "p99 us", "max us", "total ms"));
+        durationsByType.forEach((name, durations) -> appendRow(out, name, durations));
+
+        if (!lockWaitByOperation.isEmpty()) {
+            out.append("\nLock wait by operation\n");
+            lockWaitByOperation.forEach((operation, durations) -> appendRow(out, operation, durations));
+        }
+        if (!dispatchOutcomes.isEmpty()) {
+            out.append("\nDispatch outcomes: ").append(dispatchOutcomes).append('\n');
+        }
+        if (matchCount > 0) {
+            out.append(String.format("Matches: %d, avg candidates %.1f, avg eligible %.1f%n",
+                    matchCount, (double) candidates / matchCount, (double) eligible / matchCount));
+        }
+        if (durationsByType.containsKey(QueueDrainJfrEvent.NAME)) {
+            out.append(String.format("Queue drains: %d, orders assigned %d, stale entries removed %d%n",
+                    durationsByType.get(QueueDrainJfrEvent.NAME).size(), drainedAssigned, drainedStale));
+        }
+
+        if (!dispatches.isEmpty()) {
+            out.append("\nSlowest dispatches\n");
+            dispatches.sort(Comparator.comparing(RecordedEvent::getDuration, Comparator.reverseOrder()));
+            for (RecordedEvent event : dispatches.subList(0, Math.min(top, dispatches.size()))) {
+                out.append(String.format("  %10.1f us  order=%s outcome=%s candidates=%d thread=%s%n",
+                        micros(event.getDuration()), event.getString("orderId"), event.getString("outcome"),
+                        event.getInt("candidateCount"),
+                        event.getThread() != null ? event.getThread().getJavaName() : "?"));
+            }
+        }
+        return out.toString();
+    }
+
+    private static void appendRow(StringBuilder out, String label, List<Long> durations) {
+        long[] sorted = durations.stream().mapToLong(Long::longValue).sorted().toArray();
+        long total = 0;
+        for (long value : sorted) {
+            total += value;
+        }
+        out.append(String.format("%-32s %8d %10.1f %10.1f %10.1f %10.2f%n", label, sorted.length,
+                percentile(sorted, 0.50) / 1_000.0, percentile(sorted, 0.99) / 1_000.0,
+                sorted[sorted.length - 1] / 1_000.0, total / 1_000_000.0));
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+
+    private static double micros(Duration duration) {
+        return duration.toNanos() / 1_000.0;
+    }
+}
@@ -0,0 +1,35 @@
+package com.glovo.delivery.service.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One {@code DispatchService.dispatch()} call, lock wait and matching included.
+ */
+@Name(DispatchJfrEvent.NAME)
+@Label("Dispatch")
+@Category({"Delivery", "Dispatch"})
+@Description("Single-order dispatch: courier search, assignment or queueing")
+@StackTrace(false)
+public class DispatchJfrEvent extends Event {
+
+    public static final String NAME = "com.glovo.delivery.Dispatch";
+
+    @Label("Order Id")
+    String orderId;
+
+    @Label("Outcome")
+    @Description("ASSIGNED or QUEUED")
+    String outcome;
+
+    @Label("Courier Id")
+    String courierId;
+
+    @Label("Candidates")
+    @Description("Free couriers considered")
+    int candidateCount;
+}
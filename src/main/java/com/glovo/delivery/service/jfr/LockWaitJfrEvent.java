@@ -0,0 +1,25 @@
+package com.glovo.delivery.service.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Time a thread waited to acquire the dispatch lock; the event duration is the wait.
+ */
+@Name(LockWaitJfrEvent.NAME)
+@Label("Dispatch Lock Wait")
+@Category({"Delivery", "Dispatch"})
+@Description("Wait to acquire the dispatch lock")
+@StackTrace(false)
+public class LockWaitJfrEvent extends Event {
+
+    public static final String NAME = "com.glovo.delivery.LockWait";
+
+    @Label("Operation")
+    @Description("Dispatch operation that requested the lock")
+    String operation;
+}
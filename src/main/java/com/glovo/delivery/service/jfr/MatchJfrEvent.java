@@ -0,0 +1,39 @@
+package com.glovo.delivery.service.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Scoring of the candidate couriers for one order inside the matching strategy.
+ */
+@Name(MatchJfrEvent.NAME)
+@Label("Match")
+@Category({"Delivery", "Dispatch"})
+@Description("Candidate scoring for one order")
+@StackTrace(false)
+public class MatchJfrEvent extends Event {
+
+    public static final String NAME = "com.glovo.delivery.Match";
+
+    @Label("Order Id")
+    String orderId;
+
+    @Label("Candidates")
+    @Description("Free couriers passed to the strategy")
+    int candidateCount;
+
+    @Label("Eligible")
+    @Description("Candidates able to carry the order weight")
+    int eligibleCount;
+
+    @Label("Chosen Courier Id")
+    String courierId;
+
+    @Label("Score")
+    @Description("Score of the chosen courier (lower is better); NaN when none was chosen")
+    double score;
+}
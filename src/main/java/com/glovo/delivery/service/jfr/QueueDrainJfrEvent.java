@@ -0,0 +1,32 @@
+package com.glovo.delivery.service.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One pass over the order queue after a courier was freed.
+ */
+@Name(QueueDrainJfrEvent.NAME)
+@Label("Queue Drain")
+@Category({"Delivery", "Dispatch"})
+@Description("Assignment of queued orders after a courier became free")
+@StackTrace(false)
+public class QueueDrainJfrEvent extends Event {
+
+    public static final String NAME = "com.glovo.delivery.QueueDrain";
+
+    @Label("Queue Depth")
+    @Description("Queued orders when the drain started")
+    int queueDepth;
+
+    @Label("Assigned")
+    int assigned;
+
+    @Label("Stale Removed")
+    @Description("Queue entries dropped because the order was no longer QUEUED")
+    int staleRemoved;
+}
@@ -0,0 +1,55 @@
+package com.glovo.delivery.service.metrics;
+
+import com.glovo.delivery.model.enums.CourierType;
+import com.glovo.delivery.service.DispatchService;
+import com.glovo.delivery.service.LocationCoalescer;
+import com.glovo.delivery.service.snapshot.FleetSnapshotHolder;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Dispatch gauges and counters read at scrape time: queue depth, free couriers per type
+ * (from the published fleet snapshot) and location coalescing. Optional components bind
+ * their own meters next to them. Nothing here runs on the dispatch path.
+ */
+@Component
+public class DispatchMeterBinder implements MeterBinder {
+
+    private final DispatchService dispatchService;
+    private final FleetSnapshotHolder snapshotHolder;
+    private final LocationCoalescer locationCoalescer;
+
+    public DispatchMeterBinder(DispatchService dispatchService,
+                               FleetSnapshotHolder snapshotHolder,
+                               LocationCoalescer locationCoalescer) {
+        this.dispatchService = dispatchService;
+        this.snapshotHolder = snapshotHolder;
+        this.locationCoalescer = locationCoalescer;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("dispatch.queue.depth", dispatchService, DispatchService::getQueueSize)
+                .description("Orders waiting in the dispatch queue")
+                .register(registry);
+
+        for (CourierType type : CourierType.values()) {
+            Gauge.builder("couriers.free", snapshotHolder, holder -> holder.current().getFreeCount(type))
+                    .description("Free couriers in the latest fleet snapshot")
+                    .tag("type", type.name())
+                    .register(registry);
+        }
+
+        FunctionCounter.builder("courier.location.submitted", locationCoalescer,
+                        coalescer -> coalescer.getStats().getSubmitted())
+                .description("Location updates submitted from all sources")
+                .register(registry);
+        FunctionCounter.builder("courier.location.applied", locationCoalescer,
+                        coalescer -> coalescer.getStats().getApplied())
+                .description("Location updates written to the repository after coalescing")
+                .register(registry);
+    }
+}
@@ -0,0 +1,256 @@
+package com.glovo.delivery.service.replay;
+
+import com.glovo.delivery.model.Courier;
+import com.glovo.delivery.model.DispatchEvent;
+import com.glovo.delivery.model.Order;
+import com.glovo.delivery.model.Point;
+import com.glovo.delivery.model.enums.CourierStatus;
+import com.glovo.delivery.model.enums.DispatchEventType;
+import com.glovo.delivery.repository.CourierRepository;
+import com.glovo.delivery.repository.OrderRepository;
+import com.glovo.delivery.service.DispatchService;
+import com.glovo.delivery.service.LocationCoalescer;
+import com.glovo.delivery.service.event.DispatchEventBuffer;
+import com.glovo.delivery.service.jfr.DispatchFlightRecorder;
+import com.glovo.delivery.service.metrics.DispatchMetrics;
+import com.glovo.delivery.service.replay.ReplayScenario.CourierMove;
+import com.glovo.delivery.service.replay.ReplayScenario.CourierSpec;
+import com.glovo.delivery.service.replay.ReplayScenario.OrderArrival;
+import com.glovo.delivery.service.replay.ReplayScenario.ReplayEvent;
+import com.glovo.delivery.service.shadow.ShadowEvaluator;
+import com.glovo.delivery.service.snapshot.FleetSnapshotHolder;
+import com.glovo.delivery.service.strategy.CourierMatchingStrategy;
+import com.glovo.delivery.service.supply.NearestSupplyCache;
+import com.glovo.delivery.service.trace.DecisionTraceRecorder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+
+/**
+ * Discrete-event replay of a {@link ReplayScenario} through the production
+ * {@link DispatchService} with a given {@link CourierMatchingStrategy}.
+ *
+ * Time is virtual: the engine jumps from one agenda entry to the next without sleeping,
+ * so hours of traffic replay in milliseconds. Each run builds its own repositories and
+ * dispatch service, so runs share no state and can execute on different threads. Courier
+ * and order ids are derived from their position in the scenario, which makes the outcome
+ * of a run depend only on the scenario, the strategy and the travel model.
+ *
+ * Assignments are observed through the dispatch event buffer, exactly as the SSE stream
+ * sees them; each one schedules the completion of its trip after the travel time.
+ */
+public class ReplayEngine {
+
+    private static final long COURIER_ID_PREFIX = 1;
+    private static final long ORDER_ID_PREFIX = 2;
+
+    private final TravelModel travelModel;
+
+    public ReplayEngine(TravelModel travelModel) {
+        this.travelModel = travelModel;
+    }
+
+    public ReplayEngine() {
+        this(TravelModel.defaults());
+    }
+
+    public ReplayResult run(ReplayScenario scenario, String strategyName, CourierMatchingStrategy strategy) {
+        return new Run(scenario, strategy).execute(strategyName);
+    }
+
+    /**
+     * State of a single replay. Not thread-safe; confined to the thread calling {@link #run}.
+     */
+    private final class Run {
+
+        private final ReplayScenario scenario;
+        private final OrderRepository orderRepository = new OrderRepository();
+        private final CourierRepository courierRepository = new CourierRepository();
+        private final LocationCoalescer locationCoalescer;
+        private final DispatchEventBuffer eventBuffer;
+        private final DispatchEventBuffer.Cursor cursor;
+        private final DispatchService dispatchService;
+
+        private final List<Courier> couriers = new ArrayList<>();
+        private final Map<UUID, Order> orders = new HashMap<>();
+        private final Map<UUID, Long> arrivedAt = new HashMap<>();
+        private final PriorityQueue<AgendaEntry> agenda = new PriorityQueue<>();
+        private final List<Long> waits = new ArrayList<>();
+
+        private long now;
+        private long sequence;
+        private long queuedOnArrival;
+        private double totalPickupDistance;
+
+        private Run(ReplayScenario scenario, CourierMatchingStrategy strategy) {
+            this.scenario = scenario;
+            FleetSnapshotHolder snapshotHolder = new FleetSnapshotHolder();
+            locationCoalescer = new LocationCoalescer(courierRepository, snapshotHolder, false, 0, 0);
+            // Drained after every step; one step publishes at most a few events per courier
+            eventBuffer = new DispatchEventBuffer(Math.max(4096, 4 * scenario.fleet().size()));
+            cursor = eventBuffer.tail();
+            dispatchService = new DispatchService(orderRepository, courierRepository, strategy, eventBuffer,
+                    locationCoalescer, snapshotHolder, new DispatchMetrics(new SimpleMeterRegistry()),
+                    DispatchFlightRecorder.disabled(), DecisionTraceRecorder.disabled(),
+                    NearestSupplyCache.disabled(), ShadowEvaluator.disabled());
+
+            for (int i = 0; i < scenario.fleet().size(); i++) {
+                CourierSpec spec = scenario.fleet().get(i);
+                Courier courier = new Courier(new Point(spec.x(), spec.y()), spec.type());
+                courier.setId(new UUID(COURIER_ID_PREFIX, i));
+                couriers.add(courierRepository.save(courier));
+            }
+            for (ReplayEvent event : scenario.events()) {
+                schedule(event.atMillis(), event);
+            }
+        }
+
+        private ReplayResult execute(String strategyName) {
+            long wallStart = System.nanoTime();
+            while (!agenda.isEmpty()) {
+                AgendaEntry entry = agenda.poll();
+                now = entry.atMillis();
+                switch (entry.action()) {
+                    case OrderArrival arrival -> arrive(arrival);
+                    case CourierMove move -> move(move);
+                    case Completion completion -> complete(completion);
+                    default -> throw new IllegalStateException("Unknown agenda entry " + entry.action());
+                }
+                eventBuffer.drain(cursor, Integer.MAX_VALUE, this::observe);
+            }
+            if (cursor.getLost() > 0) {
+                throw new IllegalStateException("Replay lost " + cursor.getLost() + " dispatch events");
+            }
+            long wallMillis = (System.nanoTime() - wallStart) / 1_000_000;
+            return result(strategyName, wallMillis);
+        }
+
+        private void arrive(OrderArrival arrival) {
+            Order order = new Order(arrival.pickup(), arrival.delivery(), arrival.priority(), arrival.weightKg());
+            order.setId(new UUID(ORDER_ID_PREFIX, orders.size()));
+            order.setCreatedAt(now);
+            orders.put(order.getId(), order);
+            arrivedAt.put(order.getId(), now);
+            dispatchService.dispatch(order);
+        }
+
+        private void move(CourierMove move) {
+            Courier courier = couriers.get(move.courierIndex());
+            if (courier.getStatus() == CourierStatus.FREE) {
+                locationCoalescer.submit(courier, move.x(), move.y());
+            }
+        }
+
+        private void complete(Completion completion) {
+            Order order = orderRepository.findById(completion.orderId()).orElseThrow();
+            Courier courier = courierRepository.findById(order.getAssignedCourierId()).orElseThrow();
+            Point delivery = order.getDeliveryLocation();
+            courierRepository.updateLocation(courier, delivery.getX(), delivery.getY());
+            dispatchService.completeOrder(order);
+        }
+
+        private void observe(DispatchEvent event) {
+            if (event.getType() == DispatchEventType.ORDER_QUEUED) {
+                // Only dispatch on arrival queues; the queue drain never re-publishes it
+                queuedOnArrival++;
+                return;
+            }
+            if (event.getType() != DispatchEventType.ORDER_ASSIGNED) {
+                return;
+            }
+            Order order = orders.get(event.getOrderId());
+            Courier courier = courierRepository.findById(event.getCourierId()).orElseThrow();
+            double pickupDistance = courier.distanceTo(order.getPickupLocation());
+            double tripDistance = pickupDistance
+                    + order.getPickupLocation().distanceTo(order.getDeliveryLocation());
+            totalPickupDistance += pickupDistance;
+            waits.add(now - arrivedAt.get(order.getId()));
+            schedule(now + travelModel.tripMillis(courier.getType(), tripDistance), new Completion(order.getId()));
+        }
+
+        private void schedule(long atMillis, Object action) {
+            agenda.add(new AgendaEntry(atMillis, sequence++, action));
+        }
+
+        private ReplayResult result(String strategyName, long wallMillis) {
+            int orderCount = orders.size();
+            int assigned = waits.size();
+            long[] sortedWaits = waits.stream().mapToLong(Long::longValue).sorted().toArray();
+            int[] completed = couriers.stream().mapToInt(Courier::getCompletedOrdersToday).sorted().toArray();
+            return new ReplayResult(scenario.name(), strategyName, orderCount, assigned, orderCount - assigned,
+                    totalPickupDistance, assigned == 0 ? 0 : totalPickupDistance / assigned,
+                    orderCount == 0 ? 0 : (double) queuedOnArrival / orderCount,
+                    seconds(Arrays.stream(sortedWaits).average().orElse(0)),
+                    seconds(percentile(sortedWaits, 0.50)), seconds(percentile(sortedWaits, 0.95)),
+                    seconds(sortedWaits.length == 0 ? 0 : sortedWaits[sortedWaits.length - 1]),
+                    gini(completed), jain(completed),
+                    completed.length == 0 ? 0 : completed[0],
+                    completed.length == 0 ? 0 : completed[completed.length - 1],
+                    now, wallMillis);
+        }
+    }
+
+    /**
+     * Agenda entry ordered by virtual time, then by scheduling order, so simultaneous
+     * entries are processed in a fixed order.
+     */
+    private record AgendaEntry(long atMillis, long sequence, Object action) implements Comparable<AgendaEntry> {
+
+        @Override
+        public int compareTo(AgendaEntry other) {
+            int byTime = Long.compare(atMillis, other.atMillis);
+            return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private record Completion(UUID orderId) {
+    }
+
+    static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    /**
+     * Gini coefficient of a sorted, non-negative distribution.
+     */
+    static double gini(int[] sorted) {
+        long total = 0;
+        long weighted = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            total += sorted[i];
+            weighted += (long) (i + 1) * sorted[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        int n = sorted.length;
+        return (2.0 * weighted) / (n * (double) total) - (n + 1.0) / n;
+    }
+
+    /**
+     * Jain's fairness index: (sum x)^2 / (n * sum x^2).
+     */
+    static double jain(int[] values) {
+        double sum = 0;
+        double sumOfSquares = 0;
+        for (int value : values) {
+            sum += value;
+            sumOfSquares += (double) value * value;
+        }
+        return sumOfSquares == 0 ? 1 : sum * sum / (values.length * sumOfSquares);
+    }
+
+    private static double seconds(double millis) {
+        return millis / 1000;
+    }
+}
@@ -0,0 +1,49 @@
+package com.glovo.delivery.service.replay;
+
+import java.util.Locale;
+
+/**
+ * Outcome of replaying one scenario with one matching strategy. Everything except
+ * {@code wallMillis} is a pure function of the scenario and the strategy.
+ *
+ * @param totalPickupDistance sum of courier-to-pickup distances over all assignments
+ * @param queuedShare         fraction of orders that could not be assigned on arrival
+ * @param waitMeanSeconds     virtual time from arrival to assignment, over all assigned orders
+ * @param giniCompleted       Gini coefficient of completed deliveries per courier (0 is perfectly even)
+ * @param jainCompleted       Jain's fairness index of the same distribution (1 is perfectly even)
+ * @param makespanMillis      virtual time of the last processed event
+ */
+public record ReplayResult(String scenario, String strategy, int orders, int assigned, int unassigned,
+                           double totalPickupDistance, double meanPickupDistance,
+                           double queuedShare, double waitMeanSeconds, double waitP50Seconds,
+                           double waitP95Seconds, double waitMaxSeconds,
+                           double giniCompleted, double jainCompleted, int minCompleted, int maxCompleted,
+                           long makespanMillis, long wallMillis) {
+
+    /**
+     * Virtual time simulated per unit of wall time.
+     */
+    public double speedup() {
+        return wallMillis == 0 ? Double.POSITIVE_INFINITY : (double) makespanMillis / wallMillis;
+    }
+
+    /**
+     * Same result with the wall time cleared, for comparing two runs.
+     */
+    public ReplayResult withoutWallTime() {
+        return new ReplayResult(scenario, strategy, orders, assigned, unassigned, totalPickupDistance,
+                meanPickupDistance, queuedShare, waitMeanSeconds, waitP50Seconds, waitP95Seconds, waitMaxSeconds,
+                giniCompleted, jainCompleted, minCompleted, maxCompleted, makespanMillis, 0);
+    }
+
+    public String summary() {
+        return String.format(Locale.ROOT,
+                "%-16s %-12s orders=%d unassigned=%d pickup total=%.1f mean=%.2f | queued=%.1f%% "
+                        + "wait mean=%.0fs p50=%.0fs p95=%.0fs max=%.0fs | gini=%.3f jain=%.3f "
+                        + "completed=[%d..%d] | %.1fh virtual in %d ms",
+                scenario, strategy, orders, unassigned, totalPickupDistance, meanPickupDistance,
+                queuedShare * 100, waitMeanSeconds, waitP50Seconds, waitP95Seconds, waitMaxSeconds,
+                giniCompleted, jainCompleted, minCompleted, maxCompleted,
+                makespanMillis / 3_600_000.0, wallMillis);
+    }
+}
@@ -0,0 +1,162 @@
+package com.glovo.delivery.service.replay;
+
+import com.glovo.delivery.model.Courier;
+import com.glovo.delivery.model.Order;
+import com.glovo.delivery.service.eta.SpeedTableHolder;
+import com.glovo.delivery.service.jfr.DispatchFlightRecorder;
+import com.glovo.delivery.service.routing.DistanceProvider;
+import com.glovo.delivery.service.strategy.CourierMatchingStrategy;
+import com.glovo.delivery.service.strategy.EtaMatchingStrategy;
+import com.glovo.delivery.service.strategy.ScoreBasedMatchingStrategy;
+import com.glovo.delivery.service.trace.DecisionTraceRecorder;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Offline comparison of matching strategies: every (scenario, strategy) pair is replayed
+ * by a {@link ReplayEngine} on a fixed thread pool and the results are printed side by side.
+ *
+ * Usage:
+ * <pre>
+ * ./mvnw -q exec:java -Dexec.mainClass=com.glovo.delivery.service.replay.ReplayRunner \
+ *     -Dexec.args="--generate=8 --couriers=200 --orders-per-hour=220 --hours=12"
+ * </pre>
+ * Options: {@code --scenario=<file>} (repeatable, see {@link ScenarioFile}),
+ * {@code --generate=<count>}, {@code --couriers}, {@code --orders-per-hour}, {@code --hours},
+ * {@code --seed}, {@code --strategies=score-based,nearest,eta}, {@code --threads},
+ * {@code --save=<dir>} to write the generated scenarios.
+ */
+public final class ReplayRunner {
+
+    private ReplayRunner() {
+    }
+
+    /**
+     * Strategies known to the runner by name. Each replay gets a fresh instance.
+     */
+    public static Map<String, Supplier<CourierMatchingStrategy>> builtInStrategies() {
+        Map<String, Supplier<CourierMatchingStrategy>> strategies = new LinkedHashMap<>();
+        strategies.put("score-based", () -> new ScoreBasedMatchingStrategy(
+                DispatchFlightRecorder.disabled(), DecisionTraceRecorder.disabled(), DistanceProvider.EUCLIDEAN));
+        strategies.put("nearest", () -> ReplayRunner::nearestCourier);
+        strategies.put("eta", () -> new EtaMatchingStrategy(new SpeedTableHolder(), DistanceProvider.EUCLIDEAN,
+                DispatchFlightRecorder.disabled(), DecisionTraceRecorder.disabled()));
+        return strategies;
+    }
+
+    /**
+     * Replay every scenario with every strategy on {@code threads} threads.
+     * Results come back in scenario order, then strategy order, regardless of scheduling.
+     */
+    public static List<ReplayResult> runAll(List<ReplayScenario> scenarios,
+                                            Map<String, Supplier<CourierMatchingStrategy>> strategies,
+                                            TravelModel travelModel, int threads) {
+        ReplayEngine engine = new ReplayEngine(travelModel);
+        ExecutorService executor = Executors.newFixedThreadPool(threads, r ->
+                Thread.ofPlatform().name("replay-", 0).daemon().unstarted(r));
+        try {
+            List<Future<ReplayResult>> futures = new ArrayList<>();
+            for (ReplayScenario scenario : scenarios) {
+                strategies.forEach((name, factory) ->
+                        futures.add(executor.submit(() -> engine.run(scenario, name, factory.get()))));
+            }
+            List<ReplayResult> results = new ArrayList<>(futures.size());
+            for (Future<ReplayResult> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Replay interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Replay failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new LinkedHashMap<>();
+        List<Path> scenarioFiles = new ArrayList<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            if (name.equals("scenario")) {
+                scenarioFiles.add(Path.of(value));
+            } else {
+                options.put(name, value);
+            }
+        }
+        LoggingSystem.get(ReplayRunner.class.getClassLoader()).setLogLevel("com.glovo.delivery", LogLevel.ERROR);
+
+        List<ReplayScenario> scenarios = new ArrayList<>();
+        for (Path file : scenarioFiles) {
+            scenarios.add(ScenarioFile.read(file));
+        }
+        int generate = Integer.parseInt(options.getOrDefault("generate", scenarioFiles.isEmpty() ? "4" : "0"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        for (int i = 0; i < generate; i++) {
+            scenarios.add(ScenarioGenerator.generate("generated-" + i, seed + i,
+                    Integer.parseInt(options.getOrDefault("couriers", "200")),
+                    Double.parseDouble(options.getOrDefault("orders-per-hour", "220")),
+                    Double.parseDouble(options.getOrDefault("rush-multiplier", "3")),
+                    Double.parseDouble(options.getOrDefault("start-hour", "10")),
+                    Double.parseDouble(options.getOrDefault("hours", "12")),
+                    Integer.parseInt(options.getOrDefault("hotspots", "5"))));
+        }
+        if (options.containsKey("save")) {
+            Path dir = Path.of(options.get("save"));
+            for (ReplayScenario scenario : scenarios) {
+                ScenarioFile.write(scenario, dir.resolve(scenario.name() + ".csv"));
+            }
+        }
+
+        Map<String, Supplier<CourierMatchingStrategy>> known = builtInStrategies();
+        Map<String, Supplier<CourierMatchingStrategy>> selected = new LinkedHashMap<>();
+        for (String name : options.getOrDefault("strategies", String.join(",", known.keySet())).split(",")) {
+            Supplier<CourierMatchingStrategy> factory = known.get(name.strip());
+            if (factory == null) {
+                throw new IllegalArgumentException("Unknown strategy '" + name + "'. Known: " + known.keySet());
+            }
+            selected.put(name.strip(), factory);
+        }
+        int threads = Integer.parseInt(options.getOrDefault("threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+
+        long start = System.nanoTime();
+        List<ReplayResult> results = runAll(scenarios, selected, TravelModel.defaults(), threads);
+        long wallMillis = (System.nanoTime() - start) / 1_000_000;
+
+        results.forEach(result -> System.out.println(result.summary()));
+        long virtualMillis = results.stream().mapToLong(ReplayResult::makespanMillis).sum();
+        System.out.printf("%d replays on %d threads in %d ms (%.0fx real time)%n",
+                results.size(), threads, wallMillis, wallMillis == 0 ? 0.0 : (double) virtualMillis / wallMillis);
+    }
+
+    /**
+     * Baseline: the closest courier that can carry the order, ignoring transport speed and load.
+     */
+    private static Optional<Courier> nearestCourier(Order order, List<Courier> couriers) {
+        return couriers.stream()
+                .filter(courier -> courier.getType().canCarry(order.getWeightKg()))
+                .min(Comparator.comparingDouble(courier ->
+                        courier.distanceTo(order.getPickupLocation())));
+    }
+}
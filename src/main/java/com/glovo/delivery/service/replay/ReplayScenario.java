@@ -0,0 +1,42 @@
+package com.glovo.delivery.service.replay;
+
+import com.glovo.delivery.model.Point;
+import com.glovo.delivery.model.enums.CourierType;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Input of one replay: the starting fleet and a time-ordered stream of external events.
+ * Order completions are not part of the stream; the engine derives them from travel time.
+ */
+public record ReplayScenario(String name, List<CourierSpec> fleet, List<ReplayEvent> events) {
+
+    public ReplayScenario {
+        fleet = List.copyOf(fleet);
+        // Stable sort: events with the same timestamp keep their recorded order
+        events = events.stream().sorted(Comparator.comparingLong(ReplayEvent::atMillis)).toList();
+    }
+
+    public record CourierSpec(double x, double y, CourierType type) {
+    }
+
+    /**
+     * Something that happens at a point of virtual time, in milliseconds since the start.
+     */
+    public sealed interface ReplayEvent permits OrderArrival, CourierMove {
+
+        long atMillis();
+    }
+
+    public record OrderArrival(long atMillis, Point pickup, Point delivery, int priority, double weightKg)
+            implements ReplayEvent {
+    }
+
+    /**
+     * Reported position of a courier (index into the fleet). Ignored while the courier is
+     * on a trip: the engine owns the position of busy couriers.
+     */
+    public record CourierMove(long atMillis, int courierIndex, double x, double y) implements ReplayEvent {
+    }
+}
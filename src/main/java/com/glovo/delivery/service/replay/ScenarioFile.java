@@ -0,0 +1,88 @@
+package com.glovo.delivery.service.replay;
+
+import com.glovo.delivery.model.Point;
+import com.glovo.delivery.model.enums.CourierType;
+import com.glovo.delivery.service.replay.ReplayScenario.CourierMove;
+import com.glovo.delivery.service.replay.ReplayScenario.CourierSpec;
+import com.glovo.delivery.service.replay.ReplayScenario.OrderArrival;
+import com.glovo.delivery.service.replay.ReplayScenario.ReplayEvent;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Plain-text scenario format, one record per line (blank lines and {@code #} comments
+ * are skipped):
+ * <pre>
+ * courier,&lt;x&gt;,&lt;y&gt;,&lt;type&gt;
+ * order,&lt;atMillis&gt;,&lt;pickupX&gt;,&lt;pickupY&gt;,&lt;deliveryX&gt;,&lt;deliveryY&gt;,&lt;priority&gt;,&lt;weightKg&gt;
+ * move,&lt;atMillis&gt;,&lt;courierIndex&gt;,&lt;x&gt;,&lt;y&gt;
+ * </pre>
+ * Courier indexes refer to the {@code courier} lines in file order.
+ */
+public final class ScenarioFile {
+
+    private ScenarioFile() {
+    }
+
+    public static ReplayScenario read(Path file) throws IOException {
+        List<CourierSpec> fleet = new ArrayList<>();
+        List<ReplayEvent> events = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] f = line.split(",");
+                try {
+                    switch (f[0]) {
+                        case "courier" -> fleet.add(new CourierSpec(
+                                Double.parseDouble(f[1]), Double.parseDouble(f[2]), CourierType.valueOf(f[3])));
+                        case "order" -> events.add(new OrderArrival(Long.parseLong(f[1]),
+                                new Point(Double.parseDouble(f[2]), Double.parseDouble(f[3])),
+                                new Point(Double.parseDouble(f[4]), Double.parseDouble(f[5])),
+                                Integer.parseInt(f[6]), Double.parseDouble(f[7])));
+                        case "move" -> events.add(new CourierMove(Long.parseLong(f[1]), Integer.parseInt(f[2]),
+                                Double.parseDouble(f[3]), Double.parseDouble(f[4])));
+                        default -> throw new IllegalArgumentException("unknown record type '" + f[0] + "'");
+                    }
+                } catch (RuntimeException e) {
+                    throw new IOException(file + ":" + lineNumber + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        String name = file.getFileName().toString().replaceFirst("\\.[^.]*$", "");
+        return new ReplayScenario(name, fleet, events);
+    }
+
+    public static void write(ReplayScenario scenario, Path file) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            writer.write("# scenario " + scenario.name());
+            writer.newLine();
+            for (CourierSpec courier : scenario.fleet()) {
+                writer.write(String.format(Locale.ROOT, "courier,%s,%s,%s", courier.x(), courier.y(), courier.type()));
+                writer.newLine();
+            }
+            for (ReplayEvent event : scenario.events()) {
+                writer.write(switch (event) {
+                    case OrderArrival order -> String.format(Locale.ROOT, "order,%d,%s,%s,%s,%s,%d,%s",
+                            order.atMillis(), order.pickup().getX(), order.pickup().getY(),
+                            order.delivery().getX(), order.delivery().getY(), order.priority(), order.weightKg());
+                    case CourierMove move -> String.format(Locale.ROOT, "move,%d,%d,%s,%s",
+                            move.atMillis(), move.courierIndex(), move.x(), move.y());
+                });
+                writer.newLine();
+            }
+        }
+    }
+}
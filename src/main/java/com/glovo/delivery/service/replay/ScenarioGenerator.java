@@ -0,0 +1,95 @@
+package com.glovo.delivery.service.replay;
+
+import com.glovo.delivery.model.Point;
+import com.glovo.delivery.model.enums.CourierType;
+import com.glovo.delivery.service.replay.ReplayScenario.CourierSpec;
+import com.glovo.delivery.service.replay.ReplayScenario.OrderArrival;
+import com.glovo.delivery.service.replay.ReplayScenario.ReplayEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Seeded synthetic scenarios: a random fleet and Poisson order arrivals whose rate peaks
+ * at lunch and dinner time, with pickups concentrated around a few hotspots.
+ * The same parameters always produce the same scenario.
+ */
+public final class ScenarioGenerator {
+
+    private static final double[] RUSH_HOURS = {12.5, 19.5};
+    private static final double RUSH_WIDTH_HOURS = 1.0;
+    private static final double HOTSPOT_SPREAD = 6.0;
+    private static final double HOTSPOT_SHARE = 0.6;
+
+    private ScenarioGenerator() {
+    }
+
+    /**
+     * @param ordersPerHour  base arrival rate outside rush hours
+     * @param rushMultiplier arrival rate multiplier at the peak of a rush hour
+     * @param startHour      time of day at virtual time zero
+     */
+    public static ReplayScenario generate(String name, long seed, int couriers, double ordersPerHour,
+                                          double rushMultiplier, double startHour, double hours, int hotspots) {
+        SplittableRandom random = new SplittableRandom(seed);
+        CourierType[] types = CourierType.values();
+        List<CourierSpec> fleet = new ArrayList<>(couriers);
+        for (int i = 0; i < couriers; i++) {
+            fleet.add(new CourierSpec(random.nextDouble(0, 100), random.nextDouble(0, 100), types[i % types.length]));
+        }
+        double[][] centers = new double[hotspots][];
+        for (int i = 0; i < hotspots; i++) {
+            centers[i] = new double[]{random.nextDouble(10, 90), random.nextDouble(10, 90)};
+        }
+
+        // Thinning: draw arrivals at the peak rate and keep each with probability rate(t) / peak
+        double peakPerMilli = ordersPerHour * Math.max(1, rushMultiplier) / 3_600_000;
+        long end = (long) (hours * 3_600_000);
+        List<ReplayEvent> events = new ArrayList<>();
+        double at = 0;
+        while (true) {
+            at += -Math.log(1 - random.nextDouble()) / peakPerMilli;
+            if (at >= end) {
+                break;
+            }
+            double hour = (startHour + at / 3_600_000) % 24;
+            if (random.nextDouble() * Math.max(1, rushMultiplier) > demandMultiplier(hour, rushMultiplier)) {
+                continue;
+            }
+            double[] pickup = hotspots > 0 && random.nextDouble() < HOTSPOT_SHARE
+                    ? around(centers[random.nextInt(hotspots)], HOTSPOT_SPREAD, random)
+                    : new double[]{random.nextDouble(0, 100), random.nextDouble(0, 100)};
+            double[] delivery = around(pickup, 12, random);
+            double roll = random.nextDouble();
+            double weight = roll < 0.7 ? random.nextDouble(0.2, 3) : roll < 0.95 ? random.nextDouble(3, 12)
+                    : random.nextDouble(12, 40);
+            events.add(new OrderArrival((long) at, new Point(pickup[0], pickup[1]),
+                    new Point(delivery[0], delivery[1]), random.nextInt(1, 11), Math.round(weight * 100) / 100.0));
+        }
+        return new ReplayScenario(name, fleet, events);
+    }
+
+    static double demandMultiplier(double hour, double rushMultiplier) {
+        double peak = 0;
+        for (double rushHour : RUSH_HOURS) {
+            double distance = Math.abs(hour - rushHour);
+            distance = Math.min(distance, 24 - distance);
+            peak = Math.max(peak, Math.exp(-distance * distance / (2 * RUSH_WIDTH_HOURS * RUSH_WIDTH_HOURS)));
+        }
+        return 1 + (rushMultiplier - 1) * peak;
+    }
+
+    private static double[] around(double[] center, double spread, SplittableRandom random) {
+        return new double[]{clamp(center[0] + gaussian(random) * spread), clamp(center[1] + gaussian(random) * spread)};
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        // Box-Muller; SplittableRandom has no nextGaussian
+        return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+
+    private static double clamp(double value) {
+        return Math.max(0, Math.min(100, value));
+    }
+}
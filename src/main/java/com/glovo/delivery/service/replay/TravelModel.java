@@ -0,0 +1,29 @@
+package com.glovo.delivery.service.replay;
+
+import com.glovo.delivery.model.enums.CourierType;
+
+/**
+ * How long a trip takes in virtual time: courier to pickup to delivery at the speed of the
+ * transport type, plus a fixed handling time at both ends.
+ *
+ * @param pedestrianSpeed distance units per minute (1 unit is about 100 m)
+ * @param handlingMinutes pickup and drop-off together
+ */
+public record TravelModel(double pedestrianSpeed, double bicycleSpeed, double carSpeed, double handlingMinutes) {
+
+    public static TravelModel defaults() {
+        return new TravelModel(0.8, 2.5, 4.0, 3.0);
+    }
+
+    public double speed(CourierType type) {
+        return switch (type) {
+            case PEDESTRIAN -> pedestrianSpeed;
+            case BICYCLE -> bicycleSpeed;
+            case CAR -> carSpeed;
+        };
+    }
+
+    public long tripMillis(CourierType type, double distance) {
+        return Math.round((distance / speed(type) + handlingMinutes) * 60_000);
+    }
+}
@@ -0,0 +1,20 @@
+package com.glovo.delivery.service.routing;
+
+/**
+ * Travel distance between two positions on the [0, 100] x [0, 100] plane, in plane units.
+ * Implementations are thread-safe, and must never report less than the straight-line
+ * distance so that spatial searches bounded by straight-line distance stay exact.
+ * A position with a NaN coordinate gives NaN.
+ */
+@FunctionalInterface
+public interface DistanceProvider {
+
+    /** Straight-line distance, the default when no road network is configured. */
+    DistanceProvider EUCLIDEAN = (fromX, fromY, toX, toY) -> {
+        double dx = fromX - toX;
+        double dy = fromY - toY;
+        return Math.sqrt(dx * dx + dy * dy);
+    };
+
+    double distance(double fromX, double fromY, double toX, double toY);
+}
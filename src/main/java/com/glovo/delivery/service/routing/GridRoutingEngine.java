@@ -0,0 +1,428 @@
+package com.glovo.delivery.service.routing;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shortest-path distances over a {@link RoadGrid}.
+ *
+ * A position is snapped to the nearest intersection (the nearest open one if that is
+ * blocked); the distance is the straight walk to and from the snapped intersections plus
+ * the shortest path between them. Positions snapped to the same intersection are
+ * straight-line apart. Unreachable positions are infinitely far apart.
+ *
+ * Two query paths:
+ * <ul>
+ *   <li>A one-off pair runs A* with ALT bounds: shortest-path distances from a few
+ *   landmarks, picked by farthest-point selection and computed at construction, give
+ *   {@code |d(L, t) - d(L, v)|} as a lower bound on {@code d(v, t)}.</li>
+ *   <li>A target asked for again (a pickup while the candidates are scored) gets a full
+ *   distance field, one Dijkstra run from the target, kept in a bounded cache with
+ *   CLOCK eviction. Every further query to that target is an array read.</li>
+ * </ul>
+ * Queries are thread-safe and lock-free except for a field insert. Search scratch
+ * space is per thread, so queries do not allocate apart from building a field.
+ */
+public class GridRoutingEngine implements DistanceProvider {
+
+    /** Queries to a target without a field before one is built for it. */
+    private static final int FIELD_AFTER_QUERIES = 2;
+
+    private final int size;
+    private final int nodes;
+    private final double spacing;
+    private final float[] cost;
+    /** Nearest open intersection of every intersection. */
+    private final int[] snap;
+    /** Lower bound per unit of grid distance, for the Manhattan part of the heuristic. */
+    private final double minStep;
+    private final float[][] landmarks;
+
+    private final AtomicReferenceArray<float[]> fields;
+    private final int[] fieldSlots;
+    private final byte[] referenced;
+    private final int[] queriesWithoutField;
+    private int fieldCount;
+    private int clockHand;
+
+    private final ThreadLocal<Search> scratch;
+
+    private final LongAdder fieldHits = new LongAdder();
+    private final LongAdder searches = new LongAdder();
+    private final LongAdder fieldBuilds = new LongAdder();
+    private final LongAdder fieldEvictions = new LongAdder();
+
+    public GridRoutingEngine(RoadGrid grid, int landmarkCount, int fieldCacheSize) {
+        if (landmarkCount < 0 || landmarkCount > 64) {
+            throw new IllegalArgumentException("Landmark count must be in range [0, 64]. Got: " + landmarkCount);
+        }
+        if (fieldCacheSize < 0) {
+            throw new IllegalArgumentException("Distance field cache size must be >= 0. Got: " + fieldCacheSize);
+        }
+        this.size = grid.size();
+        this.nodes = size * size;
+        this.spacing = grid.spacing();
+        this.cost = grid.costs();
+        this.snap = snapToOpen();
+        this.minStep = spacing * minCost();
+        this.scratch = ThreadLocal.withInitial(() -> new Search(nodes));
+        this.fields = new AtomicReferenceArray<>(nodes);
+        this.fieldSlots = new int[fieldCacheSize];
+        this.referenced = new byte[nodes];
+        this.queriesWithoutField = new int[nodes];
+        this.landmarks = selectLandmarks(landmarkCount);
+    }
+
+    @Override
+    public double distance(double fromX, double fromY, double toX, double toY) {
+        if (Double.isNaN(fromX) || Double.isNaN(fromY) || Double.isNaN(toX) || Double.isNaN(toY)) {
+            return Double.NaN;
+        }
+        int source = snap[nodeAt(fromX, fromY)];
+        int target = snap[nodeAt(toX, toY)];
+        if (source == target) {
+            return EUCLIDEAN.distance(fromX, fromY, toX, toY);
+        }
+        double path = nodeDistance(source, target);
+        return EUCLIDEAN.distance(fromX, fromY, x(source), y(source)) + path
+                + EUCLIDEAN.distance(x(target), y(target), toX, toY);
+    }
+
+    /**
+     * Shortest-path distance between two intersections.
+     */
+    double nodeDistance(int source, int target) {
+        float[] field = fields.get(target);
+        if (field != null) {
+            referenced[target] = 1;
+            fieldHits.increment();
+            return field[source];
+        }
+        // The graph is undirected, so a field built for the source answers as well
+        field = fields.get(source);
+        if (field != null) {
+            referenced[source] = 1;
+            fieldHits.increment();
+            return field[target];
+        }
+        if (fieldSlots.length > 0 && ++queriesWithoutField[target] >= FIELD_AFTER_QUERIES) {
+            return cacheField(target)[source];
+        }
+        searches.increment();
+        return (float) scratch.get().run(source, target);
+    }
+
+    public long getFieldHits() {
+        return fieldHits.sum();
+    }
+
+    /** Queries answered by an A* search. */
+    public long getSearches() {
+        return searches.sum();
+    }
+
+    public long getFieldBuilds() {
+        return fieldBuilds.sum();
+    }
+
+    public long getFieldEvictions() {
+        return fieldEvictions.sum();
+    }
+
+    public synchronized int getCachedFieldCount() {
+        return fieldCount;
+    }
+
+    public int getLandmarkCount() {
+        return landmarks.length;
+    }
+
+    private synchronized float[] cacheField(int target) {
+        float[] field = fields.get(target);
+        if (field != null) {
+            return field;
+        }
+        field = scratch.get().field(target);
+        fieldBuilds.increment();
+        int slot;
+        if (fieldCount < fieldSlots.length) {
+            slot = fieldCount++;
+        } else {
+            // Second chance: skip fields read since the hand last passed them
+            while (referenced[fieldSlots[clockHand]] != 0) {
+                referenced[fieldSlots[clockHand]] = 0;
+                clockHand = (clockHand + 1) % fieldSlots.length;
+            }
+            slot = clockHand;
+            clockHand = (clockHand + 1) % fieldSlots.length;
+            int evicted = fieldSlots[slot];
+            fields.set(evicted, null);
+            queriesWithoutField[evicted] = 0;
+            fieldEvictions.increment();
+        }
+        fieldSlots[slot] = target;
+        referenced[target] = 0;
+        queriesWithoutField[target] = 0;
+        fields.set(target, field);
+        return field;
+    }
+
+    /**
+     * Admissible and consistent lower bound on {@code d(node, target)}: the largest ALT
+     * bound over the landmarks and the Manhattan distance at the cheapest step cost.
+     */
+    private double heuristic(int node, int target) {
+        int dx = Math.abs(node % size - target % size);
+        int dy = Math.abs(node / size - target / size);
+        double bound = (dx + dy) * minStep;
+        for (float[] landmark : landmarks) {
+            float toTarget = landmark[target];
+            float toNode = landmark[node];
+            if (toTarget != Float.POSITIVE_INFINITY && toNode != Float.POSITIVE_INFINITY) {
+                bound = Math.max(bound, Math.abs(toTarget - toNode));
+            }
+        }
+        return bound;
+    }
+
+    /**
+     * Farthest-point selection: each landmark is the open intersection farthest from
+     * the ones already picked, starting from the one farthest from a corner.
+     */
+    private float[][] selectLandmarks(int count) {
+        float[][] selected = new float[count][];
+        if (count == 0) {
+            return selected;
+        }
+        float[] nearest = new float[nodes];
+        Arrays.fill(nearest, Float.POSITIVE_INFINITY);
+        float[] fromStart = scratch.get().field(snap[0]);
+        int next = farthest(fromStart);
+        for (int i = 0; i < count; i++) {
+            selected[i] = scratch.get().field(next);
+            for (int node = 0; node < nodes; node++) {
+                nearest[node] = Math.min(nearest[node], selected[i][node]);
+            }
+            next = farthest(nearest);
+        }
+        return selected;
+    }
+
+    private int farthest(float[] distances) {
+        int best = snap[0];
+        for (int node = 0; node < nodes; node++) {
+            if (distances[node] != Float.POSITIVE_INFINITY && distances[node] > distances[best]) {
+                best = node;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Breadth-first search from every open intersection at once.
+     */
+    private int[] snapToOpen() {
+        int[] nearest = new int[nodes];
+        Arrays.fill(nearest, -1);
+        int[] queue = new int[nodes];
+        int head = 0;
+        int tail = 0;
+        for (int node = 0; node < nodes; node++) {
+            if (cost[node] != Float.POSITIVE_INFINITY) {
+                nearest[node] = node;
+                queue[tail++] = node;
+            }
+        }
+        if (tail == 0) {
+            throw new IllegalArgumentException("Road grid has no open intersection");
+        }
+        while (head < tail) {
+            int node = queue[head++];
+            int row = node / size;
+            int column = node % size;
+            for (int i = 0; i < 4; i++) {
+                int r = row + (i == 0 ? -1 : i == 1 ? 1 : 0);
+                int c = column + (i == 2 ? -1 : i == 3 ? 1 : 0);
+                if (r >= 0 && r < size && c >= 0 && c < size && nearest[r * size + c] < 0) {
+                    nearest[r * size + c] = nearest[node];
+                    queue[tail++] = r * size + c;
+                }
+            }
+        }
+        return nearest;
+    }
+
+    private float minCost() {
+        float min = Float.POSITIVE_INFINITY;
+        for (float c : cost) {
+            min = Math.min(min, c);
+        }
+        return min;
+    }
+
+    private int nodeAt(double x, double y) {
+        int column = (int) Math.round(Math.min(Math.max(x, 0), 100) / spacing);
+        int row = (int) Math.round(Math.min(Math.max(y, 0), 100) / spacing);
+        return row * size + column;
+    }
+
+    private double x(int node) {
+        return node % size * spacing;
+    }
+
+    private double y(int node) {
+        return node / size * spacing;
+    }
+
+    /**
+     * Per-thread search state: tentative distances, epoch stamps instead of clearing,
+     * and a binary heap with lazy deletion.
+     */
+    private final class Search {
+
+        private final double[] distance;
+        private final int[] seen;
+        private final int[] closed;
+        private int epoch;
+        private double[] keys;
+        private int[] heap;
+        private int heapSize;
+
+        Search(int nodes) {
+            this.distance = new double[nodes];
+            this.seen = new int[nodes];
+            this.closed = new int[nodes];
+            this.keys = new double[256];
+            this.heap = new int[256];
+        }
+
+        /**
+         * A* from source to target.
+         */
+        double run(int source, int target) {
+            start(source, heuristic(source, target));
+            while (heapSize > 0) {
+                int node = pop();
+                if (closed[node] == epoch) {
+                    continue;
+                }
+                if (node == target) {
+                    return distance[node];
+                }
+                closed[node] = epoch;
+                relax(node, target);
+            }
+            return Double.POSITIVE_INFINITY;
+        }
+
+        /**
+         * Dijkstra from the source over the whole grid.
+         */
+        float[] field(int source) {
+            start(source, 0);
+            while (heapSize > 0) {
+                int node = pop();
+                if (closed[node] == epoch) {
+                    continue;
+                }
+                closed[node] = epoch;
+                relax(node, -1);
+            }
+            float[] field = new float[nodes];
+            for (int node = 0; node < nodes; node++) {
+                field[node] = seen[node] == epoch ? (float) distance[node] : Float.POSITIVE_INFINITY;
+            }
+            return field;
+        }
+
+        private void start(int source, double key) {
+            if (++epoch == 0) {
+                Arrays.fill(seen, 0);
+                Arrays.fill(closed, 0);
+                epoch = 1;
+            }
+            heapSize = 0;
+            distance[source] = 0;
+            seen[source] = epoch;
+            push(key, source);
+        }
+
+        /**
+         * Relax the edges of a node; {@code target} < 0 means no heuristic.
+         */
+        private void relax(int node, int target) {
+            int row = node / size;
+            int column = node % size;
+            if (row > 0) {
+                relax(node, node - size, target);
+            }
+            if (row < size - 1) {
+                relax(node, node + size, target);
+            }
+            if (column > 0) {
+                relax(node, node - 1, target);
+            }
+            if (column < size - 1) {
+                relax(node, node + 1, target);
+            }
+        }
+
+        private void relax(int from, int to, int target) {
+            float toCost = cost[to];
+            if (toCost == Float.POSITIVE_INFINITY || closed[to] == epoch) {
+                return;
+            }
+            double candidate = distance[from] + spacing * (cost[from] + toCost) * 0.5;
+            if (seen[to] != epoch || candidate < distance[to]) {
+                distance[to] = candidate;
+                seen[to] = epoch;
+                push(target < 0 ? candidate : candidate + heuristic(to, target), to);
+            }
+        }
+
+        private void push(double key, int node) {
+            if (heapSize == heap.length) {
+                keys = Arrays.copyOf(keys, heapSize * 2);
+                heap = Arrays.copyOf(heap, heapSize * 2);
+            }
+            int i = heapSize++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (keys[parent] <= key) {
+                    break;
+                }
+                keys[i] = keys[parent];
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            keys[i] = key;
+            heap[i] = node;
+        }
+
+        private int pop() {
+            int top = heap[0];
+            int lastNode = heap[--heapSize];
+            double lastKey = keys[heapSize];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= heapSize) {
+                    break;
+                }
+                if (child + 1 < heapSize && keys[child + 1] < keys[child]) {
+                    child++;
+                }
+                if (keys[child] >= lastKey) {
+                    break;
+                }
+                keys[i] = keys[child];
+                heap[i] = heap[child];
+                i = child;
+            }
+            keys[i] = lastKey;
+            heap[i] = lastNode;
+            return top;
+        }
+    }
+}
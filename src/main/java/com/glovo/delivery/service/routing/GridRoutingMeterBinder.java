@@ -0,0 +1,45 @@
+package com.glovo.delivery.service.routing;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Road routing query paths and distance field cache activity, read at scrape time.
+ * Binds nothing when distances are straight-line.
+ */
+@Component
+public class GridRoutingMeterBinder implements MeterBinder {
+
+    private final DistanceProvider distanceProvider;
+
+    public GridRoutingMeterBinder(DistanceProvider distanceProvider) {
+        this.distanceProvider = distanceProvider;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!(distanceProvider instanceof GridRoutingEngine engine)) {
+            return;
+        }
+        FunctionCounter.builder("routing.queries", engine, GridRoutingEngine::getFieldHits)
+                .description("Road distance queries answered from a cached distance field")
+                .tag("path", "field")
+                .register(registry);
+        FunctionCounter.builder("routing.queries", engine, GridRoutingEngine::getSearches)
+                .description("Road distance queries answered by an A* search")
+                .tag("path", "search")
+                .register(registry);
+        FunctionCounter.builder("routing.fields.built", engine, GridRoutingEngine::getFieldBuilds)
+                .description("Distance fields computed for repeatedly queried targets")
+                .register(registry);
+        FunctionCounter.builder("routing.fields.evicted", engine, GridRoutingEngine::getFieldEvictions)
+                .description("Distance fields evicted from the bounded field cache")
+                .register(registry);
+        Gauge.builder("routing.fields.cached", engine, GridRoutingEngine::getCachedFieldCount)
+                .description("Distance fields held by the field cache")
+                .register(registry);
+    }
+}
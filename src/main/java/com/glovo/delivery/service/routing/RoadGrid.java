@@ -0,0 +1,130 @@
+package com.glovo.delivery.service.routing;
+
+import java.util.Arrays;
+
+/**
+ * Street lattice over the [0, 100] x [0, 100] plane: {@code cells + 1} intersections per
+ * axis, each joined to its four neighbours. Every intersection has a cost factor that
+ * scales the edges touching it: 1 for a normal street, more for a slow one, infinite for
+ * a blocked one. Factors are never below 1, so a route is never shorter than the
+ * straight line.
+ *
+ * Areas are set up before the grid is handed to a {@link GridRoutingEngine}, which copies
+ * it; later changes do not affect an existing engine.
+ */
+public final class RoadGrid {
+
+    private final int cells;
+    private final int size;
+    private final double spacing;
+    private final float[] cost;
+
+    public RoadGrid(int cells) {
+        if (cells < 1 || cells > 1000) {
+            throw new IllegalArgumentException("Road grid cells must be in range [1, 1000]. Got: " + cells);
+        }
+        this.cells = cells;
+        this.size = cells + 1;
+        this.spacing = 100.0 / cells;
+        this.cost = new float[size * size];
+        Arrays.fill(cost, 1f);
+    }
+
+    /**
+     * Grid with areas from property strings: {@code blocked} as
+     * {@code "minX,minY,maxX,maxY;..."} and {@code slow} as
+     * {@code "minX,minY,maxX,maxY,factor;..."}. Empty strings add nothing.
+     */
+    public static RoadGrid parse(int cells, String blocked, String slow) {
+        RoadGrid grid = new RoadGrid(cells);
+        for (double[] area : areas(blocked, 4)) {
+            grid.block(area[0], area[1], area[2], area[3]);
+        }
+        for (double[] area : areas(slow, 5)) {
+            grid.slow(area[0], area[1], area[2], area[3], area[4]);
+        }
+        return grid;
+    }
+
+    /**
+     * Close every intersection inside the rectangle (edges included).
+     */
+    public RoadGrid block(double minX, double minY, double maxX, double maxY) {
+        return apply(minX, minY, maxX, maxY, Float.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Make every open intersection inside the rectangle {@code factor} times slower to pass.
+     * Overlapping slow areas keep the larger factor.
+     */
+    public RoadGrid slow(double minX, double minY, double maxX, double maxY, double factor) {
+        if (!(factor >= 1) || Double.isInfinite(factor)) {
+            throw new IllegalArgumentException("Slow street factor must be finite and >= 1. Got: " + factor);
+        }
+        return apply(minX, minY, maxX, maxY, (float) factor);
+    }
+
+    public int getCells() {
+        return cells;
+    }
+
+    public int getOpenCount() {
+        int open = 0;
+        for (float c : cost) {
+            if (c != Float.POSITIVE_INFINITY) {
+                open++;
+            }
+        }
+        return open;
+    }
+
+    int size() {
+        return size;
+    }
+
+    double spacing() {
+        return spacing;
+    }
+
+    float[] costs() {
+        return cost.clone();
+    }
+
+    private RoadGrid apply(double minX, double minY, double maxX, double maxY, float factor) {
+        if (!(minX <= maxX && minY <= maxY)) {
+            throw new IllegalArgumentException("Road grid area must have min <= max. Got: ("
+                    + minX + ", " + minY + ") - (" + maxX + ", " + maxY + ")");
+        }
+        int fromColumn = Math.max(0, (int) Math.ceil(minX / spacing));
+        int toColumn = Math.min(cells, (int) Math.floor(maxX / spacing));
+        int fromRow = Math.max(0, (int) Math.ceil(minY / spacing));
+        int toRow = Math.min(cells, (int) Math.floor(maxY / spacing));
+        for (int row = fromRow; row <= toRow; row++) {
+            for (int column = fromColumn; column <= toColumn; column++) {
+                int node = row * size + column;
+                cost[node] = Math.max(cost[node], factor);
+            }
+        }
+        return this;
+    }
+
+    private static double[][] areas(String spec, int fields) {
+        if (spec == null || spec.isBlank()) {
+            return new double[0][];
+        }
+        String[] parts = spec.split(";");
+        double[][] areas = new double[parts.length][];
+        for (int i = 0; i < parts.length; i++) {
+            String[] values = parts[i].trim().split(",");
+            if (values.length != fields) {
+                throw new IllegalArgumentException(
+                        "Road grid area must have " + fields + " comma-separated numbers. Got: '" + parts[i] + "'");
+            }
+            areas[i] = new double[fields];
+            for (int j = 0; j < fields; j++) {
+                areas[i][j] = Double.parseDouble(values[j].trim());
+            }
+        }
+        return areas;
+    }
+}
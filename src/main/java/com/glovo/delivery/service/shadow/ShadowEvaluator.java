@@ -0,0 +1,443 @@
+package com.glovo.delivery.service.shadow;
+
+import com.glovo.delivery.dto.ScoreDeltaSummary;
+import com.glovo.delivery.dto.ShadowComparisonResponse;
+import com.glovo.delivery.dto.ShadowDecisionResponse;
+import com.glovo.delivery.model.Courier;
+import com.glovo.delivery.model.Order;
+import com.glovo.delivery.model.Point;
+import com.glovo.delivery.model.enums.CourierType;
+import com.glovo.delivery.service.strategy.CourierMatchingStrategy;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs a second matching strategy next to the live one without adding to dispatch latency.
+ *
+ * For every live match, dispatch hands over the order, the candidate list the live strategy
+ * saw and its pick. The fields the shadow needs are copied on the dispatch thread into a
+ * pooled snapshot of primitive arrays, so the shadow decides over exactly what the live
+ * strategy saw while dispatch neither allocates nor creates couriers. The shadow strategy
+ * then runs on its own bounded pool over couriers rebuilt from the snapshot, through
+ * {@link CourierMatchingStrategy#selectSilently} so that its decisions add no flight
+ * recorder events or log lines to the live ones. A decision takes a pool slot before
+ * anything is copied and is dropped when none is left; the shadow never slows dispatch
+ * down, it only sees fewer decisions.
+ *
+ * Each shadow decision is kept next to the live one with two score deltas, both computed
+ * on the shadow thread:
+ * <ul>
+ *   <li>live delta: live score of the shadow's pick minus live score of the live pick,
+ *       i.e. how much worse the shadow's choice looks to the live strategy;</li>
+ *   <li>shadow delta: shadow score of the shadow's pick minus shadow score of the live pick,
+ *       i.e. how much the shadow thinks it improves on the live choice.</li>
+ * </ul>
+ * Both are 0 when the strategies agree, and are skipped when either side picked no courier
+ * or a strategy does not expose scores. When neither side finds a courier there is nothing
+ * to compare, and the decision counts as neither agreement nor disagreement.
+ */
+public class ShadowEvaluator {
+
+    private static final Logger log = LoggerFactory.getLogger(ShadowEvaluator.class);
+
+    private final CourierMatchingStrategy live;
+    private final String liveName;
+    private final CourierMatchingStrategy shadow;
+    private final String shadowName;
+    private final ThreadPoolExecutor executor;
+    private final int capacity;
+    private final int historyCapacity;
+
+    /** Snapshots not in use; at most one per queue slot and shadow thread ever exists. */
+    private final ArrayBlockingQueue<Snapshot> freeSnapshots;
+    private final ThreadLocal<Workspace> workspace = ThreadLocal.withInitial(Workspace::new);
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    /** Snapshots queued or being evaluated; at most {@link #capacity}. */
+    private final AtomicInteger inFlight = new AtomicInteger(0);
+
+    /** Recent decisions, oldest first, and the running totals below; guarded by itself. */
+    private final ArrayDeque<Decision> history;
+    private long compared;
+    private long agreed;
+    private final DeltaStats liveDeltas = new DeltaStats();
+    private final DeltaStats shadowDeltas = new DeltaStats();
+
+    public ShadowEvaluator(CourierMatchingStrategy live, String liveName,
+                           CourierMatchingStrategy shadow, String shadowName,
+                           int threads, int queueCapacity, int historyCapacity) {
+        if (threads < 1 || queueCapacity < 1 || historyCapacity < 1) {
+            throw new IllegalArgumentException("Shadow threads, queue capacity and history must be positive. Got: "
+                    + threads + " / " + queueCapacity + " / " + historyCapacity);
+        }
+        this.live = live;
+        this.liveName = liveName;
+        this.shadow = shadow;
+        this.shadowName = shadowName;
+        this.capacity = queueCapacity + threads;
+        this.historyCapacity = historyCapacity;
+        this.history = new ArrayDeque<>(historyCapacity);
+        this.freeSnapshots = new ArrayBlockingQueue<>(capacity);
+        // Room for every reserved snapshot: a thread that just finished one may not have
+        // taken the next from the queue yet
+        this.executor = shadow == null ? null : new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacity),
+                Thread.ofPlatform().name("dispatch-shadow-", 0).daemon().factory());
+    }
+
+    /**
+     * Evaluator without a shadow strategy: {@link #offer} returns immediately.
+     */
+    public static ShadowEvaluator disabled() {
+        return new ShadowEvaluator(null, null, null, null, 1, 1, 1);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Hand a live decision to the shadow strategy. Called on the dispatch thread once per
+     * order, with the candidates that produced the final decision, before that list
+     * changes. Allocates nothing once the snapshot pool has warmed up.
+     *
+     * @param liveBest index of the live pick in {@code candidates}, or -1 if none
+     */
+    public void offer(Order order, List<Courier> candidates, int liveBest) {
+        if (executor == null || candidates.isEmpty()) {
+            return;
+        }
+        submitted.increment();
+        if (inFlight.incrementAndGet() > capacity) {
+            inFlight.decrementAndGet();
+            dropped.increment();
+            return;
+        }
+
+        Snapshot snapshot = freeSnapshots.poll();
+        if (snapshot == null) {
+            snapshot = new Snapshot();
+        }
+        snapshot.capture(order, candidates, liveBest);
+        try {
+            executor.execute(snapshot);
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            inFlight.decrementAndGet();
+            dropped.increment();
+            freeSnapshots.offer(snapshot);
+        }
+    }
+
+    private void evaluate(Snapshot snapshot) {
+        Workspace scratch = workspace.get();
+        Order order = scratch.order(snapshot);
+        List<Courier> candidates = scratch.candidates(snapshot);
+        int liveBest = snapshot.liveBest;
+
+        int shadowBest;
+        try {
+            shadowBest = shadow.selectSilently(order, candidates);
+        } catch (RuntimeException e) {
+            failed.increment();
+            log.warn("Shadow strategy '{}' failed for order {}", shadowName, order.getId(), e);
+            return;
+        }
+        if (liveBest < 0 && shadowBest < 0) {
+            // Neither side found a courier: no decision to compare
+            return;
+        }
+        Courier livePick = liveBest < 0 ? null : candidates.get(liveBest);
+        Courier shadowPick = shadowBest < 0 ? null : candidates.get(shadowBest);
+        boolean agreement = liveBest == shadowBest;
+
+        double liveDelta = Double.NaN;
+        double shadowDelta = Double.NaN;
+        if (agreement) {
+            liveDelta = 0;
+            shadowDelta = 0;
+        } else if (livePick != null && shadowPick != null) {
+            liveDelta = live.score(order, shadowPick) - live.score(order, livePick);
+            shadowDelta = shadow.score(order, shadowPick) - shadow.score(order, livePick);
+        }
+
+        Decision decision = new Decision(System.currentTimeMillis(), order.getId(),
+                snapshot.courierId(liveBest), snapshot.courierId(shadowBest), agreement, liveDelta, shadowDelta);
+        synchronized (history) {
+            if (history.size() == historyCapacity) {
+                history.removeFirst();
+            }
+            history.addLast(decision);
+            compared++;
+            if (agreement) {
+                agreed++;
+            }
+            liveDeltas.add(liveDelta);
+            shadowDeltas.add(shadowDelta);
+        }
+    }
+
+    /**
+     * Totals since startup plus up to {@code limit} of the most recent decisions, newest first.
+     */
+    public ShadowComparisonResponse comparison(int limit) {
+        ShadowComparisonResponse response = new ShadowComparisonResponse();
+        response.setEnabled(isEnabled());
+        response.setLiveStrategy(liveName);
+        response.setShadowStrategy(shadowName);
+        response.setSubmitted(submitted.sum());
+        response.setDropped(dropped.sum());
+        response.setFailed(failed.sum());
+        response.setQueued(getQueued());
+        synchronized (history) {
+            response.setCompared(compared);
+            response.setAgreed(agreed);
+            response.setAgreementRate(compared == 0 ? 0 : (double) agreed / compared);
+            response.setLiveScoreDelta(liveDeltas.summary());
+            response.setShadowScoreDelta(shadowDeltas.summary());
+            Iterator<Decision> newestFirst = history.descendingIterator();
+            while (newestFirst.hasNext() && response.getRecentDecisions().size() < limit) {
+                response.getRecentDecisions().add(newestFirst.next().toResponse());
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Block until every accepted snapshot has been evaluated, for tests and replays.
+     *
+     * @return true if the shadow caught up within the timeout
+     */
+    public boolean awaitIdle(long timeoutMs) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        while (inFlight.get() > 0) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(1);
+        }
+        return true;
+    }
+
+    public boolean isEnabled() {
+        return executor != null;
+    }
+
+    public long getSubmitted() {
+        return submitted.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public long getCompared() {
+        synchronized (history) {
+            return compared;
+        }
+    }
+
+    public long getAgreed() {
+        synchronized (history) {
+            return agreed;
+        }
+    }
+
+    /**
+     * Snapshots waiting for a shadow thread.
+     */
+    public int getQueued() {
+        return executor == null ? 0 : executor.getQueue().size();
+    }
+
+    private record Decision(long timestamp, UUID orderId, UUID liveCourierId, UUID shadowCourierId,
+                            boolean agreed, double liveScoreDelta, double shadowScoreDelta) {
+
+        ShadowDecisionResponse toResponse() {
+            ShadowDecisionResponse response = new ShadowDecisionResponse();
+            response.setTimestamp(Instant.ofEpochMilli(timestamp));
+            response.setOrderId(orderId);
+            response.setLiveCourierId(liveCourierId);
+            response.setShadowCourierId(shadowCourierId);
+            response.setAgreed(agreed);
+            if (!Double.isNaN(liveScoreDelta)) {
+                response.setLiveScoreDelta(liveScoreDelta);
+            }
+            if (!Double.isNaN(shadowScoreDelta)) {
+                response.setShadowScoreDelta(shadowScoreDelta);
+            }
+            return response;
+        }
+    }
+
+    /**
+     * One live decision as copied on the dispatch thread: the order fields a strategy reads,
+     * the live pick and the candidates' ids, types, positions and daily counts in parallel
+     * primitive arrays that grow to the largest candidate list seen. Returned to the pool
+     * once the shadow thread has evaluated it.
+     */
+    private final class Snapshot implements Runnable {
+
+        long orderMsb;
+        long orderLsb;
+        Point pickup;
+        int priority;
+        double weightKg;
+        int liveBest;
+        int size;
+        long[] idMsb = new long[0];
+        long[] idLsb = new long[0];
+        byte[] types = new byte[0];
+        double[] xs = new double[0];
+        double[] ys = new double[0];
+        int[] completed = new int[0];
+
+        void capture(Order order, List<Courier> candidates, int liveBest) {
+            orderMsb = order.getId().getMostSignificantBits();
+            orderLsb = order.getId().getLeastSignificantBits();
+            // Points are immutable, so the reference is as good as a copy
+            pickup = order.getPickupLocation();
+            priority = order.getPriority();
+            weightKg = order.getWeightKg();
+            this.liveBest = liveBest;
+            size = candidates.size();
+            if (idMsb.length < size) {
+                int capacity = Math.max(size, idMsb.length * 2);
+                idMsb = new long[capacity];
+                idLsb = new long[capacity];
+                types = new byte[capacity];
+                xs = new double[capacity];
+                ys = new double[capacity];
+                completed = new int[capacity];
+            }
+            for (int i = 0; i < size; i++) {
+                Courier courier = candidates.get(i);
+                UUID id = courier.getId();
+                idMsb[i] = id.getMostSignificantBits();
+                idLsb[i] = id.getLeastSignificantBits();
+                CourierType type = courier.getType();
+                // Ordinal + 1, 0 for none
+                types[i] = type == null ? 0 : (byte) (type.ordinal() + 1);
+                xs[i] = courier.getLocationX();
+                ys[i] = courier.getLocationY();
+                completed[i] = courier.getCompletedOrdersToday();
+            }
+        }
+
+        UUID courierId(int index) {
+            return index < 0 ? null : new UUID(idMsb[index], idLsb[index]);
+        }
+
+        @Override
+        public void run() {
+            try {
+                evaluate(this);
+            } finally {
+                inFlight.decrementAndGet();
+                freeSnapshots.offer(this);
+            }
+        }
+    }
+
+    /**
+     * Per-shadow-thread order and couriers that snapshots are rebuilt into, so evaluating a
+     * decision creates no couriers either. The pooled couriers keep the distinct ids they
+     * were created with: strategies tell candidates apart by position, and only the two
+     * picks' real ids are rebuilt, for the decision.
+     */
+    private static final class Workspace {
+
+        private static final CourierType[] TYPES = CourierType.values();
+
+        private Order order;
+        private final List<Courier> pool = new ArrayList<>();
+        private final List<Courier> candidates = new ArrayList<>();
+
+        Order order(Snapshot snapshot) {
+            if (order == null) {
+                order = new Order(snapshot.pickup, null, snapshot.priority, snapshot.weightKg);
+            } else {
+                order.setPickupLocation(snapshot.pickup);
+                order.setPriority(snapshot.priority);
+                order.setWeightKg(snapshot.weightKg);
+            }
+            order.setId(new UUID(snapshot.orderMsb, snapshot.orderLsb));
+            return order;
+        }
+
+        List<Courier> candidates(Snapshot snapshot) {
+            candidates.clear();
+            for (int i = 0; i < snapshot.size; i++) {
+                if (i == pool.size()) {
+                    pool.add(new Courier());
+                }
+                Courier courier = pool.get(i);
+                byte type = snapshot.types[i];
+                courier.setType(type == 0 ? null : TYPES[type - 1]);
+                if (Double.isNaN(snapshot.xs[i])) {
+                    courier.setCurrentLocation(null);
+                } else {
+                    courier.moveTo(snapshot.xs[i], snapshot.ys[i]);
+                }
+                courier.setCompletedOrdersToday(snapshot.completed[i]);
+                candidates.add(courier);
+            }
+            return candidates;
+        }
+    }
+
+    /**
+     * Count, sum, min and max of the deltas seen so far; NaN deltas are skipped.
+     */
+    private static final class DeltaStats {
+
+        private long count;
+        private double sum;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+
+        void add(double delta) {
+            if (Double.isNaN(delta)) {
+                return;
+            }
+            count++;
+            sum += delta;
+            min = Math.min(min, delta);
+            max = Math.max(max, delta);
+        }
+
+        ScoreDeltaSummary summary() {
+            ScoreDeltaSummary summary = new ScoreDeltaSummary();
+            summary.setCount(count);
+            if (count > 0) {
+                summary.setMean(sum / count);
+                summary.setMin(min);
+                summary.setMax(max);
+            }
+            return summary;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.glovo.delivery.service.shadow;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Shadow decisions by outcome, drops, failures and queue depth, read at scrape time.
+ * Binds nothing while no shadow strategy is configured.
+ */
+@Component
+public class ShadowEvaluatorMeterBinder implements MeterBinder {
+
+    private final ShadowEvaluator shadowEvaluator;
+
+    public ShadowEvaluatorMeterBinder(ShadowEvaluator shadowEvaluator) {
+        this.shadowEvaluator = shadowEvaluator;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!shadowEvaluator.isEnabled()) {
+            return;
+        }
+        FunctionCounter.builder("dispatch.shadow.decisions", shadowEvaluator, ShadowEvaluator::getAgreed)
+                .description("Shadow decisions that picked the same courier as the live strategy")
+                .tag("result", "agreed")
+                .register(registry);
+        FunctionCounter.builder("dispatch.shadow.decisions", shadowEvaluator,
+                        shadow -> shadow.getCompared() - shadow.getAgreed())
+                .description("Shadow decisions that picked a different courier than the live strategy")
+                .tag("result", "disagreed")
+                .register(registry);
+        FunctionCounter.builder("dispatch.shadow.dropped", shadowEvaluator, ShadowEvaluator::getDropped)
+                .description("Live decisions not shadowed because the shadow pool was full")
+                .register(registry);
+        FunctionCounter.builder("dispatch.shadow.failed", shadowEvaluator, ShadowEvaluator::getFailed)
+                .description("Shadow evaluations that threw")
+                .register(registry);
+        Gauge.builder("dispatch.shadow.queue.depth", shadowEvaluator, ShadowEvaluator::getQueued)
+                .description("Live decisions waiting for a shadow thread")
+                .register(registry);
+    }
+}
@@ -0,0 +1,105 @@
+package com.glovo.delivery.service.snapshot;
+
+import com.glovo.delivery.dto.DispatchStatsResponse;
+import com.glovo.delivery.model.Courier;
+import com.glovo.delivery.model.enums.CourierType;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Consistent, read-only view of fleet and order state at one point in time.
+ *
+ * Built by the dispatch engine while holding the dispatch lock, so an order shown as
+ * ASSIGNED always has its courier shown as BUSY. The courier objects are detached copies
+ * and the lists are unmodifiable; nothing in a published snapshot is mutated afterwards.
+ * Both courier lists are sorted by id so they can be paged with an id cursor.
+ */
+public final class FleetSnapshot {
+
+    public static final FleetSnapshot EMPTY = new FleetSnapshot(0, 0L, List.of(), List.of(),
+            new int[CourierType.values().length], emptyStats());
+
+    private final long epoch;
+    private final long publishedAt;
+    private final List<Courier> couriers;
+    private final List<Courier> freeCouriers;
+    private final int[] freeCountByType;
+    private final DispatchStatsResponse stats;
+
+    FleetSnapshot(long epoch, long publishedAt, List<Courier> couriers, List<Courier> freeCouriers,
+                  int[] freeCountByType, DispatchStatsResponse stats) {
+        this.epoch = epoch;
+        this.publishedAt = publishedAt;
+        this.couriers = couriers;
+        this.freeCouriers = freeCouriers;
+        this.freeCountByType = freeCountByType;
+        this.stats = stats;
+    }
+
+    /**
+     * Monotonically increasing publication number; 0 means nothing was published yet.
+     */
+    public long getEpoch() {
+        return epoch;
+    }
+
+    public long getPublishedAt() {
+        return publishedAt;
+    }
+
+    public List<Courier> getCouriers() {
+        return couriers;
+    }
+
+    public List<Courier> getFreeCouriers() {
+        return freeCouriers;
+    }
+
+    public int getFreeCount(CourierType type) {
+        return freeCountByType[type.ordinal()];
+    }
+
+    public DispatchStatsResponse getStats() {
+        return stats;
+    }
+
+    /**
+     * Couriers whose id is greater than {@code afterId} (all couriers when null), in id order.
+     */
+    public List<Courier> getCouriersAfter(UUID afterId) {
+        return tailAfter(couriers, afterId);
+    }
+
+    /**
+     * Free couriers whose id is greater than {@code afterId} (all free couriers when null), in id order.
+     */
+    public List<Courier> getFreeCouriersAfter(UUID afterId) {
+        return tailAfter(freeCouriers, afterId);
+    }
+
+    private static List<Courier> tailAfter(List<Courier> sortedById, UUID afterId) {
+        if (afterId == null) {
+            return sortedById;
+        }
+        int low = 0;
+        int high = sortedById.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedById.get(mid).getId().compareTo(afterId) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return sortedById.subList(low, sortedById.size());
+    }
+
+    private static DispatchStatsResponse emptyStats() {
+        DispatchStatsResponse stats = new DispatchStatsResponse();
+        stats.setOrdersByStatus(Map.of());
+        stats.setCouriersByStatus(Map.of());
+        return stats;
+    }
+}
@@ -0,0 +1,79 @@
+package com.glovo.delivery.service.snapshot;
+
+import com.glovo.delivery.dto.DispatchStatsResponse;
+import com.glovo.delivery.model.Courier;
+import com.glovo.delivery.model.enums.CourierStatus;
+import com.glovo.delivery.model.enums.CourierType;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Holds the latest published {@link FleetSnapshot}.
+ *
+ * Writers mark the state dirty after mutating it; the publisher claims the dirty flag and
+ * swaps in a new snapshot. Readers do a single volatile read and never lock or copy.
+ */
+@Component
+public class FleetSnapshotHolder {
+
+    private volatile FleetSnapshot current = FleetSnapshot.EMPTY;
+    private final AtomicBoolean dirty = new AtomicBoolean(true);
+
+    public FleetSnapshot current() {
+        return current;
+    }
+
+    /**
+     * Signal that fleet or order state changed since the last publication.
+     */
+    public void markDirty() {
+        if (!dirty.get()) {
+            dirty.set(true);
+        }
+    }
+
+    /**
+     * Atomically take the dirty flag.
+     *
+     * @return true if state changed since the last claim and a new snapshot should be built
+     */
+    public boolean claimDirty() {
+        return dirty.getAndSet(false);
+    }
+
+    /**
+     * Publish a new snapshot. Must be called by a single publisher at a time.
+     *
+     * @param couriers detached courier copies that nobody mutates, possibly shared with earlier
+     *                 snapshots; the list itself is sorted by id in place
+     * @param stats    statistics computed from the same state; owned by the snapshot from now on
+     */
+    public FleetSnapshot publish(List<Courier> couriers, DispatchStatsResponse stats) {
+        long epoch = current.getEpoch() + 1;
+        // Repository copies already come in id order, so this is a single linear pass
+        couriers.sort(Comparator.comparing(Courier::getId));
+        List<Courier> free = new ArrayList<>();
+        int[] freeCountByType = new int[CourierType.values().length];
+        for (Courier courier : couriers) {
+            if (courier.getStatus() == CourierStatus.FREE) {
+                free.add(courier);
+                if (courier.getType() != null) {
+                    freeCountByType[courier.getType().ordinal()]++;
+                }
+            }
+        }
+        stats.setSnapshotEpoch(epoch);
+        stats.setOrdersByStatus(Collections.unmodifiableMap(stats.getOrdersByStatus()));
+        stats.setCouriersByStatus(Collections.unmodifiableMap(stats.getCouriersByStatus()));
+
+        FleetSnapshot snapshot = new FleetSnapshot(epoch, System.currentTimeMillis(),
+                Collections.unmodifiableList(couriers), Collections.unmodifiableList(free), freeCountByType, stats);
+        current = snapshot;
+        return snapshot;
+    }
+}
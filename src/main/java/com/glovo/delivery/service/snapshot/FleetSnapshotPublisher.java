@@ -0,0 +1,56 @@
+package com.glovo.delivery.service.snapshot;
+
+import com.glovo.delivery.service.DispatchService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically asks the dispatch engine to publish a new {@link FleetSnapshot} when state
+ * has changed. Several mutations inside one interval end up in a single publication.
+ */
+@Component
+public class FleetSnapshotPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(FleetSnapshotPublisher.class);
+
+    private final DispatchService dispatchService;
+    private final long publishIntervalMs;
+    private ScheduledExecutorService scheduler;
+
+    public FleetSnapshotPublisher(DispatchService dispatchService,
+                                  @Value("${dispatch.snapshot.publish-interval-ms:50}") long publishIntervalMs) {
+        if (publishIntervalMs <= 0) {
+            throw new IllegalArgumentException("Snapshot publish interval must be positive. Got: " + publishIntervalMs);
+        }
+        this.dispatchService = dispatchService;
+        this.publishIntervalMs = publishIntervalMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r ->
+                Thread.ofPlatform().name("fleet-snapshot-publisher").daemon().unstarted(r));
+        scheduler.scheduleWithFixedDelay(this::publishQuietly, 0, publishIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    private void publishQuietly() {
+        try {
+            dispatchService.refreshSnapshot();
+        } catch (RuntimeException e) {
+            log.error("Fleet snapshot publication failed", e);
+        }
+    }
+}
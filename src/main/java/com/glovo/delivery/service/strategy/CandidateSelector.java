@@ -0,0 +1,161 @@
+package com.glovo.delivery.service.strategy;
+
+import com.glovo.delivery.model.Courier;
+import com.glovo.delivery.model.Order;
+import com.glovo.delivery.model.Point;
+import com.glovo.delivery.model.enums.CourierType;
+import com.glovo.delivery.service.jfr.DispatchFlightRecorder;
+import com.glovo.delivery.service.jfr.MatchJfrEvent;
+import com.glovo.delivery.service.routing.DistanceProvider;
+import com.glovo.delivery.service.trace.DecisionTrace;
+import com.glovo.delivery.service.trace.DecisionTraceRecorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * The candidate scan shared by the scoring strategies, which supply only the score.
+ *
+ * One indexed pass: couriers that cannot carry the order are skipped in place, the rest
+ * are scored from their travel distance to the pickup, and the lowest score wins. When a
+ * candidate is within the tiebreak threshold of the best so far on the tiebreak metric,
+ * the courier with fewer completed orders today wins instead. Candidates and the choice
+ * go to the caller's decision trace, if any, and the match to the flight recorder.
+ * Nothing is allocated unless a warning is logged.
+ */
+final class CandidateSelector {
+
+    private static final Logger log = LoggerFactory.getLogger(CandidateSelector.class);
+
+    /**
+     * Score of one eligible candidate, lower = better. Called on the matching thread for
+     * every candidate, so implementations must not allocate.
+     *
+     * @param <C> state the strategy reads once per match, such as its current table
+     */
+    @FunctionalInterface
+    interface Scorer<C> {
+        double score(C context, Order order, Courier courier, CourierType type, double distance);
+    }
+
+    /**
+     * What near-ties are measured on.
+     */
+    enum Tiebreak {
+        DISTANCE,
+        /** For scores on a meaningful scale of their own, such as minutes. */
+        SCORE
+    }
+
+    private final DispatchFlightRecorder flightRecorder;
+    private final DecisionTraceRecorder traceRecorder;
+    private final DistanceProvider distanceProvider;
+    private final boolean logging;
+
+    CandidateSelector(DispatchFlightRecorder flightRecorder, DecisionTraceRecorder traceRecorder,
+                      DistanceProvider distanceProvider) {
+        this(flightRecorder, traceRecorder, distanceProvider, true);
+    }
+
+    private CandidateSelector(DispatchFlightRecorder flightRecorder, DecisionTraceRecorder traceRecorder,
+                              DistanceProvider distanceProvider, boolean logging) {
+        this.flightRecorder = flightRecorder;
+        this.traceRecorder = traceRecorder;
+        this.distanceProvider = distanceProvider;
+        this.logging = logging;
+    }
+
+    /**
+     * Selector with the same distances that records no events or traces and logs nothing,
+     * for {@link CourierMatchingStrategy#selectSilently}.
+     */
+    CandidateSelector silent() {
+        return new CandidateSelector(DispatchFlightRecorder.disabled(), DecisionTraceRecorder.disabled(),
+                distanceProvider, false);
+    }
+
+    /**
+     * @return index of the best courier in {@code candidates}, or -1 if none can carry the order
+     */
+    <C> int select(Order order, List<Courier> candidates, C context, Scorer<C> scorer,
+                   Tiebreak tiebreak, double tiebreakThreshold) {
+        int available = candidates.size();
+        if (available == 0) {
+            if (logging) {
+                log.warn("No available couriers for order {}", order.getId());
+            }
+            return -1;
+        }
+        MatchJfrEvent jfrEvent = flightRecorder.beginMatch();
+
+        DecisionTrace trace = traceRecorder.current();
+        Point pickup = order.getPickupLocation();
+        double pickupX = pickup.getX();
+        double pickupY = pickup.getY();
+        double weightKg = order.getWeightKg();
+        int eligible = 0;
+        int best = -1;
+        Courier bestCourier = null;
+        double bestScore = Double.MAX_VALUE;
+        double bestMetric = Double.MAX_VALUE;
+
+        for (int i = 0; i < available; i++) {
+            Courier courier = candidates.get(i);
+            CourierType type = courier.getType();
+            if (!type.canCarry(weightKg)) {
+                continue;
+            }
+            eligible++;
+            double distance = distanceProvider.distance(
+                    courier.getLocationX(), courier.getLocationY(), pickupX, pickupY);
+            double score = scorer.score(context, order, courier, type, distance);
+            double metric = tiebreak == Tiebreak.DISTANCE ? distance : score;
+
+            if (trace != null) {
+                trace.candidate(courier, distance, score);
+            }
+
+            boolean isBetter = false;
+
+            if (bestCourier == null) {
+                isBetter = true;
+            } else if (Math.abs(metric - bestMetric) < tiebreakThreshold) {
+                // Tiebreaker: when the metric is close, prefer fewer completed orders
+                if (courier.getCompletedOrdersToday() < bestCourier.getCompletedOrdersToday()) {
+                    isBetter = true;
+                    if (trace != null) {
+                        trace.tiebreakApplied();
+                    }
+                } else if (courier.getCompletedOrdersToday() == bestCourier.getCompletedOrdersToday()
+                        && score < bestScore) {
+                    isBetter = true;
+                }
+            } else if (score < bestScore) {
+                isBetter = true;
+            }
+
+            if (isBetter) {
+                best = i;
+                bestScore = score;
+                bestMetric = metric;
+                bestCourier = courier;
+            }
+        }
+
+        if (eligible == 0) {
+            if (logging && log.isWarnEnabled()) {
+                log.warn("No couriers can carry {}kg for order {} (available: {})",
+                        weightKg, order.getId(), available);
+            }
+            flightRecorder.commitMatch(jfrEvent, order, available, 0, null, Double.NaN);
+            return -1;
+        }
+
+        if (trace != null) {
+            trace.chosen(bestCourier);
+        }
+        flightRecorder.commitMatch(jfrEvent, order, available, eligible, bestCourier, bestScore);
+        return best;
+    }
+}
@@ -20,4 +20,37 @@ public interface CourierMatchingStrategy {
      * @return the best matching courier, or empty if none found
      */
     Optional<Courier> findBestCourier(Order order, List<Courier> availableCouriers);
+
+    /**
+     * Same decision as {@link #findBestCourier}, returned as a position instead of an
+     * {@link Optional}. Strategies on the dispatch hot path override this to pick without
+     * allocating; the default delegates.
+     *
+     * @return index of the best courier in {@code availableCouriers}, or -1 if none found
+     */
+    default int selectBestCourier(Order order, List<Courier> availableCouriers) {
+        Optional<Courier> best = findBestCourier(order, availableCouriers);
+        return best.isPresent() ? availableCouriers.indexOf(best.get()) : -1;
+    }
+
+    /**
+     * Same decision as {@link #selectBestCourier}, for evaluations next to the live
+     * strategy: nothing goes to the flight recorder or a decision trace and nothing is
+     * logged, so those decisions stay out of live telemetry. The default delegates, which
+     * suits strategies that record nothing.
+     */
+    default int selectSilently(Order order, List<Courier> availableCouriers) {
+        return selectBestCourier(order, availableCouriers);
+    }
+
+    /**
+     * Score this strategy gives one courier for the order, on the strategy's own scale
+     * (lower = better), without the tiebreaker. Used off the dispatch path to compare
+     * decisions; strategies that do not expose scores return {@link Double#NaN}.
+     *
+     * @return the courier's score, or NaN when it cannot carry the order
+     */
+    default double score(Order order, Courier courier) {
+        return Double.NaN;
+    }
 }
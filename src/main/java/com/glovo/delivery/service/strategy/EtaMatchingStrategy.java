@@ -0,0 +1,95 @@
+package com.glovo.delivery.service.strategy;
+
+import com.glovo.delivery.model.Courier;
+import com.glovo.delivery.model.Order;
+import com.glovo.delivery.model.Point;
+import com.glovo.delivery.model.ZoneGrid;
+import com.glovo.delivery.model.enums.CourierType;
+import com.glovo.delivery.service.eta.SpeedTable;
+import com.glovo.delivery.service.eta.SpeedTableHolder;
+import com.glovo.delivery.service.jfr.DispatchFlightRecorder;
+import com.glovo.delivery.service.routing.DistanceProvider;
+import com.glovo.delivery.service.trace.DecisionTraceRecorder;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Scores couriers by estimated minutes to the pickup:
+ * Score = Distance * Pace - (OrderPriority * 0.5)
+ *
+ * Pace (minutes per distance unit) comes from the current {@link SpeedTable}: the mean
+ * of the courier type's pace in the courier's zone and in the pickup zone, so both a
+ * slow transport type and a congested area push the estimate up. Lower score = better
+ * candidate.
+ *
+ * Tiebreaker: when two estimates are within 1 minute of each other, the courier with
+ * fewer completed orders today wins.
+ *
+ * The table is read once per match, so a swap takes effect from the next match on.
+ */
+@Component
+public class EtaMatchingStrategy implements CourierMatchingStrategy {
+
+    private static final double PRIORITY_MINUTES = 0.5;
+    private static final double ETA_TIEBREAK_THRESHOLD_MINUTES = 1.0;
+    private static final CandidateSelector.Scorer<SpeedTable> SCORER = EtaMatchingStrategy::score;
+
+    private final SpeedTableHolder speedTables;
+    private final DistanceProvider distanceProvider;
+    private final CandidateSelector selector;
+    private final CandidateSelector silentSelector;
+
+    public EtaMatchingStrategy(SpeedTableHolder speedTables, DistanceProvider distanceProvider,
+                               DispatchFlightRecorder flightRecorder, DecisionTraceRecorder traceRecorder) {
+        this.speedTables = speedTables;
+        this.distanceProvider = distanceProvider;
+        this.selector = new CandidateSelector(flightRecorder, traceRecorder, distanceProvider);
+        this.silentSelector = selector.silent();
+    }
+
+    @Override
+    public Optional<Courier> findBestCourier(Order order, List<Courier> availableCouriers) {
+        int best = selectBestCourier(order, availableCouriers);
+        return best < 0 ? Optional.empty() : Optional.of(availableCouriers.get(best));
+    }
+
+    @Override
+    public double score(Order order, Courier courier) {
+        CourierType type = courier.getType();
+        if (!type.canCarry(order.getWeightKg())) {
+            return Double.NaN;
+        }
+        Point pickup = order.getPickupLocation();
+        double distance = distanceProvider.distance(
+                courier.getLocationX(), courier.getLocationY(), pickup.getX(), pickup.getY());
+        return score(speedTables.current(), order, courier, type, distance);
+    }
+
+    @Override
+    public int selectBestCourier(Order order, List<Courier> availableCouriers) {
+        return select(selector, order, availableCouriers);
+    }
+
+    @Override
+    public int selectSilently(Order order, List<Courier> availableCouriers) {
+        return select(silentSelector, order, availableCouriers);
+    }
+
+    /**
+     * Near-ties are measured on the score: the priority bonus is the same for every
+     * candidate, so scores differ exactly as much as the estimates do.
+     */
+    private int select(CandidateSelector selector, Order order, List<Courier> candidates) {
+        return selector.select(order, candidates, speedTables.current(), SCORER,
+                CandidateSelector.Tiebreak.SCORE, ETA_TIEBREAK_THRESHOLD_MINUTES);
+    }
+
+    private static double score(SpeedTable speeds, Order order, Courier courier, CourierType type,
+                                double distance) {
+        int courierZone = ZoneGrid.zoneOf(courier.getLocationX(), courier.getLocationY());
+        return speeds.minutes(type, courierZone, ZoneGrid.zoneOf(order.getPickupLocation()), distance)
+                - order.getPriority() * PRIORITY_MINUTES;
+    }
+}
@@ -0,0 +1,141 @@
+package com.glovo.delivery.service.strategy;
+
+import com.glovo.delivery.model.Courier;
+import com.glovo.delivery.model.Order;
+import com.glovo.delivery.model.Point;
+import com.glovo.delivery.model.ZoneGrid;
+import com.glovo.delivery.model.enums.CourierType;
+import com.glovo.delivery.service.eta.SpeedTableHolder;
+import com.glovo.delivery.service.jfr.DispatchFlightRecorder;
+import com.glovo.delivery.service.routing.DistanceProvider;
+import com.glovo.delivery.service.strategy.formula.ScoringProfile;
+import com.glovo.delivery.service.trace.DecisionTraceRecorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * Scores couriers with a formula loaded from configuration instead of compiled in; lower
+ * score = better candidate. With the default profile it decides exactly like
+ * {@link ScoreBasedMatchingStrategy}.
+ *
+ * Tiebreaker: when two couriers are within the profile's tiebreak threshold of each
+ * other in distance, the courier with fewer completed orders today wins.
+ *
+ * The current {@link ScoringProfile} is read once per match. Changing it compiles the
+ * new formula first and then swaps the whole profile, so a match never mixes two profiles
+ * and a formula that does not compile never replaces a working one. Formulas that use the
+ * ETA read the current speed table per candidate.
+ */
+@Component
+public class FormulaMatchingStrategy implements CourierMatchingStrategy {
+
+    private static final Logger log = LoggerFactory.getLogger(FormulaMatchingStrategy.class);
+
+    private final AtomicReference<ScoringProfile> profile;
+    private final SpeedTableHolder speedTables;
+    private final DistanceProvider distanceProvider;
+    private final CandidateSelector selector;
+    private final CandidateSelector silentSelector;
+    private final CandidateSelector.Scorer<ScoringProfile> scorer = this::score;
+
+    public FormulaMatchingStrategy(
+            @Value("${dispatch.scoring.formula:" + ScoringProfile.DEFAULT_FORMULA + "}") String formula,
+            @Value("${dispatch.scoring.tiebreak-threshold:1.0}") double tiebreakThreshold,
+            @Value("${dispatch.scoring.transport-weights:}") String transportWeights,
+            SpeedTableHolder speedTables, DistanceProvider distanceProvider,
+            DispatchFlightRecorder flightRecorder, DecisionTraceRecorder traceRecorder) {
+        this.profile = new AtomicReference<>(
+                ScoringProfile.of(formula, tiebreakThreshold, parseWeights(transportWeights)));
+        this.speedTables = speedTables;
+        this.distanceProvider = distanceProvider;
+        this.selector = new CandidateSelector(flightRecorder, traceRecorder, distanceProvider);
+        this.silentSelector = selector.silent();
+    }
+
+    public ScoringProfile currentProfile() {
+        return profile.get();
+    }
+
+    /**
+     * Apply a change to the current profile and swap the result in; it takes effect from
+     * the next match on. The change may run more than once if another update wins the race.
+     *
+     * @return the profile now in effect
+     */
+    public ScoringProfile updateProfile(UnaryOperator<ScoringProfile> change) {
+        ScoringProfile updated = profile.updateAndGet(change);
+        log.info("Scoring profile v{} in effect: {}", updated.getVersion(), updated.getFormula());
+        return updated;
+    }
+
+    @Override
+    public Optional<Courier> findBestCourier(Order order, List<Courier> availableCouriers) {
+        int best = selectBestCourier(order, availableCouriers);
+        return best < 0 ? Optional.empty() : Optional.of(availableCouriers.get(best));
+    }
+
+    @Override
+    public double score(Order order, Courier courier) {
+        CourierType type = courier.getType();
+        if (!type.canCarry(order.getWeightKg())) {
+            return Double.NaN;
+        }
+        Point pickup = order.getPickupLocation();
+        double distance = distanceProvider.distance(
+                courier.getLocationX(), courier.getLocationY(), pickup.getX(), pickup.getY());
+        return score(profile.get(), order, courier, type, distance);
+    }
+
+    @Override
+    public int selectBestCourier(Order order, List<Courier> availableCouriers) {
+        return select(selector, order, availableCouriers);
+    }
+
+    @Override
+    public int selectSilently(Order order, List<Courier> availableCouriers) {
+        return select(silentSelector, order, availableCouriers);
+    }
+
+    private int select(CandidateSelector selector, Order order, List<Courier> candidates) {
+        ScoringProfile scoring = profile.get();
+        return selector.select(order, candidates, scoring, scorer,
+                CandidateSelector.Tiebreak.DISTANCE, scoring.getTiebreakThreshold());
+    }
+
+    private double score(ScoringProfile scoring, Order order, Courier courier, CourierType type, double distance) {
+        double eta = 0;
+        if (scoring.getFormula().usesEta()) {
+            int courierZone = ZoneGrid.zoneOf(courier.getLocationX(), courier.getLocationY());
+            eta = speedTables.current().minutes(type, courierZone, ZoneGrid.zoneOf(order.getPickupLocation()), distance);
+        }
+        return scoring.getFormula().function().score(distance, scoring.transportWeight(type), order.getPriority(),
+                courier.getCompletedOrdersToday(), eta);
+    }
+
+    /**
+     * Parse {@code "PEDESTRIAN:1.5,CAR:0.6"}; types not listed keep their default weight.
+     */
+    static Map<CourierType, Double> parseWeights(String spec) {
+        Map<CourierType, Double> weights = new EnumMap<>(CourierType.class);
+        if (spec == null || spec.isBlank()) {
+            return weights;
+        }
+        for (String part : spec.split(",")) {
+            String[] pair = part.split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Transport weight must be TYPE:weight. Got: '" + part + "'");
+            }
+            weights.put(CourierType.valueOf(pair[0].strip()), Double.parseDouble(pair[1].strip()));
+        }
+        return weights;
+    }
+}
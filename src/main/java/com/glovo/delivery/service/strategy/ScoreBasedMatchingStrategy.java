@@ -2,8 +2,11 @@ package com.glovo.delivery.service.strategy;
 
 import com.glovo.delivery.model.Courier;
 import com.glovo.delivery.model.Order;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.glovo.delivery.model.Point;
+import com.glovo.delivery.model.enums.CourierType;
+import com.glovo.delivery.service.jfr.DispatchFlightRecorder;
+import com.glovo.delivery.service.routing.DistanceProvider;
+import com.glovo.delivery.service.trace.DecisionTraceRecorder;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -17,89 +20,71 @@ import java.util.Optional;
  *
  * Tiebreaker: when two couriers are within 1 distance unit of each other,
  * the courier with fewer completed orders today wins.
+ *
+ * Distance is the travel distance from the courier to the pickup as given by the
+ * {@link DistanceProvider}: straight-line by default, along the road grid when one is
+ * configured.
+ *
+ * Per-candidate details are not logged; they go to the decision trace started by the
+ * caller (see {@link DecisionTraceRecorder}), if any.
  */
 @Component
 public class ScoreBasedMatchingStrategy implements CourierMatchingStrategy {
 
-    private static final Logger log = LoggerFactory.getLogger(ScoreBasedMatchingStrategy.class);
     private static final double PRIORITY_COEFFICIENT = 0.5;
     private static final double DISTANCE_TIEBREAK_THRESHOLD = 1.0;
+    private static final CandidateSelector.Scorer<Void> SCORER =
+            (context, order, courier, type, distance) -> score(order, type, distance);
+
+    private final DistanceProvider distanceProvider;
+    private final CandidateSelector selector;
+    private final CandidateSelector silentSelector;
+
+    public ScoreBasedMatchingStrategy(DispatchFlightRecorder flightRecorder, DecisionTraceRecorder traceRecorder,
+                                      DistanceProvider distanceProvider) {
+        this.distanceProvider = distanceProvider;
+        this.selector = new CandidateSelector(flightRecorder, traceRecorder, distanceProvider);
+        this.silentSelector = selector.silent();
+    }
 
     @Override
     public Optional<Courier> findBestCourier(Order order, List<Courier> availableCouriers) {
-        if (availableCouriers.isEmpty()) {
-            log.warn("No available couriers for order {}", order.getId());
-            return Optional.empty();
-        }
-
-        // Filter couriers that can carry the order weight
-        List<Courier> eligibleCouriers = availableCouriers.stream()
-                .filter(c -> c.getType().canCarry(order.getWeightKg()))
-                .toList();
+        int best = selectBestCourier(order, availableCouriers);
+        return best < 0 ? Optional.empty() : Optional.of(availableCouriers.get(best));
+    }
 
-        if (eligibleCouriers.isEmpty()) {
-            log.warn("No couriers can carry {}kg for order {} (available: {})",
-                    order.getWeightKg(), order.getId(), availableCouriers.size());
-            return Optional.empty();
+    @Override
+    public double score(Order order, Courier courier) {
+        CourierType type = courier.getType();
+        if (!type.canCarry(order.getWeightKg())) {
+            return Double.NaN;
         }
+        Point pickup = order.getPickupLocation();
+        double distance = distanceProvider.distance(
+                courier.getLocationX(), courier.getLocationY(), pickup.getX(), pickup.getY());
+        return score(order, type, distance);
+    }
 
-        log.info("=== Scoring couriers for order {} (priority={}, weight={}kg, pickup={}) ===",
-                order.getId(), order.getPriority(), order.getWeightKg(), order.getPickupLocation());
-        log.info("  Eligible couriers: {}/{} (filtered by max weight capacity)",
-                eligibleCouriers.size(), availableCouriers.size());
-
-        Courier bestCourier = null;
-        double bestScore = Double.MAX_VALUE;
-        double bestDistance = Double.MAX_VALUE;
-
-        for (Courier courier : eligibleCouriers) {
-            double distance = courier.getCurrentLocation().distanceTo(order.getPickupLocation());
-            double transportWeight = courier.getType().getTransportWeight();
-            double score = (distance * transportWeight) - (order.getPriority() * PRIORITY_COEFFICIENT);
-
-            log.info("  Courier {} [{}] at {} -> distance={}, weight={}, score={}, completedToday={}",
-                    courier.getId(),
-                    courier.getType(),
-                    courier.getCurrentLocation(),
-                    String.format("%.2f", distance),
-                    transportWeight,
-                    String.format("%.2f", score),
-                    courier.getCompletedOrdersToday());
-
-            boolean isBetter = false;
-
-            if (bestCourier == null) {
-                isBetter = true;
-            } else if (Math.abs(distance - bestDistance) < DISTANCE_TIEBREAK_THRESHOLD) {
-                // Tiebreaker: when distances are close (< 1 unit), prefer fewer completed orders
-                if (courier.getCompletedOrdersToday() < bestCourier.getCompletedOrdersToday()) {
-                    isBetter = true;
-                    log.info("    -> Tiebreak: {} completed vs {} completed (distance diff={}) — wins by fewer orders",
-                            courier.getCompletedOrdersToday(),
-                            bestCourier.getCompletedOrdersToday(),
-                            String.format("%.2f", Math.abs(distance - bestDistance)));
-                } else if (courier.getCompletedOrdersToday() == bestCourier.getCompletedOrdersToday()
-                        && score < bestScore) {
-                    isBetter = true;
-                }
-            } else if (score < bestScore) {
-                isBetter = true;
-            }
+    /**
+     * Single indexed pass over the candidates, see {@link CandidateSelector}; nothing is
+     * allocated unless a warning is logged.
+     */
+    @Override
+    public int selectBestCourier(Order order, List<Courier> availableCouriers) {
+        return select(selector, order, availableCouriers);
+    }
 
-            if (isBetter) {
-                bestScore = score;
-                bestDistance = distance;
-                bestCourier = courier;
-            }
-        }
+    @Override
+    public int selectSilently(Order order, List<Courier> availableCouriers) {
+        return select(silentSelector, order, availableCouriers);
+    }
 
-        if (bestCourier != null) {
-            log.info(">>> Best courier: {} [{}] with score {} (completedToday={})",
-                    bestCourier.getId(), bestCourier.getType(),
-                    String.format("%.2f", bestScore),
-                    bestCourier.getCompletedOrdersToday());
-        }
+    private static int select(CandidateSelector selector, Order order, List<Courier> candidates) {
+        return selector.select(order, candidates, null, SCORER,
+                CandidateSelector.Tiebreak.DISTANCE, DISTANCE_TIEBREAK_THRESHOLD);
+    }
 
-        return Optional.ofNullable(bestCourier);
+    private static double score(Order order, CourierType type, double distance) {
+        return (distance * type.getTransportWeight()) - order.getPriority() * PRIORITY_COEFFICIENT;
     }
 }
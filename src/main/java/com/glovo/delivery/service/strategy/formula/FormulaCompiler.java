@@ -0,0 +1,270 @@
+package com.glovo.delivery.service.strategy.formula;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compiles a {@link FormulaNode} tree into a hidden class implementing
+ * {@link ScoringFunction}: the {@code score} method is the formula as straight-line
+ * bytecode ({@code dload}, {@code ldc2_w}, {@code dadd}, ..., {@code Math.min/max/abs}),
+ * the same code javac emits for the formula written by hand. There are no branches, so no
+ * stack map frames are needed.
+ *
+ * Hidden classes are not strongly reachable from their loader, so a formula that is
+ * swapped out is unloaded once nothing references it.
+ */
+final class FormulaCompiler {
+
+    private static final int CLASS_VERSION = 61;
+    private static final String CLASS_NAME =
+            FormulaCompiler.class.getPackageName().replace('.', '/') + "/CompiledScoringFunction";
+    private static final String SCORE_DESCRIPTOR = "(DDDDD)D";
+
+    private static final int DCONST_0 = 0x0e;
+    private static final int DCONST_1 = 0x0f;
+    private static final int LDC2_W = 0x14;
+    private static final int DLOAD = 0x18;
+    private static final int DLOAD_1 = 0x27;
+    private static final int DLOAD_3 = 0x29;
+    private static final int ALOAD_0 = 0x2a;
+    private static final int DADD = 0x63;
+    private static final int DSUB = 0x67;
+    private static final int DMUL = 0x6b;
+    private static final int DDIV = 0x6f;
+    private static final int DNEG = 0x77;
+    private static final int DRETURN = 0xaf;
+    private static final int RETURN = 0xb1;
+    private static final int INVOKESPECIAL = 0xb7;
+    private static final int INVOKESTATIC = 0xb8;
+
+    private final ConstantPool pool = new ConstantPool();
+    private final ByteArrayOutputStream code = new ByteArrayOutputStream();
+
+    private FormulaCompiler() {
+    }
+
+    static ScoringFunction compile(FormulaNode root) {
+        byte[] bytes = new FormulaCompiler().classBytes(root);
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(bytes, true);
+            return (ScoringFunction) lookup.findConstructor(lookup.lookupClass(), MethodType.methodType(void.class))
+                    .invoke();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to load compiled scoring formula", e);
+        }
+    }
+
+    private byte[] classBytes(FormulaNode root) {
+        int thisClass = pool.classRef(CLASS_NAME);
+        int superClass = pool.classRef("java/lang/Object");
+        int scoringFunction = pool.classRef(ScoringFunction.class.getName().replace('.', '/'));
+        int objectInit = pool.methodRef("java/lang/Object", "<init>", "()V");
+        int init = pool.utf8("<init>");
+        int voidDescriptor = pool.utf8("()V");
+        int score = pool.utf8("score");
+        int scoreDescriptor = pool.utf8(SCORE_DESCRIPTOR);
+        int codeAttribute = pool.utf8("Code");
+
+        code.write(ALOAD_0);
+        code.write(INVOKESPECIAL);
+        writeShort(objectInit);
+        code.write(RETURN);
+        byte[] initCode = code.toByteArray();
+
+        code.reset();
+        emit(root);
+        code.write(DRETURN);
+        byte[] scoreCode = code.toByteArray();
+        if (scoreCode.length > 65535) {
+            throw new IllegalArgumentException("Scoring formula is too large to compile");
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(CLASS_VERSION);
+            pool.writeTo(out);
+            out.writeShort(0x0001 | 0x0010 | 0x0020); // public final super
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(1);
+            out.writeShort(scoringFunction);
+            out.writeShort(0); // fields
+            out.writeShort(2); // methods
+            writeMethod(out, init, voidDescriptor, codeAttribute, 1, 1, initCode);
+            writeMethod(out, score, scoreDescriptor, codeAttribute,
+                    root.stackDepth(), 1 + FormulaVariable.values().length * 2, scoreCode);
+            out.writeShort(0); // class attributes
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private void emit(FormulaNode node) {
+        switch (node) {
+            case FormulaNode.Constant constant -> emitConstant(constant.value());
+            case FormulaNode.Variable variable -> emitLoad(variable.variable().slot());
+            case FormulaNode.Negate negate -> {
+                emit(negate.operand());
+                code.write(DNEG);
+            }
+            case FormulaNode.Abs abs -> {
+                emit(abs.operand());
+                invokeMath("abs", "(D)D");
+            }
+            case FormulaNode.Binary binary -> {
+                emit(binary.left());
+                emit(binary.right());
+                switch (binary.operator()) {
+                    case ADD -> code.write(DADD);
+                    case SUBTRACT -> code.write(DSUB);
+                    case MULTIPLY -> code.write(DMUL);
+                    case DIVIDE -> code.write(DDIV);
+                    case MIN -> invokeMath("min", "(DD)D");
+                    case MAX -> invokeMath("max", "(DD)D");
+                }
+            }
+        }
+    }
+
+    private void emitConstant(double value) {
+        long bits = Double.doubleToRawLongBits(value);
+        if (bits == 0) {
+            code.write(DCONST_0);
+        } else if (bits == Double.doubleToRawLongBits(1.0)) {
+            code.write(DCONST_1);
+        } else {
+            code.write(LDC2_W);
+            writeShort(pool.doubleConstant(value));
+        }
+    }
+
+    private void emitLoad(int slot) {
+        if (slot == 1) {
+            code.write(DLOAD_1);
+        } else if (slot == 3) {
+            code.write(DLOAD_3);
+        } else {
+            code.write(DLOAD);
+            code.write(slot);
+        }
+    }
+
+    private void invokeMath(String name, String descriptor) {
+        code.write(INVOKESTATIC);
+        writeShort(pool.methodRef("java/lang/Math", name, descriptor));
+    }
+
+    private void writeShort(int value) {
+        code.write(value >>> 8);
+        code.write(value);
+    }
+
+    private static void writeMethod(DataOutputStream out, int name, int descriptor, int codeAttribute,
+                                    int maxStack, int maxLocals, byte[] body) throws IOException {
+        out.writeShort(0x0001); // public
+        out.writeShort(name);
+        out.writeShort(descriptor);
+        out.writeShort(1);
+        out.writeShort(codeAttribute);
+        out.writeInt(12 + body.length);
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(body.length);
+        out.write(body);
+        out.writeShort(0); // exception table
+        out.writeShort(0); // code attributes
+    }
+
+    /**
+     * Class file constant pool; equal entries are shared.
+     */
+    private static final class ConstantPool {
+
+        private static final int UTF8 = 1;
+        private static final int DOUBLE = 6;
+        private static final int CLASS = 7;
+        private static final int METHOD_REF = 10;
+        private static final int NAME_AND_TYPE = 12;
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private final Map<Object, Integer> indexes = new HashMap<>();
+        private int next = 1;
+
+        int utf8(String value) {
+            return entry("U" + value, 1, () -> {
+                out.writeByte(UTF8);
+                out.writeUTF(value);
+            });
+        }
+
+        int classRef(String internalName) {
+            int name = utf8(internalName);
+            return entry("C" + internalName, 1, () -> {
+                out.writeByte(CLASS);
+                out.writeShort(name);
+            });
+        }
+
+        int methodRef(String owner, String name, String descriptor) {
+            int ownerClass = classRef(owner);
+            int nameIndex = utf8(name);
+            int descriptorIndex = utf8(descriptor);
+            int nameAndType = entry("N" + name + descriptor, 1, () -> {
+                out.writeByte(NAME_AND_TYPE);
+                out.writeShort(nameIndex);
+                out.writeShort(descriptorIndex);
+            });
+            return entry("M" + owner + "." + name + descriptor, 1, () -> {
+                out.writeByte(METHOD_REF);
+                out.writeShort(ownerClass);
+                out.writeShort(nameAndType);
+            });
+        }
+
+        int doubleConstant(double value) {
+            // Doubles take two pool slots
+            return entry(Double.doubleToRawLongBits(value), 2, () -> {
+                out.writeByte(DOUBLE);
+                out.writeDouble(value);
+            });
+        }
+
+        void writeTo(DataOutputStream target) throws IOException {
+            if (next > 65535) {
+                throw new IllegalArgumentException("Scoring formula is too large to compile");
+            }
+            target.writeShort(next);
+            target.write(bytes.toByteArray());
+        }
+
+        private int entry(Object key, int slots, Writer writer) {
+            Integer existing = indexes.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            try {
+                writer.write();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            int index = next;
+            next += slots;
+            indexes.put(key, index);
+            return index;
+        }
+
+        @FunctionalInterface
+        private interface Writer {
+            void write() throws IOException;
+        }
+    }
+}
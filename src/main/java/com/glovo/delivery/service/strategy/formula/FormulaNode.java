@@ -0,0 +1,118 @@
+package com.glovo.delivery.service.strategy.formula;
+
+/**
+ * Parsed formula. {@link #evaluate} walks the tree directly; it is the reference the
+ * compiled class is checked against, not the dispatch path.
+ */
+sealed interface FormulaNode {
+
+    double evaluate(double[] variables);
+
+    /**
+     * Operand stack slots needed to compute the node; a double takes two.
+     */
+    int stackDepth();
+
+    boolean uses(FormulaVariable variable);
+
+    record Constant(double value) implements FormulaNode {
+        @Override
+        public double evaluate(double[] variables) {
+            return value;
+        }
+
+        @Override
+        public int stackDepth() {
+            return 2;
+        }
+
+        @Override
+        public boolean uses(FormulaVariable variable) {
+            return false;
+        }
+    }
+
+    record Variable(FormulaVariable variable) implements FormulaNode {
+        @Override
+        public double evaluate(double[] variables) {
+            return variables[variable.ordinal()];
+        }
+
+        @Override
+        public int stackDepth() {
+            return 2;
+        }
+
+        @Override
+        public boolean uses(FormulaVariable other) {
+            return variable == other;
+        }
+    }
+
+    record Negate(FormulaNode operand) implements FormulaNode {
+        @Override
+        public double evaluate(double[] variables) {
+            return -operand.evaluate(variables);
+        }
+
+        @Override
+        public int stackDepth() {
+            return operand.stackDepth();
+        }
+
+        @Override
+        public boolean uses(FormulaVariable variable) {
+            return operand.uses(variable);
+        }
+    }
+
+    /**
+     * Arithmetic operator or two-argument function: both operands are on the stack at once.
+     */
+    record Binary(Operator operator, FormulaNode left, FormulaNode right) implements FormulaNode {
+        @Override
+        public double evaluate(double[] variables) {
+            double a = left.evaluate(variables);
+            double b = right.evaluate(variables);
+            return switch (operator) {
+                case ADD -> a + b;
+                case SUBTRACT -> a - b;
+                case MULTIPLY -> a * b;
+                case DIVIDE -> a / b;
+                case MIN -> Math.min(a, b);
+                case MAX -> Math.max(a, b);
+            };
+        }
+
+        @Override
+        public int stackDepth() {
+            return Math.max(left.stackDepth(), 2 + right.stackDepth());
+        }
+
+        @Override
+        public boolean uses(FormulaVariable variable) {
+            return left.uses(variable) || right.uses(variable);
+        }
+    }
+
+    record Abs(FormulaNode operand) implements FormulaNode {
+        @Override
+        public double evaluate(double[] variables) {
+            return Math.abs(operand.evaluate(variables));
+        }
+
+        @Override
+        public int stackDepth() {
+            return operand.stackDepth();
+        }
+
+        @Override
+        public boolean uses(FormulaVariable variable) {
+            return operand.uses(variable);
+        }
+    }
+
+    enum Operator {
+        ADD, SUBTRACT, MULTIPLY, DIVIDE, MIN, MAX
+    }
+}
@@ -0,0 +1,175 @@
+package com.glovo.delivery.service.strategy.formula;
+
+import com.glovo.delivery.service.strategy.formula.FormulaNode.Operator;
+
+/**
+ * Recursive-descent parser for scoring formulas:
+ * <pre>
+ * expression := term (('+' | '-') term)*
+ * term       := unary (('*' | '/') unary)*
+ * unary      := '-' unary | primary
+ * primary    := number | variable | function '(' expression (',' expression)? ')' | '(' expression ')'
+ * </pre>
+ * Functions: {@code min(a, b)}, {@code max(a, b)}, {@code abs(a)}.
+ */
+final class FormulaParser {
+
+    static final int MAX_LENGTH = 1000;
+
+    private final String source;
+    private int position;
+
+    private FormulaParser(String source) {
+        this.source = source;
+    }
+
+    static FormulaNode parse(String source) {
+        if (source == null || source.isBlank()) {
+            throw new IllegalArgumentException("Scoring formula must not be empty");
+        }
+        if (source.length() > MAX_LENGTH) {
+            throw new IllegalArgumentException("Scoring formula must be at most " + MAX_LENGTH
+                    + " characters. Got: " + source.length());
+        }
+        FormulaParser parser = new FormulaParser(source);
+        FormulaNode node = parser.expression();
+        parser.skipSpaces();
+        if (parser.position < source.length()) {
+            throw parser.error("Unexpected '" + source.charAt(parser.position) + "'");
+        }
+        return node;
+    }
+
+    private FormulaNode expression() {
+        FormulaNode node = term();
+        while (true) {
+            if (accept('+')) {
+                node = new FormulaNode.Binary(Operator.ADD, node, term());
+            } else if (accept('-')) {
+                node = new FormulaNode.Binary(Operator.SUBTRACT, node, term());
+            } else {
+                return node;
+            }
+        }
+    }
+
+    private FormulaNode term() {
+        FormulaNode node = unary();
+        while (true) {
+            if (accept('*')) {
+                node = new FormulaNode.Binary(Operator.MULTIPLY, node, unary());
+            } else if (accept('/')) {
+                node = new FormulaNode.Binary(Operator.DIVIDE, node, unary());
+            } else {
+                return node;
+            }
+        }
+    }
+
+    private FormulaNode unary() {
+        if (accept('-')) {
+            return new FormulaNode.Negate(unary());
+        }
+        return primary();
+    }
+
+    private FormulaNode primary() {
+        skipSpaces();
+        if (position >= source.length()) {
+            throw error("Unexpected end");
+        }
+        char c = source.charAt(position);
+        if (accept('(')) {
+            FormulaNode node = expression();
+            expect(')');
+            return node;
+        }
+        if (Character.isDigit(c) || c == '.') {
+            return number();
+        }
+        if (Character.isLetter(c)) {
+            return name();
+        }
+        throw error("Unexpected '" + c + "'");
+    }
+
+    private FormulaNode number() {
+        int start = position;
+        while (position < source.length()
+                && (Character.isDigit(source.charAt(position)) || source.charAt(position) == '.')) {
+            position++;
+        }
+        String text = source.substring(start, position);
+        try {
+            return new FormulaNode.Constant(Double.parseDouble(text));
+        } catch (NumberFormatException e) {
+            position = start;
+            throw error("Invalid number '" + text + "'");
+        }
+    }
+
+    private FormulaNode name() {
+        int start = position;
+        while (position < source.length() && Character.isLetterOrDigit(source.charAt(position))) {
+            position++;
+        }
+        String name = source.substring(start, position);
+        skipSpaces();
+        if (position < source.length() && source.charAt(position) == '(') {
+            position++;
+            return function(name, start);
+        }
+        FormulaVariable variable = FormulaVariable.byName(name);
+        if (variable == null) {
+            position = start;
+            throw error("Unknown variable '" + name + "'");
+        }
+        return new FormulaNode.Variable(variable);
+    }
+
+    private FormulaNode function(String name, int start) {
+        FormulaNode first = expression();
+        switch (name) {
+            case "abs" -> {
+                expect(')');
+                return new FormulaNode.Abs(first);
+            }
+            case "min", "max" -> {
+                expect(',');
+                FormulaNode second = expression();
+                expect(')');
+                return new FormulaNode.Binary(name.equals("min") ? Operator.MIN : Operator.MAX, first, second);
+            }
+            default -> {
+                position = start;
+                throw error("Unknown function '" + name + "'");
+            }
+        }
+    }
+
+    private boolean accept(char expected) {
+        skipSpaces();
+        if (position < source.length() && source.charAt(position) == expected) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char expected) {
+        if (!accept(expected)) {
+            throw error("Expected '" + expected + "'");
+        }
+    }
+
+    private void skipSpaces() {
+        while (position < source.length() && Character.isWhitespace(source.charAt(position))) {
+            position++;
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at position " + position + " in scoring formula '"
+                + source + "'");
+    }
+}
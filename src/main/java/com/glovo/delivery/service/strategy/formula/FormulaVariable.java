@@ -0,0 +1,42 @@
+package com.glovo.delivery.service.strategy.formula;
+
+/**
+ * Names a formula can use, in {@link ScoringFunction#score} parameter order.
+ */
+enum FormulaVariable {
+
+    DISTANCE("distance"),
+    WEIGHT("weight"),
+    PRIORITY("priority"),
+    COMPLETED_TODAY("completedToday"),
+    ETA("eta");
+
+    private static final FormulaVariable[] VALUES = values();
+
+    private final String name;
+
+    FormulaVariable(String name) {
+        this.name = name;
+    }
+
+    String formulaName() {
+        return name;
+    }
+
+    /**
+     * Local variable slot of the parameter in the compiled {@code score} method: slot 0 is
+     * {@code this} and every double takes two slots.
+     */
+    int slot() {
+        return 1 + ordinal() * 2;
+    }
+
+    static FormulaVariable byName(String name) {
+        for (FormulaVariable variable : VALUES) {
+            if (variable.name.equals(name)) {
+                return variable;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,60 @@
+package com.glovo.delivery.service.strategy.formula;
+
+/**
+ * Scoring formula compiled from text, for example
+ * {@code distance * weight - priority * 0.5}. Variables: {@code distance},
+ * {@code weight} (transport weight), {@code priority}, {@code completedToday} and
+ * {@code eta} (minutes to pickup); operators {@code + - * /}, parentheses, and
+ * {@code min}, {@code max}, {@code abs}.
+ *
+ * Parsing and compiling happen once, when the formula is loaded; invalid text fails here
+ * with an {@link IllegalArgumentException} instead of at dispatch time.
+ */
+public final class ScoringFormula {
+
+    private final String source;
+    private final FormulaNode root;
+    private final ScoringFunction function;
+
+    private ScoringFormula(String source, FormulaNode root, ScoringFunction function) {
+        this.source = source;
+        this.root = root;
+        this.function = function;
+    }
+
+    public static ScoringFormula compile(String source) {
+        FormulaNode root = FormulaParser.parse(source);
+        return new ScoringFormula(source.strip(), root, FormulaCompiler.compile(root));
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * The compiled formula.
+     */
+    public ScoringFunction function() {
+        return function;
+    }
+
+    /**
+     * Whether the formula reads {@code eta}; strategies skip the ETA lookup otherwise.
+     */
+    public boolean usesEta() {
+        return root.uses(FormulaVariable.ETA);
+    }
+
+    /**
+     * Evaluate by walking the parsed tree. Same result as {@link #function()}, much slower;
+     * for checking the compiled class and for comparison in benchmarks.
+     */
+    public double interpret(double distance, double weight, double priority, double completedToday, double eta) {
+        return root.evaluate(new double[]{distance, weight, priority, completedToday, eta});
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+}
@@ -0,0 +1,19 @@
+package com.glovo.delivery.service.strategy.formula;
+
+/**
+ * Score of one candidate; lower is better. Implemented by classes compiled from a
+ * {@link ScoringFormula}, so a call site that only ever sees one formula is inlined by the
+ * JIT like hand-written arithmetic.
+ */
+@FunctionalInterface
+public interface ScoringFunction {
+
+    /**
+     * @param distance        travel distance from the courier to the pickup
+     * @param weight          transport weight of the courier's type
+     * @param priority        order priority
+     * @param completedToday  orders the courier completed today
+     * @param eta             estimated minutes to the pickup
+     */
+    double score(double distance, double weight, double priority, double completedToday, double eta);
+}
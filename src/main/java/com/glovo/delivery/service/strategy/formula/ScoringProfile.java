@@ -0,0 +1,98 @@
+package com.glovo.delivery.service.strategy.formula;
+
+import com.glovo.delivery.model.enums.CourierType;
+
+import java.util.Map;
+
+/**
+ * Immutable scoring settings: the compiled formula, the distance under which the
+ * completed-orders tiebreaker applies, and the transport weight of every courier type.
+ * Changes build a new profile with a higher version.
+ */
+public final class ScoringProfile {
+
+    public static final String DEFAULT_FORMULA = "distance * weight - priority * 0.5";
+    public static final double DEFAULT_TIEBREAK_THRESHOLD = 1.0;
+
+    private static final CourierType[] TYPES = CourierType.values();
+
+    private final long version;
+    private final ScoringFormula formula;
+    private final double tiebreakThreshold;
+    private final double[] transportWeights;
+
+    private ScoringProfile(long version, ScoringFormula formula, double tiebreakThreshold, double[] transportWeights) {
+        if (!(tiebreakThreshold >= 0) || Double.isInfinite(tiebreakThreshold)) {
+            throw new IllegalArgumentException("Tiebreak threshold must be finite and >= 0. Got: "
+                    + tiebreakThreshold);
+        }
+        this.version = version;
+        this.formula = formula;
+        this.tiebreakThreshold = tiebreakThreshold;
+        this.transportWeights = transportWeights;
+    }
+
+    /**
+     * The hard-coded score-based strategy expressed as a profile.
+     */
+    public static ScoringProfile defaults() {
+        return of(DEFAULT_FORMULA, DEFAULT_TIEBREAK_THRESHOLD, Map.of());
+    }
+
+    /**
+     * First profile of a strategy; types missing from {@code transportWeights} keep the
+     * weight defined on {@link CourierType}.
+     */
+    public static ScoringProfile of(String formula, double tiebreakThreshold,
+                                    Map<CourierType, Double> transportWeights) {
+        double[] weights = new double[TYPES.length];
+        for (CourierType type : TYPES) {
+            weights[type.ordinal()] = type.getTransportWeight();
+        }
+        return new ScoringProfile(1, ScoringFormula.compile(formula), tiebreakThreshold,
+                withWeights(weights, transportWeights));
+    }
+
+    /**
+     * Profile with the given changes; {@code null} arguments and types missing from
+     * {@code transportWeights} keep their current values.
+     */
+    public ScoringProfile with(String formula, Double tiebreakThreshold, Map<CourierType, Double> transportWeights) {
+        return new ScoringProfile(version + 1,
+                formula == null ? this.formula : ScoringFormula.compile(formula),
+                tiebreakThreshold == null ? this.tiebreakThreshold : tiebreakThreshold,
+                withWeights(this.transportWeights, transportWeights));
+    }
+
+    private static double[] withWeights(double[] current, Map<CourierType, Double> changes) {
+        if (changes.isEmpty()) {
+            return current;
+        }
+        double[] weights = current.clone();
+        for (Map.Entry<CourierType, Double> entry : changes.entrySet()) {
+            double weight = entry.getValue();
+            if (!(weight > 0) || Double.isInfinite(weight)) {
+                throw new IllegalArgumentException("Transport weight must be finite and > 0. Got: " + weight
+                        + " for " + entry.getKey());
+            }
+            weights[entry.getKey().ordinal()] = weight;
+        }
+        return weights;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public ScoringFormula getFormula() {
+        return formula;
+    }
+
+    public double getTiebreakThreshold() {
+        return tiebreakThreshold;
+    }
+
+    public double transportWeight(CourierType type) {
+        return transportWeights[type.ordinal()];
+    }
+}
@@ -0,0 +1,373 @@
+package com.glovo.delivery.service.supply;
+
+import com.glovo.delivery.model.Courier;
+import com.glovo.delivery.model.Point;
+import com.glovo.delivery.model.ZoneGrid;
+import com.glovo.delivery.model.enums.CourierStatus;
+import com.glovo.delivery.model.enums.CourierType;
+import com.glovo.delivery.repository.CourierQuery;
+import com.glovo.delivery.repository.CourierRepository;
+import com.glovo.delivery.service.routing.DistanceProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LRU cache of the nearest free couriers around recurring pickup locations.
+ *
+ * Pickups are quantized to square cells of {@code cell-size}. An entry holds the
+ * {@code candidates} free couriers closest to the cell center by weighted distance
+ * (travel distance from the {@link DistanceProvider} times transport weight, the dominant
+ * term of the score), found by searching {@link ZoneGrid} zones in growing rings until no
+ * courier outside the searched zones can rank higher; travel distance is never below the
+ * straight line, so the zone edges bound it. The entry remembers the sum of the zones'
+ * supply versions ({@link CourierRepository#supplyVersion}) and is rebuilt only when one
+ * of those zones gains free supply, or when fewer than half of its couriers are still
+ * free. Couriers that turned busy are skipped on read, so a hit costs a hash probe, one
+ * version read per searched zone and a pass over the short list, and allocates nothing.
+ *
+ * Matching over an entry considers only the nearest supply of the pickup cell. Disabled
+ * unless {@code dispatch.supply-cache.enabled=true}.
+ */
+@Component
+public class NearestSupplyCache {
+
+    private static final CourierQuery FREE = CourierQuery.status(CourierStatus.FREE);
+    private static final int LAST_ZONE = ZoneGrid.ZONES_PER_AXIS - 1;
+    private static final double MIN_TRANSPORT_WEIGHT = minTransportWeight();
+
+    private final CourierRepository courierRepository;
+    private final DistanceProvider distanceProvider;
+    private final boolean enabled;
+    private final int capacity;
+    private final double cellSize;
+    private final int cellsPerAxis;
+    private final int candidates;
+
+    /** Open-addressing table keyed by cell, sized to at most half full. */
+    private final Entry[] table;
+    private final int mask;
+    private int size;
+    private Entry newest;
+    private Entry oldest;
+    private final List<Courier> found = new ArrayList<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public NearestSupplyCache(CourierRepository courierRepository,
+                              DistanceProvider distanceProvider,
+                              @Value("${dispatch.supply-cache.enabled:false}") boolean enabled,
+                              @Value("${dispatch.supply-cache.capacity:1024}") int capacity,
+                              @Value("${dispatch.supply-cache.cell-size:1.0}") double cellSize,
+                              @Value("${dispatch.supply-cache.candidates:16}") int candidates) {
+        if (capacity < 1 || capacity > (1 << 20)) {
+            throw new IllegalArgumentException("Supply cache capacity must be in range [1, 2^20]. Got: " + capacity);
+        }
+        if (!(cellSize > 0 && cellSize <= ZoneGrid.ZONE_SIZE)) {
+            throw new IllegalArgumentException(
+                    "Supply cache cell size must be in range (0, " + ZoneGrid.ZONE_SIZE + "]. Got: " + cellSize);
+        }
+        if (candidates < 1 || candidates > 256) {
+            throw new IllegalArgumentException("Supply cache candidates must be in range [1, 256]. Got: " + candidates);
+        }
+        this.courierRepository = courierRepository;
+        this.distanceProvider = distanceProvider;
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.cellSize = cellSize;
+        this.cellsPerAxis = (int) Math.ceil(100 / cellSize) + 1;
+        this.candidates = candidates;
+        int tableSize = 2;
+        while (tableSize < capacity * 2) {
+            tableSize <<= 1;
+        }
+        this.table = new Entry[enabled ? tableSize : 0];
+        this.mask = tableSize - 1;
+    }
+
+    /**
+     * Cache that never answers, for code constructed outside Spring.
+     */
+    public static NearestSupplyCache disabled() {
+        return new NearestSupplyCache(null, DistanceProvider.EUCLIDEAN, false, 1, 1, 1);
+    }
+
+    /**
+     * Clear {@code into} and fill it with the cached nearest free couriers of the pickup's
+     * cell, nearest first, building the entry if it is missing or stale.
+     *
+     * @return false when the cache is disabled or there is no free courier, in which case
+     *         the caller falls back to all free couriers
+     */
+    public synchronized boolean nearestFree(Point pickup, List<Courier> into) {
+        into.clear();
+        if (!enabled) {
+            return false;
+        }
+        int column = cellOf(pickup.getX());
+        int row = cellOf(pickup.getY());
+        int key = row * cellsPerAxis + column;
+        Entry entry = get(key);
+        if (entry != null) {
+            if (entry.stamp == stamp(entry) && fill(entry, into) * 2 >= entry.size) {
+                hits.increment();
+                touch(entry);
+                return !into.isEmpty();
+            }
+            invalidations.increment();
+            into.clear();
+        } else {
+            misses.increment();
+            entry = insert(key);
+        }
+        build(entry, Math.min((column + 0.5) * cellSize, 100), Math.min((row + 0.5) * cellSize, 100));
+        touch(entry);
+        fill(entry, into);
+        return !into.isEmpty();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /** Lookups of a cell without an entry. */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /** Lookups that found an entry but had to rebuild it. */
+    public long getInvalidations() {
+        return invalidations.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Share of lookups answered without a rebuild, or 0 before the first lookup.
+     */
+    public double getHitRate() {
+        long hit = hits.sum();
+        long total = hit + misses.sum() + invalidations.sum();
+        return total == 0 ? 0 : (double) hit / total;
+    }
+
+    /**
+     * Search zone rings around the center until the last kept courier is nearer (weighted)
+     * than any courier outside the searched zones could be.
+     */
+    private void build(Entry entry, double centerX, double centerY) {
+        int zone = ZoneGrid.zoneOf(centerX, centerY);
+        int column = zone % ZoneGrid.ZONES_PER_AXIS;
+        int row = zone / ZoneGrid.ZONES_PER_AXIS;
+        Comparator<Courier> nearest = Comparator.comparingDouble(c -> weightedDistance(c, centerX, centerY));
+        for (int ring = 0; ; ring++) {
+            entry.minColumn = Math.max(0, column - ring);
+            entry.maxColumn = Math.min(LAST_ZONE, column + ring);
+            entry.minRow = Math.max(0, row - ring);
+            entry.maxRow = Math.min(LAST_ZONE, row + ring);
+            // Versions are read before the couriers, so a concurrent change makes the entry stale
+            entry.stamp = stamp(entry);
+            courierRepository.find(FREE.zones(zones(entry)), found);
+            found.sort(nearest);
+            double reach = reach(entry, centerX, centerY);
+            if (reach == Double.POSITIVE_INFINITY
+                    || found.size() >= candidates
+                    && weightedDistance(found.get(candidates - 1), centerX, centerY) <= reach * MIN_TRANSPORT_WEIGHT) {
+                break;
+            }
+        }
+        entry.size = Math.min(found.size(), candidates);
+        for (int i = 0; i < entry.ranked.length; i++) {
+            entry.ranked[i] = i < entry.size ? found.get(i) : null;
+        }
+        found.clear();
+    }
+
+    private int fill(Entry entry, List<Courier> into) {
+        for (int i = 0; i < entry.size; i++) {
+            Courier courier = entry.ranked[i];
+            if (courier.getStatus() == CourierStatus.FREE) {
+                into.add(courier);
+            }
+        }
+        return into.size();
+    }
+
+    private long stamp(Entry entry) {
+        long stamp = 0;
+        for (int row = entry.minRow; row <= entry.maxRow; row++) {
+            for (int column = entry.minColumn; column <= entry.maxColumn; column++) {
+                stamp += courierRepository.supplyVersion(row * ZoneGrid.ZONES_PER_AXIS + column);
+            }
+        }
+        return stamp;
+    }
+
+    private static int[] zones(Entry entry) {
+        int[] zones = new int[(entry.maxRow - entry.minRow + 1) * (entry.maxColumn - entry.minColumn + 1)];
+        int next = 0;
+        for (int row = entry.minRow; row <= entry.maxRow; row++) {
+            for (int column = entry.minColumn; column <= entry.maxColumn; column++) {
+                zones[next++] = row * ZoneGrid.ZONES_PER_AXIS + column;
+            }
+        }
+        return zones;
+    }
+
+    /**
+     * Distance from the center to the nearest edge of the searched zones that is not an
+     * edge of the plane; infinite once the whole grid was searched.
+     */
+    private static double reach(Entry entry, double x, double y) {
+        double reach = Double.POSITIVE_INFINITY;
+        if (entry.minColumn > 0) {
+            reach = Math.min(reach, x - entry.minColumn * ZoneGrid.ZONE_SIZE);
+        }
+        if (entry.maxColumn < LAST_ZONE) {
+            reach = Math.min(reach, (entry.maxColumn + 1) * ZoneGrid.ZONE_SIZE - x);
+        }
+        if (entry.minRow > 0) {
+            reach = Math.min(reach, y - entry.minRow * ZoneGrid.ZONE_SIZE);
+        }
+        if (entry.maxRow < LAST_ZONE) {
+            reach = Math.min(reach, (entry.maxRow + 1) * ZoneGrid.ZONE_SIZE - y);
+        }
+        return reach;
+    }
+
+    private double weightedDistance(Courier courier, double x, double y) {
+        return distanceProvider.distance(courier.getLocationX(), courier.getLocationY(), x, y)
+                * courier.getType().getTransportWeight();
+    }
+
+    private int cellOf(double coordinate) {
+        return Math.min((int) (coordinate / cellSize), cellsPerAxis - 1);
+    }
+
+    private Entry get(int key) {
+        for (int i = mix(key) & mask; table[i] != null; i = (i + 1) & mask) {
+            if (table[i].key == key) {
+                return table[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * New entry for the key, reusing the least recently used one when the cache is full.
+     */
+    private Entry insert(int key) {
+        Entry entry;
+        if (size == capacity) {
+            entry = oldest;
+            unlink(entry);
+            remove(entry.key);
+            evictions.increment();
+        } else {
+            entry = new Entry(candidates);
+            size++;
+        }
+        entry.key = key;
+        int i = mix(key) & mask;
+        while (table[i] != null) {
+            i = (i + 1) & mask;
+        }
+        table[i] = entry;
+        return entry;
+    }
+
+    /**
+     * Linear-probing delete: later entries of the same cluster are shifted back into the gap.
+     */
+    private void remove(int key) {
+        int gap = mix(key) & mask;
+        while (table[gap].key != key) {
+            gap = (gap + 1) & mask;
+        }
+        table[gap] = null;
+        for (int i = (gap + 1) & mask; table[i] != null; i = (i + 1) & mask) {
+            int home = mix(table[i].key) & mask;
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                table[gap] = table[i];
+                table[i] = null;
+                gap = i;
+            }
+        }
+    }
+
+    private void touch(Entry entry) {
+        if (entry == newest) {
+            return;
+        }
+        unlink(entry);
+        entry.older = newest;
+        if (newest != null) {
+            newest.newer = entry;
+        }
+        newest = entry;
+        if (oldest == null) {
+            oldest = entry;
+        }
+    }
+
+    private void unlink(Entry entry) {
+        if (entry.newer != null) {
+            entry.newer.older = entry.older;
+        } else if (newest == entry) {
+            newest = entry.older;
+        }
+        if (entry.older != null) {
+            entry.older.newer = entry.newer;
+        } else if (oldest == entry) {
+            oldest = entry.newer;
+        }
+        entry.newer = null;
+        entry.older = null;
+    }
+
+    private static int mix(int key) {
+        return key * 0x9E3779B9 >>> 7;
+    }
+
+    private static double minTransportWeight() {
+        double min = Double.MAX_VALUE;
+        for (CourierType type : CourierType.values()) {
+            min = Math.min(min, type.getTransportWeight());
+        }
+        return min;
+    }
+
+    private static final class Entry {
+        final Courier[] ranked;
+        int key;
+        int size;
+        int minColumn;
+        int maxColumn;
+        int minRow;
+        int maxRow;
+        long stamp;
+        Entry newer;
+        Entry older;
+
+        Entry(int candidates) {
+            this.ranked = new Courier[candidates];
+        }
+    }
+}
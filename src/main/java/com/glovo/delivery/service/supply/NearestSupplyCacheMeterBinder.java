@@ -0,0 +1,49 @@
+package com.glovo.delivery.service.supply;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Nearest-supply cache lookups, evictions, hit ratio and size, read at scrape time.
+ * Binds nothing while the cache is disabled.
+ */
+@Component
+public class NearestSupplyCacheMeterBinder implements MeterBinder {
+
+    private final NearestSupplyCache supplyCache;
+
+    public NearestSupplyCacheMeterBinder(NearestSupplyCache supplyCache) {
+        this.supplyCache = supplyCache;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!supplyCache.isEnabled()) {
+            return;
+        }
+        FunctionCounter.builder("dispatch.supply_cache.lookups", supplyCache, NearestSupplyCache::getHits)
+                .description("Nearest-supply cache lookups answered from a valid entry")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("dispatch.supply_cache.lookups", supplyCache, NearestSupplyCache::getMisses)
+                .description("Nearest-supply cache lookups of a cell without an entry")
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("dispatch.supply_cache.lookups", supplyCache, NearestSupplyCache::getInvalidations)
+                .description("Nearest-supply cache lookups that rebuilt a stale or depleted entry")
+                .tag("result", "invalidated")
+                .register(registry);
+        FunctionCounter.builder("dispatch.supply_cache.evictions", supplyCache, NearestSupplyCache::getEvictions)
+                .description("Nearest-supply cache entries evicted as least recently used")
+                .register(registry);
+        Gauge.builder("dispatch.supply_cache.hit_ratio", supplyCache, NearestSupplyCache::getHitRate)
+                .description("Share of nearest-supply cache lookups answered without a rebuild")
+                .register(registry);
+        Gauge.builder("dispatch.supply_cache.size", supplyCache, NearestSupplyCache::size)
+                .description("Pickup cells held by the nearest-supply cache")
+                .register(registry);
+    }
+}
@@ -0,0 +1,149 @@
+package com.glovo.delivery.service.telemetry;
+
+import com.glovo.delivery.model.Courier;
+import com.glovo.delivery.repository.CourierRepository;
+import com.glovo.delivery.service.LocationCoalescer;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Applies decoded telemetry pings to couriers, dropping duplicates and out-of-order packets.
+ *
+ * Couriers are looked up through an open-addressing table keyed by the two halves of
+ * the courier UUID, so a ping for a known courier needs no {@link UUID} instance and no
+ * map node. The repository is only consulted the first time a courier id is seen.
+ *
+ * Not thread-safe: owned by the single telemetry receive thread. Counters are safe to read
+ * from any thread.
+ */
+public class CourierTelemetryPipeline {
+
+    public enum Result {
+        APPLIED,
+        OUT_OF_ORDER,
+        UNKNOWN_COURIER,
+        INVALID
+    }
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final CourierRepository courierRepository;
+    private final LocationCoalescer locationCoalescer;
+
+    private long[] idMsb;
+    private long[] idLsb;
+    private Courier[] couriers;
+    private long[] lastSequence;
+    private int size;
+    private int mask;
+
+    private final AtomicLong applied = new AtomicLong();
+    private final AtomicLong outOfOrder = new AtomicLong();
+    private final AtomicLong unknownCourier = new AtomicLong();
+    private final AtomicLong invalid = new AtomicLong();
+
+    public CourierTelemetryPipeline(CourierRepository courierRepository, LocationCoalescer locationCoalescer) {
+        this.courierRepository = courierRepository;
+        this.locationCoalescer = locationCoalescer;
+        allocate(INITIAL_CAPACITY);
+    }
+
+    public Result accept(long courierIdMsb, long courierIdLsb, double x, double y, long sequence) {
+        if (!(x >= 0 && x <= 100 && y >= 0 && y <= 100)) {
+            invalid.incrementAndGet();
+            return Result.INVALID;
+        }
+
+        int slot = find(courierIdMsb, courierIdLsb);
+        if (couriers[slot] == null) {
+            Courier courier = courierRepository.findById(new UUID(courierIdMsb, courierIdLsb)).orElse(null);
+            if (courier == null) {
+                unknownCourier.incrementAndGet();
+                return Result.UNKNOWN_COURIER;
+            }
+            slot = insert(slot, courierIdMsb, courierIdLsb, courier);
+        } else if (sequence <= lastSequence[slot]) {
+            outOfOrder.incrementAndGet();
+            return Result.OUT_OF_ORDER;
+        }
+
+        lastSequence[slot] = sequence;
+        locationCoalescer.submit(couriers[slot], x, y);
+        applied.incrementAndGet();
+        return Result.APPLIED;
+    }
+
+    public long getApplied() {
+        return applied.get();
+    }
+
+    public long getOutOfOrder() {
+        return outOfOrder.get();
+    }
+
+    public long getUnknownCourier() {
+        return unknownCourier.get();
+    }
+
+    public long getInvalid() {
+        return invalid.get();
+    }
+
+    /**
+     * Slot holding the given id, or the empty slot where it would be inserted.
+     */
+    private int find(long msb, long lsb) {
+        int slot = hash(msb, lsb) & mask;
+        while (couriers[slot] != null && (idMsb[slot] != msb || idLsb[slot] != lsb)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private int insert(int slot, long msb, long lsb, Courier courier) {
+        if ((size + 1) * 4 > couriers.length * 3) {
+            grow();
+            slot = find(msb, lsb);
+        }
+        idMsb[slot] = msb;
+        idLsb[slot] = lsb;
+        couriers[slot] = courier;
+        lastSequence[slot] = Long.MIN_VALUE;
+        size++;
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldMsb = idMsb;
+        long[] oldLsb = idLsb;
+        Courier[] oldCouriers = couriers;
+        long[] oldSequence = lastSequence;
+
+        allocate(oldCouriers.length * 2);
+        for (int i = 0; i < oldCouriers.length; i++) {
+            if (oldCouriers[i] != null) {
+                int slot = find(oldMsb[i], oldLsb[i]);
+                idMsb[slot] = oldMsb[i];
+                idLsb[slot] = oldLsb[i];
+                couriers[slot] = oldCouriers[i];
+                lastSequence[slot] = oldSequence[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        idMsb = new long[capacity];
+        idLsb = new long[capacity];
+        couriers = new Courier[capacity];
+        lastSequence = new long[capacity];
+        Arrays.fill(lastSequence, Long.MIN_VALUE);
+        mask = capacity - 1;
+    }
+
+    private static int hash(long msb, long lsb) {
+        long h = msb * 0x9E3779B97F4A7C15L ^ lsb;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,46 @@
+package com.glovo.delivery.service.telemetry;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * Fixed binary layout of a courier location ping (big-endian, 40 bytes):
+ *
+ * <pre>
+ * offset  size  field
+ *      0     8  courier id, most significant bits
+ *      8     8  courier id, least significant bits
+ *     16     8  x (double)
+ *     24     8  y (double)
+ *     32     8  sequence number, strictly increasing per courier
+ * </pre>
+ */
+public final class TelemetryPacket {
+
+    public static final int SIZE = 40;
+
+    static final int COURIER_ID_MSB_OFFSET = 0;
+    static final int COURIER_ID_LSB_OFFSET = 8;
+    static final int X_OFFSET = 16;
+    static final int Y_OFFSET = 24;
+    static final int SEQUENCE_OFFSET = 32;
+
+    private TelemetryPacket() {
+    }
+
+    /**
+     * Write one packet at the buffer position and advance it by {@link #SIZE}.
+     */
+    public static void write(ByteBuffer buffer, UUID courierId, double x, double y, long sequence) {
+        write(buffer, courierId.getMostSignificantBits(), courierId.getLeastSignificantBits(), x, y, sequence);
+    }
+
+    public static void write(ByteBuffer buffer, long courierIdMsb, long courierIdLsb,
+                             double x, double y, long sequence) {
+        buffer.putLong(courierIdMsb)
+                .putLong(courierIdLsb)
+                .putDouble(x)
+                .putDouble(y)
+                .putLong(sequence);
+    }
+}
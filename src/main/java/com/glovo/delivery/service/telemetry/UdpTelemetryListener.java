@@ -0,0 +1,152 @@
+package com.glovo.delivery.service.telemetry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Receives courier location pings over UDP ({@link TelemetryPacket} layout) and feeds
+ * them into a {@link CourierTelemetryPipeline}.
+ *
+ * A single receive thread reads into one reused direct buffer and decodes fields with
+ * absolute gets, so steady-state processing of a ping does not allocate in this class.
+ * Packets of the wrong size are counted and dropped.
+ */
+public class UdpTelemetryListener implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(UdpTelemetryListener.class);
+
+    private final InetSocketAddress bindAddress;
+    private final int receiveBufferBytes;
+    private final CourierTelemetryPipeline pipeline;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(TelemetryPacket.SIZE + 1)
+            .order(ByteOrder.BIG_ENDIAN);
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong malformed = new AtomicLong();
+
+    private volatile DatagramChannel channel;
+    private volatile Thread receiveThread;
+
+    public UdpTelemetryListener(InetSocketAddress bindAddress, int receiveBufferBytes,
+                                CourierTelemetryPipeline pipeline) {
+        this.bindAddress = bindAddress;
+        this.receiveBufferBytes = receiveBufferBytes;
+        this.pipeline = pipeline;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (isRunning()) {
+            return;
+        }
+        try {
+            channel = DatagramChannel.open();
+            channel.setOption(StandardSocketOptions.SO_RCVBUF, receiveBufferBytes);
+            channel.bind(bindAddress);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot bind UDP telemetry listener to " + bindAddress, e);
+        }
+        receiveThread = Thread.ofPlatform().name("udp-telemetry").daemon().start(this::receiveLoop);
+        log.info("UDP telemetry listener started on {}", getLocalAddress());
+    }
+
+    @Override
+    public synchronized void stop() {
+        DatagramChannel current = channel;
+        if (current == null) {
+            return;
+        }
+        try {
+            current.close();
+        } catch (IOException e) {
+            log.warn("Error closing UDP telemetry channel: {}", e.getMessage());
+        }
+        try {
+            receiveThread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel = null;
+        log.info("UDP telemetry listener stopped: received={}, applied={}, outOfOrder={}, unknownCourier={}, "
+                        + "invalid={}, malformed={}",
+                received.get(), pipeline.getApplied(), pipeline.getOutOfOrder(),
+                pipeline.getUnknownCourier(), pipeline.getInvalid(), malformed.get());
+    }
+
+    @Override
+    public boolean isRunning() {
+        DatagramChannel current = channel;
+        return current != null && current.isOpen();
+    }
+
+    private void receiveLoop() {
+        DatagramChannel current = channel;
+        while (current.isOpen()) {
+            try {
+                buffer.clear();
+                SocketAddress sender = current.receive(buffer);
+                if (sender == null) {
+                    continue;
+                }
+                received.incrementAndGet();
+                if (buffer.position() != TelemetryPacket.SIZE) {
+                    malformed.incrementAndGet();
+                    continue;
+                }
+                pipeline.accept(
+                        buffer.getLong(TelemetryPacket.COURIER_ID_MSB_OFFSET),
+                        buffer.getLong(TelemetryPacket.COURIER_ID_LSB_OFFSET),
+                        buffer.getDouble(TelemetryPacket.X_OFFSET),
+                        buffer.getDouble(TelemetryPacket.Y_OFFSET),
+                        buffer.getLong(TelemetryPacket.SEQUENCE_OFFSET));
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                log.warn("UDP telemetry receive failed: {}", e.getMessage());
+            } catch (RuntimeException e) {
+                log.error("UDP telemetry packet processing failed", e);
+            }
+        }
+    }
+
+    /**
+     * Actual bound address (useful when binding to port 0).
+     */
+    public InetSocketAddress getLocalAddress() {
+        try {
+            DatagramChannel current = channel;
+            return current == null ? null : (InetSocketAddress) current.getLocalAddress();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    public long getReceived() {
+        return received.get();
+    }
+
+    public long getMalformed() {
+        return malformed.get();
+    }
+
+    public CourierTelemetryPipeline getPipeline() {
+        return pipeline;
+    }
+
+    /**
+     * Receive thread, exposed so load tests can measure its CPU time.
+     */
+    public Thread getReceiveThread() {
+        return receiveThread;
+    }
+}
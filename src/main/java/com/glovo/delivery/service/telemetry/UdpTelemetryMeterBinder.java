@@ -0,0 +1,31 @@
+package com.glovo.delivery.service.telemetry;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * UDP telemetry datagrams received and dropped, read at scrape time. Registered with the
+ * listener by {@code TelemetryConfig}.
+ */
+public class UdpTelemetryMeterBinder implements MeterBinder {
+
+    private final UdpTelemetryListener listener;
+
+    public UdpTelemetryMeterBinder(UdpTelemetryListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("telemetry.udp.received", listener, UdpTelemetryListener::getReceived)
+                .description("UDP telemetry datagrams received")
+                .register(registry);
+        FunctionCounter.builder("telemetry.udp.malformed", listener, UdpTelemetryListener::getMalformed)
+                .description("UDP telemetry datagrams dropped for having the wrong size")
+                .register(registry);
+        FunctionCounter.builder("telemetry.udp.out_of_order", listener, l -> l.getPipeline().getOutOfOrder())
+                .description("UDP telemetry pings dropped as older than the last accepted one")
+                .register(registry);
+    }
+}
@@ -0,0 +1,117 @@
+package com.glovo.delivery.service.trace;
+
+import com.glovo.delivery.model.Courier;
+import com.glovo.delivery.model.Order;
+
+import java.util.UUID;
+
+/**
+ * Per-thread scratch record of one matching decision: the order, how many couriers
+ * were looked at, the best few candidates by score and the chosen courier.
+ *
+ * Reused for every decision on its thread, so filling it in allocates nothing.
+ */
+public final class DecisionTrace {
+
+    private final int topLimit;
+    private final long[] topIdMsb;
+    private final long[] topIdLsb;
+    private final double[] topScore;
+    private final double[] topDistance;
+
+    boolean active;
+    long orderIdMsb;
+    long orderIdLsb;
+    int candidateCount;
+    int eligibleCount;
+    int topCount;
+    boolean tiebreakApplied;
+    boolean assigned;
+    long chosenIdMsb;
+    long chosenIdLsb;
+
+    DecisionTrace(int topLimit) {
+        this.topLimit = topLimit;
+        this.topIdMsb = new long[topLimit];
+        this.topIdLsb = new long[topLimit];
+        this.topScore = new double[topLimit];
+        this.topDistance = new double[topLimit];
+    }
+
+    void reset(Order order, int candidateCount) {
+        UUID orderId = order.getId();
+        this.active = true;
+        this.orderIdMsb = orderId.getMostSignificantBits();
+        this.orderIdLsb = orderId.getLeastSignificantBits();
+        this.candidateCount = candidateCount;
+        this.eligibleCount = 0;
+        this.topCount = 0;
+        this.tiebreakApplied = false;
+        this.assigned = false;
+        this.chosenIdMsb = 0;
+        this.chosenIdLsb = 0;
+    }
+
+    /**
+     * Offer a scored candidate; only the {@code topLimit} lowest scores are kept.
+     */
+    public void candidate(Courier courier, double distance, double score) {
+        eligibleCount++;
+        int position = topCount;
+        while (position > 0 && topScore[position - 1] > score) {
+            position--;
+        }
+        if (position >= topLimit) {
+            return;
+        }
+        int last = Math.min(topCount, topLimit - 1);
+        for (int i = last; i > position; i--) {
+            topIdMsb[i] = topIdMsb[i - 1];
+            topIdLsb[i] = topIdLsb[i - 1];
+            topScore[i] = topScore[i - 1];
+            topDistance[i] = topDistance[i - 1];
+        }
+        UUID id = courier.getId();
+        topIdMsb[position] = id.getMostSignificantBits();
+        topIdLsb[position] = id.getLeastSignificantBits();
+        topScore[position] = score;
+        topDistance[position] = distance;
+        if (topCount < topLimit) {
+            topCount++;
+        }
+    }
+
+    /**
+     * The tiebreaker (fewer completed orders) decided between two close candidates.
+     */
+    public void tiebreakApplied() {
+        tiebreakApplied = true;
+    }
+
+    /**
+     * Record the strategy's choice; null when no courier was chosen.
+     */
+    public void chosen(Courier courier) {
+        if (courier != null) {
+            assigned = true;
+            chosenIdMsb = courier.getId().getMostSignificantBits();
+            chosenIdLsb = courier.getId().getLeastSignificantBits();
+        }
+    }
+
+    long topIdMsb(int index) {
+        return topIdMsb[index];
+    }
+
+    long topIdLsb(int index) {
+        return topIdLsb[index];
+    }
+
+    double topScore(int index) {
+        return topScore[index];
+    }
+
+    double topDistance(int index) {
+        return topDistance[index];
+    }
+}
@@ -0,0 +1,256 @@
+package com.glovo.delivery.service.trace;
+
+import com.glovo.delivery.dto.DecisionTraceCandidate;
+import com.glovo.delivery.dto.DecisionTraceResponse;
+import com.glovo.delivery.model.Order;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fixed-size, off-heap ring of structured matching decisions, replacing per-candidate
+ * INFO logging on the dispatch hot path.
+ *
+ * Every match fills a per-thread {@link DecisionTrace} (top candidates kept in primitive
+ * arrays, no allocation). When the match completes, the trace is written to the ring if
+ * it was picked by the sample rate or took longer than the slow threshold; otherwise it
+ * is dropped. Records are fixed-size slots in one direct buffer guarded by a per-slot
+ * stamp, so writers never block and the newest records overwrite the oldest.
+ * {@link #snapshot(int)} decodes the ring on demand for the admin endpoint.
+ */
+@Component
+public class DecisionTraceRecorder {
+
+    static final int FLAG_TIEBREAK = 1;
+    static final int FLAG_SLOW = 2;
+    static final int FLAG_SAMPLED = 4;
+    static final int FLAG_ASSIGNED = 8;
+
+    private static final int STAMP_OFFSET = 0;
+    private static final int TIMESTAMP_OFFSET = 8;
+    private static final int DURATION_OFFSET = 16;
+    private static final int ORDER_MSB_OFFSET = 24;
+    private static final int ORDER_LSB_OFFSET = 32;
+    private static final int CHOSEN_MSB_OFFSET = 40;
+    private static final int CHOSEN_LSB_OFFSET = 48;
+    private static final int CANDIDATE_COUNT_OFFSET = 56;
+    private static final int ELIGIBLE_COUNT_OFFSET = 60;
+    private static final int FLAGS_OFFSET = 64;
+    private static final int TOP_COUNT_OFFSET = 65;
+    private static final int HEADER_SIZE = 72;
+    private static final int CANDIDATE_SIZE = 32;
+
+    /** Access to the per-slot stamp with release/acquire ordering. */
+    private static final VarHandle STAMP = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final boolean enabled;
+    private final int capacity;
+    private final int mask;
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+    private final int topCandidates;
+    private final int recordSize;
+    private final ByteBuffer ring;
+    private final AtomicLong nextSequence = new AtomicLong(0);
+    private final ThreadLocal<DecisionTrace> scratch;
+
+    public DecisionTraceRecorder(@Value("${dispatch.trace.enabled:true}") boolean enabled,
+                                 @Value("${dispatch.trace.capacity:4096}") int requestedCapacity,
+                                 @Value("${dispatch.trace.sample-rate:0.01}") double sampleRate,
+                                 @Value("${dispatch.trace.slow-threshold-ms:5}") long slowThresholdMs,
+                                 @Value("${dispatch.trace.top-candidates:3}") int topCandidates) {
+        if (requestedCapacity < 1 || requestedCapacity > (1 << 20)) {
+            throw new IllegalArgumentException(
+                    "Decision trace capacity must be in range [1, 2^20]. Got: " + requestedCapacity);
+        }
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("Decision trace sample rate must be in range [0, 1]. Got: " + sampleRate);
+        }
+        if (topCandidates < 1 || topCandidates > 16) {
+            throw new IllegalArgumentException(
+                    "Decision trace top candidates must be in range [1, 16]. Got: " + topCandidates);
+        }
+        int roundedCapacity = 1;
+        while (roundedCapacity < requestedCapacity) {
+            roundedCapacity <<= 1;
+        }
+        this.enabled = enabled;
+        this.capacity = roundedCapacity;
+        this.mask = capacity - 1;
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMs);
+        this.topCandidates = topCandidates;
+        this.recordSize = HEADER_SIZE + topCandidates * CANDIDATE_SIZE;
+        this.ring = ByteBuffer.allocateDirect(enabled ? capacity * recordSize : 0).order(ByteOrder.nativeOrder());
+        this.scratch = ThreadLocal.withInitial(() -> new DecisionTrace(topCandidates));
+    }
+
+    /**
+     * Recorder that never traces, for code constructed outside Spring.
+     */
+    public static DecisionTraceRecorder disabled() {
+        return new DecisionTraceRecorder(false, 1, 0, 0, 1);
+    }
+
+    /**
+     * Start tracing a matching decision on the calling thread.
+     *
+     * @return the thread's trace, or null when tracing is disabled
+     */
+    public DecisionTrace begin(Order order, int candidateCount) {
+        if (!enabled) {
+            return null;
+        }
+        DecisionTrace trace = scratch.get();
+        trace.reset(order, candidateCount);
+        return trace;
+    }
+
+    /**
+     * The trace started by {@link #begin} on the calling thread, or null when no decision
+     * is being traced. Used by matching strategies to report candidates.
+     */
+    public DecisionTrace current() {
+        if (!enabled) {
+            return null;
+        }
+        DecisionTrace trace = scratch.get();
+        return trace.active ? trace : null;
+    }
+
+    /**
+     * Finish the trace and keep it in the ring if it was sampled or slow.
+     *
+     * @return true if the decision was written to the ring
+     */
+    public boolean complete(DecisionTrace trace, long durationNanos) {
+        if (trace == null) {
+            return false;
+        }
+        trace.active = false;
+        boolean slow = durationNanos >= slowThresholdNanos;
+        boolean sampled = sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+        if (!slow && !sampled) {
+            return false;
+        }
+        int flags = (trace.tiebreakApplied ? FLAG_TIEBREAK : 0)
+                | (slow ? FLAG_SLOW : 0)
+                | (sampled ? FLAG_SAMPLED : 0)
+                | (trace.assigned ? FLAG_ASSIGNED : 0);
+        write(trace, durationNanos, flags);
+        return true;
+    }
+
+    private void write(DecisionTrace trace, long durationNanos, int flags) {
+        long sequence = nextSequence.getAndIncrement();
+        int base = (int) (sequence & mask) * recordSize;
+
+        // Negative stamp marks the slot as being written; readers skip it
+        STAMP.setVolatile(ring, base + STAMP_OFFSET, -(sequence + 1));
+        // The field stores below must not become visible before the in-progress stamp
+        VarHandle.storeStoreFence();
+        ring.putLong(base + TIMESTAMP_OFFSET, System.currentTimeMillis());
+        ring.putLong(base + DURATION_OFFSET, durationNanos);
+        ring.putLong(base + ORDER_MSB_OFFSET, trace.orderIdMsb);
+        ring.putLong(base + ORDER_LSB_OFFSET, trace.orderIdLsb);
+        ring.putLong(base + CHOSEN_MSB_OFFSET, trace.chosenIdMsb);
+        ring.putLong(base + CHOSEN_LSB_OFFSET, trace.chosenIdLsb);
+        ring.putInt(base + CANDIDATE_COUNT_OFFSET, trace.candidateCount);
+        ring.putInt(base + ELIGIBLE_COUNT_OFFSET, trace.eligibleCount);
+        ring.put(base + FLAGS_OFFSET, (byte) flags);
+        ring.put(base + TOP_COUNT_OFFSET, (byte) trace.topCount);
+        for (int i = 0; i < trace.topCount; i++) {
+            int offset = base + HEADER_SIZE + i * CANDIDATE_SIZE;
+            ring.putLong(offset, trace.topIdMsb(i));
+            ring.putLong(offset + 8, trace.topIdLsb(i));
+            ring.putDouble(offset + 16, trace.topScore(i));
+            ring.putDouble(offset + 24, trace.topDistance(i));
+        }
+        STAMP.setRelease(ring, base + STAMP_OFFSET, sequence + 1);
+    }
+
+    /**
+     * Decode up to {@code limit} of the most recent records, newest first. Records that
+     * are being overwritten while they are read are skipped.
+     */
+    public List<DecisionTraceResponse> snapshot(int limit) {
+        List<DecisionTraceResponse> records = new ArrayList<>();
+        if (!enabled) {
+            return records;
+        }
+        long head = nextSequence.get();
+        long oldest = Math.max(0, head - capacity);
+        for (long sequence = head - 1; sequence >= oldest && records.size() < limit; sequence--) {
+            DecisionTraceResponse record = read(sequence);
+            if (record != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    private DecisionTraceResponse read(long sequence) {
+        int base = (int) (sequence & mask) * recordSize;
+        long stamp = (long) STAMP.getAcquire(ring, base + STAMP_OFFSET);
+        if (stamp != sequence + 1) {
+            return null;
+        }
+
+        DecisionTraceResponse record = new DecisionTraceResponse();
+        record.setSequence(sequence);
+        record.setTimestamp(Instant.ofEpochMilli(ring.getLong(base + TIMESTAMP_OFFSET)));
+        record.setDurationNanos(ring.getLong(base + DURATION_OFFSET));
+        record.setOrderId(new UUID(ring.getLong(base + ORDER_MSB_OFFSET), ring.getLong(base + ORDER_LSB_OFFSET)));
+        record.setCandidateCount(ring.getInt(base + CANDIDATE_COUNT_OFFSET));
+        record.setEligibleCount(ring.getInt(base + ELIGIBLE_COUNT_OFFSET));
+        int flags = ring.get(base + FLAGS_OFFSET);
+        record.setTiebreakApplied((flags & FLAG_TIEBREAK) != 0);
+        record.setSlow((flags & FLAG_SLOW) != 0);
+        record.setSampled((flags & FLAG_SAMPLED) != 0);
+        if ((flags & FLAG_ASSIGNED) != 0) {
+            record.setChosenCourierId(new UUID(ring.getLong(base + CHOSEN_MSB_OFFSET),
+                    ring.getLong(base + CHOSEN_LSB_OFFSET)));
+        }
+        int topCount = Math.min(ring.get(base + TOP_COUNT_OFFSET), topCandidates);
+        for (int i = 0; i < topCount; i++) {
+            int offset = base + HEADER_SIZE + i * CANDIDATE_SIZE;
+            record.getTopCandidates().add(new DecisionTraceCandidate(
+                    new UUID(ring.getLong(offset), ring.getLong(offset + 8)),
+                    ring.getDouble(offset + 16),
+                    ring.getDouble(offset + 24)));
+        }
+
+        // Seqlock validation: the slot must not have been reclaimed while we copied it
+        VarHandle.loadLoadFence();
+        if ((long) STAMP.getAcquire(ring, base + STAMP_OFFSET) != stamp) {
+            return null;
+        }
+        return record;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Total number of decisions ever written to the ring.
+     */
+    public long getRecordedCount() {
+        return nextSequence.get();
+    }
+}
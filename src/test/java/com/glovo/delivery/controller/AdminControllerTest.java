@@ -0,0 +1,212 @@
+package com.glovo.delivery.controller;
+
+import com.glovo.delivery.dto.DecisionTraceCandidate;
+import com.glovo.delivery.dto.DecisionTraceResponse;
+import com.glovo.delivery.dto.ScoreDeltaSummary;
+import com.glovo.delivery.dto.ShadowComparisonResponse;
+import com.glovo.delivery.dto.ShadowDecisionResponse;
+import com.glovo.delivery.service.eta.SpeedTable;
+import com.glovo.delivery.service.eta.SpeedTableHolder;
+import com.glovo.delivery.service.shadow.ShadowEvaluator;
+import com.glovo.delivery.service.strategy.FormulaMatchingStrategy;
+import com.glovo.delivery.service.strategy.formula.ScoringProfile;
+import com.glovo.delivery.service.trace.DecisionTraceRecorder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.UnaryOperator;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AdminController.class)
+class AdminControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private DecisionTraceRecorder traceRecorder;
+
+    @MockBean
+    private SpeedTableHolder speedTables;
+
+    @MockBean
+    private FormulaMatchingStrategy formulaStrategy;
+
+    @MockBean
+    private ShadowEvaluator shadowEvaluator;
+
+    @Test
+    @DisplayName("GET /api/admin/decision-traces should dump the ring with the requested limit")
+    void shouldReturnDecisionTraces() throws Exception {
+        UUID orderId = UUID.randomUUID();
+        UUID courierId = UUID.randomUUID();
+        DecisionTraceResponse trace = new DecisionTraceResponse();
+        trace.setSequence(7);
+        trace.setOrderId(orderId);
+        trace.setChosenCourierId(courierId);
+        trace.setCandidateCount(5);
+        trace.setEligibleCount(4);
+        trace.setSlow(true);
+        trace.getTopCandidates().add(new DecisionTraceCandidate(courierId, 12.5, 10.0));
+        when(traceRecorder.snapshot(20)).thenReturn(List.of(trace));
+
+        mockMvc.perform(get("/api/admin/decision-traces").param("limit", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].sequence").value(7))
+                .andExpect(jsonPath("$[0].orderId").value(orderId.toString()))
+                .andExpect(jsonPath("$[0].chosenCourierId").value(courierId.toString()))
+                .andExpect(jsonPath("$[0].eligibleCount").value(4))
+                .andExpect(jsonPath("$[0].slow").value(true))
+                .andExpect(jsonPath("$[0].topCandidates[0].score").value(12.5));
+    }
+
+    @Test
+    @DisplayName("GET /api/admin/decision-traces should reject a non-positive limit")
+    void shouldRejectInvalidLimit() throws Exception {
+        mockMvc.perform(get("/api/admin/decision-traces").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+
+        verify(traceRecorder, never()).snapshot(anyInt());
+    }
+
+    @Test
+    @DisplayName("GET /api/admin/speed-table should return speeds and congestion of the current table")
+    void shouldReturnSpeedTable() throws Exception {
+        when(speedTables.current()).thenReturn(SpeedTable.defaults().withCongestion(7, 1.5));
+
+        mockMvc.perform(get("/api/admin/speed-table"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(2))
+                .andExpect(jsonPath("$.speeds.CAR").value(4.0))
+                .andExpect(jsonPath("$.congestion.length()").value(100))
+                .andExpect(jsonPath("$.congestion[7]").value(1.5));
+    }
+
+    @Test
+    @DisplayName("PUT /api/admin/speed-table should apply the listed speeds and zones as one swap")
+    @SuppressWarnings("unchecked")
+    void shouldUpdateSpeedTable() throws Exception {
+        when(speedTables.update(any())).thenAnswer(invocation ->
+                ((UnaryOperator<SpeedTable>) invocation.getArgument(0)).apply(SpeedTable.defaults()));
+
+        mockMvc.perform(put("/api/admin/speed-table")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"speeds\": {\"BICYCLE\": 3.0}, \"congestion\": {\"12\": 2.0}}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.speeds.BICYCLE").value(3.0))
+                .andExpect(jsonPath("$.congestion[12]").value(2.0))
+                .andExpect(jsonPath("$.version").value(3));
+    }
+
+    @Test
+    @DisplayName("PUT /api/admin/speed-table should reject an invalid congestion factor")
+    @SuppressWarnings("unchecked")
+    void shouldRejectInvalidSpeedTableUpdate() throws Exception {
+        when(speedTables.update(any())).thenAnswer(invocation ->
+                ((UnaryOperator<SpeedTable>) invocation.getArgument(0)).apply(SpeedTable.defaults()));
+
+        mockMvc.perform(put("/api/admin/speed-table")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"congestion\": {\"12\": 0.5}}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("GET /api/admin/scoring should return the current formula profile")
+    void shouldReturnScoringProfile() throws Exception {
+        when(formulaStrategy.currentProfile()).thenReturn(ScoringProfile.defaults());
+
+        mockMvc.perform(get("/api/admin/scoring"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(1))
+                .andExpect(jsonPath("$.formula").value(ScoringProfile.DEFAULT_FORMULA))
+                .andExpect(jsonPath("$.tiebreakThreshold").value(1.0))
+                .andExpect(jsonPath("$.transportWeights.PEDESTRIAN").value(1.5));
+    }
+
+    @Test
+    @DisplayName("PUT /api/admin/scoring should compile and swap in the new formula")
+    @SuppressWarnings("unchecked")
+    void shouldUpdateScoringProfile() throws Exception {
+        when(formulaStrategy.updateProfile(any())).thenAnswer(invocation ->
+                ((UnaryOperator<ScoringProfile>) invocation.getArgument(0)).apply(ScoringProfile.defaults()));
+
+        mockMvc.perform(put("/api/admin/scoring")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"formula\": \"eta - priority\", \"transportWeights\": {\"CAR\": 0.5}}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(2))
+                .andExpect(jsonPath("$.formula").value("eta - priority"))
+                .andExpect(jsonPath("$.tiebreakThreshold").value(1.0))
+                .andExpect(jsonPath("$.transportWeights.CAR").value(0.5));
+    }
+
+    @Test
+    @DisplayName("PUT /api/admin/scoring should reject a formula that does not compile")
+    @SuppressWarnings("unchecked")
+    void shouldRejectInvalidFormula() throws Exception {
+        when(formulaStrategy.updateProfile(any())).thenAnswer(invocation ->
+                ((UnaryOperator<ScoringProfile>) invocation.getArgument(0)).apply(ScoringProfile.defaults()));
+
+        mockMvc.perform(put("/api/admin/scoring")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"formula\": \"distance *\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").exists());
+    }
+
+    @Test
+    @DisplayName("GET /api/admin/shadow should report agreement, score deltas and recent decisions")
+    void shouldReturnShadowComparison() throws Exception {
+        UUID orderId = UUID.randomUUID();
+        ShadowComparisonResponse comparison = new ShadowComparisonResponse();
+        comparison.setEnabled(true);
+        comparison.setLiveStrategy("score-based");
+        comparison.setShadowStrategy("eta");
+        comparison.setCompared(4);
+        comparison.setAgreed(3);
+        comparison.setAgreementRate(0.75);
+        ScoreDeltaSummary liveDelta = new ScoreDeltaSummary();
+        liveDelta.setCount(4);
+        liveDelta.setMean(0.6);
+        liveDelta.setMax(2.4);
+        comparison.setLiveScoreDelta(liveDelta);
+        ShadowDecisionResponse decision = new ShadowDecisionResponse();
+        decision.setOrderId(orderId);
+        decision.setLiveScoreDelta(2.4);
+        comparison.getRecentDecisions().add(decision);
+        when(shadowEvaluator.comparison(5)).thenReturn(comparison);
+
+        mockMvc.perform(get("/api/admin/shadow").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.shadowStrategy").value("eta"))
+                .andExpect(jsonPath("$.agreementRate").value(0.75))
+                .andExpect(jsonPath("$.liveScoreDelta.max").value(2.4))
+                .andExpect(jsonPath("$.recentDecisions[0].orderId").value(orderId.toString()))
+                .andExpect(jsonPath("$.recentDecisions[0].agreed").value(false));
+    }
+
+    @Test
+    @DisplayName("GET /api/admin/shadow should reject a negative limit")
+    void shouldRejectNegativeShadowLimit() throws Exception {
+        mockMvc.perform(get("/api/admin/shadow").param("limit", "-1"))
+                .andExpect(status().isBadRequest());
+
+        verify(shadowEvaluator, never()).comparison(anyInt());
+    }
+}
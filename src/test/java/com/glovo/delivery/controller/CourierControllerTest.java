@@ -1,22 +1,37 @@
 package com.glovo.delivery.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.glovo.delivery.dto.BulkLocationUpdateResponse;
+import com.glovo.delivery.dto.DispatchStatsResponse;
+import com.glovo.delivery.dto.RegisterCourierRequest;
 import com.glovo.delivery.dto.UpdateLocationRequest;
 import com.glovo.delivery.exception.CourierNotFoundException;
 import com.glovo.delivery.model.Courier;
 import com.glovo.delivery.model.Point;
+import com.glovo.delivery.model.enums.CourierStatus;
 import com.glovo.delivery.model.enums.CourierType;
+import com.glovo.delivery.serialization.CachedJson;
+import com.glovo.delivery.serialization.CachedJsonHttpMessageConverter;
+import com.glovo.delivery.serialization.CourierJsonWriter;
+import com.glovo.delivery.serialization.JsonStreamingWriter;
+import com.glovo.delivery.service.CourierLocationIngestService;
 import com.glovo.delivery.service.CourierService;
+import com.glovo.delivery.service.snapshot.FleetSnapshot;
+import com.glovo.delivery.service.snapshot.FleetSnapshotHolder;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.UUID;
 
@@ -27,6 +42,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(CourierController.class)
+@Import({JsonStreamingWriter.class, CachedJsonHttpMessageConverter.class})
 class CourierControllerTest {
 
     @Autowired
@@ -38,6 +54,50 @@ class CourierControllerTest {
     @MockBean
     private CourierService courierService;
 
+    @MockBean
+    private CourierLocationIngestService locationIngestService;
+
+    private static FleetSnapshot snapshotOf(List<Courier> couriers) {
+        DispatchStatsResponse stats = new DispatchStatsResponse();
+        stats.setOrdersByStatus(new HashMap<>());
+        stats.setCouriersByStatus(new HashMap<>());
+        return new FleetSnapshotHolder().publish(new ArrayList<>(couriers), stats);
+    }
+
+    @Nested
+    @DisplayName("POST /api/couriers")
+    class RegisterCourier {
+
+        @Test
+        void shouldRegisterCourier() throws Exception {
+            RegisterCourierRequest request = new RegisterCourierRequest(new Point(12, 34), CourierType.BICYCLE);
+            when(courierService.registerCourier(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+            mockMvc.perform(post("/api/couriers")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.type").value("BICYCLE"))
+                    .andExpect(jsonPath("$.status").value("FREE"))
+                    .andExpect(jsonPath("$.currentLocation.x").value(12))
+                    .andExpect(jsonPath("$.currentLocation.y").value(34));
+        }
+
+        @Test
+        void shouldReturn400WhenTypeMissing() throws Exception {
+            String json = """
+                    {
+                        "location": {"x": 10, "y": 10}
+                    }
+                    """;
+
+            mockMvc.perform(post("/api/couriers")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(json))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
     @Nested
     @DisplayName("GET /api/couriers/free")
     class GetFreeCouriers {
@@ -45,10 +105,17 @@ class CourierControllerTest {
         @Test
         void shouldReturnFreeCouriers() throws Exception {
             Courier courier = new Courier(new Point(10, 20), CourierType.BICYCLE);
-            when(courierService.getFreeCouriers()).thenReturn(List.of(courier));
+            Courier busy = new Courier(new Point(30, 40), CourierType.CAR);
+            busy.setStatus(CourierStatus.BUSY);
+            when(courierService.getFleetSnapshot()).thenReturn(snapshotOf(List.of(courier, busy)));
+
+            MvcResult result = mockMvc.perform(get("/api/couriers/free"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
 
-            mockMvc.perform(get("/api/couriers/free"))
+            mockMvc.perform(asyncDispatch(result))
                     .andExpect(status().isOk())
+                    .andExpect(header().string("X-Snapshot-Epoch", "1"))
                     .andExpect(jsonPath("$.length()").value(1))
                     .andExpect(jsonPath("$[0].type").value("BICYCLE"))
                     .andExpect(jsonPath("$[0].status").value("FREE"));
@@ -56,12 +123,95 @@ class CourierControllerTest {
 
         @Test
         void shouldReturnEmptyListWhenNoFreeCouriers() throws Exception {
-            when(courierService.getFreeCouriers()).thenReturn(Collections.emptyList());
+            when(courierService.getFleetSnapshot()).thenReturn(snapshotOf(Collections.emptyList()));
 
-            mockMvc.perform(get("/api/couriers/free"))
+            MvcResult result = mockMvc.perform(get("/api/couriers/free")).andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.length()").value(0));
         }
+
+        @Test
+        void shouldProjectRequestedFields() throws Exception {
+            Courier courier = new Courier(new Point(10, 20), CourierType.BICYCLE);
+            when(courierService.getFleetSnapshot()).thenReturn(snapshotOf(List.of(courier)));
+
+            MvcResult result = mockMvc.perform(get("/api/couriers/free").param("fields", "id,currentLocation"))
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].id").value(courier.getId().toString()))
+                    .andExpect(jsonPath("$[0].currentLocation.x").value(10))
+                    .andExpect(jsonPath("$[0].type").doesNotExist());
+        }
+
+        @Test
+        void shouldReturn400ForUnknownField() throws Exception {
+            when(courierService.getFleetSnapshot()).thenReturn(snapshotOf(Collections.emptyList()));
+
+            mockMvc.perform(get("/api/couriers/free").param("fields", "id,secret"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/couriers")
+    class ListCouriers {
+
+        @Test
+        void shouldPageCouriersWithCursor() throws Exception {
+            List<Courier> couriers = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                couriers.add(new Courier(new Point(10, 20), CourierType.CAR));
+            }
+            FleetSnapshot snapshot = snapshotOf(couriers);
+            when(courierService.getFleetSnapshot()).thenReturn(snapshot);
+            List<Courier> sorted = snapshot.getCouriers();
+
+            MvcResult first = mockMvc.perform(get("/api/couriers").param("limit", "2")).andReturn();
+            mockMvc.perform(asyncDispatch(first))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items.length()").value(2))
+                    .andExpect(jsonPath("$.items[0].id").value(sorted.get(0).getId().toString()))
+                    .andExpect(jsonPath("$.nextCursor").value(sorted.get(1).getId().toString()));
+
+            MvcResult second = mockMvc.perform(get("/api/couriers")
+                            .param("limit", "2")
+                            .param("after", sorted.get(1).getId().toString()))
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(second))
+                    .andExpect(jsonPath("$.items.length()").value(1))
+                    .andExpect(jsonPath("$.items[0].id").value(sorted.get(2).getId().toString()))
+                    .andExpect(jsonPath("$.nextCursor").isEmpty());
+        }
+
+        @Test
+        void shouldFilterByStatus() throws Exception {
+            Courier free = new Courier(new Point(10, 20), CourierType.CAR);
+            Courier busy = new Courier(new Point(30, 40), CourierType.CAR);
+            busy.setStatus(CourierStatus.BUSY);
+            when(courierService.getFleetSnapshot()).thenReturn(snapshotOf(List.of(free, busy)));
+
+            MvcResult result = mockMvc.perform(get("/api/couriers").param("status", "BUSY")).andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(jsonPath("$.items.length()").value(1))
+                    .andExpect(jsonPath("$.items[0].id").value(busy.getId().toString()));
+        }
+
+        @Test
+        void shouldReturn400ForInvalidLimit() throws Exception {
+            mockMvc.perform(get("/api/couriers").param("limit", "0"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        void shouldReturn400ForInvalidStatus() throws Exception {
+            mockMvc.perform(get("/api/couriers").param("status", "SLEEPING"))
+                    .andExpect(status().isBadRequest());
+        }
     }
 
     @Nested
@@ -80,6 +230,8 @@ class CourierControllerTest {
                             .contentType(MediaType.APPLICATION_JSON)
                             .content(objectMapper.writeValueAsString(request)))
                     .andExpect(status().isOk())
+                    .andExpect(header().longValue("Content-Length",
+                            CachedJson.bytes(courier, CourierJsonWriter.INSTANCE).length))
                     .andExpect(jsonPath("$.currentLocation.x").value(80))
                     .andExpect(jsonPath("$.currentLocation.y").value(90));
         }
@@ -123,4 +275,35 @@ class CourierControllerTest {
                     .andExpect(status().isBadRequest());
         }
     }
+
+    @Nested
+    @DisplayName("POST /api/couriers/locations")
+    class IngestLocations {
+
+        @Test
+        void shouldStreamNdjsonBodyToIngestService() throws Exception {
+            BulkLocationUpdateResponse response = new BulkLocationUpdateResponse();
+            response.setReceived(2);
+            response.setApplied(1);
+            response.addRejection(2, "malformed JSON");
+            when(locationIngestService.ingest(any())).thenReturn(response);
+
+            mockMvc.perform(post("/api/couriers/locations")
+                            .contentType(MediaType.APPLICATION_NDJSON)
+                            .content("{\"courierId\":\"" + UUID.randomUUID() + "\",\"x\":1,\"y\":2}\nbroken\n"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.received").value(2))
+                    .andExpect(jsonPath("$.applied").value(1))
+                    .andExpect(jsonPath("$.rejected").value(1))
+                    .andExpect(jsonPath("$.errors[0]").value("line 2: malformed JSON"));
+        }
+
+        @Test
+        void shouldRejectNonNdjsonContentType() throws Exception {
+            mockMvc.perform(post("/api/couriers/locations")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("[]"))
+                    .andExpect(status().isUnsupportedMediaType());
+        }
+    }
 }
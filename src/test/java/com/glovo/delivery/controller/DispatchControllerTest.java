@@ -2,15 +2,27 @@ package com.glovo.delivery.controller;
 
 import com.glovo.delivery.dto.DispatchStatsResponse;
 import com.glovo.delivery.service.DispatchService;
+import com.glovo.delivery.service.event.DispatchEventFilter;
+import com.glovo.delivery.service.event.DispatchEventStreamService;
+import com.glovo.delivery.service.snapshot.FleetSnapshotHolder;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -24,6 +36,9 @@ class DispatchControllerTest {
     @MockBean
     private DispatchService dispatchService;
 
+    @MockBean
+    private DispatchEventStreamService eventStreamService;
+
     @Test
     @DisplayName("GET /api/dispatch/stats should return statistics")
     void shouldReturnStats() throws Exception {
@@ -31,17 +46,46 @@ class DispatchControllerTest {
         stats.setTotalOrders(10);
         stats.setTotalCouriers(8);
         stats.setTotalAssignments(7);
-        stats.setOrdersByStatus(Map.of("CREATED", 1L, "ASSIGNED", 3L, "COMPLETED", 6L));
-        stats.setCouriersByStatus(Map.of("FREE", 5L, "BUSY", 3L));
+        stats.setOrdersByStatus(new HashMap<>(Map.of("CREATED", 1L, "ASSIGNED", 3L, "COMPLETED", 6L)));
+        stats.setCouriersByStatus(new HashMap<>(Map.of("FREE", 5L, "BUSY", 3L)));
 
-        when(dispatchService.getStats()).thenReturn(stats);
+        when(dispatchService.getPublishedSnapshot())
+                .thenReturn(new FleetSnapshotHolder().publish(new ArrayList<>(), stats));
 
         mockMvc.perform(get("/api/dispatch/stats"))
                 .andExpect(status().isOk())
+                .andExpect(jsonPath("$.snapshotEpoch").value(1))
                 .andExpect(jsonPath("$.totalOrders").value(10))
                 .andExpect(jsonPath("$.totalCouriers").value(8))
                 .andExpect(jsonPath("$.totalAssignments").value(7))
                 .andExpect(jsonPath("$.ordersByStatus.CREATED").value(1))
                 .andExpect(jsonPath("$.couriersByStatus.FREE").value(5));
     }
+
+    @Test
+    @DisplayName("GET /api/dispatch/events should open an SSE stream with the requested filter")
+    void shouldSubscribeWithFilter() throws Exception {
+        UUID courierId = UUID.randomUUID();
+        when(eventStreamService.subscribe(any())).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/dispatch/events")
+                        .param("courierId", courierId.toString())
+                        .param("zone", "12"))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+
+        verify(eventStreamService).subscribe(argThat((DispatchEventFilter filter) ->
+                filter.getOrderId() == null
+                        && courierId.equals(filter.getCourierId())
+                        && filter.getZone() == 12));
+    }
+
+    @Test
+    @DisplayName("GET /api/dispatch/events should reject an unknown zone")
+    void shouldRejectInvalidZone() throws Exception {
+        mockMvc.perform(get("/api/dispatch/events").param("zone", "100"))
+                .andExpect(status().isBadRequest());
+
+        verify(eventStreamService, never()).subscribe(any());
+    }
 }
@@ -1,11 +1,15 @@
 package com.glovo.delivery.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.glovo.delivery.dto.BatchCreateOrdersRequest;
+import com.glovo.delivery.dto.BatchCreateOrdersResponse;
+import com.glovo.delivery.dto.BatchOrderResult;
 import com.glovo.delivery.dto.CreateOrderRequest;
 import com.glovo.delivery.exception.OrderNotFoundException;
 import com.glovo.delivery.model.Order;
 import com.glovo.delivery.model.Point;
 import com.glovo.delivery.model.enums.OrderStatus;
+import com.glovo.delivery.serialization.JsonStreamingWriter;
 import com.glovo.delivery.service.OrderService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -13,17 +17,23 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.util.Comparator;
+import java.util.List;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(OrderController.class)
+@Import(JsonStreamingWriter.class)
 class OrderControllerTest {
 
     @Autowired
@@ -35,6 +45,83 @@ class OrderControllerTest {
     @MockBean
     private OrderService orderService;
 
+    @Nested
+    @DisplayName("GET /api/orders")
+    class ListOrders {
+
+        @Test
+        void shouldStreamFilteredPageWithProjection() throws Exception {
+            List<Order> orders = List.of(
+                    new Order(new Point(10, 20), new Point(80, 90), 5, 3.0),
+                    new Order(new Point(10, 20), new Point(80, 90), 5, 3.0),
+                    new Order(new Point(10, 20), new Point(80, 90), 5, 3.0));
+            orders = orders.stream().sorted(Comparator.comparing(Order::getId)).toList();
+            orders.get(0).setStatus(OrderStatus.QUEUED);
+            orders.get(2).setStatus(OrderStatus.QUEUED);
+            when(orderService.getOrdersAfter(isNull())).thenReturn(orders);
+
+            MvcResult result = mockMvc.perform(get("/api/orders")
+                            .param("status", "QUEUED")
+                            .param("limit", "1")
+                            .param("fields", "id,status"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$.items.length()").value(1))
+                    .andExpect(jsonPath("$.items[0].id").value(orders.get(0).getId().toString()))
+                    .andExpect(jsonPath("$.items[0].status").value("QUEUED"))
+                    .andExpect(jsonPath("$.items[0].priority").doesNotExist())
+                    .andExpect(jsonPath("$.nextCursor").value(orders.get(0).getId().toString()));
+        }
+
+        @Test
+        void shouldReturn400ForLimitAboveMaximum() throws Exception {
+            mockMvc.perform(get("/api/orders").param("limit", "100000"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Nested
+    @DisplayName("POST /api/orders/batch")
+    class CreateOrdersBatch {
+
+        @Test
+        void shouldReturnPerItemResults() throws Exception {
+            Order order = new Order(new Point(10, 20), new Point(80, 90), 5, 3.0);
+            order.setStatus(OrderStatus.QUEUED);
+            BatchCreateOrdersResponse response = new BatchCreateOrdersResponse(List.of(
+                    BatchOrderResult.created(0, order),
+                    BatchOrderResult.rejected(1, "Validation failed: priority: Priority must be at most 10")));
+            when(orderService.createOrders(any())).thenReturn(response);
+
+            BatchCreateOrdersRequest request = new BatchCreateOrdersRequest(List.of(
+                    new CreateOrderRequest(new Point(10, 20), new Point(80, 90), 5, 3.0),
+                    new CreateOrderRequest(new Point(10, 20), new Point(80, 90), 11, 3.0)));
+
+            mockMvc.perform(post("/api/orders/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.created").value(1))
+                    .andExpect(jsonPath("$.rejected").value(1))
+                    .andExpect(jsonPath("$.queued").value(1))
+                    .andExpect(jsonPath("$.results[0].orderId").value(order.getId().toString()))
+                    .andExpect(jsonPath("$.results[1].index").value(1))
+                    .andExpect(jsonPath("$.results[1].error").exists());
+        }
+
+        @Test
+        void shouldReturn400ForEmptyBatch() throws Exception {
+            mockMvc.perform(post("/api/orders/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"orders\": []}"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
     @Nested
     @DisplayName("POST /api/orders")
     class CreateOrder {
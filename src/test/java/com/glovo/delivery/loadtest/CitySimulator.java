@@ -0,0 +1,639 @@
+package com.glovo.delivery.loadtest;
+
+import ch.qos.logback.classic.Level;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.glovo.delivery.DeliveryDispatchApplication;
+import com.glovo.delivery.model.enums.CourierType;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * City simulator that drives the real REST API over localhost.
+ *
+ * Seeds a fleet through {@code POST /api/couriers}, then on a compressed simulated clock:
+ * <ul>
+ *   <li>creates orders following a demand curve (base rate, Gaussian rush-hour peaks) with
+ *       pickups concentrated around random hotspots;</li>
+ *   <li>learns every assignment (immediate or from the queue) from the dispatch SSE stream
+ *       and completes the order after the courier's simulated travel time
+ *       (courier to pickup to delivery, at the speed of its transport type);</li>
+ *   <li>moves idle couriers in a random walk through the bulk NDJSON location endpoint;</li>
+ *   <li>polls the read endpoints like a dashboard would.</li>
+ * </ul>
+ * At the end it prints p50/p99/p999 latency per endpoint, order throughput, and the
+ * queue wait distribution (ORDER_QUEUED to ORDER_ASSIGNED, server timestamps).
+ *
+ * The load is open-loop: requests are sent on schedule regardless of how many are in
+ * flight, and latency is measured from send to response. Without {@code --base-url} the
+ * application is started in-process on a random port.
+ *
+ * Run with:
+ * <pre>
+ * ./mvnw test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.glovo.delivery.loadtest.CitySimulator \
+ *     -Dexec.args="--couriers=500 --seconds=60 --time-scale=60 --orders-per-minute=20"
+ * </pre>
+ */
+public class CitySimulator {
+
+    private static final String SEED_COURIER = "POST /api/couriers";
+    private static final String LIST_COURIERS = "GET /api/couriers";
+    private static final String CREATE_ORDER = "POST /api/orders";
+    private static final String COMPLETE_ORDER = "PATCH /api/orders/{id}/complete";
+    private static final String MOVE_COURIERS = "POST /api/couriers/locations";
+    private static final String STATS = "GET /api/dispatch/stats";
+
+    /** Simulated distance units per simulated minute (1 unit is about 100 m). */
+    private static final Map<CourierType, Double> SPEED = new EnumMap<>(Map.of(
+            CourierType.PEDESTRIAN, 0.8,
+            CourierType.BICYCLE, 2.5,
+            CourierType.CAR, 4.0));
+    /** Simulated minutes spent at pickup and drop-off together. */
+    private static final double HANDLING_MINUTES = 3.0;
+    private static final double RUSH_WIDTH_HOURS = 1.0;
+    private static final double HOTSPOT_SPREAD = 6.0;
+    private static final long ORDER_TICK_MS = 10;
+
+    private final Settings settings;
+    private final String baseUrl;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService clock = Executors.newSingleThreadScheduledExecutor(r ->
+            Thread.ofPlatform().name("city-clock").daemon().unstarted(r));
+
+    private final Map<String, EndpointStats> endpoints = new LinkedHashMap<>();
+    private final Map<UUID, SimCourier> couriers = new ConcurrentHashMap<>();
+    private final Map<UUID, SimOrder> orders = new ConcurrentHashMap<>();
+    private final Map<UUID, Long> queuedAt = new ConcurrentHashMap<>();
+    private final Histogram queueWaitMs = new ConcurrentHistogram(3);
+    private final double[][] hotspots;
+    private volatile Stream<String> events;
+
+    private final LongAdder created = new LongAdder();
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder assigned = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder unknownCourier = new LongAdder();
+    private final LongAdder lostEvents = new LongAdder();
+    private final AtomicLong startNanos = new AtomicLong();
+
+    record Settings(int couriers, int seconds, double timeScale, double startHour, double ordersPerMinute,
+                    double[] rushHours, double rushMultiplier, int hotspots, double hotspotShare,
+                    long moveIntervalMs, int readsPerSecond, long seed) {
+    }
+
+    CitySimulator(Settings settings, String baseUrl) {
+        this.settings = settings;
+        this.baseUrl = baseUrl;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        for (String endpoint : List.of(SEED_COURIER, LIST_COURIERS, CREATE_ORDER, COMPLETE_ORDER,
+                MOVE_COURIERS, STATS)) {
+            endpoints.put(endpoint, new EndpointStats());
+        }
+        SplittableRandom random = new SplittableRandom(settings.seed());
+        hotspots = new double[settings.hotspots()][];
+        for (int i = 0; i < hotspots.length; i++) {
+            hotspots[i] = new double[]{random.nextDouble(10, 90), random.nextDouble(10, 90)};
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger("com.glovo.delivery")).setLevel(Level.WARN);
+        Settings settings = new Settings(
+                intArg(args, "couriers", 500),
+                intArg(args, "seconds", 60),
+                doubleArg(args, "time-scale", 60),
+                doubleArg(args, "start-hour", 11),
+                doubleArg(args, "orders-per-minute", 20),
+                Stream.of(stringArg(args, "rush-hours", "12.5,19.5").split(","))
+                        .mapToDouble(Double::parseDouble).toArray(),
+                doubleArg(args, "rush-multiplier", 3),
+                intArg(args, "hotspots", 3),
+                doubleArg(args, "hotspot-share", 0.6),
+                intArg(args, "move-interval-ms", 500),
+                intArg(args, "reads-per-second", 10),
+                intArg(args, "seed", 42));
+
+        String baseUrl = stringArg(args, "base-url", null);
+        ConfigurableApplicationContext context = null;
+        if (baseUrl == null) {
+            context = SpringApplication.run(DeliveryDispatchApplication.class,
+                    "--server.port=0", "--server.shutdown=immediate", "--logging.level.com.glovo.delivery=WARN");
+            baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        }
+        try {
+            new CitySimulator(settings, baseUrl).run();
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    void run() throws Exception {
+        seedFleet();
+        loadFleet();
+        subscribeToEvents();
+
+        startNanos.set(System.nanoTime());
+        clock.scheduleAtFixedRate(guard(this::createOrders), 0, ORDER_TICK_MS, TimeUnit.MILLISECONDS);
+        clock.scheduleAtFixedRate(guard(this::moveIdleCouriers), settings.moveIntervalMs(),
+                settings.moveIntervalMs(), TimeUnit.MILLISECONDS);
+        if (settings.readsPerSecond() > 0) {
+            long readIntervalMicros = 1_000_000L / settings.readsPerSecond();
+            clock.scheduleAtFixedRate(guard(this::readDashboards), readIntervalMicros, readIntervalMicros,
+                    TimeUnit.MICROSECONDS);
+        }
+
+        Thread.sleep(TimeUnit.SECONDS.toMillis(settings.seconds()));
+        long elapsedNanos = System.nanoTime() - startNanos.get();
+        clock.shutdownNow();
+        requests.shutdown();
+        requests.awaitTermination(10, TimeUnit.SECONDS);
+
+        int queueSize = finalQueueSize();
+        events.close();
+        report(elapsedNanos, queueSize);
+    }
+
+    // --- setup ---
+
+    /**
+     * Register the fleet one courier at a time; these are setup requests, not load.
+     */
+    private void seedFleet() {
+        CourierType[] types = CourierType.values();
+        SplittableRandom random = new SplittableRandom(settings.seed() + 1);
+        for (int i = 0; i < settings.couriers(); i++) {
+            ObjectNode body = objectMapper.createObjectNode();
+            body.set("location", point(random.nextDouble(0, 100), random.nextDouble(0, 100)));
+            body.put("type", types[i % types.length].name());
+            post(SEED_COURIER, "/api/couriers", "application/json", body.toString());
+        }
+    }
+
+    /**
+     * Read the whole fleet back, including couriers the server had before the run.
+     */
+    private void loadFleet() throws IOException, InterruptedException {
+        String after = null;
+        do {
+            HttpResponse<String> response = get(LIST_COURIERS,
+                    "/api/couriers?limit=" + 10_000 + (after == null ? "" : "&after=" + after));
+            if (response == null || response.statusCode() != 200) {
+                throw new IllegalStateException("Cannot list couriers from " + baseUrl);
+            }
+            JsonNode page = objectMapper.readTree(response.body());
+            for (JsonNode item : page.get("items")) {
+                SimCourier courier = new SimCourier(UUID.fromString(item.get("id").asText()),
+                        CourierType.valueOf(item.get("type").asText()),
+                        item.get("currentLocation").get("x").asDouble(),
+                        item.get("currentLocation").get("y").asDouble());
+                courier.busy = !"FREE".equals(item.get("status").asText());
+                couriers.put(courier.id, courier);
+            }
+            after = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+        } while (after != null);
+    }
+
+    private void subscribeToEvents() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/dispatch/events"))
+                .header("Accept", "text/event-stream")
+                .build();
+        // Returns once the response headers arrived, i.e. the subscription exists on the server
+        HttpResponse<Stream<String>> response = client.send(request, HttpResponse.BodyHandlers.ofLines());
+        events = response.body();
+        Thread.ofVirtual().name("city-events").start(() -> {
+            String event = null;
+            try {
+                for (String line : (Iterable<String>) events::iterator) {
+                    if (line.startsWith("event:")) {
+                        event = line.substring(6).trim();
+                    } else if (line.startsWith("data:") && event != null) {
+                        onEvent(event, line.substring(5).trim());
+                    } else if (line.isEmpty()) {
+                        event = null;
+                    }
+                }
+            } catch (UncheckedIOException e) {
+                // Stream closed at the end of the run
+            }
+        });
+    }
+
+    // --- simulation ---
+
+    private void onEvent(String type, String data) {
+        if (type.equals("EVENTS_LOST")) {
+            lostEvents.increment();
+            return;
+        }
+        try {
+            JsonNode event = objectMapper.readTree(data);
+            UUID orderId = UUID.fromString(event.get("orderId").asText());
+            long timestamp = event.get("timestamp").asLong();
+            if (type.equals("ORDER_QUEUED")) {
+                queued.increment();
+                queuedAt.put(orderId, timestamp);
+            } else if (type.equals("ORDER_ASSIGNED")) {
+                assigned.increment();
+                Long since = queuedAt.remove(orderId);
+                if (since != null) {
+                    queueWaitMs.recordValue(Math.max(0, timestamp - since));
+                }
+                UUID courierId = UUID.fromString(event.get("courierId").asText());
+                orders.computeIfAbsent(orderId, SimOrder::new).assign(courierId);
+            }
+        } catch (IOException | RuntimeException e) {
+            // Malformed or unexpected event: nothing to simulate
+        }
+    }
+
+    private void createOrders() {
+        double elapsedSimMinutes = simMinutes(System.nanoTime() - startNanos.get());
+        double hour = (settings.startHour() + elapsedSimMinutes / 60) % 24;
+        double perTick = settings.ordersPerMinute() * demandMultiplier(hour)
+                * simMinutes(TimeUnit.MILLISECONDS.toNanos(ORDER_TICK_MS));
+        int count = poisson(perTick, ThreadLocalRandom.current());
+        for (int i = 0; i < count; i++) {
+            requests.execute(guard(this::createOrder));
+        }
+    }
+
+    private void createOrder() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double[] pickup = random.nextDouble() < settings.hotspotShare() && hotspots.length > 0
+                ? around(hotspots[random.nextInt(hotspots.length)], HOTSPOT_SPREAD, random)
+                : new double[]{random.nextDouble(0, 100), random.nextDouble(0, 100)};
+        double[] delivery = around(pickup, 20, random);
+        double roll = random.nextDouble();
+        double weight = roll < 0.7 ? random.nextDouble(0.2, 3) : roll < 0.95 ? random.nextDouble(3, 12)
+                : random.nextDouble(12, 40);
+
+        ObjectNode body = objectMapper.createObjectNode();
+        body.set("pickupLocation", point(pickup[0], pickup[1]));
+        body.set("deliveryLocation", point(delivery[0], delivery[1]));
+        body.put("priority", random.nextInt(1, 11));
+        body.put("weightKg", Math.round(weight * 100) / 100.0);
+
+        HttpResponse<String> response = post(CREATE_ORDER, "/api/orders", "application/json", body.toString());
+        if (response == null || response.statusCode() != 201) {
+            return;
+        }
+        created.increment();
+        try {
+            JsonNode order = objectMapper.readTree(response.body());
+            SimOrder simOrder = orders.computeIfAbsent(UUID.fromString(order.get("id").asText()), SimOrder::new);
+            if (order.hasNonNull("assignedCourierId")) {
+                // Also covers immediate assignments whose SSE event was lost
+                simOrder.assign(UUID.fromString(order.get("assignedCourierId").asText()));
+            }
+            simOrder.route(pickup, delivery);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Called once the order is both routed (creation response) and assigned (SSE event),
+     * in whichever order those arrive.
+     */
+    private void startTrip(SimOrder order) {
+        SimCourier courier = couriers.get(order.courierId);
+        if (courier == null) {
+            unknownCourier.increment();
+            return;
+        }
+        courier.busy = true;
+        double distance = Math.hypot(order.pickup[0] - courier.x, order.pickup[1] - courier.y)
+                + Math.hypot(order.delivery[0] - order.pickup[0], order.delivery[1] - order.pickup[1]);
+        double tripMinutes = distance / SPEED.get(courier.type) + HANDLING_MINUTES;
+        long delayMicros = (long) (tripMinutes * 60 / settings.timeScale() * 1_000_000);
+        if (!clock.isShutdown()) {
+            clock.schedule(() -> requests.execute(guard(() -> completeTrip(order, courier))),
+                    delayMicros, TimeUnit.MICROSECONDS);
+        }
+    }
+
+    private void completeTrip(SimOrder order, SimCourier courier) {
+        HttpResponse<String> response = send(COMPLETE_ORDER, HttpRequest.newBuilder(
+                URI.create(baseUrl + "/api/orders/" + order.id + "/complete"))
+                .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                .build());
+        if (response != null && response.statusCode() == 200) {
+            completed.increment();
+        }
+        courier.x = order.delivery[0];
+        courier.y = order.delivery[1];
+        courier.busy = false;
+        orders.remove(order.id);
+    }
+
+    private void moveIdleCouriers() {
+        double step = simMinutes(TimeUnit.MILLISECONDS.toNanos(settings.moveIntervalMs()));
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringBuilder body = new StringBuilder(couriers.size() * 80);
+        for (SimCourier courier : couriers.values()) {
+            if (courier.busy) {
+                continue;
+            }
+            double angle = random.nextDouble(0, 2 * Math.PI);
+            double distance = SPEED.get(courier.type) * step;
+            courier.x = reflect(courier.x + Math.cos(angle) * distance);
+            courier.y = reflect(courier.y + Math.sin(angle) * distance);
+            body.append("{\"courierId\":\"").append(courier.id)
+                    .append("\",\"x\":").append(courier.x)
+                    .append(",\"y\":").append(courier.y).append("}\n");
+        }
+        if (!body.isEmpty()) {
+            String ndjson = body.toString();
+            requests.execute(guard(() -> post(MOVE_COURIERS, "/api/couriers/locations",
+                    "application/x-ndjson", ndjson)));
+        }
+    }
+
+    private void readDashboards() {
+        requests.execute(guard(() -> get(LIST_COURIERS, "/api/couriers?status=FREE&limit=100")));
+        requests.execute(guard(() -> get(STATS, "/api/dispatch/stats")));
+    }
+
+    private double demandMultiplier(double hour) {
+        double peak = 0;
+        for (double rushHour : settings.rushHours()) {
+            double distance = Math.abs(hour - rushHour);
+            distance = Math.min(distance, 24 - distance);
+            peak = Math.max(peak, Math.exp(-distance * distance / (2 * RUSH_WIDTH_HOURS * RUSH_WIDTH_HOURS)));
+        }
+        return 1 + (settings.rushMultiplier() - 1) * peak;
+    }
+
+    private double simMinutes(long realNanos) {
+        return realNanos / 1e9 * settings.timeScale() / 60;
+    }
+
+    // --- HTTP ---
+
+    private HttpResponse<String> get(String endpoint, String path) {
+        return send(endpoint, HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build());
+    }
+
+    private HttpResponse<String> post(String endpoint, String path, String contentType, String body) {
+        return send(endpoint, HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", contentType)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build());
+    }
+
+    private HttpResponse<String> send(String endpoint, HttpRequest request) {
+        EndpointStats stats = endpoints.get(endpoint);
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            stats.latencyMicros.recordValue((System.nanoTime() - start) / 1000);
+            if (response.statusCode() >= 400) {
+                stats.errors.increment();
+            }
+            return response;
+        } catch (IOException e) {
+            stats.errors.increment();
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private int finalQueueSize() {
+        try {
+            HttpResponse<String> response = client.send(
+                    HttpRequest.newBuilder(URI.create(baseUrl + "/api/dispatch/stats")).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            return objectMapper.readTree(response.body()).get("queuedOrders").asInt();
+        } catch (IOException | InterruptedException e) {
+            return -1;
+        }
+    }
+
+    // --- report ---
+
+    private void report(long elapsedNanos, int queueSize) {
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("%ncity: %d couriers, %.0fs real = %.0f simulated minutes from %04.1fh, "
+                        + "base %.0f orders/min, rush x%.1f at %s, %d hotspots%n",
+                couriers.size(), seconds, simMinutes(elapsedNanos), settings.startHour(),
+                settings.ordersPerMinute(), settings.rushMultiplier(), formatHours(settings.rushHours()),
+                settings.hotspots());
+
+        System.out.printf("%n%-34s %9s %7s %9s %9s %9s %9s%n",
+                "endpoint", "count", "errors", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        endpoints.forEach((endpoint, stats) -> {
+            Histogram histogram = stats.latencyMicros;
+            System.out.printf("%-34s %9d %7d %9.2f %9.2f %9.2f %9.2f%n",
+                    endpoint, histogram.getTotalCount(), stats.errors.sum(),
+                    histogram.getValueAtPercentile(50) / 1e3, histogram.getValueAtPercentile(99) / 1e3,
+                    histogram.getValueAtPercentile(99.9) / 1e3, histogram.getMaxValue() / 1e3);
+        });
+
+        System.out.printf("%norders: created %d (%.1f/s), assigned %d, completed %d (%.1f/s), "
+                        + "went through queue %d, still queued %d%n",
+                created.sum(), created.sum() / seconds, assigned.sum(), completed.sum(), completed.sum() / seconds,
+                queued.sum(), queueSize);
+        if (lostEvents.sum() > 0) {
+            System.out.printf("event stream fell behind %d times; queued orders assigned meanwhile were not "
+                    + "completed%n", lostEvents.sum());
+        }
+        if (unknownCourier.sum() > 0) {
+            System.out.printf("assignments to couriers unknown to the simulator: %d%n", unknownCourier.sum());
+        }
+
+        Histogram wait = queueWaitMs;
+        if (wait.getTotalCount() == 0) {
+            System.out.println("queue wait: no order waited in the queue");
+            return;
+        }
+        System.out.printf("queue wait (%d orders, real ms / simulated min):%n", wait.getTotalCount());
+        for (double percentile : new double[]{50, 90, 99, 99.9, 100}) {
+            long millis = wait.getValueAtPercentile(percentile);
+            System.out.printf("  p%-5s %9d ms %8.1f min%n",
+                    percentile == 100 ? "max" : trim(percentile), millis,
+                    simMinutes(TimeUnit.MILLISECONDS.toNanos(millis)));
+        }
+    }
+
+    // --- helpers ---
+
+    private ObjectNode point(double x, double y) {
+        return objectMapper.createObjectNode().put("x", x).put("y", y);
+    }
+
+    private static double[] around(double[] center, double spread, ThreadLocalRandom random) {
+        return new double[]{
+                clamp(center[0] + random.nextGaussian() * spread),
+                clamp(center[1] + random.nextGaussian() * spread)};
+    }
+
+    private static double clamp(double value) {
+        return Math.max(0, Math.min(100, value));
+    }
+
+    private static double reflect(double value) {
+        return value < 0 ? -value : value > 100 ? 200 - value : value;
+    }
+
+    /**
+     * Poisson sample: Knuth for small means, normal approximation for large ones.
+     */
+    private static int poisson(double mean, ThreadLocalRandom random) {
+        if (mean > 30) {
+            return Math.max(0, (int) Math.round(mean + Math.sqrt(mean) * random.nextGaussian()));
+        }
+        double limit = Math.exp(-mean);
+        double product = random.nextDouble();
+        int count = 0;
+        while (product > limit) {
+            product *= random.nextDouble();
+            count++;
+        }
+        return count;
+    }
+
+    private static Runnable guard(Runnable task) {
+        return () -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                System.err.println("simulation task failed: " + e);
+            }
+        };
+    }
+
+    private static String formatHours(double[] hours) {
+        List<String> formatted = new ArrayList<>();
+        for (double hour : hours) {
+            formatted.add(trim(hour) + "h");
+        }
+        return String.join(", ", formatted);
+    }
+
+    private static String trim(double value) {
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.valueOf(value);
+    }
+
+    private static int intArg(String[] args, String name, int defaultValue) {
+        return Integer.parseInt(stringArg(args, name, String.valueOf(defaultValue)));
+    }
+
+    private static double doubleArg(String[] args, String name, double defaultValue) {
+        return Double.parseDouble(stringArg(args, name, String.valueOf(defaultValue)));
+    }
+
+    private static String stringArg(String[] args, String name, String defaultValue) {
+        String prefix = "--" + name + "=";
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return arg.substring(prefix.length());
+            }
+        }
+        return defaultValue;
+    }
+
+    private static final class EndpointStats {
+
+        private final Histogram latencyMicros = new ConcurrentHistogram(3);
+        private final LongAdder errors = new LongAdder();
+    }
+
+    private static final class SimCourier {
+
+        private final UUID id;
+        private final CourierType type;
+        private volatile double x;
+        private volatile double y;
+        private volatile boolean busy;
+
+        SimCourier(UUID id, CourierType type, double x, double y) {
+            this.id = id;
+            this.type = type;
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    /**
+     * An order as the simulator sees it. The route comes from the creation response and the
+     * courier from the SSE stream; the trip starts once both are known.
+     */
+    private final class SimOrder {
+
+        private final UUID id;
+        private double[] pickup;
+        private double[] delivery;
+        private UUID courierId;
+        private boolean started;
+
+        SimOrder(UUID id) {
+            this.id = id;
+        }
+
+        void route(double[] pickup, double[] delivery) {
+            synchronized (this) {
+                this.pickup = pickup;
+                this.delivery = delivery;
+                if (!readyToStart()) {
+                    return;
+                }
+            }
+            startTrip(this);
+        }
+
+        void assign(UUID courierId) {
+            synchronized (this) {
+                this.courierId = courierId;
+                if (!readyToStart()) {
+                    return;
+                }
+            }
+            startTrip(this);
+        }
+
+        private boolean readyToStart() {
+            if (started || pickup == null || courierId == null) {
+                return false;
+            }
+            started = true;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.glovo.delivery.loadtest;
+
+import ch.qos.logback.classic.Level;
+import com.glovo.delivery.model.Courier;
+import com.glovo.delivery.model.Order;
+import com.glovo.delivery.model.Point;
+import com.glovo.delivery.model.enums.OrderStatus;
+import org.HdrHistogram.Histogram;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Drives {@code dispatch}, {@code complete} and {@code updateLocation} against a
+ * {@link DispatchEngine} from N platform or virtual threads for a fixed time, reports
+ * throughput and latency percentiles per operation, and then runs
+ * {@link DispatchInvariantChecker} on the quiescent engine.
+ *
+ * Each worker only completes orders it dispatched itself, so an order is never completed
+ * twice; orders assigned later from the queue are completed by their original worker.
+ * Unexpected exceptions from the engine are counted as errors.
+ *
+ * Run with:
+ * <pre>
+ * ./mvnw test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.glovo.delivery.loadtest.DispatchContentionHarness \
+ *     -Dexec.args="--threads=16 --seconds=10 --couriers=1000 --mode=both --storage=map --supply-cache=false"
+ * </pre>
+ */
+public class DispatchContentionHarness {
+
+    private static final String[] OPERATIONS = {"dispatch", "complete", "updateLocation"};
+    private static final int DISPATCH = 0;
+    private static final int COMPLETE = 1;
+    private static final int UPDATE_LOCATION = 2;
+
+    /** A complete looks at most this many of the newest open orders for an ASSIGNED one. */
+    private static final int COMPLETE_SCAN_LIMIT = 256;
+
+    /**
+     * @param dispatchPercent share of operations that dispatch a new order
+     * @param completePercent share that completes an owned ASSIGNED order; the rest move couriers
+     */
+    public record Settings(int threads, boolean virtualThreads, Duration duration,
+                           int dispatchPercent, int completePercent) {
+
+        public Settings {
+            if (threads < 1 || duration.isNegative() || dispatchPercent < 0 || completePercent < 0
+                    || dispatchPercent + completePercent > 100) {
+                throw new IllegalArgumentException("Invalid contention settings");
+            }
+        }
+    }
+
+    public record Result(Settings settings, long wallNanos, Histogram[] latencies, long errors,
+                         int submittedOrders, List<String> violations) {
+
+        public long operations() {
+            long total = 0;
+            for (Histogram histogram : latencies) {
+                total += histogram.getTotalCount();
+            }
+            return total;
+        }
+
+        public boolean isConsistent() {
+            return errors == 0 && violations.isEmpty();
+        }
+    }
+
+    public static void main(String[] args) {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger("com.glovo.delivery")).setLevel(Level.WARN);
+        int threads = intArg(args, "threads", 8);
+        int seconds = intArg(args, "seconds", 10);
+        int couriers = intArg(args, "couriers", 1000);
+        int dispatchPercent = intArg(args, "dispatch-percent", 30);
+        int completePercent = intArg(args, "complete-percent", 35);
+        String mode = stringArg(args, "mode", "both");
+        boolean compactStorage = stringArg(args, "storage", "map").equals("compact");
+        boolean supplyCache = Boolean.parseBoolean(stringArg(args, "supply-cache", "false"));
+
+        boolean consistent = true;
+        for (boolean virtual : new boolean[]{false, true}) {
+            if (mode.equals(virtual ? "platform" : "virtual")) {
+                continue;
+            }
+            Settings settings = new Settings(threads, virtual, Duration.ofSeconds(seconds),
+                    dispatchPercent, completePercent);
+            Result result = run(() -> new DispatchServiceEngine(couriers, 42, compactStorage, supplyCache), settings);
+            print(result, couriers);
+            consistent &= result.isConsistent();
+        }
+        if (!consistent) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Run the load against a fresh engine, close it and check its invariants.
+     */
+    public static Result run(Supplier<? extends DispatchEngine> engineFactory, Settings settings) {
+        DispatchEngine engine = engineFactory.get();
+        List<Worker> workers = new ArrayList<>(settings.threads());
+        long wallNanos;
+        try {
+            List<UUID> courierIds = engine.couriers().stream().map(Courier::getId).toList();
+            CountDownLatch startGate = new CountDownLatch(1);
+            List<Thread> threads = new ArrayList<>(settings.threads());
+            for (int i = 0; i < settings.threads(); i++) {
+                Worker worker = new Worker(engine, courierIds, settings, startGate);
+                workers.add(worker);
+                Thread.Builder builder = settings.virtualThreads()
+                        ? Thread.ofVirtual().name("contention-", i)
+                        : Thread.ofPlatform().name("contention-", i);
+                threads.add(builder.start(worker));
+            }
+
+            long start = System.nanoTime();
+            startGate.countDown();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            wallNanos = System.nanoTime() - start;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for contention workers", e);
+        } finally {
+            // Stops background work, so the invariants below are checked on a quiescent engine
+            engine.close();
+        }
+
+        Histogram[] latencies = new Histogram[OPERATIONS.length];
+        List<Order> submitted = new ArrayList<>();
+        long errors = 0;
+        for (int op = 0; op < OPERATIONS.length; op++) {
+            latencies[op] = new Histogram(3);
+        }
+        for (Worker worker : workers) {
+            for (int op = 0; op < OPERATIONS.length; op++) {
+                latencies[op].add(worker.latencies[op]);
+            }
+            submitted.addAll(worker.submitted);
+            errors += worker.errors;
+        }
+        List<String> violations = DispatchInvariantChecker.check(engine, submitted);
+        return new Result(settings, wallNanos, latencies, errors, submitted.size(), violations);
+    }
+
+    private static void print(Result result, int couriers) {
+        Settings settings = result.settings();
+        double seconds = result.wallNanos() / 1e9;
+        System.out.printf("%n%s threads=%d couriers=%d duration=%.1fs mix=%d/%d/%d%n",
+                settings.virtualThreads() ? "virtual" : "platform", settings.threads(), couriers, seconds,
+                settings.dispatchPercent(), settings.completePercent(),
+                100 - settings.dispatchPercent() - settings.completePercent());
+        System.out.printf("%-16s %10s %12s %10s %10s %10s %10s%n",
+                "operation", "count", "ops/s", "p50 us", "p99 us", "p999 us", "max us");
+        for (int op = 0; op < OPERATIONS.length; op++) {
+            Histogram histogram = result.latencies()[op];
+            System.out.printf("%-16s %10d %12.0f %10.1f %10.1f %10.1f %10.1f%n",
+                    OPERATIONS[op], histogram.getTotalCount(), histogram.getTotalCount() / seconds,
+                    histogram.getValueAtPercentile(50) / 1e3, histogram.getValueAtPercentile(99) / 1e3,
+                    histogram.getValueAtPercentile(99.9) / 1e3, histogram.getMaxValue() / 1e3);
+        }
+        System.out.printf("total %.0f ops/s, %d orders submitted, %d errors%n",
+                result.operations() / seconds, result.submittedOrders(), result.errors());
+        if (result.violations().isEmpty()) {
+            System.out.println("invariants: OK");
+        } else {
+            System.out.println("invariants: " + result.violations().size() + " VIOLATIONS");
+            result.violations().forEach(violation -> System.out.println("  " + violation));
+        }
+    }
+
+    private static final class Worker implements Runnable {
+
+        private final DispatchEngine engine;
+        private final List<UUID> courierIds;
+        private final Settings settings;
+        private final CountDownLatch startGate;
+        private final Histogram[] latencies = new Histogram[OPERATIONS.length];
+        private final List<Order> submitted = new ArrayList<>();
+        /** Orders this worker dispatched and has not completed yet. */
+        private final List<Order> open = new ArrayList<>();
+        private long errors;
+
+        Worker(DispatchEngine engine, List<UUID> courierIds, Settings settings, CountDownLatch startGate) {
+            this.engine = engine;
+            this.courierIds = courierIds;
+            this.settings = settings;
+            this.startGate = startGate;
+            for (int op = 0; op < OPERATIONS.length; op++) {
+                latencies[op] = new Histogram(3);
+            }
+        }
+
+        @Override
+        public void run() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            try {
+                startGate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long deadline = System.nanoTime() + settings.duration().toNanos();
+            while (System.nanoTime() < deadline) {
+                int roll = random.nextInt(100);
+                int op = roll < settings.dispatchPercent() ? DISPATCH
+                        : roll < settings.dispatchPercent() + settings.completePercent() ? COMPLETE
+                        : UPDATE_LOCATION;
+                try {
+                    long start = System.nanoTime();
+                    boolean performed = switch (op) {
+                        case DISPATCH -> dispatch(random);
+                        case COMPLETE -> complete();
+                        default -> updateLocation(random);
+                    };
+                    if (performed) {
+                        latencies[op].recordValue(System.nanoTime() - start);
+                    }
+                } catch (RuntimeException e) {
+                    errors++;
+                }
+            }
+        }
+
+        private boolean dispatch(ThreadLocalRandom random) {
+            // Light enough for every courier type, see DispatchInvariantChecker
+            Order order = engine.dispatch(
+                    new Order(point(random), point(random), random.nextInt(1, 11), random.nextDouble(0.5, 5.0)));
+            submitted.add(order);
+            open.add(order);
+            return true;
+        }
+
+        private boolean complete() {
+            int oldest = Math.max(0, open.size() - COMPLETE_SCAN_LIMIT);
+            for (int i = open.size() - 1; i >= oldest; i--) {
+                Order order = open.get(i);
+                if (order.getStatus() == OrderStatus.ASSIGNED) {
+                    // Swap-remove: the open list is unordered
+                    open.set(i, open.get(open.size() - 1));
+                    open.remove(open.size() - 1);
+                    engine.complete(order);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean updateLocation(ThreadLocalRandom random) {
+            if (courierIds.isEmpty()) {
+                return false;
+            }
+            engine.updateLocation(courierIds.get(random.nextInt(courierIds.size())),
+                    random.nextDouble(0, 100), random.nextDouble(0, 100));
+            return true;
+        }
+
+        private static Point point(ThreadLocalRandom random) {
+            return new Point(random.nextDouble(0, 100), random.nextDouble(0, 100));
+        }
+    }
+
+    private static int intArg(String[] args, String name, int defaultValue) {
+        return Integer.parseInt(stringArg(args, name, String.valueOf(defaultValue)));
+    }
+
+    private static String stringArg(String[] args, String name, String defaultValue) {
+        String prefix = "--" + name + "=";
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return arg.substring(prefix.length());
+            }
+        }
+        return defaultValue;
+    }
+}
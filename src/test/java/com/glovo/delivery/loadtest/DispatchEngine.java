@@ -0,0 +1,56 @@
+package com.glovo.delivery.loadtest;
+
+import com.glovo.delivery.model.Courier;
+import com.glovo.delivery.model.Order;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * The operations {@link DispatchContentionHarness} drives and the state
+ * {@link DispatchInvariantChecker} inspects afterwards. Implement it for any dispatch
+ * engine (sharded, lock-free, ...) to run it through the same harness and checks.
+ */
+public interface DispatchEngine extends AutoCloseable {
+
+    /**
+     * Assign the order to a courier or queue it. Called concurrently.
+     *
+     * @return the order as tracked by the engine, which is what later calls and
+     * checks use; may be the argument itself
+     */
+    Order dispatch(Order order);
+
+    /**
+     * Complete an ASSIGNED order and free its courier. Called concurrently, but never
+     * twice for the same order.
+     */
+    void complete(Order order);
+
+    /**
+     * Submit a new courier position. Called concurrently.
+     */
+    void updateLocation(UUID courierId, double x, double y);
+
+    /**
+     * Every order the engine knows about. Only called once the load has stopped.
+     */
+    Collection<Order> orders();
+
+    /**
+     * Every courier of the fleet. Only called before the load starts and after it stopped.
+     */
+    Collection<Courier> couriers();
+
+    /**
+     * Number of orders waiting in the engine's queue. Only called once the load has stopped.
+     */
+    int queueSize();
+
+    /**
+     * Stop background work and make every accepted update visible to {@link #orders()}
+     * and {@link #couriers()}.
+     */
+    @Override
+    void close();
+}
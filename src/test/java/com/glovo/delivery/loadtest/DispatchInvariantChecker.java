@@ -0,0 +1,125 @@
+package com.glovo.delivery.loadtest;
+
+import com.glovo.delivery.model.Courier;
+import com.glovo.delivery.model.Order;
+import com.glovo.delivery.model.enums.CourierStatus;
+import com.glovo.delivery.model.enums.OrderStatus;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Consistency checks on a quiescent {@link DispatchEngine} after concurrent load.
+ *
+ * The starvation check assumes every queued order can be carried by every courier type
+ * (the harness only generates such orders); otherwise a heavy order at the head of the
+ * FIFO queue legitimately blocks lighter ones.
+ */
+public final class DispatchInvariantChecker {
+
+    /** Stop listing violations of one kind after this many; the count is still reported. */
+    private static final int MAX_REPORTED = 10;
+
+    private DispatchInvariantChecker() {
+    }
+
+    /**
+     * @param submitted every order handed to {@link DispatchEngine#dispatch}
+     * @return human-readable violations, empty when the engine state is consistent
+     */
+    public static List<String> check(DispatchEngine engine, Collection<Order> submitted) {
+        Violations violations = new Violations();
+
+        Map<UUID, Order> orders = new HashMap<>();
+        for (Order order : engine.orders()) {
+            orders.put(order.getId(), order);
+        }
+        Map<UUID, Courier> couriers = new HashMap<>();
+        for (Courier courier : engine.couriers()) {
+            couriers.put(courier.getId(), courier);
+        }
+
+        // Every submitted order is still known and ended up in a settled state
+        for (Order order : submitted) {
+            Order stored = orders.get(order.getId());
+            if (stored == null) {
+                violations.add("lost", "order " + order.getId() + " is missing from the engine");
+            } else if (stored.getStatus() != OrderStatus.ASSIGNED && stored.getStatus() != OrderStatus.QUEUED
+                    && stored.getStatus() != OrderStatus.COMPLETED) {
+                violations.add("unsettled", "order " + order.getId() + " is stuck in " + stored.getStatus());
+            }
+        }
+
+        // No courier carries two orders, and courier status agrees with its assignment
+        Map<UUID, UUID> orderByCourier = new HashMap<>();
+        long queued = 0;
+        for (Order order : orders.values()) {
+            if (order.getStatus() == OrderStatus.QUEUED) {
+                queued++;
+            }
+            if (order.getStatus() != OrderStatus.ASSIGNED) {
+                continue;
+            }
+            UUID courierId = order.getAssignedCourierId();
+            UUID previous = orderByCourier.put(courierId, order.getId());
+            if (previous != null) {
+                violations.add("double-assignment", "courier " + courierId + " is assigned to orders "
+                        + previous + " and " + order.getId());
+            }
+            Courier courier = couriers.get(courierId);
+            if (courier == null) {
+                violations.add("unknown-courier", "order " + order.getId() + " is assigned to unknown courier "
+                        + courierId);
+            } else if (courier.getStatus() != CourierStatus.BUSY) {
+                violations.add("free-while-assigned", "courier " + courierId + " is " + courier.getStatus()
+                        + " but assigned to order " + order.getId());
+            }
+        }
+        for (Courier courier : couriers.values()) {
+            if (courier.getStatus() == CourierStatus.BUSY && !orderByCourier.containsKey(courier.getId())) {
+                violations.add("busy-without-order", "courier " + courier.getId() + " is BUSY without an order");
+            }
+        }
+
+        // Queue agrees with order statuses and nothing waits while a courier could take it
+        if (queued != engine.queueSize()) {
+            violations.add("queue-size", queued + " orders are QUEUED but the queue holds " + engine.queueSize());
+        }
+        if (queued > 0) {
+            for (Courier courier : couriers.values()) {
+                if (courier.getStatus() == CourierStatus.FREE) {
+                    violations.add("starved", queued + " orders are QUEUED while courier " + courier.getId()
+                            + " is FREE");
+                    break;
+                }
+            }
+        }
+        return violations.report();
+    }
+
+    private static final class Violations {
+
+        private final Map<String, Integer> counts = new HashMap<>();
+        private final List<String> messages = new ArrayList<>();
+
+        void add(String kind, String message) {
+            int count = counts.merge(kind, 1, Integer::sum);
+            if (count <= MAX_REPORTED) {
+                messages.add(kind + ": " + message);
+            }
+        }
+
+        List<String> report() {
+            counts.forEach((kind, count) -> {
+                if (count > MAX_REPORTED) {
+                    messages.add(kind + ": " + (count - MAX_REPORTED) + " more");
+                }
+            });
+            return messages;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.glovo.delivery.loadtest;
+
+import com.glovo.delivery.dto.UpdateLocationRequest;
+import com.glovo.delivery.model.Courier;
+import com.glovo.delivery.model.Order;
+import com.glovo.delivery.model.Point;
+import com.glovo.delivery.model.enums.CourierType;
+import com.glovo.delivery.repository.CourierRepository;
+import com.glovo.delivery.repository.OrderRepository;
+import com.glovo.delivery.repository.compact.CompactCourierRepository;
+import com.glovo.delivery.repository.compact.CompactOrderRepository;
+import com.glovo.delivery.service.CourierService;
+import com.glovo.delivery.service.DispatchService;
+import com.glovo.delivery.service.LocationCoalescer;
+import com.glovo.delivery.service.event.DispatchEventBuffer;
+import com.glovo.delivery.service.jfr.DispatchFlightRecorder;
+import com.glovo.delivery.service.metrics.DispatchMetrics;
+import com.glovo.delivery.service.routing.DistanceProvider;
+import com.glovo.delivery.service.shadow.ShadowEvaluator;
+import com.glovo.delivery.service.snapshot.FleetSnapshotHolder;
+import com.glovo.delivery.service.strategy.ScoreBasedMatchingStrategy;
+import com.glovo.delivery.service.supply.NearestSupplyCache;
+import com.glovo.delivery.service.trace.DecisionTraceRecorder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.Collection;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * {@link DispatchEngine} over the production {@link DispatchService} and
+ * {@link CourierService}, wired as Spring wires them, with location coalescing on.
+ * Either repository backend can be used, with or without the nearest-supply cache.
+ */
+public class DispatchServiceEngine implements DispatchEngine {
+
+    private final OrderRepository orderRepository;
+    private final CourierRepository courierRepository;
+    private final LocationCoalescer locationCoalescer;
+    private final DispatchService dispatchService;
+    private final CourierService courierService;
+
+    public DispatchServiceEngine(int courierCount, long seed) {
+        this(courierCount, seed, false);
+    }
+
+    public DispatchServiceEngine(int courierCount, long seed, boolean compactStorage) {
+        this(courierCount, seed, compactStorage, false);
+    }
+
+    public DispatchServiceEngine(int courierCount, long seed, boolean compactStorage, boolean supplyCache) {
+        orderRepository = compactStorage ? new CompactOrderRepository() : new OrderRepository();
+        courierRepository = compactStorage ? new CompactCourierRepository() : new CourierRepository();
+        FleetSnapshotHolder snapshotHolder = new FleetSnapshotHolder();
+        locationCoalescer = new LocationCoalescer(courierRepository, snapshotHolder, true, 10, 50);
+        dispatchService = new DispatchService(orderRepository, courierRepository,
+                new ScoreBasedMatchingStrategy(DispatchFlightRecorder.disabled(), DecisionTraceRecorder.disabled(),
+                        DistanceProvider.EUCLIDEAN),
+                new DispatchEventBuffer(4096), locationCoalescer, snapshotHolder,
+                new DispatchMetrics(new SimpleMeterRegistry()), DispatchFlightRecorder.disabled(),
+                new DecisionTraceRecorder(true, 4096, 0.01, 5, 3), supplyCache
+                        ? new NearestSupplyCache(courierRepository, DistanceProvider.EUCLIDEAN, true, 1024, 1.0, 16)
+                        : NearestSupplyCache.disabled(), ShadowEvaluator.disabled());
+        courierService = new CourierService(courierRepository, locationCoalescer, snapshotHolder);
+
+        SplittableRandom random = new SplittableRandom(seed);
+        CourierType[] types = CourierType.values();
+        for (int i = 0; i < courierCount; i++) {
+            courierRepository.save(new Courier(
+                    new Point(random.nextDouble(0, 100), random.nextDouble(0, 100)), types[i % types.length]));
+        }
+        locationCoalescer.start();
+    }
+
+    @Override
+    public Order dispatch(Order order) {
+        // Like OrderService: dispatch the stored order, which is a view for compact storage
+        Order stored = orderRepository.save(order);
+        dispatchService.dispatch(stored);
+        return stored;
+    }
+
+    @Override
+    public void complete(Order order) {
+        dispatchService.completeOrder(order);
+    }
+
+    @Override
+    public void updateLocation(UUID courierId, double x, double y) {
+        courierService.updateLocation(courierId, new UpdateLocationRequest(new Point(x, y)));
+    }
+
+    @Override
+    public Collection<Order> orders() {
+        return orderRepository.findAll();
+    }
+
+    @Override
+    public Collection<Courier> couriers() {
+        return courierRepository.findAll();
+    }
+
+    @Override
+    public int queueSize() {
+        return dispatchService.getQueueSize();
+    }
+
+    @Override
+    public void close() {
+        locationCoalescer.stop();
+    }
+}
@@ -0,0 +1,145 @@
+package com.glovo.delivery.loadtest;
+
+import com.glovo.delivery.model.Courier;
+import com.glovo.delivery.model.Order;
+import com.glovo.delivery.model.Point;
+import com.glovo.delivery.model.enums.CourierStatus;
+import com.glovo.delivery.model.enums.CourierType;
+import com.glovo.delivery.model.enums.OrderStatus;
+import com.glovo.delivery.repository.CourierRepository;
+import com.glovo.delivery.repository.OrderRepository;
+import com.glovo.delivery.repository.compact.CompactCourierRepository;
+import com.glovo.delivery.repository.compact.CompactOrderRepository;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+/**
+ * Compares the map-based and the column-based (compact) repositories: retained heap per
+ * stored order and courier, the duration of a full collection with the data set live,
+ * and young-collection pauses while a dispatch-like workload runs against the data.
+ *
+ * Each backend is measured in turn in the same JVM; run with a fixed heap so the
+ * collector behaves the same for both, for example:
+ * <pre>
+ * MAVEN_OPTS="-Xms4g -Xmx4g" ./mvnw test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.glovo.delivery.loadtest.RepositoryFootprintBenchmark \
+ *     -Dexec.args="--orders=1000000 --couriers=100000 --seconds=10"
+ * </pre>
+ */
+public class RepositoryFootprintBenchmark {
+
+    public static void main(String[] args) {
+        int orderCount = intArg(args, "orders", 1_000_000);
+        int courierCount = intArg(args, "couriers", 100_000);
+        int seconds = intArg(args, "seconds", 10);
+
+        System.out.printf("%d orders, %d couriers, %d s workload, collectors: %s%n", orderCount, courierCount,
+                seconds, ManagementFactory.getGarbageCollectorMXBeans().stream()
+                        .map(GarbageCollectorMXBean::getName).toList());
+        System.out.printf("%-8s %14s %16s %14s %12s %14s %10s%n", "backend", "bytes/order", "bytes/courier",
+                "full GC ms", "young GCs", "young GC ms", "ops");
+        measure("map", OrderRepository::new, CourierRepository::new, orderCount, courierCount, seconds);
+        measure("compact", CompactOrderRepository::new, CompactCourierRepository::new,
+                orderCount, courierCount, seconds);
+    }
+
+    private static void measure(String name, Supplier<OrderRepository> orders, Supplier<CourierRepository> couriers,
+                                int orderCount, int courierCount, int seconds) {
+        SplittableRandom random = new SplittableRandom(42);
+        long baseline = usedAfterGc();
+        OrderRepository orderRepository = orders.get();
+        for (int i = 0; i < orderCount; i++) {
+            orderRepository.save(new Order(point(random), point(random), random.nextInt(1, 11),
+                    random.nextDouble(0.5, 20)));
+        }
+        long withOrders = usedAfterGc();
+        CourierRepository courierRepository = couriers.get();
+        CourierType[] types = CourierType.values();
+        for (int i = 0; i < courierCount; i++) {
+            courierRepository.save(new Courier(point(random), types[i % types.length]));
+        }
+        long withCouriers = usedAfterGc();
+
+        long fullGcStart = System.nanoTime();
+        System.gc();
+        long fullGcMillis = (System.nanoTime() - fullGcStart) / 1_000_000;
+
+        // Dispatch-like churn: scan free couriers, assign, move, complete; new orders arrive
+        long[] gcBefore = gcTotals();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        long operations = 0;
+        while (System.nanoTime() < deadline) {
+            List<Courier> free = courierRepository.findFree();
+            Order order = orderRepository.save(new Order(point(random), point(random), 5, 2.0));
+            if (!free.isEmpty()) {
+                Courier courier = free.get(random.nextInt(free.size()));
+                courier.setStatus(CourierStatus.BUSY);
+                courier.setCurrentLocation(point(random));
+                courierRepository.save(courier);
+                order.setStatus(OrderStatus.ASSIGNED);
+                order.setAssignedCourierId(courier.getId());
+                orderRepository.save(order);
+                if (random.nextInt(4) == 0) {
+                    courier.setStatus(CourierStatus.FREE);
+                    courierRepository.save(courier);
+                }
+            }
+            operations++;
+        }
+        long[] gcAfter = gcTotals();
+
+        System.out.printf("%-8s %14.1f %16.1f %14d %12d %14d %10d%n", name,
+                (double) (withOrders - baseline) / orderCount,
+                (double) (withCouriers - withOrders) / courierCount,
+                fullGcMillis, gcAfter[0] - gcBefore[0], gcAfter[1] - gcBefore[1], operations);
+
+        // Keep both repositories reachable until every measurement is done
+        if (orderRepository.count() < 0 || courierRepository.count() < 0) {
+            throw new IllegalStateException();
+        }
+    }
+
+    private static long usedAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Collection count and time of the young-generation collector(s): every collector
+     * except the one handling full/old collections.
+     */
+    private static long[] gcTotals() {
+        long count = 0;
+        long millis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            String gcName = gc.getName();
+            if (gcName.contains("Old") || gcName.contains("MarkSweep") || gcName.contains("Concurrent")) {
+                continue;
+            }
+            count += gc.getCollectionCount();
+            millis += gc.getCollectionTime();
+        }
+        return new long[]{count, millis};
+    }
+
+    private static Point point(SplittableRandom random) {
+        return new Point(random.nextDouble(0, 100), random.nextDouble(0, 100));
+    }
+
+    private static int intArg(String[] args, String name, int defaultValue) {
+        String prefix = "--" + name + "=";
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return Integer.parseInt(arg.substring(prefix.length()));
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -0,0 +1,127 @@
+package com.glovo.delivery.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.glovo.delivery.model.Courier;
+import com.glovo.delivery.model.Point;
+import com.glovo.delivery.model.enums.CourierType;
+import com.glovo.delivery.serialization.CachedJson;
+import com.glovo.delivery.serialization.CourierJsonWriter;
+import com.glovo.delivery.serialization.FieldProjection;
+import com.glovo.delivery.serialization.JsonStreamingWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Compares serialization CPU time and allocation per request for courier responses:
+ * Jackson databind (reflection) versus the cached per-entity JSON bytes.
+ *
+ * Before every request a fraction of the fleet moves, which invalidates those couriers'
+ * cached bytes, so the cached numbers include the re-serialization of changed entities.
+ * Only the serialization itself is measured, against a discarding output stream.
+ *
+ * Run with:
+ * <pre>
+ * ./mvnw test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.glovo.delivery.loadtest.SerializationBenchmark \
+ *     -Dexec.args="--couriers=10000 --changed-percent=1 --requests=200"
+ * </pre>
+ */
+public class SerializationBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int courierCount = intArg(args, "couriers", 10_000);
+        int changedPercent = intArg(args, "changed-percent", 1);
+        int requests = intArg(args, "requests", 200);
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        JsonStreamingWriter streamingWriter = new JsonStreamingWriter(objectMapper);
+        List<Courier> couriers = new ArrayList<>(courierCount);
+        for (int i = 0; i < courierCount; i++) {
+            couriers.add(new Courier(new Point(50, 50), CourierType.values()[i % CourierType.values().length]));
+        }
+        int changedPerRequest = courierCount * changedPercent / 100;
+        Courier single = couriers.get(0);
+
+        System.out.printf("%d couriers, %d changed before each request, %d requests%n",
+                courierCount, changedPerRequest, requests);
+        System.out.printf("%-28s %14s %16s%n", "scenario", "cpu us/request", "alloc KB/request");
+
+        for (int round = 0; round < 2; round++) {
+            boolean report = round == 1; // first round is warm-up
+            run("list: jackson", report, requests, () -> {
+                move(couriers, changedPerRequest);
+                return () -> objectMapper.writeValue(DISCARD, couriers);
+            });
+            run("list: cached fragments", report, requests, () -> {
+                move(couriers, changedPerRequest);
+                return () -> streamingWriter.writeArray(DISCARD, couriers, CourierJsonWriter.INSTANCE,
+                        FieldProjection.all());
+            });
+            run("single: jackson", report, requests * 100, () -> () -> objectMapper.writeValue(DISCARD, single));
+            run("single: cached bytes", report, requests * 100,
+                    () -> () -> DISCARD.write(CachedJson.bytes(single, CourierJsonWriter.INSTANCE)));
+        }
+    }
+
+    private static void run(String name, boolean report, int requests, Setup setup) throws IOException {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        long cpuNanos = 0;
+        long allocatedBytes = 0;
+        for (int i = 0; i < requests; i++) {
+            Request request = setup.prepare();
+            long cpuStart = threads.getCurrentThreadCpuTime();
+            long allocStart = threads.getThreadAllocatedBytes(threadId);
+            request.serialize();
+            allocatedBytes += threads.getThreadAllocatedBytes(threadId) - allocStart;
+            cpuNanos += threads.getCurrentThreadCpuTime() - cpuStart;
+        }
+        if (report) {
+            System.out.printf("%-28s %14.1f %16.2f%n", name,
+                    cpuNanos / 1_000.0 / requests, allocatedBytes / 1024.0 / requests);
+        }
+    }
+
+    private static void move(List<Courier> couriers, int count) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < count; i++) {
+            Courier courier = couriers.get(random.nextInt(couriers.size()));
+            courier.setCurrentLocation(new Point(random.nextDouble(100), random.nextDouble(100)));
+        }
+    }
+
+    /** Discards everything and, unlike {@link OutputStream#nullOutputStream()}, survives close(). */
+    private static final OutputStream DISCARD = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    private interface Setup {
+        Request prepare();
+    }
+
+    private interface Request {
+        void serialize() throws IOException;
+    }
+
+    private static int intArg(String[] args, String name, int defaultValue) {
+        String prefix = "--" + name + "=";
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return Integer.parseInt(arg.substring(prefix.length()));
+            }
+        }
+        return defaultValue;
+    }
+}
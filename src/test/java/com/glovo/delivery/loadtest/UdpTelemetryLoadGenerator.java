@@ -0,0 +1,127 @@
+package com.glovo.delivery.loadtest;
+
+import com.glovo.delivery.model.Courier;
+import com.glovo.delivery.model.Point;
+import com.glovo.delivery.model.enums.CourierType;
+import com.glovo.delivery.repository.CourierRepository;
+import com.glovo.delivery.service.LocationCoalescer;
+import com.glovo.delivery.service.snapshot.FleetSnapshotHolder;
+import com.glovo.delivery.service.telemetry.CourierTelemetryPipeline;
+import com.glovo.delivery.service.telemetry.TelemetryPacket;
+import com.glovo.delivery.service.telemetry.UdpTelemetryListener;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Localhost load generator for the UDP telemetry listener.
+ *
+ * Starts an in-process listener on an ephemeral port with a synthetic fleet, blasts
+ * pings at it from several sender threads for a fixed time and reports the receive
+ * rate both per wall-clock second and per CPU-second of the receive thread
+ * ("packets per second per core").
+ *
+ * Run with:
+ * <pre>
+ * ./mvnw test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.glovo.delivery.loadtest.UdpTelemetryLoadGenerator \
+ *     -Dexec.args="--couriers=10000 --senders=4 --seconds=10"
+ * </pre>
+ */
+public class UdpTelemetryLoadGenerator {
+
+    public static void main(String[] args) throws Exception {
+        int courierCount = intArg(args, "couriers", 10_000);
+        int senderCount = intArg(args, "senders", 4);
+        int seconds = intArg(args, "seconds", 10);
+
+        CourierRepository repository = new CourierRepository();
+        List<UUID> ids = new ArrayList<>(courierCount);
+        for (int i = 0; i < courierCount; i++) {
+            ids.add(repository.save(new Courier(new Point(50, 50), CourierType.BICYCLE)).getId());
+        }
+
+        LocationCoalescer writeThrough = new LocationCoalescer(repository, new FleetSnapshotHolder(), false, 0, 0);
+        UdpTelemetryListener listener = new UdpTelemetryListener(
+                new InetSocketAddress("127.0.0.1", 0), 16 << 20, new CourierTelemetryPipeline(repository, writeThrough));
+        listener.start();
+        InetSocketAddress target = listener.getLocalAddress();
+
+        AtomicLong sent = new AtomicLong();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        List<Thread> senders = new ArrayList<>();
+        for (int s = 0; s < senderCount; s++) {
+            int offset = s;
+            senders.add(Thread.ofPlatform().name("udp-sender-" + s).start(() ->
+                    send(target, ids, offset, senderCount, deadline, sent)));
+        }
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long receiveThreadId = listener.getReceiveThread().threadId();
+        long cpuStart = threads.getThreadCpuTime(receiveThreadId);
+        long receivedStart = listener.getReceived();
+        long wallStart = System.nanoTime();
+
+        for (Thread sender : senders) {
+            sender.join();
+        }
+        Thread.sleep(200); // let the receiver drain the socket buffer
+
+        long wallNanos = System.nanoTime() - wallStart;
+        long cpuNanos = threads.getThreadCpuTime(receiveThreadId) - cpuStart;
+        long received = listener.getReceived() - receivedStart;
+        CourierTelemetryPipeline pipeline = listener.getPipeline();
+        listener.stop();
+
+        System.out.printf("couriers=%d senders=%d duration=%ds%n", courierCount, senderCount, seconds);
+        System.out.printf("sent=%d received=%d (%.1f%% delivered) applied=%d outOfOrder=%d%n",
+                sent.get(), received, 100.0 * received / Math.max(1, sent.get()),
+                pipeline.getApplied(), pipeline.getOutOfOrder());
+        System.out.printf("receive rate: %.0f packets/s wall, %.0f packets/s per core (receive thread CPU %.1f%%)%n",
+                received * 1e9 / wallNanos,
+                cpuNanos > 0 ? received * 1e9 / cpuNanos : 0.0,
+                100.0 * cpuNanos / wallNanos);
+    }
+
+    private static void send(InetSocketAddress target, List<UUID> ids, int offset, int stride,
+                             long deadline, AtomicLong sent) {
+        long[] sequences = new long[ids.size()];
+        ByteBuffer packet = ByteBuffer.allocateDirect(TelemetryPacket.SIZE);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try (DatagramChannel channel = DatagramChannel.open()) {
+            channel.connect(target);
+            long count = 0;
+            while (System.nanoTime() < deadline) {
+                for (int i = offset; i < ids.size(); i += stride) {
+                    UUID id = ids.get(i);
+                    packet.clear();
+                    TelemetryPacket.write(packet, id, random.nextDouble(100), random.nextDouble(100), ++sequences[i]);
+                    packet.flip();
+                    channel.write(packet);
+                    count++;
+                }
+            }
+            sent.addAndGet(count);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static int intArg(String[] args, String name, int defaultValue) {
+        String prefix = "--" + name + "=";
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return Integer.parseInt(arg.substring(prefix.length()));
+            }
+        }
+        return defaultValue;
+    }
+}
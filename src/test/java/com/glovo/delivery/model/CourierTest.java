@@ -203,4 +203,58 @@ class CourierTest {
         courier.setCurrentLocation(newLocation);
         assertEquals(newLocation, courier.getCurrentLocation());
     }
+
+    @Nested
+    @DisplayName("Primitive location")
+    class PrimitiveLocation {
+
+        @Test
+        void moveToShouldUpdateCoordinatesInPlace() {
+            Courier courier = new Courier(new Point(10, 20), CourierType.CAR);
+            long version = courier.getVersion();
+
+            courier.moveTo(30.5, 40.25);
+
+            assertEquals(30.5, courier.getLocationX());
+            assertEquals(40.25, courier.getLocationY());
+            assertEquals(new Point(30.5, 40.25), courier.getCurrentLocation());
+            assertTrue(courier.getVersion() > version);
+        }
+
+        @Test
+        void moveToShouldRejectOutOfRangeCoordinates() {
+            Courier courier = new Courier(new Point(10, 20), CourierType.CAR);
+            assertThrows(IllegalArgumentException.class, () -> courier.moveTo(101, 20));
+            assertThrows(IllegalArgumentException.class, () -> courier.moveTo(10, Double.NaN));
+            assertEquals(new Point(10, 20), courier.getCurrentLocation());
+        }
+
+        @Test
+        void returnedPointShouldNotBeSharedWithCourier() {
+            Courier courier = new Courier(new Point(10, 20), CourierType.CAR);
+            Point before = courier.getCurrentLocation();
+
+            courier.moveTo(50, 60);
+
+            assertEquals(new Point(10, 20), before);
+        }
+
+        @Test
+        void courierWithoutLocationShouldReportNone() {
+            Courier courier = new Courier();
+            assertFalse(courier.hasLocation());
+            assertNull(courier.getCurrentLocation());
+
+            courier.setCurrentLocation(new Point(1, 2));
+            assertTrue(courier.hasLocation());
+            courier.setCurrentLocation(null);
+            assertFalse(courier.hasLocation());
+        }
+
+        @Test
+        void distanceToShouldUsePrimitiveCoordinates() {
+            Courier courier = new Courier(new Point(0, 0), CourierType.CAR);
+            assertEquals(5.0, courier.distanceTo(new Point(3, 4)), 0.001);
+        }
+    }
 }
@@ -1,5 +1,7 @@
 package com.glovo.delivery.model;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.ValueInstantiationException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -60,35 +62,29 @@ class PointTest {
     }
 
     @Nested
-    @DisplayName("Setter validation")
-    class SetterValidation {
+    @DisplayName("JSON")
+    class Json {
 
-        @Test
-        void shouldUpdateXWithValidValue() {
-            Point point = new Point(10, 20);
-            point.setX(55);
-            assertEquals(55, point.getX());
-        }
+        private final ObjectMapper mapper = new ObjectMapper();
 
         @Test
-        void shouldUpdateYWithValidValue() {
-            Point point = new Point(10, 20);
-            point.setY(88);
-            assertEquals(88, point.getY());
+        void shouldRoundTripThroughCreator() throws Exception {
+            Point point = new Point(12.5, 99);
+            String json = mapper.writeValueAsString(point);
+            assertEquals("{\"x\":12.5,\"y\":99.0}", json);
+            assertEquals(point, mapper.readValue(json, Point.class));
         }
 
         @Test
-        void shouldRejectInvalidXInSetter() {
-            Point point = new Point(10, 20);
-            assertThrows(IllegalArgumentException.class, () -> point.setX(-5));
-            assertEquals(10, point.getX()); // unchanged
+        void shouldRejectOutOfRangeCoordinatesWhenReading() {
+            ValueInstantiationException ex = assertThrows(ValueInstantiationException.class,
+                    () -> mapper.readValue("{\"x\":150,\"y\":10}", Point.class));
+            assertTrue(ex.getMessage().contains("X coordinate"));
         }
 
         @Test
-        void shouldRejectInvalidYInSetter() {
-            Point point = new Point(10, 20);
-            assertThrows(IllegalArgumentException.class, () -> point.setY(200));
-            assertEquals(20, point.getY()); // unchanged
+        void shouldRejectNaN() {
+            assertThrows(IllegalArgumentException.class, () -> new Point(Double.NaN, 10));
         }
     }
 
@@ -0,0 +1,218 @@
+package com.glovo.delivery.repository;
+
+import com.glovo.delivery.model.ZoneGrid;
+import com.glovo.delivery.model.enums.CourierStatus;
+import com.glovo.delivery.model.enums.CourierType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.glovo.delivery.model.enums.CourierStatus.BUSY;
+import static com.glovo.delivery.model.enums.CourierStatus.FREE;
+import static com.glovo.delivery.model.enums.CourierType.BICYCLE;
+import static com.glovo.delivery.model.enums.CourierType.CAR;
+import static com.glovo.delivery.model.enums.CourierType.PEDESTRIAN;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CourierBitmapIndexTest {
+
+    private final CourierBitmapIndex index = new CourierBitmapIndex();
+
+    private List<Integer> slots(CourierQuery query) {
+        List<Integer> slots = new ArrayList<>();
+        index.forEach(query, slots::add);
+        return slots;
+    }
+
+    @Nested
+    @DisplayName("Queries")
+    class Queries {
+
+        @Test
+        void shouldAnswerCompoundQuery() {
+            index.put(0, FREE, BICYCLE, 15, 5);    // zone 1
+            index.put(1, FREE, PEDESTRIAN, 15, 5); // wrong type
+            index.put(2, BUSY, CAR, 15, 5);        // wrong status
+            index.put(3, FREE, CAR, 95, 95);       // wrong zone
+            index.put(4, FREE, CAR, 5, 15);        // zone 10
+
+            CourierQuery query = CourierQuery.status(FREE).types(BICYCLE, CAR).zones(1, 10);
+
+            assertEquals(List.of(0, 4), slots(query));
+            assertEquals(2, index.count(query));
+        }
+
+        @Test
+        void carryingShouldKeepOnlyTypesWithEnoughCapacity() {
+            index.put(0, FREE, PEDESTRIAN, 10, 10);
+            index.put(1, FREE, BICYCLE, 10, 10);
+            index.put(2, FREE, CAR, 10, 10);
+
+            assertEquals(List.of(1, 2), slots(CourierQuery.status(FREE).carrying(10)));
+            assertEquals(List.of(2), slots(CourierQuery.status(FREE).carrying(20)));
+            assertEquals(List.of(), slots(CourierQuery.status(FREE).carrying(60)));
+        }
+
+        @Test
+        void narrowingTheSameDimensionShouldIntersect() {
+            index.put(0, FREE, BICYCLE, 10, 10);
+            index.put(1, FREE, CAR, 10, 10);
+
+            assertEquals(List.of(1), slots(CourierQuery.ALL.types(BICYCLE, CAR).types(CAR)));
+            assertEquals(List.of(), slots(CourierQuery.ALL.zones(1, 11).zones(2)));
+        }
+
+        @Test
+        void courierWithoutLocationShouldBeInNoZone() {
+            index.put(0, FREE, CAR, Double.NaN, Double.NaN);
+
+            assertEquals(List.of(0), slots(CourierQuery.status(FREE)));
+            assertEquals(0, index.count(CourierQuery.ALL.zones(0)));
+        }
+
+        @Test
+        void shouldRejectInvalidZone() {
+            assertThrows(IllegalArgumentException.class, () -> CourierQuery.ALL.zones(ZoneGrid.ZONE_COUNT));
+        }
+    }
+
+    @Nested
+    @DisplayName("Updates")
+    class Updates {
+
+        @Test
+        void putShouldMoveSlotBetweenBitmaps() {
+            index.put(7, FREE, CAR, 10, 10);
+            index.put(7, BUSY, BICYCLE, 10, 10);
+
+            assertEquals(0, index.count(CourierQuery.status(FREE)));
+            assertEquals(0, index.count(CourierQuery.ALL.types(CAR)));
+            assertEquals(List.of(7), slots(CourierQuery.status(BUSY).types(BICYCLE)));
+        }
+
+        @Test
+        void moveShouldChangeOnlyTheZone() {
+            int from = ZoneGrid.zoneOf(10, 10);
+            int to = ZoneGrid.zoneOf(90, 90);
+            index.put(3, FREE, CAR, 10, 10);
+
+            index.move(3, 90, 90);
+
+            assertEquals(0, index.count(CourierQuery.ALL.zones(from)));
+            assertEquals(List.of(3), slots(CourierQuery.status(FREE).types(CAR).zones(to)));
+        }
+
+        @Test
+        void moveWithinTheZoneShouldKeepTheSlotIndexed() {
+            int zone = ZoneGrid.zoneOf(10, 10);
+            index.put(3, FREE, CAR, 10, 10);
+
+            index.move(3, 11, 11);
+            index.move(3, 10.5, 10.5);
+
+            assertEquals(List.of(3), slots(CourierQuery.status(FREE).types(CAR).zones(zone)));
+        }
+
+        @Test
+        void moveOfUnknownSlotShouldBeIgnored() {
+            index.move(5, 10, 10);
+            index.move(100_000, 10, 10);
+            assertEquals(0, index.count(CourierQuery.ALL));
+        }
+
+        @Test
+        void removeAndClearShouldDropSlots() {
+            index.put(0, FREE, CAR, 10, 10);
+            index.put(1, FREE, CAR, 10, 10);
+
+            index.remove(0);
+            assertEquals(List.of(1), slots(CourierQuery.ALL));
+
+            index.clear();
+            assertEquals(0, index.count(CourierQuery.ALL));
+        }
+
+        @Test
+        void shouldGrowAndMatchBruteForce() {
+            Random random = new Random(44);
+            int size = 20_000;
+            CourierStatus[] statuses = new CourierStatus[size];
+            CourierType[] types = new CourierType[size];
+            int[] zones = new int[size];
+            for (int slot = 0; slot < size; slot++) {
+                statuses[slot] = CourierStatus.values()[random.nextInt(CourierStatus.values().length)];
+                types[slot] = CourierType.values()[random.nextInt(CourierType.values().length)];
+                double x = random.nextDouble(100);
+                double y = random.nextDouble(100);
+                zones[slot] = ZoneGrid.zoneOf(x, y);
+                index.put(slot, statuses[slot], types[slot], x, y);
+            }
+
+            CourierQuery query = CourierQuery.status(FREE).types(BICYCLE, CAR).zones(0, 1, 2, 10, 11, 12, 55);
+            List<Integer> expected = new ArrayList<>();
+            for (int slot = 0; slot < size; slot++) {
+                if (query.matches(statuses[slot], types[slot], zones[slot])) {
+                    expected.add(slot);
+                }
+            }
+
+            assertFalse(expected.isEmpty());
+            assertEquals(expected, slots(query));
+            assertEquals(expected.size(), index.count(query));
+        }
+    }
+
+    @Nested
+    @DisplayName("Supply versions")
+    class SupplyVersions {
+
+        private final int zone = ZoneGrid.zoneOf(10, 10);
+        private final int other = ZoneGrid.zoneOf(90, 90);
+
+        @Test
+        void freeCourierArrivingShouldChangeOnlyItsZone() {
+            long before = index.supplyVersion(zone);
+            long otherBefore = index.supplyVersion(other);
+
+            index.put(0, FREE, CAR, 10, 10);
+
+            assertTrue(index.supplyVersion(zone) > before);
+            assertEquals(otherBefore, index.supplyVersion(other));
+        }
+
+        @Test
+        void courierTurningBusyShouldNotChangeTheZone() {
+            index.put(0, FREE, CAR, 10, 10);
+            long before = index.supplyVersion(zone);
+
+            index.put(0, BUSY, CAR, 10, 10);
+            index.move(0, 11, 11);
+
+            assertEquals(before, index.supplyVersion(zone));
+        }
+
+        @Test
+        void freeCourierMovingShouldChangeTheZoneItMovesIn() {
+            index.put(0, FREE, CAR, 10, 10);
+            long before = index.supplyVersion(zone);
+
+            index.move(0, 11, 11);
+
+            assertTrue(index.supplyVersion(zone) > before);
+        }
+
+        @Test
+        void removalShouldChangeEveryZone() {
+            index.put(0, BUSY, CAR, 10, 10);
+            long before = index.supplyVersion(other);
+
+            index.remove(0);
+
+            assertTrue(index.supplyVersion(other) > before);
+        }
+    }
+}
@@ -2,25 +2,37 @@ package com.glovo.delivery.repository;
 
 import com.glovo.delivery.model.Courier;
 import com.glovo.delivery.model.Point;
+import com.glovo.delivery.model.ZoneGrid;
 import com.glovo.delivery.model.enums.CourierStatus;
 import com.glovo.delivery.model.enums.CourierType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-class CourierRepositoryTest {
+public class CourierRepositoryTest {
 
-    private CourierRepository repository;
+    protected CourierRepository repository;
+
+    /**
+     * Backend under test; subclasses run the same contract against other implementations.
+     */
+    protected CourierRepository createRepository() {
+        return new CourierRepository();
+    }
 
     @BeforeEach
     void setUp() {
-        repository = new CourierRepository();
+        repository = createRepository();
     }
 
     @Test
@@ -38,6 +50,20 @@ class CourierRepositoryTest {
         assertTrue(repository.findById(UUID.randomUUID()).isEmpty());
     }
 
+    @Test
+    void shouldFindAllByIdPositionForPosition() {
+        Courier first = repository.save(new Courier(new Point(10, 10), CourierType.CAR));
+        Courier second = repository.save(new Courier(new Point(20, 20), CourierType.BICYCLE));
+        List<Courier> into = new ArrayList<>(List.of(first));
+
+        repository.findAllById(List.of(second.getId(), UUID.randomUUID(), first.getId()), into);
+
+        assertEquals(3, into.size());
+        assertEquals(second.getId(), into.get(0).getId());
+        assertNull(into.get(1));
+        assertEquals(first.getId(), into.get(2).getId());
+    }
+
     @Test
     void shouldFindAll() {
         repository.save(new Courier(new Point(10, 10), CourierType.CAR));
@@ -45,6 +71,20 @@ class CourierRepositoryTest {
         assertEquals(2, repository.findAll().size());
     }
 
+    @Test
+    @DisplayName("findAllAfter should return couriers after the cursor id and drop deleted ones")
+    void shouldFindAllAfterCursor() {
+        for (int i = 0; i < 5; i++) {
+            repository.save(new Courier(new Point(10, 10), CourierType.CAR));
+        }
+        List<Courier> all = repository.findAll();
+        repository.deleteById(all.get(3).getId());
+
+        List<UUID> tail = repository.findAllAfter(all.get(1).getId()).stream().map(Courier::getId).toList();
+
+        assertEquals(List.of(all.get(2).getId(), all.get(4).getId()), tail);
+    }
+
     @Test
     void shouldFindByStatus() {
         Courier free = new Courier(new Point(10, 10), CourierType.CAR);
@@ -113,4 +153,119 @@ class CourierRepositoryTest {
         repository.clear();
         assertEquals(0, repository.count());
     }
+
+    @Test
+    @Tag("allocation")
+    void updateLocationShouldNotAllocate() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Courier courier = repository.findById(
+                repository.save(new Courier(new Point(10, 20), CourierType.CAR)).getId()).orElseThrow();
+        double[] last = new double[1];
+        repository.addPositionListener((c, fromX, fromY, toX, toY) -> last[0] = toX);
+        for (int i = 0; i < 20_000; i++) {
+            repository.updateLocation(courier, i % 100, 50);
+        }
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 20_000; i++) {
+            repository.updateLocation(courier, i % 100, 50);
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertEquals(99, last[0]);
+        assertTrue(allocated < 1024, "allocated " + allocated + " bytes for 20000 updates");
+    }
+
+    @Nested
+    @DisplayName("Bitmap queries")
+    class BitmapQueries {
+
+        @Test
+        void shouldFindByStatusTypeAndZone() {
+            Courier match = repository.save(new Courier(new Point(15, 5), CourierType.BICYCLE));
+            repository.save(new Courier(new Point(15, 5), CourierType.PEDESTRIAN));
+            repository.save(new Courier(new Point(95, 95), CourierType.CAR));
+            Courier busy = repository.save(new Courier(new Point(15, 5), CourierType.CAR));
+            busy.setStatus(CourierStatus.BUSY);
+            repository.save(busy);
+
+            CourierQuery query = CourierQuery.status(CourierStatus.FREE)
+                    .types(CourierType.BICYCLE, CourierType.CAR)
+                    .zones(ZoneGrid.zoneOf(15, 5));
+
+            List<Courier> found = repository.find(query);
+            assertEquals(1, found.size());
+            assertEquals(match.getId(), found.get(0).getId());
+            assertEquals(1, repository.count(query));
+        }
+
+        @Test
+        void shouldFollowStatusChangesAndMoves() {
+            Courier courier = repository.save(new Courier(new Point(10, 10), CourierType.CAR));
+            int from = ZoneGrid.zoneOf(10, 10);
+            int to = ZoneGrid.zoneOf(80, 80);
+
+            courier.setStatus(CourierStatus.BUSY);
+            repository.save(courier);
+            repository.updateLocation(courier, 80, 80);
+
+            assertEquals(0, repository.count(CourierQuery.status(CourierStatus.FREE)));
+            assertEquals(0, repository.count(CourierQuery.ALL.zones(from)));
+            assertEquals(1, repository.count(CourierQuery.status(CourierStatus.BUSY).zones(to)));
+        }
+
+        @Test
+        void deletedSlotsShouldBeReusedWithoutStaleBits() {
+            Courier first = repository.save(new Courier(new Point(10, 10), CourierType.CAR));
+            repository.deleteById(first.getId());
+            Courier second = repository.save(new Courier(new Point(50, 50), CourierType.PEDESTRIAN));
+
+            List<Courier> all = repository.find(CourierQuery.ALL);
+            assertEquals(1, all.size());
+            assertEquals(second.getId(), all.get(0).getId());
+            assertEquals(0, repository.count(CourierQuery.ALL.types(CourierType.CAR)));
+        }
+    }
+
+    @Nested
+    @DisplayName("Position updates")
+    class PositionUpdates {
+
+        private final List<String> changes = new ArrayList<>();
+
+        @BeforeEach
+        void listen() {
+            repository.addPositionListener((courier, fromX, fromY, toX, toY) ->
+                    changes.add(fromX + "," + fromY + "->" + toX + "," + toY));
+        }
+
+        @Test
+        void updateLocationShouldMoveStoredCourierAndNotify() {
+            Courier stored = repository.save(new Courier(new Point(10, 20), CourierType.CAR));
+
+            repository.updateLocation(repository.findById(stored.getId()).orElseThrow(), 30, 40);
+
+            assertEquals(new Point(30, 40), repository.findById(stored.getId()).orElseThrow().getCurrentLocation());
+            assertEquals(List.of("NaN,NaN->10.0,20.0", "10.0,20.0->30.0,40.0"), changes);
+        }
+
+        @Test
+        void updateLocationShouldRejectInvalidCoordinates() {
+            Courier stored = repository.save(new Courier(new Point(10, 20), CourierType.CAR));
+
+            assertThrows(IllegalArgumentException.class, () -> repository.updateLocation(stored, -1, 40));
+            assertEquals(new Point(10, 20), repository.findById(stored.getId()).orElseThrow().getCurrentLocation());
+            assertEquals(1, changes.size());
+        }
+
+        @Test
+        void deleteShouldNotifyRemoval() {
+            Courier stored = repository.save(new Courier(new Point(10, 20), CourierType.CAR));
+            repository.deleteById(stored.getId());
+            repository.deleteById(stored.getId());
+
+            assertEquals(List.of("NaN,NaN->10.0,20.0", "10.0,20.0->NaN,NaN"), changes);
+        }
+    }
 }
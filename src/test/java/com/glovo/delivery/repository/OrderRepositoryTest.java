@@ -8,19 +8,27 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-class OrderRepositoryTest {
+public class OrderRepositoryTest {
 
-    private OrderRepository repository;
+    protected OrderRepository repository;
+
+    /**
+     * Backend under test; subclasses run the same contract against other implementations.
+     */
+    protected OrderRepository createRepository() {
+        return new OrderRepository();
+    }
 
     @BeforeEach
     void setUp() {
-        repository = new OrderRepository();
+        repository = createRepository();
     }
 
     @Test
@@ -50,6 +58,29 @@ class OrderRepositoryTest {
         assertEquals(2, all.size());
     }
 
+    @Test
+    @DisplayName("findAllAfter should page through orders in id order without gaps or repeats")
+    void shouldPageInIdOrder() {
+        for (int i = 0; i < 10; i++) {
+            repository.save(new Order(new Point(10, 10), new Point(20, 20), 1, 2.0));
+        }
+
+        List<UUID> seen = new ArrayList<>();
+        UUID cursor = null;
+        while (true) {
+            List<UUID> page = repository.findAllAfter(cursor).stream().limit(3).map(Order::getId).toList();
+            if (page.isEmpty()) {
+                break;
+            }
+            seen.addAll(page);
+            cursor = page.get(page.size() - 1);
+        }
+
+        assertEquals(10, seen.size());
+        assertEquals(seen.stream().sorted().toList(), seen);
+        assertEquals(seen, repository.findAll().stream().map(Order::getId).toList());
+    }
+
     @Test
     void shouldFindByStatus() {
         Order o1 = new Order(new Point(10, 10), new Point(20, 20), 1, 2.0);
@@ -78,6 +109,27 @@ class OrderRepositoryTest {
         assertEquals(0, repository.countByStatus(OrderStatus.ASSIGNED));
     }
 
+    @Test
+    void statusCountsShouldFollowSavesAndDeletes() {
+        Order o1 = repository.save(new Order(new Point(10, 10), new Point(20, 20), 1, 2.0));
+        repository.save(new Order(new Point(30, 30), new Point(40, 40), 3, 4.0));
+
+        o1.setStatus(OrderStatus.ASSIGNED);
+        repository.save(o1);
+        repository.save(o1);
+        assertEquals(1, repository.countByStatus(OrderStatus.CREATED));
+        assertEquals(1, repository.countByStatus(OrderStatus.ASSIGNED));
+
+        repository.deleteById(o1.getId());
+        repository.deleteById(o1.getId());
+        assertEquals(0, repository.countByStatus(OrderStatus.ASSIGNED));
+
+        repository.clear();
+        assertEquals(0, repository.countByStatus(OrderStatus.CREATED));
+        repository.save(new Order(new Point(50, 50), new Point(60, 60), 5, 6.0));
+        assertEquals(1, repository.countByStatus(OrderStatus.CREATED));
+    }
+
     @Test
     void shouldCount() {
         assertEquals(0, repository.count());
@@ -0,0 +1,122 @@
+package com.glovo.delivery.repository.compact;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.glovo.delivery.model.Courier;
+import com.glovo.delivery.model.Point;
+import com.glovo.delivery.model.enums.CourierStatus;
+import com.glovo.delivery.model.enums.CourierType;
+import com.glovo.delivery.repository.CourierRepository;
+import com.glovo.delivery.repository.CourierRepositoryTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the {@link CourierRepositoryTest} contract against the column backend, plus the
+ * behaviour specific to flyweight views.
+ */
+class CompactCourierRepositoryTest extends CourierRepositoryTest {
+
+    @Override
+    protected CourierRepository createRepository() {
+        return new CompactCourierRepository();
+    }
+
+    @Test
+    @DisplayName("Views write through to the columns without a save")
+    void viewsWriteThrough() {
+        Courier stored = repository.save(new Courier(new Point(10, 20), CourierType.BICYCLE));
+
+        Courier view = repository.findById(stored.getId()).orElseThrow();
+        view.setStatus(CourierStatus.BUSY);
+        view.setCurrentLocation(new Point(30, 40));
+        view.incrementCompletedOrdersToday();
+
+        Courier reread = repository.findById(stored.getId()).orElseThrow();
+        assertEquals(CourierStatus.BUSY, reread.getStatus());
+        assertEquals(new Point(30, 40), reread.getCurrentLocation());
+        assertEquals(1, reread.getCompletedOrdersToday());
+        assertEquals(CourierType.BICYCLE, reread.getType());
+        assertEquals(stored, reread);
+        assertSame(reread, repository.save(reread));
+        assertEquals(0, repository.countByStatus(CourierStatus.FREE));
+    }
+
+    @Test
+    @DisplayName("Saving a plain courier with a stored id overwrites the stored state")
+    void overwriteFromPlainCourier() {
+        Courier courier = new Courier(new Point(10, 20), CourierType.CAR);
+        repository.save(courier);
+        courier.setStatus(CourierStatus.OFFLINE);
+        courier.setCurrentLocation(null);
+        repository.save(courier);
+
+        Courier stored = repository.findById(courier.getId()).orElseThrow();
+        assertEquals(1, repository.count());
+        assertEquals(CourierStatus.OFFLINE, stored.getStatus());
+        assertNull(stored.getCurrentLocation());
+    }
+
+    @Test
+    @DisplayName("Thousands of couriers span several pages and survive deletes and slot reuse")
+    void growthAndSlotReuse() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            Courier courier = new Courier(new Point(i % 100, 50), CourierType.values()[i % 3]);
+            courier.setId(new UUID(i % 7, i));
+            ids.add(repository.save(courier).getId());
+        }
+        for (int i = 0; i < 5000; i += 2) {
+            repository.deleteById(ids.get(i));
+        }
+        for (int i = 0; i < 1000; i++) {
+            repository.save(new Courier(new Point(1, 1), CourierType.CAR));
+        }
+
+        assertEquals(3500, repository.count());
+        assertEquals(3500, repository.findAll().size());
+        assertTrue(repository.findById(ids.get(0)).isEmpty());
+        Courier kept = repository.findById(ids.get(4999)).orElseThrow();
+        assertEquals(new Point(4999 % 100, 50), kept.getCurrentLocation());
+        List<UUID> ordered = repository.findAll().stream().map(Courier::getId).toList();
+        assertEquals(ordered.stream().sorted().toList(), ordered);
+    }
+
+    @Test
+    @DisplayName("Copies are detached plain couriers and views serialize like couriers")
+    void copyAndJson() throws Exception {
+        Courier view = repository.save(new Courier(new Point(10, 20), CourierType.CAR));
+
+        Courier copy = view.copy();
+        view.setStatus(CourierStatus.BUSY);
+
+        assertEquals(Courier.class, copy.getClass());
+        assertEquals(CourierStatus.FREE, copy.getStatus());
+        ObjectMapper mapper = new ObjectMapper();
+        assertEquals(mapper.readTree(mapper.writeValueAsString(view.copy())),
+                mapper.readTree(mapper.writeValueAsString(view)));
+    }
+
+    @Test
+    @DisplayName("Every write moves the view version and copies keep the version they were taken at")
+    void versions() {
+        Courier view = repository.save(new Courier(new Point(10, 20), CourierType.CAR));
+        long saved = view.getVersion();
+
+        Courier copy = view.copy();
+        view.moveTo(11, 21);
+        long moved = view.getVersion();
+        view.setStatus(CourierStatus.BUSY);
+        long busy = view.getVersion();
+        view.incrementCompletedOrdersToday();
+
+        assertEquals(saved, copy.getVersion());
+        assertTrue(saved < moved && moved < busy && busy < view.getVersion());
+        assertEquals(view.getVersion(), view.copy().getVersion());
+    }
+}
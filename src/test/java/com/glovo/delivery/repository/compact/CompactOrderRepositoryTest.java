@@ -0,0 +1,59 @@
+package com.glovo.delivery.repository.compact;
+
+import com.glovo.delivery.model.Order;
+import com.glovo.delivery.model.Point;
+import com.glovo.delivery.model.enums.OrderStatus;
+import com.glovo.delivery.repository.OrderRepository;
+import com.glovo.delivery.repository.OrderRepositoryTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the {@link OrderRepositoryTest} contract against the column backend.
+ */
+class CompactOrderRepositoryTest extends OrderRepositoryTest {
+
+    @Override
+    protected OrderRepository createRepository() {
+        return new CompactOrderRepository();
+    }
+
+    @Test
+    @DisplayName("Every order field round-trips through the columns")
+    void fieldsRoundTrip() {
+        Order order = new Order(new Point(10, 20), new Point(30, 40), 7, 2.5);
+        order.setCreatedAt(123_456L);
+        UUID courierId = UUID.randomUUID();
+
+        Order view = repository.save(order);
+        assertNull(view.getAssignedCourierId());
+        view.setStatus(OrderStatus.ASSIGNED);
+        view.setAssignedCourierId(courierId);
+
+        Order stored = repository.findById(order.getId()).orElseThrow();
+        assertEquals(new Point(10, 20), stored.getPickupLocation());
+        assertEquals(new Point(30, 40), stored.getDeliveryLocation());
+        assertEquals(7, stored.getPriority());
+        assertEquals(2.5, stored.getWeightKg());
+        assertEquals(123_456L, stored.getCreatedAt());
+        assertEquals(OrderStatus.ASSIGNED, stored.getStatus());
+        assertEquals(courierId, stored.getAssignedCourierId());
+        assertEquals(order, stored);
+        assertEquals(order.hashCode(), stored.hashCode());
+    }
+
+    @Test
+    @DisplayName("View setters validate like the entity")
+    void viewValidation() {
+        Order view = repository.save(new Order(new Point(10, 20), new Point(30, 40), 7, 2.5));
+
+        assertThrows(IllegalArgumentException.class, () -> view.setPriority(11));
+        assertThrows(IllegalArgumentException.class, () -> view.setWeightKg(0));
+        assertThrows(UnsupportedOperationException.class, () -> view.setId(UUID.randomUUID()));
+        assertEquals(7, view.getPriority());
+    }
+}
@@ -0,0 +1,68 @@
+package com.glovo.delivery.serialization;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.glovo.delivery.model.Courier;
+import com.glovo.delivery.model.Order;
+import com.glovo.delivery.model.Point;
+import com.glovo.delivery.model.enums.CourierStatus;
+import com.glovo.delivery.model.enums.CourierType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachedJsonTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Should reuse the cached bytes while the entity is unchanged")
+    void shouldReuseBytesForSameVersion() {
+        Courier courier = new Courier(new Point(10, 20), CourierType.CAR);
+
+        byte[] first = CachedJson.bytes(courier, CourierJsonWriter.INSTANCE);
+        byte[] second = CachedJson.bytes(courier, CourierJsonWriter.INSTANCE);
+
+        assertSame(first, second);
+    }
+
+    @Test
+    @DisplayName("Should serialize again after any setter changes the entity")
+    void shouldInvalidateOnMutation() throws IOException {
+        Order order = new Order(new Point(10, 20), new Point(30, 40), 5, 2.0);
+        byte[] before = CachedJson.bytes(order, OrderJsonWriter.INSTANCE);
+
+        order.setPriority(9);
+        byte[] after = CachedJson.bytes(order, OrderJsonWriter.INSTANCE);
+
+        assertNotSame(before, after);
+        assertEquals(9, objectMapper.readTree(after).get("priority").asInt());
+        assertEquals(objectMapper.valueToTree(order), objectMapper.readTree(after));
+    }
+
+    @Test
+    @DisplayName("Snapshot copies should share a still-valid cached form")
+    void shouldShareFormWithCopy() {
+        Courier courier = new Courier(new Point(10, 20), CourierType.CAR);
+        byte[] original = CachedJson.bytes(courier, CourierJsonWriter.INSTANCE);
+
+        Courier copy = courier.copy();
+        assertSame(original, CachedJson.bytes(copy, CourierJsonWriter.INSTANCE));
+
+        courier.setStatus(CourierStatus.BUSY);
+        assertNotSame(original, CachedJson.bytes(courier, CourierJsonWriter.INSTANCE));
+        assertSame(original, CachedJson.bytes(copy, CourierJsonWriter.INSTANCE));
+    }
+
+    @Test
+    @DisplayName("Version and cached form should stay out of the regular JSON")
+    void shouldNotExposeCacheFields() {
+        Courier courier = new Courier(new Point(10, 20), CourierType.CAR);
+        CachedJson.bytes(courier, CourierJsonWriter.INSTANCE);
+
+        assertFalse(objectMapper.valueToTree(courier).has("version"));
+        assertFalse(objectMapper.valueToTree(courier).has("serializedForm"));
+    }
+}
@@ -0,0 +1,120 @@
+package com.glovo.delivery.serialization;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.glovo.delivery.model.Courier;
+import com.glovo.delivery.model.Order;
+import com.glovo.delivery.model.Point;
+import com.glovo.delivery.model.enums.CourierStatus;
+import com.glovo.delivery.model.enums.CourierType;
+import com.glovo.delivery.model.enums.OrderStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonStreamingWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JsonStreamingWriter writer = new JsonStreamingWriter(objectMapper);
+
+    private static List<Order> orders(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new Order(new Point(10, 20), new Point(30, 40), 1 + i % 10, 2.0))
+                .sorted(Comparator.comparing(Order::getId))
+                .toList();
+    }
+
+    @Nested
+    @DisplayName("writePage")
+    class WritePage {
+
+        @Test
+        @DisplayName("Should write limit items and the last id as the next cursor")
+        void shouldWriteCursorWhenMoreRemain() throws IOException {
+            List<Order> orders = orders(5);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            writer.writePage(out, orders, order -> true, 2, OrderJsonWriter.INSTANCE, FieldProjection.all());
+
+            JsonNode page = objectMapper.readTree(out.toByteArray());
+            assertEquals(2, page.get("items").size());
+            assertEquals(orders.get(1).getId().toString(), page.get("nextCursor").asText());
+        }
+
+        @Test
+        @DisplayName("Should end with a null cursor when the filter leaves exactly limit items")
+        void shouldWriteNullCursorOnLastPage() throws IOException {
+            List<Order> orders = orders(4);
+            orders.get(1).setStatus(OrderStatus.ASSIGNED);
+            orders.get(3).setStatus(OrderStatus.ASSIGNED);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            writer.writePage(out, orders, order -> order.getStatus() == OrderStatus.ASSIGNED, 2,
+                    OrderJsonWriter.INSTANCE, FieldProjection.all());
+
+            JsonNode page = objectMapper.readTree(out.toByteArray());
+            assertEquals(2, page.get("items").size());
+            assertEquals("ASSIGNED", page.get("items").get(0).get("status").asText());
+            assertTrue(page.get("nextCursor").isNull());
+        }
+
+        @Test
+        @DisplayName("Should produce the same fields Jackson produces for the entity")
+        void shouldMatchJacksonOutput() throws IOException {
+            Order order = orders(1).get(0);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            writer.writePage(out, List.of(order), o -> true, 1, OrderJsonWriter.INSTANCE, FieldProjection.all());
+
+            JsonNode streamed = objectMapper.readTree(out.toByteArray()).get("items").get(0);
+            assertEquals(objectMapper.valueToTree(order), streamed);
+        }
+    }
+
+    @Nested
+    @DisplayName("writeArray with projection")
+    class WriteArray {
+
+        @Test
+        @DisplayName("Should write only the requested fields")
+        void shouldProjectFields() throws IOException {
+            Courier courier = new Courier(new Point(10, 20), CourierType.CAR);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            writer.writeArray(out, List.of(courier), CourierJsonWriter.INSTANCE,
+                    FieldProjection.parse("id, currentLocation", CourierJsonWriter.FIELDS));
+
+            JsonNode item = objectMapper.readTree(out.toByteArray()).get(0);
+            assertEquals(2, item.size());
+            assertEquals(courier.getId().toString(), item.get("id").asText());
+            assertEquals(20.0, item.get("currentLocation").get("y").asDouble());
+        }
+
+        @Test
+        @DisplayName("Should match Jackson output for couriers without projection")
+        void shouldMatchJacksonOutput() throws IOException {
+            Courier courier = new Courier(new Point(10, 20), CourierType.BICYCLE);
+            courier.setStatus(CourierStatus.BUSY);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            writer.writeArray(out, List.of(courier), CourierJsonWriter.INSTANCE, FieldProjection.all());
+
+            assertEquals(objectMapper.valueToTree(List.of(courier)), objectMapper.readTree(out.toByteArray()));
+        }
+
+        @Test
+        @DisplayName("Should reject unknown field names")
+        void shouldRejectUnknownField() {
+            assertThrows(IllegalArgumentException.class,
+                    () -> FieldProjection.parse("id,password", CourierJsonWriter.FIELDS));
+        }
+    }
+}
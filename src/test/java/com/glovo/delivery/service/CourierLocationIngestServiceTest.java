@@ -0,0 +1,140 @@
+package com.glovo.delivery.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.glovo.delivery.dto.BulkLocationUpdateResponse;
+import com.glovo.delivery.dto.CourierLocationUpdate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CourierLocationIngestServiceTest {
+
+    @Mock
+    private CourierService courierService;
+
+    private CourierLocationIngestService ingestService;
+
+    private final List<Integer> batchSizes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ingestService = new CourierLocationIngestService(courierService, new ObjectMapper(), 2, 128);
+    }
+
+    private BulkLocationUpdateResponse ingest(String body) throws IOException {
+        return ingestService.ingest(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void applyAll() {
+        when(courierService.applyLocationUpdates(any(), any())).thenAnswer(inv -> {
+            List<CourierLocationUpdate> batch = inv.getArgument(0);
+            batchSizes.add(batch.size());
+            return batch.size();
+        });
+    }
+
+    @Test
+    @DisplayName("Should apply valid lines in batches of the configured size")
+    void shouldApplyInBatches() throws IOException {
+        applyAll();
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 5; i++) {
+            body.append("{\"courierId\":\"").append(UUID.randomUUID()).append("\",\"x\":").append(i).append(",\"y\":50}\n");
+        }
+
+        BulkLocationUpdateResponse response = ingest(body.toString());
+
+        assertEquals(5, response.getReceived());
+        assertEquals(5, response.getApplied());
+        assertEquals(0, response.getRejected());
+        assertEquals(List.of(2, 2, 1), batchSizes);
+    }
+
+    @Test
+    @DisplayName("Should reject bad lines without aborting the stream")
+    void shouldRejectBadLines() throws IOException {
+        applyAll();
+        String body = """
+                {"courierId":"%s","x":10,"y":20}
+                not json
+                {"courierId":"%s","x":150,"y":20}
+
+                {"x":10,"y":20}
+                {"courierId":"%s","x":10}
+                {"courierId":"%s","x":30,"y":40}
+                """.formatted(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+
+        BulkLocationUpdateResponse response = ingest(body);
+
+        assertEquals(6, response.getReceived());
+        assertEquals(2, response.getApplied());
+        assertEquals(4, response.getRejected());
+        assertEquals("line 2: malformed JSON", response.getErrors().get(0));
+        assertTrue(response.getErrors().get(1).startsWith("line 3: coordinates"));
+        assertTrue(response.getErrors().get(2).startsWith("line 5: courierId"));
+        assertTrue(response.getErrors().get(3).startsWith("line 6: x and y"));
+    }
+
+    @Test
+    @DisplayName("Should report unknown couriers with their line number")
+    void shouldRejectUnknownCouriers() throws IOException {
+        UUID unknown = UUID.randomUUID();
+        when(courierService.applyLocationUpdates(any(), any())).thenAnswer(inv -> {
+            List<CourierLocationUpdate> batch = inv.getArgument(0);
+            IntConsumer unknownCourier = inv.getArgument(1);
+            unknownCourier.accept(1);
+            return batch.size() - 1;
+        });
+
+        String body = "{\"courierId\":\"" + UUID.randomUUID() + "\",\"x\":1,\"y\":1}\n"
+                + "{\"courierId\":\"" + unknown + "\",\"x\":1,\"y\":1}\n";
+
+        BulkLocationUpdateResponse response = ingest(body);
+
+        assertEquals(1, response.getApplied());
+        assertEquals(1, response.getRejected());
+        assertEquals("line 2: courier not found: " + unknown, response.getErrors().get(0));
+    }
+
+    @Test
+    @DisplayName("Should reject a line over the maximum length and go on with the next one")
+    void shouldRejectOverlongLines() throws IOException {
+        applyAll();
+        String body = "{\"courierId\":\"" + UUID.randomUUID() + "\",\"x\":1,\"y\":1" + " ".repeat(1000) + "}\n"
+                + "{\"courierId\":\"" + UUID.randomUUID() + "\",\"x\":2,\"y\":2}\r\n"
+                + "x".repeat(10_000);
+
+        BulkLocationUpdateResponse response = ingest(body);
+
+        assertEquals(3, response.getReceived());
+        assertEquals(1, response.getApplied());
+        assertEquals(List.of("line 1: line longer than 128 characters", "line 3: line longer than 128 characters"),
+                response.getErrors());
+    }
+
+    @Test
+    @DisplayName("Empty body should apply nothing")
+    void shouldHandleEmptyBody() throws IOException {
+        BulkLocationUpdateResponse response = ingest("");
+
+        assertEquals(0, response.getReceived());
+        verifyNoInteractions(courierService);
+    }
+}
@@ -1,5 +1,7 @@
 package com.glovo.delivery.service;
 
+import com.glovo.delivery.dto.CourierLocationUpdate;
+import com.glovo.delivery.dto.DispatchStatsResponse;
 import com.glovo.delivery.dto.UpdateLocationRequest;
 import com.glovo.delivery.exception.CourierNotFoundException;
 import com.glovo.delivery.model.Courier;
@@ -7,14 +9,18 @@ import com.glovo.delivery.model.Point;
 import com.glovo.delivery.model.enums.CourierStatus;
 import com.glovo.delivery.model.enums.CourierType;
 import com.glovo.delivery.repository.CourierRepository;
+import com.glovo.delivery.service.snapshot.FleetSnapshotHolder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -29,6 +35,12 @@ class CourierServiceTest {
     @Mock
     private CourierRepository courierRepository;
 
+    @Mock
+    private LocationCoalescer locationCoalescer;
+
+    @Spy
+    private FleetSnapshotHolder snapshotHolder = new FleetSnapshotHolder();
+
     @InjectMocks
     private CourierService courierService;
 
@@ -58,38 +70,50 @@ class CourierServiceTest {
     }
 
     @Test
-    @DisplayName("getFreeCouriers should delegate to repository")
+    @DisplayName("getFreeCouriers should read the published snapshot without touching the repository")
     void shouldGetFreeCouriers() {
-        List<Courier> freeCouriers = List.of(testCourier);
-        when(courierRepository.findFree()).thenReturn(freeCouriers);
+        Courier busy = new Courier(new Point(30, 30), CourierType.CAR);
+        busy.setStatus(CourierStatus.BUSY);
+        snapshotHolder.publish(new ArrayList<>(List.of(testCourier.copy(), busy.copy())), emptyStats());
 
         List<Courier> result = courierService.getFreeCouriers();
         assertEquals(1, result.size());
-        verify(courierRepository).findFree();
+        assertEquals(testCourier.getId(), result.get(0).getId());
+        verifyNoInteractions(courierRepository);
     }
 
     @Test
-    @DisplayName("getAllCouriers should delegate to repository")
+    @DisplayName("getAllCouriers should read the published snapshot without touching the repository")
     void shouldGetAllCouriers() {
-        when(courierRepository.findAll()).thenReturn(List.of(testCourier));
+        snapshotHolder.publish(new ArrayList<>(List.of(testCourier.copy())), emptyStats());
 
         List<Courier> result = courierService.getAllCouriers();
         assertEquals(1, result.size());
-        verify(courierRepository).findAll();
+        assertThrows(UnsupportedOperationException.class, () -> result.add(testCourier));
+        verifyNoInteractions(courierRepository);
+    }
+
+    private static DispatchStatsResponse emptyStats() {
+        DispatchStatsResponse stats = new DispatchStatsResponse();
+        stats.setOrdersByStatus(new HashMap<>());
+        stats.setCouriersByStatus(new HashMap<>());
+        return stats;
     }
 
     @Test
-    @DisplayName("updateLocation should update and save courier")
+    @DisplayName("updateLocation should submit the new location to the coalescer")
     void shouldUpdateLocation() {
         Point newLocation = new Point(80, 90);
         UpdateLocationRequest request = new UpdateLocationRequest(newLocation);
 
         when(courierRepository.findById(testCourier.getId())).thenReturn(Optional.of(testCourier));
-        when(courierRepository.save(any(Courier.class))).thenReturn(testCourier);
 
         Courier result = courierService.updateLocation(testCourier.getId(), request);
+        assertEquals(testCourier.getId(), result.getId());
         assertEquals(newLocation, result.getCurrentLocation());
-        verify(courierRepository).save(testCourier);
+        // The stored courier moves only when the coalescer flushes
+        assertEquals(new Point(10, 20), testCourier.getCurrentLocation());
+        verify(locationCoalescer).submit(testCourier, 80, 90);
     }
 
     @Test
@@ -102,6 +126,32 @@ class CourierServiceTest {
                 () -> courierService.updateLocation(id, new UpdateLocationRequest(new Point(50, 50))));
     }
 
+    @Test
+    @DisplayName("applyLocationUpdates should submit known couriers and report unknown ones")
+    void shouldApplyLocationUpdates() {
+        UUID unknown = UUID.randomUUID();
+        when(courierRepository.findAllById(eq(List.of(testCourier.getId(), unknown, testCourier.getId())), anyList()))
+                .thenAnswer(invocation -> {
+                    List<Courier> into = invocation.getArgument(1);
+                    into.add(testCourier);
+                    into.add(null);
+                    into.add(testCourier);
+                    return into;
+                });
+
+        List<Integer> rejected = new ArrayList<>();
+        int applied = courierService.applyLocationUpdates(List.of(
+                new CourierLocationUpdate(testCourier.getId(), 30.0, 40.0),
+                new CourierLocationUpdate(unknown, 1.0, 1.0),
+                new CourierLocationUpdate(testCourier.getId(), 35.0, 45.0)), rejected::add);
+
+        assertEquals(2, applied);
+        assertEquals(List.of(1), rejected);
+        verify(locationCoalescer).submit(testCourier, 30, 40);
+        verify(locationCoalescer).submit(testCourier, 35, 45);
+        verify(courierRepository, never()).findById(any());
+    }
+
     @Test
     @DisplayName("registerCourier should save and return courier")
     void shouldRegisterCourier() {
@@ -110,5 +160,6 @@ class CourierServiceTest {
         Courier result = courierService.registerCourier(testCourier);
         assertEquals(testCourier.getId(), result.getId());
         verify(courierRepository).save(testCourier);
+        verify(snapshotHolder).markDirty();
     }
 }
@@ -0,0 +1,130 @@
+package com.glovo.delivery.service;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.glovo.delivery.loadtest.DispatchContentionHarness;
+import com.glovo.delivery.loadtest.DispatchContentionHarness.Result;
+import com.glovo.delivery.loadtest.DispatchContentionHarness.Settings;
+import com.glovo.delivery.loadtest.DispatchEngine;
+import com.glovo.delivery.loadtest.DispatchInvariantChecker;
+import com.glovo.delivery.loadtest.DispatchServiceEngine;
+import com.glovo.delivery.model.Courier;
+import com.glovo.delivery.model.Order;
+import com.glovo.delivery.model.Point;
+import com.glovo.delivery.model.enums.CourierStatus;
+import com.glovo.delivery.model.enums.CourierType;
+import com.glovo.delivery.model.enums.OrderStatus;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DispatchServiceConcurrencyTest {
+
+    private static final Logger DISPATCH_LOGGER = (Logger) LoggerFactory.getLogger("com.glovo.delivery");
+    private static Level previousLevel;
+
+    @BeforeAll
+    static void quietLogging() {
+        previousLevel = DISPATCH_LOGGER.getLevel();
+        DISPATCH_LOGGER.setLevel(Level.WARN);
+    }
+
+    @AfterAll
+    static void restoreLogging() {
+        DISPATCH_LOGGER.setLevel(previousLevel);
+    }
+
+    @ParameterizedTest(name = "virtual threads = {0}, compact storage = {1}, supply cache = {2}")
+    @CsvSource({"false, false, false", "true, false, false", "false, true, false", "true, true, false",
+            "false, false, true", "true, true, true"})
+    @DisplayName("Concurrent dispatch, complete and location updates should keep the fleet consistent")
+    void shouldStayConsistentUnderContention(boolean virtualThreads, boolean compactStorage, boolean supplyCache) {
+        Settings settings = new Settings(8, virtualThreads, Duration.ofMillis(300), 30, 35);
+
+        Result result = DispatchContentionHarness.run(
+                () -> new DispatchServiceEngine(50, 42, compactStorage, supplyCache), settings);
+
+        assertTrue(result.submittedOrders() > 0);
+        assertEquals(0, result.errors());
+        assertEquals(List.of(), result.violations());
+    }
+
+    @Nested
+    @DisplayName("Invariant checker")
+    class InvariantChecker {
+
+        @Test
+        @DisplayName("Should report a courier assigned to two orders")
+        void shouldReportDoubleAssignment() {
+            Courier courier = new Courier(new Point(10, 10), CourierType.CAR);
+            courier.setStatus(CourierStatus.BUSY);
+            Order first = assigned(courier);
+            Order second = assigned(courier);
+
+            List<String> violations = DispatchInvariantChecker.check(
+                    new FixedEngine(List.of(first, second), List.of(courier), 0), List.of(first, second));
+
+            assertEquals(1, violations.size());
+            assertTrue(violations.get(0).startsWith("double-assignment"));
+        }
+
+        @Test
+        @DisplayName("Should report lost orders, a queue mismatch and a starved queue")
+        void shouldReportLostAndStarvedOrders() {
+            Courier free = new Courier(new Point(10, 10), CourierType.CAR);
+            Order queued = new Order(new Point(1, 1), new Point(2, 2), 5, 1.0);
+            queued.setStatus(OrderStatus.QUEUED);
+            Order lost = new Order(new Point(1, 1), new Point(2, 2), 5, 1.0);
+
+            List<String> violations = DispatchInvariantChecker.check(
+                    new FixedEngine(List.of(queued), List.of(free), 0), List.of(queued, lost));
+
+            assertEquals(3, violations.size());
+            assertTrue(violations.stream().anyMatch(v -> v.startsWith("lost")));
+            assertTrue(violations.stream().anyMatch(v -> v.startsWith("queue-size")));
+            assertTrue(violations.stream().anyMatch(v -> v.startsWith("starved")));
+        }
+
+        private static Order assigned(Courier courier) {
+            Order order = new Order(new Point(1, 1), new Point(2, 2), 5, 1.0);
+            order.setStatus(OrderStatus.ASSIGNED);
+            order.setAssignedCourierId(courier.getId());
+            return order;
+        }
+    }
+
+    private record FixedEngine(Collection<Order> orders, Collection<Courier> couriers, int queueSize)
+            implements DispatchEngine {
+
+        @Override
+        public Order dispatch(Order order) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void complete(Order order) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void updateLocation(UUID courierId, double x, double y) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
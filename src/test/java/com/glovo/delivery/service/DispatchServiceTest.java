@@ -6,10 +6,19 @@ import com.glovo.delivery.model.Order;
 import com.glovo.delivery.model.Point;
 import com.glovo.delivery.model.enums.CourierStatus;
 import com.glovo.delivery.model.enums.CourierType;
+import com.glovo.delivery.model.enums.DispatchEventType;
 import com.glovo.delivery.model.enums.OrderStatus;
 import com.glovo.delivery.repository.CourierRepository;
 import com.glovo.delivery.repository.OrderRepository;
+import com.glovo.delivery.service.event.DispatchEventBuffer;
+import com.glovo.delivery.service.jfr.DispatchFlightRecorder;
+import com.glovo.delivery.service.metrics.DispatchMetrics;
+import com.glovo.delivery.service.shadow.ShadowEvaluator;
+import com.glovo.delivery.service.snapshot.FleetSnapshot;
+import com.glovo.delivery.service.snapshot.FleetSnapshotHolder;
 import com.glovo.delivery.service.strategy.CourierMatchingStrategy;
+import com.glovo.delivery.service.supply.NearestSupplyCache;
+import com.glovo.delivery.service.trace.DecisionTraceRecorder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -17,14 +26,18 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -40,6 +53,30 @@ class DispatchServiceTest {
     @Mock
     private CourierMatchingStrategy matchingStrategy;
 
+    @Mock
+    private DispatchEventBuffer eventBuffer;
+
+    @Mock
+    private LocationCoalescer locationCoalescer;
+
+    @Spy
+    private FleetSnapshotHolder snapshotHolder = new FleetSnapshotHolder();
+
+    @Mock
+    private DispatchMetrics metrics;
+
+    @Spy
+    private DispatchFlightRecorder flightRecorder = DispatchFlightRecorder.disabled();
+
+    @Spy
+    private DecisionTraceRecorder traceRecorder = DecisionTraceRecorder.disabled();
+
+    @Spy
+    private NearestSupplyCache supplyCache = NearestSupplyCache.disabled();
+
+    @Spy
+    private ShadowEvaluator shadowEvaluator = ShadowEvaluator.disabled();
+
     @InjectMocks
     private DispatchService dispatchService;
 
@@ -50,6 +87,20 @@ class DispatchServiceTest {
     void setUp() {
         testOrder = new Order(new Point(50, 50), new Point(60, 60), 5, 3.0);
         testCourier = new Courier(new Point(55, 55), CourierType.BICYCLE);
+        // The service calls the index-returning variant; let it delegate to the stubbed findBestCourier
+        lenient().when(matchingStrategy.selectBestCourier(any(), any())).thenCallRealMethod();
+    }
+
+    /**
+     * The service passes its own reusable list to {@code findFree}; fill it like the repository does.
+     */
+    private void stubFreeCouriers(List<Courier> couriers) {
+        when(courierRepository.findFree(anyList())).thenAnswer(invocation -> {
+            List<Courier> into = invocation.getArgument(0);
+            into.clear();
+            into.addAll(couriers);
+            return into;
+        });
     }
 
     @Nested
@@ -60,7 +111,7 @@ class DispatchServiceTest {
         @DisplayName("Should assign best courier to order")
         void shouldAssignBestCourier() {
             List<Courier> freeCouriers = List.of(testCourier);
-            when(courierRepository.findFree()).thenReturn(freeCouriers);
+            stubFreeCouriers(freeCouriers);
             when(matchingStrategy.findBestCourier(eq(testOrder), eq(freeCouriers)))
                     .thenReturn(Optional.of(testCourier));
             when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
@@ -73,12 +124,13 @@ class DispatchServiceTest {
             assertEquals(CourierStatus.BUSY, testCourier.getStatus());
             verify(orderRepository, times(2)).save(testOrder); // SEARCHING + ASSIGNED
             verify(courierRepository).save(testCourier);
+            verify(locationCoalescer).flush(); // fresh locations before matching
         }
 
         @Test
         @DisplayName("Should set order to SEARCHING before finding courier")
         void shouldSetSearchingStatus() {
-            when(courierRepository.findFree()).thenReturn(List.of(testCourier));
+            stubFreeCouriers(List.of(testCourier));
             when(matchingStrategy.findBestCourier(any(), any()))
                     .thenReturn(Optional.of(testCourier));
             when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
@@ -93,7 +145,7 @@ class DispatchServiceTest {
         @Test
         @DisplayName("Should enqueue order when no free couriers (instead of throwing)")
         void shouldEnqueueWhenNoCouriersAvailable() {
-            when(courierRepository.findFree()).thenReturn(Collections.emptyList());
+            stubFreeCouriers(Collections.emptyList());
             when(matchingStrategy.findBestCourier(any(), any())).thenReturn(Optional.empty());
             when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
 
@@ -101,12 +153,26 @@ class DispatchServiceTest {
 
             assertEquals(OrderStatus.QUEUED, testOrder.getStatus());
             assertEquals(1, dispatchService.getQueueSize());
+            verify(eventBuffer).publish(eq(DispatchEventType.ORDER_QUEUED), eq(testOrder.getId()), isNull(), anyInt());
+        }
+
+        @Test
+        @DisplayName("Should publish ORDER_ASSIGNED event with courier id")
+        void shouldPublishAssignedEvent() {
+            stubFreeCouriers(List.of(testCourier));
+            when(matchingStrategy.findBestCourier(any(), any())).thenReturn(Optional.of(testCourier));
+            when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
+            when(courierRepository.save(any(Courier.class))).thenReturn(testCourier);
+
+            dispatchService.dispatch(testOrder);
+
+            verify(eventBuffer).publish(DispatchEventType.ORDER_ASSIGNED, testOrder.getId(), testCourier.getId(), 55);
         }
 
         @Test
         @DisplayName("Should enqueue order when strategy returns empty (all couriers filtered out)")
         void shouldEnqueueWhenStrategyReturnsEmpty() {
-            when(courierRepository.findFree()).thenReturn(List.of(testCourier));
+            stubFreeCouriers(List.of(testCourier));
             when(matchingStrategy.findBestCourier(any(), any())).thenReturn(Optional.empty());
             when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
 
@@ -115,6 +181,107 @@ class DispatchServiceTest {
             assertEquals(OrderStatus.QUEUED, testOrder.getStatus());
             assertEquals(1, dispatchService.getQueueSize());
         }
+
+        @Test
+        @DisplayName("Should offer the live pick and its candidates to the shadow evaluator")
+        void shouldOfferDecisionToShadow() {
+            Courier farther = new Courier(new Point(90, 90), CourierType.BICYCLE);
+            stubFreeCouriers(List.of(farther, testCourier));
+            when(matchingStrategy.findBestCourier(any(), any())).thenReturn(Optional.of(testCourier));
+            when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
+            when(courierRepository.save(any(Courier.class))).thenReturn(testCourier);
+
+            dispatchService.dispatch(testOrder);
+
+            verify(shadowEvaluator).offer(eq(testOrder), eq(List.of(farther, testCourier)), eq(1));
+        }
+
+        @Test
+        @DisplayName("Should match over the cached nearest supply without scanning all free couriers")
+        void shouldMatchOverCachedSupply() {
+            stubCachedSupply(List.of(testCourier));
+            when(matchingStrategy.findBestCourier(any(), any())).thenReturn(Optional.of(testCourier));
+            when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
+            when(courierRepository.save(any(Courier.class))).thenReturn(testCourier);
+
+            dispatchService.dispatch(testOrder);
+
+            assertEquals(testCourier.getId(), testOrder.getAssignedCourierId());
+            verify(courierRepository, never()).findFree(anyList());
+        }
+
+        @Test
+        @DisplayName("Should fall back to all free couriers when no cached courier fits")
+        void shouldFallBackWhenCachedSupplyDoesNotFit() {
+            Courier pedestrian = new Courier(new Point(50, 51), CourierType.PEDESTRIAN);
+            stubCachedSupply(List.of(pedestrian));
+            stubFreeCouriers(List.of(pedestrian, testCourier));
+            when(matchingStrategy.findBestCourier(any(), any())).thenAnswer(invocation -> {
+                List<Courier> candidates = invocation.getArgument(1);
+                return candidates.contains(testCourier) ? Optional.of(testCourier) : Optional.empty();
+            });
+            when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
+            when(courierRepository.save(any(Courier.class))).thenReturn(testCourier);
+
+            dispatchService.dispatch(testOrder);
+
+            assertEquals(testCourier.getId(), testOrder.getAssignedCourierId());
+            verify(courierRepository).findFree(anyList());
+            // Only the decision over all free couriers reaches the shadow, not the cached miss
+            verify(shadowEvaluator).offer(eq(testOrder), anyList(), anyInt());
+            verify(shadowEvaluator).offer(testOrder, List.of(pedestrian, testCourier), 1);
+        }
+
+        private void stubCachedSupply(List<Courier> couriers) {
+            doAnswer(invocation -> {
+                List<Courier> into = invocation.getArgument(1);
+                into.clear();
+                into.addAll(couriers);
+                return true;
+            }).when(supplyCache).nearestFree(any(), anyList());
+        }
+    }
+
+    @Nested
+    @DisplayName("dispatchBatch")
+    class DispatchBatch {
+
+        @Test
+        @DisplayName("Should scan free couriers once and not reuse an assigned courier")
+        void shouldMatchWholeBatchAgainstOneSnapshot() {
+            Order second = new Order(new Point(52, 52), new Point(60, 60), 5, 3.0);
+            Order third = new Order(new Point(54, 54), new Point(60, 60), 5, 3.0);
+            Courier other = new Courier(new Point(50, 51), CourierType.CAR);
+
+            stubFreeCouriers(List.of(testCourier, other));
+            when(matchingStrategy.findBestCourier(any(), any()))
+                    .thenAnswer(inv -> {
+                        List<Courier> candidates = inv.getArgument(1);
+                        return candidates.isEmpty() ? Optional.empty() : Optional.of(candidates.get(0));
+                    });
+
+            dispatchService.dispatchBatch(List.of(testOrder, second, third));
+
+            assertEquals(testCourier.getId(), testOrder.getAssignedCourierId());
+            assertEquals(other.getId(), second.getAssignedCourierId());
+            assertEquals(OrderStatus.QUEUED, third.getStatus());
+            assertEquals(1, dispatchService.getQueueSize());
+            verify(courierRepository, times(1)).findFree(anyList());
+            verify(locationCoalescer, times(1)).flush();
+            verify(matchingStrategy, times(2)).findBestCourier(any(), any());
+            verify(shadowEvaluator).offer(eq(testOrder), anyList(), eq(0));
+            verify(shadowEvaluator).offer(eq(second), anyList(), eq(0));
+        }
+
+        @Test
+        @DisplayName("Should do nothing for an empty batch")
+        void shouldIgnoreEmptyBatch() {
+            dispatchService.dispatchBatch(List.of());
+
+            verifyNoInteractions(courierRepository, orderRepository, matchingStrategy);
+            verify(locationCoalescer).guardWritesWith(any()); // registered at construction
+            verifyNoMoreInteractions(locationCoalescer);
+        }
     }
 
     @Nested
@@ -137,6 +304,8 @@ class DispatchServiceTest {
             assertEquals(OrderStatus.COMPLETED, result.getStatus());
             assertEquals(CourierStatus.FREE, testCourier.getStatus());
             verify(courierRepository).save(testCourier);
+            verify(eventBuffer).publish(DispatchEventType.ORDER_COMPLETED, testOrder.getId(), testCourier.getId(), 55);
+            verify(eventBuffer).publish(DispatchEventType.COURIER_FREED, testOrder.getId(), testCourier.getId(), 55);
         }
 
         @Test
@@ -161,7 +330,7 @@ class DispatchServiceTest {
         void shouldProcessQueueAfterComplete() {
             // First: enqueue an order (no couriers available)
             Order queuedOrder = new Order(new Point(10, 10), new Point(20, 20), 3, 2.0);
-            when(courierRepository.findFree()).thenReturn(Collections.emptyList());
+            stubFreeCouriers(Collections.emptyList());
             when(matchingStrategy.findBestCourier(any(), any())).thenReturn(Optional.empty());
             when(orderRepository.save(any(Order.class))).thenAnswer(inv -> inv.getArgument(0));
 
@@ -177,7 +346,7 @@ class DispatchServiceTest {
             when(courierRepository.findById(testCourier.getId())).thenReturn(Optional.of(testCourier));
             when(courierRepository.save(any(Courier.class))).thenReturn(testCourier);
             // After freeing: processQueue finds free courier
-            when(courierRepository.findFree()).thenReturn(List.of(testCourier));
+            stubFreeCouriers(List.of(testCourier));
             when(orderRepository.findById(queuedOrder.getId())).thenReturn(Optional.of(queuedOrder));
             when(matchingStrategy.findBestCourier(eq(queuedOrder), any()))
                     .thenReturn(Optional.of(testCourier));
@@ -263,7 +432,7 @@ class DispatchServiceTest {
         @DisplayName("Should increment totalAssignments after dispatch")
         void shouldTrackTotalAssignments() {
             // Dispatch an order first
-            when(courierRepository.findFree()).thenReturn(List.of(testCourier));
+            stubFreeCouriers(List.of(testCourier));
             when(matchingStrategy.findBestCourier(any(), any()))
                     .thenReturn(Optional.of(testCourier));
             when(orderRepository.save(any())).thenReturn(testOrder);
@@ -281,4 +450,67 @@ class DispatchServiceTest {
             assertEquals(1, stats.getTotalAssignments());
         }
     }
+
+    @Nested
+    @DisplayName("refreshSnapshot")
+    class RefreshSnapshot {
+
+        @Test
+        @DisplayName("Should publish detached copies with a consistent order/courier view")
+        void shouldPublishDetachedCopies() {
+            stubFreeCouriers(List.of(testCourier));
+            when(matchingStrategy.findBestCourier(any(), any())).thenReturn(Optional.of(testCourier));
+            dispatchService.dispatch(testOrder);
+
+            when(courierRepository.findAllAfter(null)).thenReturn(List.of(testCourier));
+            when(orderRepository.countByStatus(any())).thenReturn(0L);
+            when(orderRepository.countByStatus(OrderStatus.ASSIGNED)).thenReturn(1L);
+            when(courierRepository.countByStatus(any())).thenReturn(0L);
+            when(courierRepository.countByStatus(CourierStatus.BUSY)).thenReturn(1L);
+
+            FleetSnapshot snapshot = dispatchService.refreshSnapshot();
+
+            assertEquals(1, snapshot.getEpoch());
+            assertEquals(1, snapshot.getStats().getSnapshotEpoch());
+            assertEquals(1L, snapshot.getStats().getOrdersByStatus().get("ASSIGNED"));
+            assertEquals(CourierStatus.BUSY, snapshot.getCouriers().get(0).getStatus());
+            assertTrue(snapshot.getFreeCouriers().isEmpty());
+            assertNotSame(testCourier, snapshot.getCouriers().get(0));
+            assertSame(snapshot, dispatchService.getPublishedSnapshot());
+        }
+
+        @Test
+        @DisplayName("Should not rebuild when nothing changed since the last publication")
+        void shouldSkipWhenClean() {
+            when(courierRepository.findAllAfter(null)).thenReturn(List.of());
+            FleetSnapshot first = dispatchService.refreshSnapshot();
+
+            FleetSnapshot second = dispatchService.refreshSnapshot();
+
+            assertSame(first, second);
+            verify(courierRepository, times(1)).findAllAfter(null);
+        }
+
+        @Test
+        @DisplayName("Should copy only couriers whose version changed since the last snapshot")
+        void shouldReuseUnchangedCopies() {
+            Courier other = new Courier(new Point(10, 10), CourierType.CAR);
+            List<Courier> fleet = new ArrayList<>(List.of(testCourier, other));
+            fleet.sort(Comparator.comparing(Courier::getId));
+            when(courierRepository.findAllAfter(null)).thenReturn(fleet);
+            FleetSnapshot first = dispatchService.refreshSnapshot();
+
+            testCourier.setStatus(CourierStatus.BUSY);
+            snapshotHolder.markDirty();
+            FleetSnapshot second = dispatchService.refreshSnapshot();
+
+            int o = fleet.indexOf(other);
+            int t = fleet.indexOf(testCourier);
+            assertSame(first.getCouriers().get(o), second.getCouriers().get(o));
+            Courier busy = second.getCouriers().get(t);
+            assertNotSame(first.getCouriers().get(t), busy);
+            assertEquals(CourierStatus.BUSY, busy.getStatus());
+            assertEquals(List.of(other.getId()), second.getFreeCouriers().stream().map(Courier::getId).toList());
+        }
+    }
 }
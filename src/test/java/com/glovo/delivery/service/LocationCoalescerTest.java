@@ -0,0 +1,184 @@
+package com.glovo.delivery.service;
+
+import com.glovo.delivery.dto.LocationCoalescingStats;
+import com.glovo.delivery.model.Courier;
+import com.glovo.delivery.model.Point;
+import com.glovo.delivery.model.enums.CourierType;
+import com.glovo.delivery.repository.CourierRepository;
+import com.glovo.delivery.service.snapshot.FleetSnapshotHolder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocationCoalescerTest {
+
+    private CourierRepository courierRepository;
+    private Courier courier;
+
+    @BeforeEach
+    void setUp() {
+        courierRepository = new CourierRepository();
+        courier = courierRepository.save(new Courier(new Point(10, 10), CourierType.BICYCLE));
+    }
+
+    @Test
+    @DisplayName("Should keep only the newest position until flushed")
+    void shouldCoalesceUntilFlush() {
+        LocationCoalescer coalescer = new LocationCoalescer(courierRepository, new FleetSnapshotHolder(), true, 1000, 60_000);
+
+        coalescer.submit(courier, 20, 20);
+        coalescer.submit(courier, 30, 30);
+        coalescer.submit(courier, 40, 40);
+        assertEquals(new Point(10, 10), courier.getCurrentLocation());
+
+        assertEquals(1, coalescer.flush());
+        assertEquals(new Point(40, 40), courier.getCurrentLocation());
+
+        LocationCoalescingStats stats = coalescer.getStats();
+        assertEquals(3, stats.getSubmitted());
+        assertEquals(1, stats.getApplied());
+        assertEquals(0, stats.getPending());
+        assertEquals(3.0, stats.getCoalescingRatio(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Positions of many couriers should be kept per slot and applied once each")
+    void shouldKeepOnePendingPositionPerSlot() {
+        LocationCoalescer coalescer = new LocationCoalescer(courierRepository, new FleetSnapshotHolder(), true, 1000, 60_000);
+        Courier[] fleet = new Courier[3000];
+        for (int i = 0; i < fleet.length; i++) {
+            fleet[i] = courierRepository.save(new Courier(new Point(0, 0), CourierType.CAR));
+        }
+
+        for (int round = 1; round <= 3; round++) {
+            for (Courier each : fleet) {
+                coalescer.submit(each, round, round);
+            }
+        }
+        assertEquals(fleet.length, coalescer.getStats().getPending());
+
+        assertEquals(fleet.length, coalescer.flush());
+        for (Courier each : fleet) {
+            assertEquals(new Point(3, 3), each.getCurrentLocation());
+        }
+        assertEquals(0, coalescer.getStats().getPending());
+    }
+
+    @Test
+    @Tag("allocation")
+    @DisplayName("Submitting and flushing a stored courier's position should not allocate")
+    void submitAndFlushShouldNotAllocate() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        LocationCoalescer coalescer = new LocationCoalescer(courierRepository, new FleetSnapshotHolder(), true, 1000, 60_000);
+        for (int i = 0; i < 20_000; i++) {
+            coalescer.submit(courier, i % 100, 50);
+            coalescer.flush();
+        }
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 20_000; i++) {
+            coalescer.submit(courier, i % 100, 50);
+            if ((i & 15) == 0) {
+                coalescer.flush();
+            }
+        }
+        coalescer.flush();
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertEquals(new Point(99, 50), courier.getCurrentLocation());
+        assertTrue(allocated < 1024, "allocated " + allocated + " bytes for 20000 submits");
+    }
+
+    @Test
+    @DisplayName("A courier that is not stored should be written through")
+    void unstoredCourierShouldWriteThrough() {
+        LocationCoalescer coalescer = new LocationCoalescer(courierRepository, new FleetSnapshotHolder(), true, 1000, 60_000);
+        Courier unstored = new Courier(new Point(0, 0), CourierType.CAR);
+
+        coalescer.submit(unstored, 5, 5);
+
+        assertEquals(new Point(5, 5), unstored.getCurrentLocation());
+        assertEquals(0, coalescer.getStats().getPending());
+    }
+
+    @Test
+    @DisplayName("Flush with nothing pending should be a no-op")
+    void emptyFlushShouldDoNothing() {
+        LocationCoalescer coalescer = new LocationCoalescer(courierRepository, new FleetSnapshotHolder(), true, 1000, 60_000);
+
+        assertEquals(0, coalescer.flush());
+        assertEquals(0, coalescer.getStats().getFlushes());
+    }
+
+    @Test
+    @DisplayName("Submit should flush inline once the oldest pending position is too stale")
+    void shouldFlushInlineWhenStale() throws InterruptedException {
+        LocationCoalescer coalescer = new LocationCoalescer(courierRepository, new FleetSnapshotHolder(), true, 1, 1);
+        Courier other = courierRepository.save(new Courier(new Point(0, 0), CourierType.CAR));
+
+        coalescer.submit(courier, 20, 20);
+        Thread.sleep(5);
+        coalescer.submit(other, 50, 50);
+
+        assertEquals(new Point(20, 20), courier.getCurrentLocation());
+        assertEquals(new Point(50, 50), other.getCurrentLocation());
+    }
+
+    @Test
+    @DisplayName("Disabled coalescer should write through immediately")
+    void disabledShouldWriteThrough() {
+        LocationCoalescer coalescer = new LocationCoalescer(courierRepository, new FleetSnapshotHolder(), false, 0, 0);
+
+        coalescer.submit(courier, 70, 80);
+
+        assertEquals(new Point(70, 80), courier.getCurrentLocation());
+        assertEquals(1.0, coalescer.getStats().getCoalescingRatio(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("A reader under the guard lock should never see a half-written position")
+    void scheduledFlushShouldNotTearPositions() throws InterruptedException {
+        LocationCoalescer coalescer = new LocationCoalescer(courierRepository, new FleetSnapshotHolder(), true, 1, 1);
+        ReentrantLock dispatchLock = new ReentrantLock();
+        coalescer.guardWritesWith(dispatchLock);
+        coalescer.start();
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread writer = Thread.ofPlatform().start(() -> {
+            for (int i = 0; running.get(); i++) {
+                double position = i % 100;
+                coalescer.submit(courier, position, position);
+            }
+        });
+        try {
+            long deadline = System.nanoTime() + 300_000_000L;
+            while (System.nanoTime() < deadline) {
+                dispatchLock.lock();
+                try {
+                    assertEquals(courier.getLocationX(), courier.getLocationY());
+                } finally {
+                    dispatchLock.unlock();
+                }
+            }
+        } finally {
+            running.set(false);
+            writer.join();
+            coalescer.stop();
+        }
+        assertTrue(coalescer.getStats().getFlushes() > 0);
+    }
+
+    @Test
+    @DisplayName("Should reject a staleness bound shorter than the flush interval")
+    void shouldValidateConfiguration() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new LocationCoalescer(courierRepository, new FleetSnapshotHolder(), true, 100, 50));
+    }
+}
@@ -1,5 +1,6 @@
 package com.glovo.delivery.service;
 
+import com.glovo.delivery.dto.BatchCreateOrdersResponse;
 import com.glovo.delivery.dto.CreateOrderRequest;
 import com.glovo.delivery.exception.OrderNotFoundException;
 import com.glovo.delivery.model.Order;
@@ -7,13 +8,17 @@ import com.glovo.delivery.model.Point;
 import com.glovo.delivery.model.enums.OrderStatus;
 import com.glovo.delivery.repository.OrderRepository;
 import org.junit.jupiter.api.BeforeEach;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -115,4 +120,58 @@ class OrderServiceTest {
         assertTrue(result.isEmpty());
         verify(orderRepository).findByStatus(OrderStatus.ASSIGNED);
     }
+
+    @Nested
+    @DisplayName("createOrders (batch)")
+    class CreateOrders {
+
+        private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+        @BeforeEach
+        void setUp() {
+            orderService = new OrderService(orderRepository, dispatchService, validator);
+        }
+
+        @Test
+        @DisplayName("Should store valid items and dispatch them in one batch")
+        @SuppressWarnings("unchecked")
+        void shouldDispatchValidItemsTogether() {
+            when(orderRepository.save(any(Order.class))).thenAnswer(inv -> inv.getArgument(0));
+            doAnswer(inv -> {
+                ((List<Order>) inv.getArgument(0)).forEach(o -> o.setStatus(OrderStatus.ASSIGNED));
+                return null;
+            }).when(dispatchService).dispatchBatch(anyList());
+
+            BatchCreateOrdersResponse response = orderService.createOrders(List.of(validRequest, validRequest));
+
+            assertEquals(2, response.getCreated());
+            assertEquals(2, response.getAssigned());
+            assertEquals(0, response.getRejected());
+            verify(dispatchService).dispatchBatch(argThat(orders -> orders.size() == 2));
+            verify(dispatchService, never()).dispatch(any());
+        }
+
+        @Test
+        @DisplayName("Should report invalid items without failing the rest of the batch")
+        void shouldReportPartialFailures() {
+            when(orderRepository.save(any(Order.class))).thenAnswer(inv -> inv.getArgument(0));
+            CreateOrderRequest badPriority = new CreateOrderRequest(new Point(10, 20), new Point(30, 40), 11, 3.0);
+            CreateOrderRequest missingPickup = new CreateOrderRequest(null, new Point(30, 40), 5, 3.0);
+
+            BatchCreateOrdersResponse response = orderService.createOrders(
+                    Arrays.asList(badPriority, validRequest, missingPickup, null));
+
+            assertEquals(1, response.getCreated());
+            assertEquals(3, response.getRejected());
+            assertNotNull(response.getResults().get(1).getOrderId());
+            assertTrue(response.getResults().get(0).getError().contains("priority"));
+            assertTrue(response.getResults().get(2).getError().contains("pickupLocation"));
+            assertEquals("Order request is required", response.getResults().get(3).getError());
+            for (int i = 0; i < 4; i++) {
+                assertEquals(i, response.getResults().get(i).getIndex());
+            }
+            verify(orderRepository, times(1)).save(any(Order.class));
+            verify(dispatchService).dispatchBatch(argThat(orders -> orders.size() == 1));
+        }
+    }
 }
@@ -0,0 +1,166 @@
+package com.glovo.delivery.service.audit;
+
+import com.glovo.delivery.model.DispatchEvent;
+import com.glovo.delivery.model.enums.DispatchEventType;
+import com.glovo.delivery.service.event.DispatchEventBuffer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DispatchAuditLogTest {
+
+    private static final long DAY_ONE = Instant.parse("2026-10-18T23:59:00Z").toEpochMilli();
+    private static final long DAY_TWO = Instant.parse("2026-10-19T00:01:00Z").toEpochMilli();
+
+    private static final UUID ORDER_A = new UUID(2, 1);
+    private static final UUID ORDER_B = new UUID(2, 2);
+    private static final UUID COURIER_X = new UUID(1, 1);
+    private static final UUID COURIER_Y = new UUID(1, 2);
+
+    private static DispatchEvent event(long sequence, DispatchEventType type, long timestamp,
+                                       UUID orderId, UUID courierId) {
+        return new DispatchEvent(sequence, type, timestamp, orderId, courierId, 7);
+    }
+
+    private static List<AuditRecord> readAll(Path dir) throws Exception {
+        return AuditLogReader.scan(AuditLogReader.segments(dir, null, null), AuditRecordFilter.all());
+    }
+
+    @Nested
+    @DisplayName("Segment writer")
+    class SegmentWriter {
+
+        @Test
+        @DisplayName("Records round-trip through a mapped segment")
+        void roundTrip(@TempDir Path dir) throws Exception {
+            try (AuditSegmentWriter writer = new AuditSegmentWriter(dir, 4096)) {
+                writer.append(event(0, DispatchEventType.ORDER_QUEUED, DAY_ONE, ORDER_A, null));
+                writer.append(event(1, DispatchEventType.ORDER_ASSIGNED, DAY_ONE + 5, ORDER_A, COURIER_X));
+            }
+
+            List<AuditRecord> records = readAll(dir);
+
+            assertEquals(List.of(
+                    new AuditRecord(0, DAY_ONE, ORDER_A, null, 7, DispatchEventType.ORDER_QUEUED),
+                    new AuditRecord(1, DAY_ONE + 5, ORDER_A, COURIER_X, 7, DispatchEventType.ORDER_ASSIGNED)),
+                    records);
+        }
+
+        @Test
+        @DisplayName("A new segment starts on a new UTC day and when the current one is full")
+        void rollover(@TempDir Path dir) throws Exception {
+            // Header plus room for exactly two records
+            try (AuditSegmentWriter writer = new AuditSegmentWriter(dir, 16 + 2 * AuditRecord.SIZE)) {
+                writer.append(event(0, DispatchEventType.ORDER_QUEUED, DAY_ONE, ORDER_A, null));
+                writer.append(event(1, DispatchEventType.ORDER_QUEUED, DAY_TWO, ORDER_B, null));
+                writer.append(event(2, DispatchEventType.ORDER_ASSIGNED, DAY_TWO, ORDER_A, COURIER_X));
+                writer.append(event(3, DispatchEventType.ORDER_ASSIGNED, DAY_TWO, ORDER_B, COURIER_Y));
+                assertEquals(3, writer.getSegmentsOpened());
+            }
+
+            assertEquals(List.of("dispatch-audit-2026-10-18-000.bin", "dispatch-audit-2026-10-19-000.bin",
+                            "dispatch-audit-2026-10-19-001.bin"),
+                    AuditLogReader.segments(dir, null, null).stream().map(p -> p.getFileName().toString()).toList());
+            assertEquals(1, AuditLogReader.segments(dir, LocalDate.parse("2026-10-18"),
+                    LocalDate.parse("2026-10-18")).size());
+            assertEquals(4, readAll(dir).size());
+        }
+
+        @Test
+        @DisplayName("A restarted writer continues in a new segment instead of overwriting")
+        void restart(@TempDir Path dir) throws Exception {
+            try (AuditSegmentWriter writer = new AuditSegmentWriter(dir, 4096)) {
+                writer.append(event(0, DispatchEventType.ORDER_QUEUED, DAY_TWO, ORDER_A, null));
+            }
+            try (AuditSegmentWriter writer = new AuditSegmentWriter(dir, 4096)) {
+                writer.append(event(0, DispatchEventType.ORDER_QUEUED, DAY_TWO + 1, ORDER_B, null));
+            }
+
+            assertEquals(2, AuditLogReader.segments(dir, null, null).size());
+            assertEquals(List.of(ORDER_A, ORDER_B), readAll(dir).stream().map(AuditRecord::orderId).toList());
+        }
+    }
+
+    @Nested
+    @DisplayName("Queries")
+    class Queries {
+
+        @Test
+        @DisplayName("Filters select a courier's assignments across segments and chunks")
+        void courierAssignments(@TempDir Path dir) throws Exception {
+            int events = AuditLogReader.CHUNK_RECORDS + 1000;
+            try (AuditSegmentWriter writer = new AuditSegmentWriter(dir, 4 << 20)) {
+                for (int i = 0; i < events; i++) {
+                    writer.append(event(i, DispatchEventType.ORDER_ASSIGNED, DAY_TWO + i, new UUID(2, i),
+                            i % 10 == 0 ? COURIER_X : COURIER_Y));
+                    writer.append(event(i, DispatchEventType.COURIER_FREED, DAY_TWO + i, new UUID(2, i),
+                            i % 10 == 0 ? COURIER_X : COURIER_Y));
+                }
+            }
+
+            List<AuditRecord> records = AuditLogReader.scan(AuditLogReader.segments(dir, null, null),
+                    AuditRecordFilter.courier(COURIER_X)
+                            .and(AuditRecordFilter.types(EnumSet.of(DispatchEventType.ORDER_ASSIGNED))));
+
+            assertEquals(events / 10 + 1, records.size());
+            assertTrue(records.stream().allMatch(r -> r.courierId().equals(COURIER_X)
+                    && r.type() == DispatchEventType.ORDER_ASSIGNED));
+            for (int i = 1; i < records.size(); i++) {
+                assertTrue(records.get(i - 1).timestamp() < records.get(i).timestamp());
+            }
+        }
+
+        @Test
+        @DisplayName("Queue waits join queued and assigned events, including orders never assigned")
+        void queuedLongerThan() {
+            List<AuditRecord> records = List.of(
+                    new AuditRecord(0, 0, ORDER_A, null, 0, DispatchEventType.ORDER_QUEUED),
+                    new AuditRecord(1, 1_000, ORDER_B, null, 0, DispatchEventType.ORDER_QUEUED),
+                    new AuditRecord(2, 30_000, ORDER_A, COURIER_X, 0, DispatchEventType.ORDER_ASSIGNED),
+                    new AuditRecord(3, 120_000, new UUID(2, 3), COURIER_Y, 0, DispatchEventType.ORDER_ASSIGNED));
+
+            List<AuditLogQuery.QueueWait> waits = AuditLogQuery.queuedLongerThan(records, 60_000);
+
+            assertEquals(List.of(new AuditLogQuery.QueueWait(ORDER_B, 1_000, null, 119_000)), waits);
+            assertEquals(2, AuditLogQuery.queuedLongerThan(records, 10_000).size());
+            assertEquals(60_000, AuditLogQuery.parseDuration("60s"));
+            assertEquals(120_000, AuditLogQuery.parseDuration("2m"));
+        }
+
+        @Test
+        @DisplayName("A queue wait query restricted to a courier is rejected instead of ignoring the courier")
+        void queuedLongerThanRejectsCourier(@TempDir Path dir) {
+            assertThrows(IllegalArgumentException.class, () -> AuditLogQuery.main(new String[]{
+                    "--dir=" + dir, "--queued-longer-than=60s", "--courier=" + COURIER_X}));
+        }
+    }
+
+    @Test
+    @DisplayName("Background writer copies published events and flushes them on stop")
+    void backgroundWriter(@TempDir Path dir) throws Exception {
+        DispatchEventBuffer buffer = new DispatchEventBuffer(64);
+        DispatchAuditLog auditLog = new DispatchAuditLog(buffer, new AuditSegmentWriter(dir, 1 << 20), 1000);
+        buffer.publish(DispatchEventType.ORDER_QUEUED, ORDER_A, null, 1);
+
+        auditLog.start();
+        buffer.publish(DispatchEventType.ORDER_ASSIGNED, ORDER_B, COURIER_X, 2);
+        buffer.publish(DispatchEventType.ORDER_COMPLETED, ORDER_B, COURIER_X, 2);
+        auditLog.stop();
+
+        assertFalse(auditLog.isRunning());
+        assertEquals(2, auditLog.getWritten());
+        assertEquals(0, auditLog.getLost());
+        assertEquals(List.of(DispatchEventType.ORDER_ASSIGNED, DispatchEventType.ORDER_COMPLETED),
+                readAll(dir).stream().map(AuditRecord::type).toList());
+    }
+}
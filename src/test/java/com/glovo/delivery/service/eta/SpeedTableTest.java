@@ -0,0 +1,120 @@
+package com.glovo.delivery.service.eta;
+
+import com.glovo.delivery.model.ZoneGrid;
+import com.glovo.delivery.model.enums.CourierType;
+import com.glovo.delivery.service.replay.TravelModel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpeedTableTest {
+
+    @Nested
+    @DisplayName("Lookups")
+    class Lookups {
+
+        @Test
+        @DisplayName("Default paces should match the replay travel model in every zone")
+        void defaultsShouldMatchTravelModel() {
+            SpeedTable table = SpeedTable.defaults();
+            TravelModel model = TravelModel.defaults();
+
+            for (CourierType type : CourierType.values()) {
+                for (int zone = 0; zone < ZoneGrid.ZONE_COUNT; zone++) {
+                    assertEquals(1 / model.speed(type), table.pace(type, zone), 1e-12);
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("Congestion should slow every type in its zone only")
+        void congestionShouldSlowItsZone() {
+            SpeedTable table = SpeedTable.defaults().withCongestion(42, 2.0);
+
+            assertEquals(2.0 / 4.0, table.pace(CourierType.CAR, 42), 1e-12);
+            assertEquals(2.0 / 0.8, table.pace(CourierType.PEDESTRIAN, 42), 1e-12);
+            assertEquals(1.0 / 4.0, table.pace(CourierType.CAR, 43), 1e-12);
+        }
+
+        @Test
+        @DisplayName("Changes should build a new table and leave the old one intact")
+        void changesShouldCopy() {
+            SpeedTable original = SpeedTable.defaults();
+
+            SpeedTable changed = original.withSpeed(CourierType.BICYCLE, 5.0).withCongestion(0, 3.0);
+
+            assertEquals(2.5, original.speed(CourierType.BICYCLE));
+            assertEquals(1.0, original.congestion(0));
+            assertEquals(5.0, changed.speed(CourierType.BICYCLE));
+            assertEquals(3.0 / 5.0, changed.pace(CourierType.BICYCLE, 0), 1e-12);
+            assertEquals(original.getVersion() + 2, changed.getVersion());
+        }
+
+        @Test
+        @DisplayName("Should reject invalid speeds, factors and zones")
+        void shouldRejectInvalidValues() {
+            SpeedTable table = SpeedTable.defaults();
+            assertThrows(IllegalArgumentException.class, () -> table.withSpeed(CourierType.CAR, 0));
+            assertThrows(IllegalArgumentException.class, () -> table.withSpeed(CourierType.CAR, Double.NaN));
+            assertThrows(IllegalArgumentException.class,
+                    () -> table.withSpeed(CourierType.CAR, Double.POSITIVE_INFINITY));
+            assertThrows(IllegalArgumentException.class, () -> table.withCongestion(0, 0.5));
+            assertThrows(IllegalArgumentException.class, () -> table.withCongestion(-1, 2));
+            assertThrows(IllegalArgumentException.class, () -> table.withCongestion(ZoneGrid.ZONE_COUNT, 2));
+        }
+    }
+
+    @Nested
+    @DisplayName("Holder")
+    class Holder {
+
+        @Test
+        @DisplayName("Concurrent updates should all be applied")
+        void concurrentUpdatesShouldNotBeLost() throws InterruptedException {
+            SpeedTableHolder holder = new SpeedTableHolder();
+            CountDownLatch start = new CountDownLatch(1);
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int zone = t;
+                threads.add(Thread.ofPlatform().start(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    for (int i = 0; i < 250; i++) {
+                        holder.update(table -> table.withCongestion(zone, table.congestion(zone) + 1));
+                    }
+                }));
+            }
+            start.countDown();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            SpeedTable current = holder.current();
+            assertEquals(1 + 1000, current.getVersion());
+            for (int zone = 0; zone < 4; zone++) {
+                assertEquals(251.0, current.congestion(zone));
+            }
+        }
+
+        @Test
+        @DisplayName("A failed update should leave the current table in place")
+        void failedUpdateShouldKeepCurrent() {
+            SpeedTableHolder holder = new SpeedTableHolder();
+            SpeedTable before = holder.current();
+
+            assertThrows(IllegalArgumentException.class,
+                    () -> holder.update(table -> table.withSpeed(CourierType.CAR, 8).withCongestion(0, 0)));
+
+            assertSame(before, holder.current());
+        }
+    }
+}
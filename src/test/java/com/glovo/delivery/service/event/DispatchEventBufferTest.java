@@ -0,0 +1,173 @@
+package com.glovo.delivery.service.event;
+
+import com.glovo.delivery.model.DispatchEvent;
+import com.glovo.delivery.model.enums.DispatchEventType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DispatchEventBufferTest {
+
+    @Test
+    @DisplayName("Capacity should be rounded up to a power of two")
+    void shouldRoundCapacityToPowerOfTwo() {
+        assertEquals(1, new DispatchEventBuffer(1).getCapacity());
+        assertEquals(8, new DispatchEventBuffer(5).getCapacity());
+        assertEquals(16, new DispatchEventBuffer(16).getCapacity());
+        assertThrows(IllegalArgumentException.class, () -> new DispatchEventBuffer(0));
+    }
+
+    @Nested
+    @DisplayName("drain")
+    class Drain {
+
+        @Test
+        @DisplayName("New cursor should only see events published after it was created")
+        void shouldStartAtTail() {
+            DispatchEventBuffer buffer = new DispatchEventBuffer(8);
+            buffer.publish(DispatchEventType.ORDER_QUEUED, UUID.randomUUID(), null, 0);
+
+            DispatchEventBuffer.Cursor cursor = buffer.tail();
+            DispatchEvent published = buffer.publish(DispatchEventType.ORDER_ASSIGNED, UUID.randomUUID(), UUID.randomUUID(), 3);
+
+            List<DispatchEvent> received = new ArrayList<>();
+            assertEquals(1, buffer.drain(cursor, 10, received::add));
+            assertSame(published, received.get(0));
+            assertEquals(0, cursor.getLost());
+        }
+
+        @Test
+        @DisplayName("Should deliver events in sequence order and respect maxEvents")
+        void shouldDeliverInOrder() {
+            DispatchEventBuffer buffer = new DispatchEventBuffer(8);
+            DispatchEventBuffer.Cursor cursor = buffer.tail();
+            for (int i = 0; i < 5; i++) {
+                buffer.publish(DispatchEventType.ORDER_QUEUED, UUID.randomUUID(), null, i);
+            }
+
+            List<DispatchEvent> received = new ArrayList<>();
+            assertEquals(3, buffer.drain(cursor, 3, received::add));
+            assertEquals(2, buffer.drain(cursor, 3, received::add));
+            assertEquals(0, buffer.drain(cursor, 3, received::add));
+
+            for (int i = 0; i < 5; i++) {
+                assertEquals(i, received.get(i).getSequence());
+            }
+        }
+
+        @Test
+        @DisplayName("Slow reader should lose the oldest events and be told how many")
+        void shouldReportLostEventsForSlowReader() {
+            DispatchEventBuffer buffer = new DispatchEventBuffer(4);
+            DispatchEventBuffer.Cursor cursor = buffer.tail();
+            for (int i = 0; i < 10; i++) {
+                buffer.publish(DispatchEventType.ORDER_QUEUED, UUID.randomUUID(), null, 0);
+            }
+
+            List<DispatchEvent> received = new ArrayList<>();
+            buffer.drain(cursor, 100, received::add);
+
+            assertEquals(6, cursor.getLost());
+            assertEquals(4, received.size());
+            assertEquals(6, received.get(0).getSequence());
+            assertEquals(10, cursor.getNext());
+        }
+    }
+
+    @Test
+    @DisplayName("awaitPublished should return immediately when events are pending")
+    void awaitShouldReturnWhenEventsPending() throws InterruptedException {
+        DispatchEventBuffer buffer = new DispatchEventBuffer(4);
+        DispatchEventBuffer.Cursor cursor = buffer.tail();
+        buffer.publish(DispatchEventType.COURIER_FREED, UUID.randomUUID(), UUID.randomUUID(), 0);
+
+        long start = System.nanoTime();
+        buffer.awaitPublished(cursor, 5, TimeUnit.SECONDS);
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    @DisplayName("Concurrent publishers should not fail and should wake a waiting reader")
+    void concurrentPublishersShouldWakeReader() throws InterruptedException {
+        DispatchEventBuffer buffer = new DispatchEventBuffer(1024);
+        DispatchEventBuffer.Cursor cursor = buffer.tail();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch woken = new CountDownLatch(1);
+        Thread reader = Thread.ofPlatform().start(() -> {
+            try {
+                buffer.awaitPublished(cursor, 5, TimeUnit.SECONDS);
+                woken.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> publishers = new ArrayList<>();
+        for (int p = 0; p < 8; p++) {
+            publishers.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < 10_000; i++) {
+                        buffer.publish(DispatchEventType.ORDER_QUEUED, null, null, 0);
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread publisher : publishers) {
+            publisher.join();
+        }
+
+        assertNull(failure.get());
+        assertEquals(80_000, buffer.getPublishedCount());
+        assertTrue(woken.await(1, TimeUnit.SECONDS));
+        reader.join();
+    }
+
+    @Test
+    @DisplayName("awaitPublished should return after the timeout when nothing is published")
+    void awaitShouldTimeOut() throws InterruptedException {
+        DispatchEventBuffer buffer = new DispatchEventBuffer(4);
+
+        long start = System.nanoTime();
+        buffer.awaitPublished(buffer.tail(), 50, TimeUnit.MILLISECONDS);
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Nested
+    @DisplayName("DispatchEventFilter")
+    class Filter {
+
+        private final UUID orderId = UUID.randomUUID();
+        private final UUID courierId = UUID.randomUUID();
+        private final DispatchEvent event =
+                new DispatchEvent(0, DispatchEventType.ORDER_ASSIGNED, 0L, orderId, courierId, 42);
+
+        @Test
+        @DisplayName("Empty filter should match every event")
+        void emptyFilterShouldMatchAll() {
+            assertTrue(new DispatchEventFilter(null, null, null).matches(event));
+        }
+
+        @Test
+        @DisplayName("Should match only when every given criterion matches")
+        void shouldMatchAllCriteria() {
+            assertTrue(new DispatchEventFilter(orderId, courierId, 42).matches(event));
+            assertFalse(new DispatchEventFilter(UUID.randomUUID(), null, null).matches(event));
+            assertFalse(new DispatchEventFilter(null, UUID.randomUUID(), null).matches(event));
+            assertFalse(new DispatchEventFilter(orderId, courierId, 7).matches(event));
+        }
+    }
+}
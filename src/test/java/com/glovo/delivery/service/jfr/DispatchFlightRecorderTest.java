@@ -0,0 +1,133 @@
+package com.glovo.delivery.service.jfr;
+
+import com.glovo.delivery.model.Courier;
+import com.glovo.delivery.model.Order;
+import com.glovo.delivery.model.Point;
+import com.glovo.delivery.model.enums.CourierType;
+import com.glovo.delivery.repository.CourierRepository;
+import com.glovo.delivery.repository.OrderRepository;
+import com.glovo.delivery.service.DispatchService;
+import com.glovo.delivery.service.LocationCoalescer;
+import com.glovo.delivery.service.event.DispatchEventBuffer;
+import com.glovo.delivery.service.metrics.DispatchMetrics;
+import com.glovo.delivery.service.routing.DistanceProvider;
+import com.glovo.delivery.service.shadow.ShadowEvaluator;
+import com.glovo.delivery.service.snapshot.FleetSnapshotHolder;
+import com.glovo.delivery.service.strategy.ScoreBasedMatchingStrategy;
+import com.glovo.delivery.service.supply.NearestSupplyCache;
+import com.glovo.delivery.service.trace.DecisionTraceRecorder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DispatchFlightRecorderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static DispatchService dispatchService(CourierRepository courierRepository,
+                                                   DispatchFlightRecorder recorder) {
+        FleetSnapshotHolder snapshotHolder = new FleetSnapshotHolder();
+        return new DispatchService(new OrderRepository(), courierRepository,
+                new ScoreBasedMatchingStrategy(recorder, DecisionTraceRecorder.disabled(), DistanceProvider.EUCLIDEAN),
+                new DispatchEventBuffer(16),
+                new LocationCoalescer(courierRepository, snapshotHolder, false, 0, 0), snapshotHolder,
+                new DispatchMetrics(new SimpleMeterRegistry()), recorder, DecisionTraceRecorder.disabled(),
+                NearestSupplyCache.disabled(), ShadowEvaluator.disabled());
+    }
+
+    /**
+     * One assigned order, one queued order, then completing the first drains the queue.
+     */
+    private static Path recordScenario(DispatchFlightRecorder recorder, Path file) throws IOException {
+        CourierRepository courierRepository = new CourierRepository();
+        courierRepository.save(new Courier(new Point(10, 10), CourierType.CAR));
+        DispatchService dispatchService = dispatchService(courierRepository, recorder);
+
+        try (Recording recording = new Recording()) {
+            for (String event : List.of(DispatchJfrEvent.NAME, MatchJfrEvent.NAME,
+                    QueueDrainJfrEvent.NAME, LockWaitJfrEvent.NAME)) {
+                recording.enable(event).withThreshold(Duration.ZERO);
+            }
+            recording.start();
+
+            Order first = new Order(new Point(20, 20), new Point(30, 30), 5, 2.0);
+            Order second = new Order(new Point(40, 40), new Point(50, 50), 5, 2.0);
+            dispatchService.dispatch(first);
+            dispatchService.dispatch(second);
+            dispatchService.completeOrder(first);
+
+            recording.stop();
+            recording.dump(file);
+        }
+        return file;
+    }
+
+    @Test
+    @DisplayName("Should record dispatch, match, queue drain and lock wait events with their fields")
+    void shouldRecordEvents() throws IOException {
+        Path file = recordScenario(new DispatchFlightRecorder(true, true, true, true), tempDir.resolve("all.jfr"));
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        List<RecordedEvent> dispatches = ofType(events, DispatchJfrEvent.NAME);
+        assertEquals(2, dispatches.size());
+        assertEquals("ASSIGNED", dispatches.get(0).getString("outcome"));
+        assertEquals("QUEUED", dispatches.get(1).getString("outcome"));
+        assertEquals(1, dispatches.get(0).getInt("candidateCount"));
+
+        List<RecordedEvent> matches = ofType(events, MatchJfrEvent.NAME);
+        assertFalse(matches.isEmpty());
+        assertNotNull(matches.get(0).getString("courierId"));
+        assertFalse(Double.isNaN(matches.get(0).getDouble("score")));
+
+        List<RecordedEvent> drains = ofType(events, QueueDrainJfrEvent.NAME);
+        assertEquals(1, drains.size());
+        assertEquals(1, drains.get(0).getInt("queueDepth"));
+        assertEquals(1, drains.get(0).getInt("assigned"));
+
+        assertTrue(ofType(events, LockWaitJfrEvent.NAME).stream()
+                .anyMatch(e -> "completeOrder".equals(e.getString("operation"))));
+
+        String summary = DispatchJfrAnalyzer.summarize(file, 5);
+        assertTrue(summary.contains(DispatchJfrEvent.NAME), summary);
+        assertTrue(summary.contains("Dispatch outcomes: {ASSIGNED=1, QUEUED=1}"), summary);
+        assertTrue(summary.contains("Slowest dispatches"), summary);
+    }
+
+    @Test
+    @DisplayName("A category switched off in configuration should emit nothing even while recording")
+    void shouldSkipDisabledCategory() throws IOException {
+        Path file = recordScenario(new DispatchFlightRecorder(true, false, true, false), tempDir.resolve("some.jfr"));
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        assertEquals(2, ofType(events, DispatchJfrEvent.NAME).size());
+        assertTrue(ofType(events, MatchJfrEvent.NAME).isEmpty());
+        assertTrue(ofType(events, LockWaitJfrEvent.NAME).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Without an active recording begin calls should return null")
+    void shouldNotCreateEventsWithoutRecording() {
+        DispatchFlightRecorder recorder = new DispatchFlightRecorder(true, true, true, true);
+
+        assertNull(recorder.beginDispatch());
+        assertNull(recorder.beginMatch());
+        assertNull(recorder.beginQueueDrain());
+        assertNull(recorder.beginLockWait());
+    }
+
+    private static List<RecordedEvent> ofType(List<RecordedEvent> events, String name) {
+        return events.stream().filter(e -> e.getEventType().getName().equals(name)).toList();
+    }
+}
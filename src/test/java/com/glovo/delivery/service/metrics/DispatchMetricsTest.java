@@ -0,0 +1,72 @@
+package com.glovo.delivery.service.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DispatchMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final DispatchMetrics metrics = new DispatchMetrics(registry);
+
+    @Test
+    @DisplayName("Should record into the pre-registered timers")
+    void shouldRecordDurations() {
+        metrics.recordDispatch(2_000_000);
+        metrics.recordLockWait(5_000);
+        metrics.recordQueueWait(3_000_000_000L);
+
+        Timer dispatch = registry.get("dispatch.duration").timer();
+        assertEquals(1, dispatch.count());
+        assertEquals(2.0, dispatch.totalTime(TimeUnit.MILLISECONDS), 0.001);
+        assertEquals(1, registry.get("dispatch.lock.wait").timer().count());
+        assertEquals(3.0, registry.get("dispatch.queue.wait").timer().max(TimeUnit.SECONDS), 0.001);
+        assertEquals(0, registry.get("dispatch.matching.duration").timer().count());
+    }
+
+    @Test
+    @DisplayName("Prometheus scrape should expose HdrHistogram percentiles")
+    void shouldExposePercentilesToPrometheus() {
+        PrometheusMeterRegistry prometheus = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        DispatchMetrics prometheusMetrics = new DispatchMetrics(prometheus);
+        for (int i = 1; i <= 1000; i++) {
+            prometheusMetrics.recordDispatch(i * 1_000L);
+        }
+
+        String scrape = prometheus.scrape();
+
+        assertTrue(scrape.contains("dispatch_duration_seconds{quantile=\"0.99\"}"), scrape);
+        assertTrue(scrape.contains("dispatch_duration_seconds{quantile=\"0.999\"}"), scrape);
+        assertTrue(scrape.contains("dispatch_duration_seconds_count 1000"), scrape);
+    }
+
+    @Test
+    @DisplayName("Recording on the hot path should not allocate")
+    void shouldRecordWithoutAllocating() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        for (int i = 0; i < 20_000; i++) {
+            metrics.recordMatching(1_000 + (i & 1023));
+            metrics.recordLockWait(500 + (i & 1023));
+        }
+
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 100_000; i++) {
+            metrics.recordMatching(1_000 + (i & 1023));
+            metrics.recordLockWait(500 + (i & 1023));
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        // Allow a little noise from the allocation counter itself, far below one object per record
+        assertTrue(allocated < 16 * 1024, "Recording allocated " + allocated + " bytes");
+    }
+}
@@ -0,0 +1,157 @@
+package com.glovo.delivery.service.replay;
+
+import com.glovo.delivery.model.Point;
+import com.glovo.delivery.model.enums.CourierType;
+import com.glovo.delivery.service.replay.ReplayScenario.CourierMove;
+import com.glovo.delivery.service.replay.ReplayScenario.CourierSpec;
+import com.glovo.delivery.service.replay.ReplayScenario.OrderArrival;
+import com.glovo.delivery.service.strategy.CourierMatchingStrategy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayEngineTest {
+
+    private static final Map<String, Supplier<CourierMatchingStrategy>> STRATEGIES = ReplayRunner.builtInStrategies();
+
+    private static ReplayScenario generated(long seed) {
+        return ScenarioGenerator.generate("s" + seed, seed, 20, 120, 3, 11, 1, 3);
+    }
+
+    private static ReplayResult replay(ReplayScenario scenario, String strategy) {
+        return new ReplayEngine().run(scenario, strategy, STRATEGIES.get(strategy).get());
+    }
+
+    @Nested
+    @DisplayName("Single replay")
+    class SingleReplay {
+
+        @Test
+        @DisplayName("Every order is assigned and every trip completes")
+        void allOrdersServed() {
+            ReplayScenario scenario = generated(7);
+            ReplayResult result = replay(scenario, "score-based");
+
+            assertTrue(result.orders() > 50, "scenario should be non-trivial: " + result.orders());
+            assertEquals(scenario.events().size(), result.orders());
+            assertEquals(result.orders(), result.assigned());
+            assertEquals(0, result.unassigned());
+            assertTrue(result.totalPickupDistance() > 0);
+            assertTrue(result.makespanMillis() > scenario.events().get(scenario.events().size() - 1).atMillis());
+        }
+
+        @Test
+        @DisplayName("Replaying the same scenario twice gives identical metrics")
+        void deterministic() {
+            ReplayScenario scenario = generated(11);
+            for (String strategy : STRATEGIES.keySet()) {
+                assertEquals(replay(scenario, strategy).withoutWallTime(),
+                        replay(scenario, strategy).withoutWallTime(), strategy);
+            }
+        }
+
+        @Test
+        @DisplayName("An order waits in the queue until the only courier finishes its trip")
+        void queueWaitInVirtualTime() {
+            TravelModel travel = new TravelModel(1, 1, 1, 0);
+            ReplayScenario scenario = new ReplayScenario("queue",
+                    List.of(new CourierSpec(0, 0, CourierType.CAR)),
+                    List.of(new OrderArrival(0, new Point(0, 0), new Point(0, 10), 5, 1),
+                            new OrderArrival(1_000, new Point(0, 10), new Point(0, 20), 5, 1)));
+
+            ReplayResult result = new ReplayEngine(travel).run(scenario, "score-based",
+                    STRATEGIES.get("score-based").get());
+
+            // First trip: 10 units at 1 unit/min = 10 min; the second order waits for it
+            assertEquals(2, result.assigned());
+            assertEquals(0.5, result.queuedShare());
+            assertEquals(599.0, result.waitMaxSeconds());
+            assertEquals(20 * 60_000, result.makespanMillis());
+            assertEquals(0.0, result.totalPickupDistance());
+        }
+
+        @Test
+        @DisplayName("Moves of idle couriers are applied, moves during a trip are ignored")
+        void courierMoves() {
+            TravelModel travel = new TravelModel(1, 1, 1, 0);
+            ReplayScenario scenario = new ReplayScenario("moves",
+                    List.of(new CourierSpec(0, 0, CourierType.CAR)),
+                    List.of(new CourierMove(0, 0, 50, 50),
+                            new OrderArrival(1, new Point(50, 60), new Point(50, 70), 5, 1),
+                            new CourierMove(2, 0, 0, 0),
+                            new OrderArrival(60 * 60_000, new Point(50, 70), new Point(50, 80), 5, 1)));
+
+            ReplayResult result = new ReplayEngine(travel).run(scenario, "nearest", STRATEGIES.get("nearest").get());
+
+            assertEquals(10.0, result.totalPickupDistance(), 1e-9);
+        }
+    }
+
+    @Nested
+    @DisplayName("Fairness metrics")
+    class Fairness {
+
+        @Test
+        @DisplayName("Even distribution is perfectly fair")
+        void even() {
+            assertEquals(0.0, ReplayEngine.gini(new int[]{3, 3, 3}), 1e-9);
+            assertEquals(1.0, ReplayEngine.jain(new int[]{3, 3, 3}), 1e-9);
+        }
+
+        @Test
+        @DisplayName("All work on one courier is maximally unfair")
+        void concentrated() {
+            assertEquals(0.75, ReplayEngine.gini(new int[]{0, 0, 0, 8}), 1e-9);
+            assertEquals(0.25, ReplayEngine.jain(new int[]{0, 0, 0, 8}), 1e-9);
+        }
+    }
+
+    @Nested
+    @DisplayName("Parallel runs")
+    class ParallelRuns {
+
+        @Test
+        @DisplayName("Results do not depend on the number of threads")
+        void parallelMatchesSequential() {
+            List<ReplayScenario> scenarios = List.of(generated(1), generated(2), generated(3));
+
+            List<ReplayResult> sequential = ReplayRunner.runAll(scenarios, STRATEGIES, TravelModel.defaults(), 1);
+            List<ReplayResult> parallel = ReplayRunner.runAll(scenarios, STRATEGIES, TravelModel.defaults(), 4);
+
+            assertEquals(scenarios.size() * STRATEGIES.size(), parallel.size());
+            assertEquals(sequential.stream().map(ReplayResult::withoutWallTime).toList(),
+                    parallel.stream().map(ReplayResult::withoutWallTime).toList());
+            assertEquals("s1", parallel.get(0).scenario());
+            assertEquals("nearest", parallel.get(1).strategy());
+        }
+    }
+
+    @Nested
+    @DisplayName("Scenario files")
+    class ScenarioFiles {
+
+        @Test
+        @DisplayName("Written scenario reads back to the same replay")
+        void roundTrip(@TempDir Path dir) throws Exception {
+            ReplayScenario scenario = generated(5);
+            Path file = dir.resolve("s5.csv");
+
+            ScenarioFile.write(scenario, file);
+            ReplayScenario read = ScenarioFile.read(file);
+
+            assertEquals(scenario.name(), read.name());
+            assertEquals(scenario.fleet(), read.fleet());
+            assertEquals(scenario.events().size(), read.events().size());
+            assertEquals(replay(scenario, "score-based").withoutWallTime(),
+                    replay(read, "score-based").withoutWallTime());
+        }
+    }
+}
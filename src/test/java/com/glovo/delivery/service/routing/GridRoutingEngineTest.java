@@ -0,0 +1,269 @@
+package com.glovo.delivery.service.routing;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GridRoutingEngineTest {
+
+    private static GridRoutingEngine engine(RoadGrid grid) {
+        return new GridRoutingEngine(grid, 4, 16);
+    }
+
+    /**
+     * Random obstacles and slow patches, with a seed-dependent layout.
+     */
+    private static RoadGrid randomGrid(int cells, Random random) {
+        RoadGrid grid = new RoadGrid(cells);
+        for (int i = 0; i < 12; i++) {
+            double x = random.nextDouble() * 90;
+            double y = random.nextDouble() * 90;
+            if (random.nextBoolean()) {
+                grid.block(x, y, x + random.nextDouble() * 10, y + random.nextDouble() * 2);
+            } else {
+                grid.slow(x, y, x + random.nextDouble() * 20, y + random.nextDouble() * 20, 1 + random.nextDouble() * 3);
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * Plain Dijkstra over the grid, independent of the engine's search code.
+     */
+    private static double[] referenceDistances(RoadGrid grid, int source) {
+        int size = grid.size();
+        float[] cost = grid.costs();
+        double[] distance = new double[size * size];
+        Arrays.fill(distance, Double.POSITIVE_INFINITY);
+        distance[source] = 0;
+        PriorityQueue<double[]> queue = new PriorityQueue<>((a, b) -> Double.compare(a[0], b[0]));
+        queue.add(new double[]{0, source});
+        while (!queue.isEmpty()) {
+            double[] top = queue.poll();
+            int node = (int) top[1];
+            if (top[0] > distance[node]) {
+                continue;
+            }
+            int row = node / size;
+            int column = node % size;
+            int[][] neighbours = {{row - 1, column}, {row + 1, column}, {row, column - 1}, {row, column + 1}};
+            for (int[] n : neighbours) {
+                if (n[0] < 0 || n[0] >= size || n[1] < 0 || n[1] >= size) {
+                    continue;
+                }
+                int next = n[0] * size + n[1];
+                if (cost[next] == Float.POSITIVE_INFINITY) {
+                    continue;
+                }
+                double candidate = distance[node] + grid.spacing() * (cost[node] + cost[next]) * 0.5;
+                if (candidate < distance[next]) {
+                    distance[next] = candidate;
+                    queue.add(new double[]{candidate, next});
+                }
+            }
+        }
+        return distance;
+    }
+
+    @Nested
+    @DisplayName("Distances")
+    class Distances {
+
+        @Test
+        @DisplayName("Open grid distance between intersections should be the Manhattan distance")
+        void openGridShouldBeManhattan() {
+            GridRoutingEngine engine = engine(new RoadGrid(100));
+
+            assertEquals(30, engine.distance(10, 10, 20, 30), 1e-4);
+            assertEquals(0, engine.distance(10, 10, 10, 10), 1e-9);
+        }
+
+        @Test
+        @DisplayName("Positions near one intersection should be straight-line apart")
+        void sameIntersectionShouldBeStraightLine() {
+            GridRoutingEngine engine = engine(new RoadGrid(10));
+
+            assertEquals(5, engine.distance(48, 48, 51, 52), 1e-9);
+        }
+
+        @Test
+        @DisplayName("Should walk to and from the snapped intersections")
+        void shouldAddLegsToSnappedIntersections() {
+            GridRoutingEngine engine = engine(new RoadGrid(100));
+
+            assertEquals(0.3 + 10 + 0.4, engine.distance(10.3, 10, 20, 10.4), 1e-4);
+        }
+
+        @Test
+        @DisplayName("A wall should force a detour around its end")
+        void wallShouldForceDetour() {
+            GridRoutingEngine engine = engine(new RoadGrid(100).block(50, 0, 50, 90));
+
+            assertEquals(41 + 20 + 41, engine.distance(40, 50, 60, 50), 1e-4);
+        }
+
+        @Test
+        @DisplayName("Slow streets should lengthen routes through them")
+        void slowStreetsShouldLengthenRoutes() {
+            GridRoutingEngine everywhere = engine(new RoadGrid(100).slow(0, 0, 100, 100, 2));
+            GridRoutingEngine strip = engine(new RoadGrid(100).slow(0, 45, 100, 55, 3));
+
+            assertEquals(20, everywhere.distance(10, 10, 20, 10), 1e-4);
+            // Crossing the strip vertically costs 3 per unit; detouring around it is longer
+            assertEquals(4 + 2 + 10 * 3 + 2 + 4, strip.distance(50, 40, 50, 60), 1e-4);
+        }
+
+        @Test
+        @DisplayName("A position on a blocked intersection should snap to the nearest open one")
+        void blockedPositionShouldSnapToOpen() {
+            GridRoutingEngine engine = engine(new RoadGrid(100).block(0, 0, 10, 100));
+
+            assertEquals(1 + 10, engine.distance(10, 50, 21, 50), 1e-4);
+        }
+
+        @Test
+        @DisplayName("Enclosed positions should be unreachable from outside")
+        void enclosedPositionShouldBeUnreachable() {
+            RoadGrid grid = new RoadGrid(100)
+                    .block(20, 20, 40, 20).block(20, 40, 40, 40)
+                    .block(20, 20, 20, 40).block(40, 20, 40, 40);
+            GridRoutingEngine engine = engine(grid);
+
+            assertEquals(Double.POSITIVE_INFINITY, engine.distance(30, 30, 80, 80));
+            assertEquals(20, engine.distance(25, 25, 35, 35), 1e-4);
+        }
+
+        @Test
+        @DisplayName("NaN coordinates should give NaN")
+        void nanShouldGiveNaN() {
+            GridRoutingEngine engine = engine(new RoadGrid(10));
+
+            assertTrue(Double.isNaN(engine.distance(Double.NaN, 1, 2, 3)));
+            assertTrue(Double.isNaN(engine.distance(1, 2, 3, Double.NaN)));
+        }
+
+        @Test
+        @DisplayName("Road distance should never be shorter than the straight line")
+        void shouldNeverBeatStraightLine() {
+            Random random = new Random(47);
+            GridRoutingEngine engine = engine(randomGrid(50, random));
+
+            for (int i = 0; i < 2000; i++) {
+                double fromX = random.nextDouble() * 100;
+                double fromY = random.nextDouble() * 100;
+                double toX = random.nextDouble() * 100;
+                double toY = random.nextDouble() * 100;
+                double straight = DistanceProvider.EUCLIDEAN.distance(fromX, fromY, toX, toY);
+                assertTrue(engine.distance(fromX, fromY, toX, toY) >= straight - 1e-4);
+            }
+        }
+
+        @ParameterizedTest(name = "landmarks = {0}")
+        @ValueSource(ints = {0, 1, 8})
+        @DisplayName("A* and cached fields should match plain Dijkstra on a random grid")
+        void shouldMatchDijkstra(int landmarks) {
+            Random random = new Random(landmarks);
+            RoadGrid grid = randomGrid(60, random);
+            GridRoutingEngine searchOnly = new GridRoutingEngine(grid, landmarks, 0);
+            GridRoutingEngine cached = new GridRoutingEngine(grid, landmarks, 4);
+            int nodes = grid.size() * grid.size();
+
+            for (int i = 0; i < 40; i++) {
+                int target = random.nextInt(nodes);
+                double[] expected = referenceDistances(grid, target);
+                for (int j = 0; j < 20; j++) {
+                    int source = random.nextInt(nodes);
+                    if (grid.costs()[source] == Float.POSITIVE_INFINITY
+                            || grid.costs()[target] == Float.POSITIVE_INFINITY) {
+                        continue;
+                    }
+                    assertEquals(expected[source], searchOnly.nodeDistance(source, target), 1e-3);
+                    assertEquals(expected[source], cached.nodeDistance(source, target), 1e-3);
+                }
+            }
+            assertEquals(0, searchOnly.getFieldBuilds());
+            assertTrue(cached.getFieldHits() > 0);
+        }
+    }
+
+    @Nested
+    @DisplayName("Field cache")
+    class FieldCache {
+
+        @Test
+        @DisplayName("A repeatedly queried target should get a field that answers later queries")
+        void repeatedTargetShouldGetField() {
+            GridRoutingEngine engine = engine(new RoadGrid(100));
+
+            for (int i = 0; i < 10; i++) {
+                engine.distance(i * 10, 0, 50, 50);
+            }
+
+            assertEquals(1, engine.getSearches());
+            assertEquals(1, engine.getFieldBuilds());
+            assertEquals(8, engine.getFieldHits());
+            assertEquals(1, engine.getCachedFieldCount());
+        }
+
+        @Test
+        @DisplayName("A field should also answer queries from its target as the source")
+        void fieldShouldAnswerReverseQueries() {
+            GridRoutingEngine engine = engine(new RoadGrid(100));
+            engine.distance(0, 0, 50, 50);
+            engine.distance(10, 0, 50, 50);
+
+            assertEquals(70, engine.distance(50, 50, 90, 80), 1e-4);
+            assertEquals(1, engine.getSearches());
+            assertEquals(1, engine.getFieldHits());
+        }
+
+        @Test
+        @DisplayName("Should evict fields when the cache is full")
+        void shouldEvictWhenFull() {
+            GridRoutingEngine engine = new GridRoutingEngine(new RoadGrid(50), 2, 2);
+
+            for (int target = 0; target < 5; target++) {
+                for (int i = 0; i < 3; i++) {
+                    engine.distance(i * 10, 0, 20 + target * 10, 60);
+                }
+            }
+
+            assertEquals(5, engine.getFieldBuilds());
+            assertEquals(3, engine.getFieldEvictions());
+            assertEquals(2, engine.getCachedFieldCount());
+            assertEquals(60 + 60, engine.distance(0, 0, 60, 60), 1e-4);
+        }
+
+        @Test
+        @DisplayName("A zero-size cache should always search")
+        void zeroSizeCacheShouldAlwaysSearch() {
+            GridRoutingEngine engine = new GridRoutingEngine(new RoadGrid(50), 2, 0);
+
+            for (int i = 0; i < 5; i++) {
+                engine.distance(i * 10, 0, 50, 50);
+            }
+
+            assertEquals(5, engine.getSearches());
+            assertEquals(0, engine.getCachedFieldCount());
+        }
+
+        @Test
+        @DisplayName("Should reject invalid settings")
+        void shouldRejectInvalidSettings() {
+            RoadGrid grid = new RoadGrid(10);
+            assertThrows(IllegalArgumentException.class, () -> new GridRoutingEngine(grid, -1, 4));
+            assertThrows(IllegalArgumentException.class, () -> new GridRoutingEngine(grid, 65, 4));
+            assertThrows(IllegalArgumentException.class, () -> new GridRoutingEngine(grid, 4, -1));
+            RoadGrid closed = new RoadGrid(10).block(0, 0, 100, 100);
+            assertThrows(IllegalArgumentException.class, () -> new GridRoutingEngine(closed, 4, 4));
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.glovo.delivery.service.routing;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoadGridTest {
+
+    @Test
+    @DisplayName("Should parse blocked and slow areas from property strings")
+    void shouldParseAreas() {
+        RoadGrid grid = RoadGrid.parse(10, "0,0,20,0; 50,50,50,50", "60,60,100,100,2.5");
+
+        assertEquals(121 - 3 - 1, grid.getOpenCount());
+        float[] costs = grid.costs();
+        assertEquals(Float.POSITIVE_INFINITY, costs[0]);
+        assertEquals(2.5f, costs[10 * 11 + 10]);
+        assertEquals(1f, costs[11 + 1]);
+    }
+
+    @Test
+    @DisplayName("Empty property strings should leave every street open")
+    void emptySpecsShouldAddNothing() {
+        assertEquals(101 * 101, RoadGrid.parse(100, "", " ").getOpenCount());
+    }
+
+    @Test
+    @DisplayName("Overlapping areas should keep the slowest factor and stay blocked")
+    void overlapsShouldKeepTheSlowest() {
+        RoadGrid grid = new RoadGrid(10)
+                .slow(0, 0, 100, 100, 3)
+                .slow(0, 0, 100, 100, 2)
+                .block(0, 0, 0, 0)
+                .slow(0, 0, 0, 0, 4);
+
+        float[] costs = grid.costs();
+        assertEquals(Float.POSITIVE_INFINITY, costs[0]);
+        assertEquals(3f, costs[1]);
+    }
+
+    @Test
+    @DisplayName("Should reject invalid grids and areas")
+    void shouldRejectInvalidInput() {
+        RoadGrid grid = new RoadGrid(10);
+        assertThrows(IllegalArgumentException.class, () -> new RoadGrid(0));
+        assertThrows(IllegalArgumentException.class, () -> new RoadGrid(1001));
+        assertThrows(IllegalArgumentException.class, () -> grid.slow(0, 0, 10, 10, 0.5));
+        assertThrows(IllegalArgumentException.class, () -> grid.slow(0, 0, 10, 10, Double.POSITIVE_INFINITY));
+        assertThrows(IllegalArgumentException.class, () -> grid.slow(0, 0, 10, 10, Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> grid.block(10, 0, 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> RoadGrid.parse(10, "0,0,10", ""));
+        assertThrows(IllegalArgumentException.class, () -> RoadGrid.parse(10, "", "0,0,10,10"));
+        assertThrows(NumberFormatException.class, () -> RoadGrid.parse(10, "a,0,10,10", ""));
+    }
+}
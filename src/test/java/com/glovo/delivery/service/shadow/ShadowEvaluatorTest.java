@@ -0,0 +1,292 @@
+package com.glovo.delivery.service.shadow;
+
+import com.glovo.delivery.dto.ShadowComparisonResponse;
+import com.glovo.delivery.dto.ShadowDecisionResponse;
+import com.glovo.delivery.model.Courier;
+import com.glovo.delivery.model.Order;
+import com.glovo.delivery.model.Point;
+import com.glovo.delivery.model.enums.CourierType;
+import com.glovo.delivery.service.eta.SpeedTableHolder;
+import com.glovo.delivery.service.jfr.DispatchFlightRecorder;
+import com.glovo.delivery.service.routing.DistanceProvider;
+import com.glovo.delivery.service.strategy.CourierMatchingStrategy;
+import com.glovo.delivery.service.strategy.EtaMatchingStrategy;
+import com.glovo.delivery.service.strategy.ScoreBasedMatchingStrategy;
+import com.glovo.delivery.service.trace.DecisionTraceRecorder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShadowEvaluatorTest {
+
+    private final ScoreBasedMatchingStrategy scoreBased = new ScoreBasedMatchingStrategy(
+            DispatchFlightRecorder.disabled(), DecisionTraceRecorder.disabled(), DistanceProvider.EUCLIDEAN);
+    private final EtaMatchingStrategy eta = new EtaMatchingStrategy(new SpeedTableHolder(), DistanceProvider.EUCLIDEAN,
+            DispatchFlightRecorder.disabled(), DecisionTraceRecorder.disabled());
+
+    private ShadowEvaluator evaluator;
+
+    @AfterEach
+    void tearDown() {
+        if (evaluator != null) {
+            evaluator.stop();
+        }
+    }
+
+    private ShadowEvaluator evaluator(CourierMatchingStrategy shadow, int queueCapacity, int history) {
+        evaluator = new ShadowEvaluator(scoreBased, "score-based", shadow, "shadow", 1, queueCapacity, history);
+        return evaluator;
+    }
+
+    /**
+     * Run the live strategy like dispatch does and hand its decision to the evaluator.
+     */
+    private int dispatch(Order order, List<Courier> candidates) {
+        int best = scoreBased.selectBestCourier(order, candidates);
+        evaluator.offer(order, candidates, best);
+        return best;
+    }
+
+    private ShadowComparisonResponse settle() throws InterruptedException {
+        assertTrue(evaluator.awaitIdle(5000));
+        return evaluator.comparison(100);
+    }
+
+    @Nested
+    @DisplayName("Comparison")
+    class Comparison {
+
+        @Test
+        @DisplayName("The live strategy as its own shadow should always agree with zero deltas")
+        void sameStrategyShouldAgree() throws InterruptedException {
+            evaluator(scoreBased, 64, 100);
+            Order order = new Order(new Point(50, 50), new Point(60, 60), 5, 3.0);
+            for (int i = 0; i < 20; i++) {
+                dispatch(order, List.of(
+                        new Courier(new Point(i, 40), CourierType.BICYCLE),
+                        new Courier(new Point(70, i), CourierType.CAR)));
+            }
+
+            ShadowComparisonResponse comparison = settle();
+
+            assertEquals(20, comparison.getCompared());
+            assertEquals(20, comparison.getAgreed());
+            assertEquals(1.0, comparison.getAgreementRate());
+            assertEquals(20, comparison.getLiveScoreDelta().getCount());
+            assertEquals(0.0, comparison.getLiveScoreDelta().getMax());
+            assertEquals(0.0, comparison.getShadowScoreDelta().getMin());
+        }
+
+        @Test
+        @DisplayName("A disagreement should report both strategies' score deltas")
+        void disagreementShouldReportDeltas() throws InterruptedException {
+            evaluator(eta, 64, 100);
+            Order order = new Order(new Point(55, 55), new Point(60, 60), 5, 3.0);
+            Courier pedestrian = new Courier(new Point(51, 55), CourierType.PEDESTRIAN); // live 6 - 2.5, eta 5 - 2.5
+            Courier car = new Courier(new Point(55, 67), CourierType.CAR);             // live 8.4 - 2.5, eta 3 - 2.5
+
+            assertEquals(0, dispatch(order, List.of(pedestrian, car)));
+            dispatch(order, List.of(new Courier(new Point(55, 57), CourierType.CAR)));
+
+            ShadowComparisonResponse comparison = settle();
+            assertEquals(2, comparison.getCompared());
+            assertEquals(1, comparison.getAgreed());
+            assertEquals(0.5, comparison.getAgreementRate());
+
+            ShadowDecisionResponse disagreement = comparison.getRecentDecisions().get(1);
+            assertFalse(disagreement.isAgreed());
+            assertEquals(order.getId(), disagreement.getOrderId());
+            assertEquals(pedestrian.getId(), disagreement.getLiveCourierId());
+            assertEquals(car.getId(), disagreement.getShadowCourierId());
+            assertEquals(2.4, disagreement.getLiveScoreDelta(), 1e-9);
+            assertEquals(-2.0, disagreement.getShadowScoreDelta(), 1e-9);
+
+            ShadowDecisionResponse agreement = comparison.getRecentDecisions().get(0);
+            assertTrue(agreement.isAgreed());
+            assertEquals(0.0, agreement.getLiveScoreDelta());
+
+            assertEquals(1.2, comparison.getLiveScoreDelta().getMean(), 1e-9);
+            assertEquals(2.4, comparison.getLiveScoreDelta().getMax(), 1e-9);
+            assertEquals(-2.0, comparison.getShadowScoreDelta().getMin(), 1e-9);
+        }
+
+        @Test
+        @DisplayName("The shadow should decide over the candidates as they were at the live match")
+        void shadowShouldSeeTheLiveSnapshot() throws InterruptedException {
+            CountDownLatch release = new CountDownLatch(1);
+            CourierMatchingStrategy gatedScoreBased = (order, couriers) -> {
+                awaitQuietly(release);
+                return scoreBased.findBestCourier(order, couriers);
+            };
+            evaluator(gatedScoreBased, 64, 100);
+            Order order = new Order(new Point(50, 50), new Point(60, 60), 5, 3.0);
+            Courier near = new Courier(new Point(51, 50), CourierType.BICYCLE);
+            Courier far = new Courier(new Point(80, 80), CourierType.BICYCLE);
+            List<Courier> candidates = new ArrayList<>(List.of(near, far));
+
+            assertEquals(0, dispatch(order, candidates));
+            // Dispatch goes on reusing its list and couriers move before the shadow runs
+            near.moveTo(99, 99);
+            candidates.clear();
+            release.countDown();
+
+            ShadowComparisonResponse comparison = settle();
+            assertEquals(1, comparison.getAgreed());
+            assertEquals(near.getId(), comparison.getRecentDecisions().get(0).getShadowCourierId());
+        }
+
+        @Test
+        @DisplayName("The shadow should decide through the silent path, off live telemetry")
+        void shadowShouldSelectSilently() throws InterruptedException {
+            evaluator(new CourierMatchingStrategy() {
+                @Override
+                public Optional<Courier> findBestCourier(Order order, List<Courier> couriers) {
+                    throw new AssertionError("recording path used");
+                }
+
+                @Override
+                public int selectSilently(Order order, List<Courier> couriers) {
+                    return 0;
+                }
+            }, 64, 100);
+            Order order = new Order(new Point(50, 50), new Point(60, 60), 5, 3.0);
+            Courier near = new Courier(new Point(51, 50), CourierType.BICYCLE);
+
+            dispatch(order, List.of(near));
+
+            ShadowComparisonResponse comparison = settle();
+            assertEquals(0, comparison.getFailed());
+            assertEquals(1, comparison.getAgreed());
+            assertEquals(near.getId(), comparison.getRecentDecisions().get(0).getShadowCourierId());
+        }
+
+        @Test
+        @DisplayName("A live pick against a shadow that finds no courier should disagree without deltas")
+        void emptyShadowPickShouldDisagree() throws InterruptedException {
+            evaluator((order, couriers) -> Optional.empty(), 64, 100);
+            Order order = new Order(new Point(50, 50), new Point(60, 60), 5, 3.0);
+
+            dispatch(order, List.of(new Courier(new Point(51, 50), CourierType.BICYCLE)));
+
+            ShadowComparisonResponse comparison = settle();
+            assertEquals(0, comparison.getAgreed());
+            assertNull(comparison.getRecentDecisions().get(0).getShadowCourierId());
+            assertNull(comparison.getRecentDecisions().get(0).getLiveScoreDelta());
+            assertEquals(0, comparison.getLiveScoreDelta().getCount());
+            assertNull(comparison.getLiveScoreDelta().getMean());
+        }
+
+        @Test
+        @DisplayName("Neither side finding a courier should count as neither agreement nor disagreement")
+        void bothEmptyShouldNotBeCompared() throws InterruptedException {
+            evaluator((order, couriers) -> Optional.empty(), 64, 100);
+            Order heavy = new Order(new Point(50, 50), new Point(60, 60), 5, 20.0);
+
+            assertEquals(-1, dispatch(heavy, List.of(new Courier(new Point(51, 50), CourierType.PEDESTRIAN))));
+
+            ShadowComparisonResponse comparison = settle();
+            assertEquals(1, comparison.getSubmitted());
+            assertEquals(0, comparison.getCompared());
+            assertEquals(0, comparison.getAgreed());
+            assertTrue(comparison.getRecentDecisions().isEmpty());
+        }
+
+        @Test
+        @DisplayName("A failing shadow strategy should be counted and not recorded")
+        void failingShadowShouldBeCounted() throws InterruptedException {
+            evaluator((order, couriers) -> {
+                throw new IllegalStateException("boom");
+            }, 64, 100);
+            Order order = new Order(new Point(50, 50), new Point(60, 60), 5, 3.0);
+
+            dispatch(order, List.of(new Courier(new Point(51, 50), CourierType.BICYCLE)));
+
+            ShadowComparisonResponse comparison = settle();
+            assertEquals(1, comparison.getFailed());
+            assertEquals(0, comparison.getCompared());
+        }
+
+        @Test
+        @DisplayName("History should keep only the newest decisions, newest first")
+        void historyShouldBeBounded() throws InterruptedException {
+            evaluator(scoreBased, 64, 3);
+            List<Order> orders = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                Order order = new Order(new Point(50, 50), new Point(60, 60), 5, 3.0);
+                orders.add(order);
+                dispatch(order, List.of(new Courier(new Point(51, 50), CourierType.BICYCLE)));
+            }
+
+            assertTrue(evaluator.awaitIdle(5000));
+            ShadowComparisonResponse comparison = evaluator.comparison(2);
+
+            assertEquals(5, comparison.getCompared());
+            assertEquals(2, comparison.getRecentDecisions().size());
+            assertEquals(orders.get(4).getId(), comparison.getRecentDecisions().get(0).getOrderId());
+            assertEquals(orders.get(3).getId(), comparison.getRecentDecisions().get(1).getOrderId());
+            assertEquals(3, evaluator.comparison(10).getRecentDecisions().size());
+        }
+    }
+
+    @Nested
+    @DisplayName("Backpressure")
+    class Backpressure {
+
+        @Test
+        @DisplayName("Snapshots should be dropped while the shadow queue is full")
+        void shouldDropWhenQueueIsFull() throws InterruptedException {
+            CountDownLatch release = new CountDownLatch(1);
+            evaluator((order, couriers) -> {
+                awaitQuietly(release);
+                return Optional.of(couriers.get(0));
+            }, 1, 100);
+            Order order = new Order(new Point(50, 50), new Point(60, 60), 5, 3.0);
+            List<Courier> candidates = List.of(new Courier(new Point(51, 50), CourierType.BICYCLE));
+
+            dispatch(order, candidates); // taken by the shadow thread, which blocks
+            dispatch(order, candidates); // waits in the queue
+            dispatch(order, candidates); // dropped
+            dispatch(order, candidates); // dropped
+            assertEquals(4, evaluator.getSubmitted());
+            assertEquals(2, evaluator.getDropped());
+            assertEquals(1, evaluator.getQueued());
+
+            release.countDown();
+            ShadowComparisonResponse comparison = settle();
+            assertEquals(2, comparison.getCompared());
+            assertEquals(2, comparison.getDropped());
+        }
+
+        @Test
+        @DisplayName("A disabled evaluator should ignore offers")
+        void disabledShouldIgnoreOffers() throws InterruptedException {
+            evaluator = ShadowEvaluator.disabled();
+            Order order = new Order(new Point(50, 50), new Point(60, 60), 5, 3.0);
+
+            dispatch(order, List.of(new Courier(new Point(51, 50), CourierType.BICYCLE)));
+
+            assertFalse(evaluator.isEnabled());
+            ShadowComparisonResponse comparison = settle();
+            assertFalse(comparison.isEnabled());
+            assertEquals(0, comparison.getSubmitted());
+            assertEquals(0, comparison.getCompared());
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.glovo.delivery.service.strategy;
+
+import com.glovo.delivery.model.Courier;
+import com.glovo.delivery.model.Order;
+import com.glovo.delivery.model.Point;
+import com.glovo.delivery.model.ZoneGrid;
+import com.glovo.delivery.model.enums.CourierType;
+import com.glovo.delivery.service.eta.SpeedTableHolder;
+import com.glovo.delivery.service.jfr.DispatchFlightRecorder;
+import com.glovo.delivery.service.routing.DistanceProvider;
+import com.glovo.delivery.service.trace.DecisionTraceRecorder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EtaMatchingStrategyTest {
+
+    private SpeedTableHolder speedTables;
+    private EtaMatchingStrategy strategy;
+
+    @BeforeEach
+    void setUp() {
+        speedTables = new SpeedTableHolder();
+        strategy = new EtaMatchingStrategy(speedTables, DistanceProvider.EUCLIDEAN,
+                DispatchFlightRecorder.disabled(), DecisionTraceRecorder.disabled());
+    }
+
+    private Courier pick(Order order, Courier... couriers) {
+        return strategy.findBestCourier(order, List.of(couriers)).orElseThrow();
+    }
+
+    @Test
+    @DisplayName("Should return empty when no couriers available")
+    void shouldReturnEmptyForNoCouriers() {
+        Order order = new Order(new Point(50, 50), new Point(60, 60), 5, 3.0);
+
+        assertTrue(strategy.findBestCourier(order, Collections.emptyList()).isEmpty());
+        assertEquals(-1, strategy.selectBestCourier(order, Collections.emptyList()));
+    }
+
+    @Nested
+    @DisplayName("ETA scoring: Score = Distance * Pace - (Priority * 0.5)")
+    class EtaScoring {
+
+        @Test
+        @DisplayName("A farther car should beat a nearer pedestrian when it arrives sooner")
+        void fasterCourierShouldWin() {
+            Order order = new Order(new Point(55, 55), new Point(60, 60), 5, 3.0);
+            Courier pedestrian = new Courier(new Point(51, 55), CourierType.PEDESTRIAN); // 4 / 0.8 = 5 min
+            Courier car = new Courier(new Point(55, 63), CourierType.CAR);             // 8 / 4.0 = 2 min
+
+            assertEquals(car.getId(), pick(order, pedestrian, car).getId());
+        }
+
+        @Test
+        @DisplayName("Congestion in the courier's zone should slow it down")
+        void congestionShouldChangeTheChoice() {
+            Order order = new Order(new Point(55, 55), new Point(60, 60), 5, 3.0);
+            Courier bicycle = new Courier(new Point(55, 47), CourierType.BICYCLE); // 8 / 2.5 = 3.2 min
+            Courier car = new Courier(new Point(55, 67), CourierType.CAR);         // 12 / 4.0 = 3 min
+            assertEquals(car.getId(), pick(order, bicycle, car).getId());
+
+            int carZone = ZoneGrid.zoneOf(55, 67);
+            speedTables.update(table -> table.withCongestion(carZone, 3.0)); // (0.75 + 0.25) / 2 * 12 = 6 min
+
+            assertEquals(bicycle.getId(), pick(order, bicycle, car).getId());
+        }
+
+        @Test
+        @DisplayName("A faster speed for a type should apply from the next match on")
+        void speedSwapShouldApplyToTheNextMatch() {
+            Order order = new Order(new Point(55, 55), new Point(60, 60), 5, 3.0);
+            Courier pedestrian = new Courier(new Point(53, 55), CourierType.PEDESTRIAN); // 2 / 0.8 = 2.5 min
+            Courier bicycle = new Courier(new Point(55, 62), CourierType.BICYCLE);       // 7 / 2.5 = 2.8 min
+            assertEquals(pedestrian.getId(), pick(order, pedestrian, bicycle).getId());
+
+            speedTables.update(table -> table.withSpeed(CourierType.BICYCLE, 7.0)); // 1 min
+
+            assertEquals(bicycle.getId(), pick(order, pedestrian, bicycle).getId());
+        }
+
+        @Test
+        @DisplayName("Should skip couriers that cannot carry the order")
+        void shouldSkipCouriersThatCannotCarry() {
+            Order order = new Order(new Point(55, 55), new Point(60, 60), 5, 10.0);
+            Courier pedestrian = new Courier(new Point(55, 55), CourierType.PEDESTRIAN);
+            Courier bicycle = new Courier(new Point(80, 80), CourierType.BICYCLE);
+
+            assertEquals(1, strategy.selectBestCourier(order, List.of(pedestrian, bicycle)));
+            assertEquals(-1, strategy.selectBestCourier(order, List.of(pedestrian)));
+        }
+    }
+
+    @Nested
+    @DisplayName("Tiebreaker: completedOrdersToday when ETA < 1 minute apart")
+    class Tiebreaker {
+
+        @Test
+        @DisplayName("Should prefer the courier with fewer completed orders when ETAs are close")
+        void shouldPreferFewerCompletedOrders() {
+            Order order = new Order(new Point(55, 55), new Point(60, 60), 5, 3.0);
+            Courier busier = new Courier(new Point(57, 55), CourierType.CAR);   // 0.5 min
+            busier.setCompletedOrdersToday(6);
+            Courier fresher = new Courier(new Point(55, 60), CourierType.CAR);  // 1.25 min
+            fresher.setCompletedOrdersToday(1);
+
+            assertEquals(fresher.getId(), pick(order, busier, fresher).getId());
+        }
+
+        @Test
+        @DisplayName("Should not apply the tiebreaker when ETAs are a minute or more apart")
+        void shouldNotApplyBeyondThreshold() {
+            Order order = new Order(new Point(55, 55), new Point(60, 60), 5, 3.0);
+            Courier busier = new Courier(new Point(57, 55), CourierType.CAR);   // 0.5 min
+            busier.setCompletedOrdersToday(6);
+            Courier fresher = new Courier(new Point(55, 62), CourierType.CAR);  // 1.75 min
+            fresher.setCompletedOrdersToday(1);
+
+            assertEquals(busier.getId(), pick(order, busier, fresher).getId());
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.glovo.delivery.service.strategy;
+
+import com.glovo.delivery.model.Courier;
+import com.glovo.delivery.model.Order;
+import com.glovo.delivery.model.Point;
+import com.glovo.delivery.model.ZoneGrid;
+import com.glovo.delivery.model.enums.CourierType;
+import com.glovo.delivery.service.eta.SpeedTableHolder;
+import com.glovo.delivery.service.jfr.DispatchFlightRecorder;
+import com.glovo.delivery.service.routing.DistanceProvider;
+import com.glovo.delivery.service.strategy.formula.ScoringProfile;
+import com.glovo.delivery.service.trace.DecisionTraceRecorder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FormulaMatchingStrategyTest {
+
+    private SpeedTableHolder speedTables;
+    private FormulaMatchingStrategy strategy;
+
+    @BeforeEach
+    void setUp() {
+        speedTables = new SpeedTableHolder();
+        strategy = new FormulaMatchingStrategy(ScoringProfile.DEFAULT_FORMULA,
+                ScoringProfile.DEFAULT_TIEBREAK_THRESHOLD, "", speedTables, DistanceProvider.EUCLIDEAN,
+                DispatchFlightRecorder.disabled(), DecisionTraceRecorder.disabled());
+    }
+
+    private void use(String formula) {
+        strategy.updateProfile(profile -> profile.with(formula, null, Map.of()));
+    }
+
+    @Nested
+    @DisplayName("Default profile")
+    class DefaultProfile {
+
+        @Test
+        @DisplayName("Should pick and score exactly like the hard-coded score-based strategy")
+        void shouldMatchScoreBased() {
+            ScoreBasedMatchingStrategy scoreBased = new ScoreBasedMatchingStrategy(DispatchFlightRecorder.disabled(),
+                    DecisionTraceRecorder.disabled(), DistanceProvider.EUCLIDEAN);
+            Random random = new Random(49);
+            CourierType[] types = CourierType.values();
+            List<Courier> couriers = new ArrayList<>();
+            for (int i = 0; i < 300; i++) {
+                Courier courier = new Courier(new Point(random.nextDouble() * 100, random.nextDouble() * 100),
+                        types[i % types.length]);
+                courier.setCompletedOrdersToday(random.nextInt(10));
+                couriers.add(courier);
+            }
+
+            for (int i = 0; i < 500; i++) {
+                Order order = new Order(new Point(random.nextDouble() * 100, random.nextDouble() * 100),
+                        new Point(50, 50), random.nextInt(1, 11), random.nextDouble() * 20);
+                assertEquals(scoreBased.selectBestCourier(order, couriers),
+                        strategy.selectBestCourier(order, couriers));
+                Courier probe = couriers.get(i % couriers.size());
+                assertEquals(scoreBased.score(order, probe), strategy.score(order, probe));
+            }
+        }
+
+        @Test
+        @DisplayName("Configured transport weights should replace the enum defaults")
+        void configuredWeightsShouldApply() {
+            FormulaMatchingStrategy configured = new FormulaMatchingStrategy("distance * weight", 0.0, "CAR: 2.0",
+                    speedTables, DistanceProvider.EUCLIDEAN, DispatchFlightRecorder.disabled(),
+                    DecisionTraceRecorder.disabled());
+            Order order = new Order(new Point(50, 50), new Point(60, 60), 5, 3.0);
+            Courier car = new Courier(new Point(54, 50), CourierType.CAR);           // 4 * 2.0 = 8
+            Courier bicycle = new Courier(new Point(50, 57), CourierType.BICYCLE);   // 7 * 1.0 = 7
+
+            assertEquals(2.0, configured.currentProfile().transportWeight(CourierType.CAR));
+            assertEquals(1.5, configured.currentProfile().transportWeight(CourierType.PEDESTRIAN));
+            assertEquals(1, configured.selectBestCourier(order, List.of(car, bicycle)));
+        }
+
+        @Test
+        @DisplayName("Should reject malformed transport weights")
+        void shouldRejectMalformedWeights() {
+            assertThrows(IllegalArgumentException.class, () -> FormulaMatchingStrategy.parseWeights("CAR=1"));
+            assertThrows(IllegalArgumentException.class, () -> FormulaMatchingStrategy.parseWeights("SCOOTER:1"));
+            assertThrows(IllegalArgumentException.class,
+                    () -> ScoringProfile.defaults().with(null, null, Map.of(CourierType.CAR, 0.0)));
+            assertThrows(IllegalArgumentException.class, () -> ScoringProfile.defaults().with(null, -1.0, Map.of()));
+        }
+    }
+
+    @Nested
+    @DisplayName("Hot swap")
+    class HotSwap {
+
+        @Test
+        @DisplayName("A new formula should apply from the next match on")
+        void newFormulaShouldApply() {
+            Order order = new Order(new Point(50, 50), new Point(60, 60), 5, 3.0);
+            Courier pedestrian = new Courier(new Point(53, 50), CourierType.PEDESTRIAN); // 3 * 1.5 = 4.5
+            Courier car = new Courier(new Point(50, 56), CourierType.CAR);              // 6 * 0.7 = 4.2
+            assertEquals(1, strategy.selectBestCourier(order, List.of(pedestrian, car)));
+
+            use("distance");
+
+            assertEquals(0, strategy.selectBestCourier(order, List.of(pedestrian, car)));
+            assertEquals(2, strategy.currentProfile().getVersion());
+        }
+
+        @Test
+        @DisplayName("A formula that does not compile should leave the current profile in place")
+        void invalidFormulaShouldKeepCurrent() {
+            ScoringProfile before = strategy.currentProfile();
+
+            assertThrows(IllegalArgumentException.class, () -> use("distance * speed"));
+
+            assertSame(before, strategy.currentProfile());
+        }
+
+        @Test
+        @DisplayName("An eta formula should score with the current speed table")
+        void etaFormulaShouldUseSpeedTable() {
+            use("eta");
+            Order order = new Order(new Point(55, 55), new Point(60, 60), 5, 3.0);
+            Courier bicycle = new Courier(new Point(55, 47), CourierType.BICYCLE); // 8 / 2.5 = 3.2 min
+            Courier car = new Courier(new Point(55, 67), CourierType.CAR);         // 12 / 4.0 = 3 min
+            assertEquals(1, strategy.selectBestCourier(order, List.of(bicycle, car)));
+
+            int carZone = ZoneGrid.zoneOf(55, 67);
+            speedTables.update(table -> table.withCongestion(carZone, 3.0));
+
+            assertEquals(0, strategy.selectBestCourier(order, List.of(bicycle, car)));
+        }
+
+        @Test
+        @DisplayName("A zero tiebreak threshold should turn the tiebreaker off")
+        void zeroThresholdShouldDisableTiebreak() {
+            Order order = new Order(new Point(50, 50), new Point(60, 60), 5, 3.0);
+            Courier busier = new Courier(new Point(50.5, 50), CourierType.BICYCLE);
+            busier.setCompletedOrdersToday(9);
+            Courier fresher = new Courier(new Point(51, 50), CourierType.BICYCLE);
+            assertEquals(1, strategy.selectBestCourier(order, List.of(busier, fresher)));
+
+            strategy.updateProfile(profile -> profile.with(null, 0.0, Map.of()));
+
+            assertEquals(0, strategy.selectBestCourier(order, List.of(busier, fresher)));
+        }
+    }
+}
@@ -3,15 +3,26 @@ package com.glovo.delivery.service.strategy;
 import com.glovo.delivery.model.Courier;
 import com.glovo.delivery.model.Order;
 import com.glovo.delivery.model.Point;
+import com.glovo.delivery.model.enums.CourierStatus;
 import com.glovo.delivery.model.enums.CourierType;
+import com.glovo.delivery.repository.CourierRepository;
+import com.glovo.delivery.service.jfr.DispatchFlightRecorder;
+import com.glovo.delivery.service.routing.DistanceProvider;
+import com.glovo.delivery.service.routing.GridRoutingEngine;
+import com.glovo.delivery.service.routing.RoadGrid;
+import com.glovo.delivery.service.trace.DecisionTraceRecorder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -21,7 +32,8 @@ class ScoreBasedMatchingStrategyTest {
 
     @BeforeEach
     void setUp() {
-        strategy = new ScoreBasedMatchingStrategy();
+        strategy = new ScoreBasedMatchingStrategy(DispatchFlightRecorder.disabled(), DecisionTraceRecorder.disabled(),
+                DistanceProvider.EUCLIDEAN);
     }
 
     @Test
@@ -291,4 +303,81 @@ class ScoreBasedMatchingStrategyTest {
             assertTrue(result.isEmpty());
         }
     }
+
+    @Nested
+    @DisplayName("Road distance")
+    class RoadDistance {
+
+        @Test
+        @DisplayName("A courier behind a wall should lose to a farther one with a clear road")
+        void shouldScoreByRoadDistance() {
+            RoadGrid grid = new RoadGrid(100).block(45, 0, 45, 80);
+            ScoreBasedMatchingStrategy roadStrategy = new ScoreBasedMatchingStrategy(DispatchFlightRecorder.disabled(),
+                    DecisionTraceRecorder.disabled(), new GridRoutingEngine(grid, 4, 16));
+            Order order = new Order(new Point(50, 50), new Point(60, 60), 5, 3.0);
+            Courier behindWall = new Courier(new Point(40, 50), CourierType.BICYCLE); // 10 straight, 72 by road
+            Courier sameSide = new Courier(new Point(50, 30), CourierType.BICYCLE);   // 20 both ways
+
+            assertEquals(behindWall.getId(), strategy.findBestCourier(order, List.of(behindWall, sameSide))
+                    .orElseThrow().getId());
+            assertEquals(sameSide.getId(), roadStrategy.findBestCourier(order, List.of(behindWall, sameSide))
+                    .orElseThrow().getId());
+        }
+    }
+
+    @Nested
+    @DisplayName("Allocation-free selection")
+    class AllocationFreeSelection {
+
+        @Test
+        @DisplayName("selectBestCourier should return the index of the courier findBestCourier picks")
+        void shouldReturnIndexOfBestCourier() {
+            Order order = new Order(new Point(50, 50), new Point(60, 60), 5, 10.0);
+            Courier pedestrian = new Courier(new Point(50, 50), CourierType.PEDESTRIAN); // cannot carry 10kg
+            Courier far = new Courier(new Point(90, 90), CourierType.CAR);
+            Courier close = new Courier(new Point(52, 52), CourierType.BICYCLE);
+            List<Courier> couriers = List.of(pedestrian, far, close);
+
+            assertEquals(2, strategy.selectBestCourier(order, couriers));
+            assertEquals(close, strategy.findBestCourier(order, couriers).orElseThrow());
+            assertEquals(-1, strategy.selectBestCourier(order, List.of(pedestrian)));
+            assertEquals(-1, strategy.selectBestCourier(order, List.of()));
+        }
+
+        @Test
+        @Tag("allocation")
+        @DisplayName("Free-courier scan and selection should not allocate once scratch buffers are sized")
+        void scanAndSelectShouldNotAllocate() {
+            com.sun.management.ThreadMXBean threads =
+                    (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            CourierRepository repository = new CourierRepository();
+            Random random = new Random(45);
+            CourierType[] types = CourierType.values();
+            for (int i = 0; i < 2_000; i++) {
+                Courier courier = new Courier(new Point(random.nextDouble(100), random.nextDouble(100)), types[i % 3]);
+                courier.setStatus(i % 4 == 0 ? CourierStatus.BUSY : CourierStatus.FREE);
+                repository.save(courier);
+            }
+            Order[] orders = new Order[64];
+            for (int i = 0; i < orders.length; i++) {
+                orders[i] = new Order(new Point(random.nextDouble(100), random.nextDouble(100)),
+                        new Point(50, 50), 1 + i % 10, 1 + i % 40);
+            }
+            ArrayList<Courier> candidates = new ArrayList<>();
+            long checksum = 0;
+            for (int i = 0; i < 2_000; i++) {
+                checksum += strategy.selectBestCourier(orders[i & 63], repository.findFree(candidates));
+            }
+
+            long before = threads.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < 2_000; i++) {
+                checksum += strategy.selectBestCourier(orders[i & 63], repository.findFree(candidates));
+            }
+            long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+            assertEquals(1_500, candidates.size());
+            assertTrue(checksum > 0);
+            assertTrue(allocated < 1024, "allocated " + allocated + " bytes for 2000 matches");
+        }
+    }
 }
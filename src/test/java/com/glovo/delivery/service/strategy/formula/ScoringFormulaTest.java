@@ -0,0 +1,134 @@
+package com.glovo.delivery.service.strategy.formula;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScoringFormulaTest {
+
+    private static double score(String formula) {
+        return ScoringFormula.compile(formula).function().score(2, 3, 5, 7, 11);
+    }
+
+    @Nested
+    @DisplayName("Compilation")
+    class Compilation {
+
+        @ParameterizedTest(name = "{0} = {1}")
+        @CsvSource(delimiter = '|', value = {
+                "1 + 2 * 3                 | 7",
+                "(1 + 2) * 3               | 9",
+                "10 - 4 - 3                | 3",
+                "8 / 4 / 2                 | 1",
+                "-distance * 2             | -4",
+                "--distance                | 2",
+                "distance                  | 2",
+                "weight                    | 3",
+                "priority                  | 5",
+                "completedToday            | 7",
+                "eta                       | 11",
+                "min(eta, weight) + max(1, 0) | 4",
+                "abs(distance - eta)       | 9",
+                "0 * eta + 1               | 1",
+                ".5 * priority             | 2.5",
+                "distance * weight - priority * 0.5 | 3.5"
+        })
+        @DisplayName("Compiled formula should follow precedence, associativity and argument order")
+        void shouldEvaluate(String formula, double expected) {
+            assertEquals(expected, score(formula), 1e-12);
+        }
+
+        @Test
+        @DisplayName("Compiled and interpreted results should be identical on random inputs")
+        void compiledShouldMatchInterpreted() {
+            String[] formulas = {
+                    "distance * weight - priority * 0.5",
+                    "eta + completedToday * 0.25 - priority / 3",
+                    "max(distance, eta) * min(weight, 1.2) - abs(priority - completedToday)",
+                    "-(distance - -weight) / (1 + completedToday) * 1000",
+                    "0.0 * distance + -0.0 + 1.0"
+            };
+            Random random = new Random(49);
+            for (String source : formulas) {
+                ScoringFormula formula = ScoringFormula.compile(source);
+                for (int i = 0; i < 1000; i++) {
+                    double[] v = new double[5];
+                    for (int j = 0; j < v.length; j++) {
+                        v[j] = random.nextDouble() * 200 - 100;
+                    }
+                    assertEquals(formula.interpret(v[0], v[1], v[2], v[3], v[4]),
+                            formula.function().score(v[0], v[1], v[2], v[3], v[4]), 0.0, source);
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("Long formulas should compile with enough operand stack")
+        void longFormulasShouldCompile() {
+            StringBuilder rightNested = new StringBuilder("1");
+            for (int i = 0; i < 60; i++) {
+                rightNested.insert(0, "distance + (").append(")");
+            }
+            assertEquals(60 * 2 + 1, score(rightNested.toString()), 1e-9);
+
+            String leftChained = "weight" + " + weight".repeat(100);
+            assertEquals(101 * 3, score(leftChained), 1e-9);
+        }
+
+        @Test
+        @DisplayName("Should report whether the formula reads eta")
+        void shouldReportEtaUse() {
+            assertTrue(ScoringFormula.compile("distance + eta * 0").usesEta());
+            assertFalse(ScoringFormula.compile("distance * weight").usesEta());
+        }
+
+        @Test
+        @DisplayName("Every compile should load its own class")
+        void compilesShouldBeIndependent() {
+            ScoringFormula a = ScoringFormula.compile("distance");
+            ScoringFormula b = ScoringFormula.compile("eta");
+
+            assertNotSame(a.function().getClass(), b.function().getClass());
+            assertTrue(a.function().getClass().isHidden());
+            assertEquals(2, a.function().score(2, 0, 0, 0, 11));
+            assertEquals(11, b.function().score(2, 0, 0, 0, 11));
+        }
+    }
+
+    @Nested
+    @DisplayName("Errors")
+    class Errors {
+
+        @ParameterizedTest(name = "''{0}''")
+        @ValueSource(strings = {"", "   ", "distance +", "(distance", "distance)", "speed * 2", "log(distance)",
+                "min(distance)", "abs(distance, eta)", "1.2.3", "distance eta", "2 ^ 3", "distance * * 2"})
+        @DisplayName("Should reject formulas that do not parse")
+        void shouldRejectInvalidFormulas(String formula) {
+            assertThrows(IllegalArgumentException.class, () -> ScoringFormula.compile(formula));
+        }
+
+        @Test
+        @DisplayName("Should name the problem and its position")
+        void shouldDescribeTheError() {
+            IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                    () -> ScoringFormula.compile("distance * speed"));
+
+            assertTrue(error.getMessage().contains("Unknown variable 'speed' at position 11"), error.getMessage());
+        }
+
+        @Test
+        @DisplayName("Should reject formulas over the length limit")
+        void shouldRejectTooLong() {
+            String tooLong = "distance" + " + 1".repeat(FormulaParser.MAX_LENGTH / 4);
+
+            assertThrows(IllegalArgumentException.class, () -> ScoringFormula.compile(tooLong));
+        }
+    }
+}
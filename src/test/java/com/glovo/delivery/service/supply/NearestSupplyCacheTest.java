@@ -0,0 +1,319 @@
+package com.glovo.delivery.service.supply;
+
+import com.glovo.delivery.model.Courier;
+import com.glovo.delivery.model.Point;
+import com.glovo.delivery.model.enums.CourierStatus;
+import com.glovo.delivery.model.enums.CourierType;
+import com.glovo.delivery.repository.CourierRepository;
+import com.glovo.delivery.repository.compact.CompactCourierRepository;
+import com.glovo.delivery.service.routing.DistanceProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NearestSupplyCacheTest {
+
+    private static final Point PICKUP = new Point(50.5, 50.5);
+
+    private CourierRepository courierRepository;
+    private final List<Courier> into = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        courierRepository = new CourierRepository();
+    }
+
+    private NearestSupplyCache cache(int capacity, int candidates) {
+        return new NearestSupplyCache(courierRepository, DistanceProvider.EUCLIDEAN, true, capacity, 1.0, candidates);
+    }
+
+    private Courier courier(double x, double y, CourierType type) {
+        return courierRepository.save(new Courier(new Point(x, y), type));
+    }
+
+    @Nested
+    @DisplayName("Lookups")
+    class Lookups {
+
+        @Test
+        @DisplayName("Should return the nearest free couriers by weighted distance, nearest first")
+        void shouldRankByWeightedDistance() {
+            Courier car = courier(54.5, 50.5, CourierType.CAR);             // 4 * 0.7 = 2.8
+            Courier pedestrian = courier(52.5, 50.5, CourierType.PEDESTRIAN); // 2 * 1.5 = 3.0
+            Courier bicycle = courier(50.5, 51.5, CourierType.BICYCLE);     // 1 * 1.0 = 1.0
+            courier(90, 90, CourierType.CAR);
+
+            assertTrue(cache(16, 3).nearestFree(PICKUP, into));
+
+            assertEquals(List.of(bicycle, car, pedestrian), into);
+        }
+
+        @Test
+        @DisplayName("Should search beyond the pickup zone when it has too few couriers")
+        void shouldSearchNeighbouringZones() {
+            Courier far = courier(5, 5, CourierType.CAR);
+
+            assertTrue(cache(16, 4).nearestFree(PICKUP, into));
+
+            assertEquals(List.of(far), into);
+        }
+
+        @Test
+        @DisplayName("Should answer false when there is no free courier")
+        void shouldAnswerFalseWithoutSupply() {
+            courier(50, 50, CourierType.CAR).setStatus(CourierStatus.BUSY);
+
+            assertFalse(cache(16, 4).nearestFree(PICKUP, into));
+            assertTrue(into.isEmpty());
+        }
+
+        @Test
+        @DisplayName("Disabled cache should never answer")
+        void disabledCacheShouldNeverAnswer() {
+            courier(50, 50, CourierType.CAR);
+            into.add(courierRepository.findFree().get(0));
+
+            assertFalse(NearestSupplyCache.disabled().nearestFree(PICKUP, into));
+            assertTrue(into.isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should reject invalid settings")
+        void shouldRejectInvalidSettings() {
+            DistanceProvider euclidean = DistanceProvider.EUCLIDEAN;
+            assertThrows(IllegalArgumentException.class,
+                    () -> new NearestSupplyCache(courierRepository, euclidean, true, 0, 1, 4));
+            assertThrows(IllegalArgumentException.class,
+                    () -> new NearestSupplyCache(courierRepository, euclidean, true, 4, 0, 4));
+            assertThrows(IllegalArgumentException.class,
+                    () -> new NearestSupplyCache(courierRepository, euclidean, true, 4, 1, 0));
+        }
+
+        @ParameterizedTest(name = "compact storage = {0}")
+        @ValueSource(booleans = {false, true})
+        @DisplayName("Cached candidates should be the brute-force nearest free couriers of the cell center")
+        void shouldMatchBruteForce(boolean compactStorage) {
+            if (compactStorage) {
+                courierRepository = new CompactCourierRepository();
+            }
+            Random random = new Random(46);
+            CourierType[] types = CourierType.values();
+            for (int i = 0; i < 2000; i++) {
+                Courier courier = courier(random.nextDouble() * 100, random.nextDouble() * 100, types[i % types.length]);
+                if (random.nextInt(3) == 0) {
+                    courier.setStatus(CourierStatus.BUSY);
+                    courierRepository.save(courier);
+                }
+            }
+            NearestSupplyCache cache = cache(64, 8);
+
+            for (int i = 0; i < 200; i++) {
+                int column = random.nextInt(100);
+                int row = random.nextInt(100);
+                double centerX = column + 0.5;
+                double centerY = row + 0.5;
+                cache.nearestFree(new Point(column + random.nextDouble(), row + random.nextDouble()), into);
+
+                List<Double> expected = courierRepository.findFree().stream()
+                        .map(c -> weighted(c, centerX, centerY))
+                        .sorted(Comparator.naturalOrder())
+                        .limit(8)
+                        .toList();
+                assertEquals(expected, into.stream().map(c -> weighted(c, centerX, centerY)).toList());
+            }
+        }
+
+        private double weighted(Courier courier, double x, double y) {
+            return Math.hypot(courier.getLocationX() - x, courier.getLocationY() - y)
+                    * courier.getType().getTransportWeight();
+        }
+    }
+
+    @Nested
+    @DisplayName("Invalidation")
+    class Invalidation {
+
+        @Test
+        @DisplayName("Second lookup in the same cell should hit")
+        void shouldHitForTheSameCell() {
+            courier(51, 51, CourierType.BICYCLE);
+            NearestSupplyCache cache = cache(16, 4);
+
+            cache.nearestFree(PICKUP, into);
+            cache.nearestFree(new Point(50.9, 50.1), into);
+
+            assertEquals(1, cache.getHits());
+            assertEquals(1, cache.getMisses());
+            assertEquals(0.5, cache.getHitRate(), 1e-9);
+            assertEquals(1, cache.size());
+        }
+
+        @Test
+        @DisplayName("Couriers that turned busy should be skipped without a rebuild")
+        void busyCouriersShouldBeSkipped() {
+            List<Courier> couriers = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                couriers.add(courier(51 + i, 51, CourierType.BICYCLE));
+            }
+            NearestSupplyCache cache = cache(16, 4);
+            cache.nearestFree(PICKUP, into);
+
+            Courier busy = couriers.get(0);
+            busy.setStatus(CourierStatus.BUSY);
+            courierRepository.save(busy);
+            cache.nearestFree(PICKUP, into);
+
+            assertEquals(couriers.subList(1, 4), into);
+            assertEquals(1, cache.getHits());
+            assertEquals(0, cache.getInvalidations());
+        }
+
+        @Test
+        @DisplayName("Entry should be rebuilt once fewer than half of its couriers are free")
+        void depletedEntryShouldBeRebuilt() {
+            List<Courier> couriers = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                couriers.add(courier(51 + i, 51, CourierType.BICYCLE));
+            }
+            courier(59, 51, CourierType.BICYCLE);
+            NearestSupplyCache cache = cache(16, 4);
+            cache.nearestFree(PICKUP, into);
+
+            for (Courier courier : couriers.subList(0, 3)) {
+                courier.setStatus(CourierStatus.BUSY);
+                courierRepository.save(courier);
+            }
+            cache.nearestFree(PICKUP, into);
+
+            assertEquals(2, into.size());
+            assertEquals(1, cache.getInvalidations());
+        }
+
+        @Test
+        @DisplayName("A free courier arriving in a searched zone should invalidate the entry")
+        void arrivingSupplyShouldInvalidate() {
+            courier(55, 55, CourierType.BICYCLE);
+            NearestSupplyCache cache = cache(16, 1);
+            cache.nearestFree(PICKUP, into);
+
+            Courier arrived = courier(51, 51, CourierType.BICYCLE);
+            cache.nearestFree(PICKUP, into);
+
+            assertEquals(List.of(arrived), into);
+            assertEquals(1, cache.getInvalidations());
+        }
+
+        @Test
+        @DisplayName("A courier freed elsewhere should invalidate the entry")
+        void freedCourierShouldInvalidate() {
+            courier(55, 55, CourierType.BICYCLE);
+            Courier nearer = courier(51, 51, CourierType.BICYCLE);
+            nearer.setStatus(CourierStatus.BUSY);
+            courierRepository.save(nearer);
+            NearestSupplyCache cache = cache(16, 1);
+            cache.nearestFree(PICKUP, into);
+
+            nearer.setStatus(CourierStatus.FREE);
+            courierRepository.save(nearer);
+            cache.nearestFree(PICKUP, into);
+
+            assertEquals(List.of(nearer), into);
+        }
+
+        @Test
+        @DisplayName("A free courier moving inside a searched zone should invalidate the entry")
+        void movingSupplyShouldInvalidate() {
+            Courier first = courier(55, 55, CourierType.BICYCLE);
+            Courier second = courier(58, 58, CourierType.BICYCLE);
+            NearestSupplyCache cache = cache(16, 1);
+            cache.nearestFree(PICKUP, into);
+            assertEquals(List.of(first), into);
+
+            courierRepository.updateLocation(second, 51, 51);
+            cache.nearestFree(PICKUP, into);
+
+            assertEquals(List.of(second), into);
+        }
+
+        @Test
+        @DisplayName("Changes outside the searched zones should not invalidate the entry")
+        void distantChangesShouldNotInvalidate() {
+            courier(51, 51, CourierType.BICYCLE);
+            NearestSupplyCache cache = cache(16, 1);
+            cache.nearestFree(PICKUP, into);
+
+            Courier distant = courier(5, 5, CourierType.CAR);
+            courierRepository.updateLocation(distant, 6, 6);
+            cache.nearestFree(PICKUP, into);
+
+            assertEquals(1, cache.getHits());
+            assertEquals(0, cache.getInvalidations());
+        }
+
+        @Test
+        @DisplayName("Deleting a courier should invalidate entries that may hold it")
+        void deletionShouldInvalidate() {
+            Courier deleted = courier(51, 51, CourierType.BICYCLE);
+            NearestSupplyCache cache = cache(16, 1);
+            cache.nearestFree(PICKUP, into);
+
+            courierRepository.deleteById(deleted.getId());
+
+            assertFalse(cache.nearestFree(PICKUP, into));
+            assertEquals(1, cache.getInvalidations());
+        }
+    }
+
+    @Nested
+    @DisplayName("Eviction")
+    class Eviction {
+
+        @Test
+        @DisplayName("Should evict the least recently used cell when full")
+        void shouldEvictLeastRecentlyUsed() {
+            courier(50, 50, CourierType.CAR);
+            NearestSupplyCache cache = cache(2, 1);
+            Point a = new Point(10, 10);
+            Point b = new Point(20, 20);
+            Point c = new Point(30, 30);
+
+            cache.nearestFree(a, into);
+            cache.nearestFree(b, into);
+            cache.nearestFree(a, into);
+            cache.nearestFree(c, into);
+
+            assertEquals(2, cache.size());
+            assertEquals(1, cache.getEvictions());
+            cache.nearestFree(a, into);
+            assertEquals(2, cache.getHits());
+            cache.nearestFree(b, into);
+            assertEquals(4, cache.getMisses());
+        }
+
+        @Test
+        @DisplayName("Should stay consistent under heavy eviction")
+        void shouldSurviveChurn() {
+            courier(50, 50, CourierType.CAR);
+            NearestSupplyCache cache = cache(8, 1);
+            Random random = new Random(47);
+
+            for (int i = 0; i < 5000; i++) {
+                assertTrue(cache.nearestFree(new Point(random.nextInt(20), random.nextInt(20)), into));
+            }
+
+            assertEquals(8, cache.size());
+            assertEquals(5000, cache.getHits() + cache.getMisses());
+            assertEquals(cache.getMisses() - 8, cache.getEvictions());
+        }
+    }
+}
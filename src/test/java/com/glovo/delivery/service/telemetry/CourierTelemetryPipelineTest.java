@@ -0,0 +1,91 @@
+package com.glovo.delivery.service.telemetry;
+
+import com.glovo.delivery.model.Courier;
+import com.glovo.delivery.model.Point;
+import com.glovo.delivery.model.enums.CourierType;
+import com.glovo.delivery.repository.CourierRepository;
+import com.glovo.delivery.service.LocationCoalescer;
+import com.glovo.delivery.service.snapshot.FleetSnapshotHolder;
+import com.glovo.delivery.service.telemetry.CourierTelemetryPipeline.Result;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CourierTelemetryPipelineTest {
+
+    private CourierRepository courierRepository;
+    private CourierTelemetryPipeline pipeline;
+    private Courier courier;
+
+    @BeforeEach
+    void setUp() {
+        courierRepository = new CourierRepository();
+        LocationCoalescer writeThrough = new LocationCoalescer(courierRepository, new FleetSnapshotHolder(), false, 0, 0);
+        pipeline = new CourierTelemetryPipeline(courierRepository, writeThrough);
+        courier = courierRepository.save(new Courier(new Point(10, 10), CourierType.BICYCLE));
+    }
+
+    private Result send(Courier target, double x, double y, long sequence) {
+        UUID id = target.getId();
+        return pipeline.accept(id.getMostSignificantBits(), id.getLeastSignificantBits(), x, y, sequence);
+    }
+
+    @Test
+    @DisplayName("Should apply pings with increasing sequence numbers")
+    void shouldApplyInOrderPings() {
+        assertEquals(Result.APPLIED, send(courier, 20, 30, 1));
+        assertEquals(Result.APPLIED, send(courier, 25, 35, 2));
+
+        assertEquals(new Point(25, 35), courier.getCurrentLocation());
+        assertEquals(2, pipeline.getApplied());
+    }
+
+    @Test
+    @DisplayName("Should drop duplicate and out-of-order pings")
+    void shouldDropOutOfOrderPings() {
+        send(courier, 20, 30, 5);
+
+        assertEquals(Result.OUT_OF_ORDER, send(courier, 90, 90, 5));
+        assertEquals(Result.OUT_OF_ORDER, send(courier, 90, 90, 4));
+
+        assertEquals(new Point(20, 30), courier.getCurrentLocation());
+        assertEquals(2, pipeline.getOutOfOrder());
+    }
+
+    @Test
+    @DisplayName("Should reject unknown couriers and out-of-range coordinates")
+    void shouldRejectUnknownAndInvalid() {
+        Courier stranger = new Courier(new Point(1, 1), CourierType.CAR);
+
+        assertEquals(Result.UNKNOWN_COURIER, send(stranger, 10, 10, 1));
+        assertEquals(Result.INVALID, send(courier, 101, 10, 1));
+        assertEquals(Result.INVALID, send(courier, Double.NaN, 10, 2));
+
+        assertEquals(1, pipeline.getUnknownCourier());
+        assertEquals(2, pipeline.getInvalid());
+        assertEquals(new Point(10, 10), courier.getCurrentLocation());
+    }
+
+    @Test
+    @DisplayName("Should keep tracking every courier after the lookup table grows")
+    void shouldSurviveTableGrowth() {
+        List<Courier> fleet = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            fleet.add(courierRepository.save(new Courier(new Point(0, 0), CourierType.CAR)));
+        }
+        for (Courier c : fleet) {
+            assertEquals(Result.APPLIED, send(c, 50, 50, 10));
+        }
+        for (Courier c : fleet) {
+            assertEquals(Result.OUT_OF_ORDER, send(c, 60, 60, 9));
+            assertEquals(Result.APPLIED, send(c, 70, 70, 11));
+        }
+        assertEquals(6000, pipeline.getApplied());
+    }
+}
@@ -0,0 +1,78 @@
+package com.glovo.delivery.service.telemetry;
+
+import com.glovo.delivery.model.Courier;
+import com.glovo.delivery.model.Point;
+import com.glovo.delivery.model.enums.CourierType;
+import com.glovo.delivery.repository.CourierRepository;
+import com.glovo.delivery.service.LocationCoalescer;
+import com.glovo.delivery.service.snapshot.FleetSnapshotHolder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UdpTelemetryListenerTest {
+
+    private CourierRepository courierRepository;
+    private UdpTelemetryListener listener;
+
+    @BeforeEach
+    void setUp() {
+        courierRepository = new CourierRepository();
+        LocationCoalescer writeThrough = new LocationCoalescer(courierRepository, new FleetSnapshotHolder(), false, 0, 0);
+        listener = new UdpTelemetryListener(new InetSocketAddress("127.0.0.1", 0), 1 << 20,
+                new CourierTelemetryPipeline(courierRepository, writeThrough));
+        listener.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        listener.stop();
+    }
+
+    @Test
+    @DisplayName("Should decode packets and update courier locations")
+    void shouldApplyReceivedPackets() throws Exception {
+        Courier courier = courierRepository.save(new Courier(new Point(10, 10), CourierType.CAR));
+
+        try (DatagramChannel sender = DatagramChannel.open()) {
+            ByteBuffer packet = ByteBuffer.allocate(TelemetryPacket.SIZE);
+            TelemetryPacket.write(packet, courier.getId(), 42.5, 17.25, 1);
+            packet.flip();
+            sender.send(packet, listener.getLocalAddress());
+
+            ByteBuffer garbage = ByteBuffer.wrap(new byte[]{1, 2, 3});
+            sender.send(garbage, listener.getLocalAddress());
+        }
+
+        awaitTrue(() -> listener.getReceived() == 2);
+        assertEquals(new Point(42.5, 17.25), courier.getCurrentLocation());
+        assertEquals(1, listener.getMalformed());
+        assertEquals(1, listener.getPipeline().getApplied());
+    }
+
+    @Test
+    @DisplayName("Stop should close the channel")
+    void stopShouldCloseChannel() {
+        assertTrue(listener.isRunning());
+        listener.stop();
+        assertFalse(listener.isRunning());
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Condition not met within 5 seconds");
+            }
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.glovo.delivery.service.trace;
+
+import com.glovo.delivery.dto.DecisionTraceCandidate;
+import com.glovo.delivery.dto.DecisionTraceResponse;
+import com.glovo.delivery.model.Courier;
+import com.glovo.delivery.model.Order;
+import com.glovo.delivery.model.Point;
+import com.glovo.delivery.model.enums.CourierType;
+import com.glovo.delivery.service.jfr.DispatchFlightRecorder;
+import com.glovo.delivery.service.routing.DistanceProvider;
+import com.glovo.delivery.service.strategy.ScoreBasedMatchingStrategy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DecisionTraceRecorderTest {
+
+    private static final long FAST = 1_000;
+    private static final long SLOW = 10_000_000;
+
+    private static DecisionTraceRecorder recorder(int capacity, double sampleRate, int topCandidates) {
+        return new DecisionTraceRecorder(true, capacity, sampleRate, 5, topCandidates);
+    }
+
+    private static Order order() {
+        return new Order(new Point(10, 20), new Point(50, 50), 5, 3.0);
+    }
+
+    private static Courier courier(double x, double y) {
+        return new Courier(new Point(x, y), CourierType.CAR);
+    }
+
+    @Nested
+    @DisplayName("Capture policy")
+    class CapturePolicy {
+
+        @Test
+        @DisplayName("Should drop fast unsampled decisions and keep slow ones")
+        void shouldKeepOnlySlowDecisionsWithoutSampling() {
+            DecisionTraceRecorder recorder = recorder(16, 0, 3);
+
+            assertFalse(recorder.complete(recorder.begin(order(), 0), FAST));
+            assertTrue(recorder.complete(recorder.begin(order(), 0), SLOW));
+
+            List<DecisionTraceResponse> records = recorder.snapshot(10);
+            assertEquals(1, records.size());
+            assertTrue(records.get(0).isSlow());
+            assertFalse(records.get(0).isSampled());
+        }
+
+        @Test
+        @DisplayName("Should keep every decision at sample rate 1")
+        void shouldKeepSampledDecisions() {
+            DecisionTraceRecorder recorder = recorder(16, 1.0, 3);
+
+            assertTrue(recorder.complete(recorder.begin(order(), 0), FAST));
+
+            DecisionTraceResponse record = recorder.snapshot(10).get(0);
+            assertTrue(record.isSampled());
+            assertFalse(record.isSlow());
+        }
+
+        @Test
+        @DisplayName("Disabled recorder should never start a trace")
+        void disabledRecorderShouldNotTrace() {
+            DecisionTraceRecorder recorder = DecisionTraceRecorder.disabled();
+
+            assertNull(recorder.begin(order(), 3));
+            assertNull(recorder.current());
+            assertFalse(recorder.complete(null, SLOW));
+            assertTrue(recorder.snapshot(10).isEmpty());
+        }
+
+        @Test
+        @DisplayName("Current trace should only exist between begin and complete")
+        void currentShouldFollowBeginAndComplete() {
+            DecisionTraceRecorder recorder = recorder(16, 0, 3);
+            assertNull(recorder.current());
+
+            DecisionTrace trace = recorder.begin(order(), 1);
+            assertSame(trace, recorder.current());
+
+            recorder.complete(trace, FAST);
+            assertNull(recorder.current());
+        }
+    }
+
+    @Nested
+    @DisplayName("Record contents")
+    class RecordContents {
+
+        @Test
+        @DisplayName("Should keep the lowest-scored candidates in score order")
+        void shouldKeepTopCandidatesByScore() {
+            DecisionTraceRecorder recorder = recorder(16, 1.0, 2);
+            Order order = order();
+            Courier worst = courier(90, 90);
+            Courier best = courier(10, 10);
+            Courier second = courier(20, 20);
+
+            DecisionTrace trace = recorder.begin(order, 3);
+            trace.candidate(worst, 80, 50.0);
+            trace.candidate(best, 10, 4.5);
+            trace.candidate(second, 12, 6.0);
+            trace.chosen(best);
+            recorder.complete(trace, FAST);
+
+            DecisionTraceResponse record = recorder.snapshot(1).get(0);
+            assertEquals(order.getId(), record.getOrderId());
+            assertEquals(best.getId(), record.getChosenCourierId());
+            assertEquals(3, record.getCandidateCount());
+            assertEquals(3, record.getEligibleCount());
+            List<DecisionTraceCandidate> top = record.getTopCandidates();
+            assertEquals(2, top.size());
+            assertEquals(best.getId(), top.get(0).getCourierId());
+            assertEquals(4.5, top.get(0).getScore());
+            assertEquals(10, top.get(0).getDistance());
+            assertEquals(second.getId(), top.get(1).getCourierId());
+        }
+
+        @Test
+        @DisplayName("Should record the strategy's choice and tiebreak through the current trace")
+        void shouldRecordStrategyDecision() {
+            DecisionTraceRecorder recorder = recorder(16, 1.0, 3);
+            ScoreBasedMatchingStrategy strategy =
+                    new ScoreBasedMatchingStrategy(DispatchFlightRecorder.disabled(), recorder,
+                            DistanceProvider.EUCLIDEAN);
+            Order order = order();
+            Courier busy = courier(10, 20.5);
+            busy.setCompletedOrdersToday(5);
+            Courier rested = courier(10, 21);
+
+            DecisionTrace trace = recorder.begin(order, 2);
+            Optional<Courier> chosen = strategy.findBestCourier(order, List.of(busy, rested));
+            recorder.complete(trace, FAST);
+
+            DecisionTraceResponse record = recorder.snapshot(1).get(0);
+            assertEquals(rested.getId(), chosen.orElseThrow().getId());
+            assertEquals(rested.getId(), record.getChosenCourierId());
+            assertTrue(record.isTiebreakApplied());
+            assertEquals(2, record.getTopCandidates().size());
+        }
+
+        @Test
+        @DisplayName("A silent selection should make the same choice without touching the current trace")
+        void silentSelectionShouldNotTrace() {
+            DecisionTraceRecorder recorder = recorder(16, 1.0, 3);
+            ScoreBasedMatchingStrategy strategy =
+                    new ScoreBasedMatchingStrategy(DispatchFlightRecorder.disabled(), recorder,
+                            DistanceProvider.EUCLIDEAN);
+            Order order = order();
+            Courier busy = courier(10, 20.5);
+            busy.setCompletedOrdersToday(5);
+            Courier rested = courier(10, 21);
+
+            DecisionTrace trace = recorder.begin(order, 2);
+            int chosen = strategy.selectSilently(order, List.of(busy, rested));
+            recorder.complete(trace, FAST);
+
+            DecisionTraceResponse record = recorder.snapshot(1).get(0);
+            assertEquals(1, chosen);
+            assertNull(record.getChosenCourierId());
+            assertFalse(record.isTiebreakApplied());
+            assertTrue(record.getTopCandidates().isEmpty());
+        }
+
+        @Test
+        @DisplayName("Unassigned decision should have no chosen courier")
+        void shouldLeaveChosenEmptyWhenUnassigned() {
+            DecisionTraceRecorder recorder = recorder(16, 1.0, 3);
+
+            DecisionTrace trace = recorder.begin(order(), 0);
+            trace.chosen(null);
+            recorder.complete(trace, FAST);
+
+            assertNull(recorder.snapshot(1).get(0).getChosenCourierId());
+        }
+    }
+
+    @Nested
+    @DisplayName("Ring")
+    class Ring {
+
+        @Test
+        @DisplayName("Should return newest records first and overwrite the oldest")
+        void shouldOverwriteOldestRecords() {
+            DecisionTraceRecorder recorder = recorder(4, 1.0, 1);
+            for (int i = 0; i < 6; i++) {
+                recorder.complete(recorder.begin(order(), i), FAST);
+            }
+
+            List<DecisionTraceResponse> records = recorder.snapshot(10);
+            assertEquals(4, records.size());
+            assertEquals(5, records.get(0).getSequence());
+            assertEquals(5, records.get(0).getCandidateCount());
+            assertEquals(2, records.get(3).getSequence());
+            assertEquals(6, recorder.getRecordedCount());
+        }
+
+        @Test
+        @DisplayName("Should respect the requested limit")
+        void shouldRespectLimit() {
+            DecisionTraceRecorder recorder = recorder(8, 1.0, 1);
+            for (int i = 0; i < 5; i++) {
+                recorder.complete(recorder.begin(order(), i), FAST);
+            }
+
+            assertEquals(2, recorder.snapshot(2).size());
+        }
+
+        @Test
+        @DisplayName("Should round capacity up to a power of two")
+        void shouldRoundCapacity() {
+            assertEquals(8, recorder(5, 0, 1).getCapacity());
+        }
+
+        @Test
+        @DisplayName("Should reject an out-of-range sample rate")
+        void shouldRejectInvalidSampleRate() {
+            assertThrows(IllegalArgumentException.class, () -> recorder(8, 1.5, 1));
+        }
+    }
+}